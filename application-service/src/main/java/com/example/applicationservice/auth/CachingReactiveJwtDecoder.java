@@ -0,0 +1,103 @@
+package com.example.applicationservice.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ReactiveJwtDecoder} that keeps successfully decoded tokens until their {@code exp}, so a
+ * bearer token repeated by the client is parsed and HMAC-verified once instead of on every request.
+ * Entries are keyed by the SHA-256 of the token, raw tokens are not kept. Failed decodes and
+ * tokens without {@code exp} are not cached.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final ReactiveJwtDecoder delegate;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, Jwt> entries = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, int maxEntries, Clock clock,
+                                     MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = entries.get(key);
+        if (cached != null) {
+            if (clock.instant().isBefore(cached.getExpiresAt())) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            entries.remove(key, cached);
+        }
+        misses.increment();
+        return delegate.decode(token).doOnNext(jwt -> put(key, jwt, clock.instant()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void put(String key, Jwt jwt, Instant now) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null || !now.isBefore(expiresAt)) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            sweepExpired(now);
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(key, jwt);
+        }
+    }
+
+    // Полный проход не чаще раза в секунду: иначе при заполненном кэше каждый промах стоил бы O(n)
+    private void sweepExpired(Instant now) {
+        long nowMillis = now.toEpochMilli();
+        long sweepAt = nextSweepAt.get();
+        if (nowMillis >= sweepAt && nextSweepAt.compareAndSet(sweepAt, nowMillis + SWEEP_INTERVAL_MILLIS)) {
+            entries.values().removeIf(jwt -> !now.isBefore(jwt.getExpiresAt()));
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("security.jwt.cache.requests")
+                .description("Bearer token decodes served from the verified-token cache (hit) or the decoder (miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.applicationservice.auth;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,28 +11,51 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
 import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 
 @Configuration
 @EnableReactiveMethodSecurity
 public class SecurityConfig {
 
-    @Value("${jwt.secret}")
+    @Value("${jwt.secret:}")
     private String jwtSecret;
 
+    @Value("${security.jwt-cache.max-entries:10000}")
+    private int jwtCacheMaxEntries;
+
     @Bean
-    public ReactiveJwtDecoder jwtDecoder() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA256");
-        return NimbusReactiveJwtDecoder.withSecretKey(key).build();
+    public ReactiveJwtDecoder jwtDecoder(MeterRegistry meterRegistry, RevokedTokens revokedTokens,
+                                         JwkSetCache jwkSetCache) {
+        // ES256/RS256 проверяются ключами из JWK Set user-service, HS256 — только пока задан jwt.secret
+        JWK secret = jwtSecret.isBlank()
+                ? null
+                : new OctetSequenceKey.Builder(jwtSecret.getBytes(StandardCharsets.UTF_8)).build();
+        NimbusReactiveJwtDecoder.JwkSourceReactiveJwtDecoderBuilder builder = NimbusReactiveJwtDecoder
+                .withJwkSource(jwt -> secret != null && JWSAlgorithm.HS256.equals(jwt.getHeader().getAlgorithm())
+                        ? Flux.just(secret)
+                        : jwkSetCache.keys(jwt))
+                .jwsAlgorithm(SignatureAlgorithm.ES256)
+                .jwsAlgorithm(SignatureAlgorithm.RS256);
+        if (secret != null) {
+            builder.jwsAlgorithm(MacAlgorithm.HS256);
+        }
+        ReactiveJwtDecoder decoder = builder.build();
+        // max-entries: 0 отключает кэш проверенных токенов
+        ReactiveJwtDecoder verified = jwtCacheMaxEntries <= 0
+                ? decoder
+                : new CachingReactiveJwtDecoder(decoder, jwtCacheMaxEntries, Clock.systemUTC(), meterRegistry);
+        // Отзыв проверяется после кэша, чтобы отклонять и уже закэшированные токены
+        return token -> verified.decode(token).map(revokedTokens::check);
     }
 
     @Bean
@@ -63,6 +90,7 @@ public class SecurityConfig {
                 .authorizeExchange(auth -> auth
                         .pathMatchers("/actuator/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .pathMatchers("/api/v1/applications/internal/by-user", "/api/v1/applications/internal/by-product", "/api/v1/applications/by-tag").permitAll()
+                        .pathMatchers("/api/v1/applications/tag-usage", "/api/v1/applications/tag-usage/top").permitAll()
                         .anyExchange().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
@@ -0,0 +1,63 @@
+package com.example.applicationservice.auth;
+
+import com.example.applicationservice.dto.AuthTokenDto;
+import com.example.applicationservice.dto.LoginRequestDto;
+import com.example.applicationservice.feign.UserServiceClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Identity of application-service itself for the orphan reconciliation job, which runs outside any
+ * request but calls the bulk existence endpoints of user-service and product-service. It logs in to
+ * user-service with {@code service-account.username} and {@code service-account.password} and keeps
+ * the access token until shortly before it expires; the job puts it into {@link AuthHeaderHolder}.
+ */
+@Component
+public class ServiceAccount {
+
+    // Токен обновляется заранее, чтобы не истечь посреди прохода по таблице
+    private static final Duration RENEW_BEFORE_EXPIRY = Duration.ofMinutes(1);
+
+    private final UserServiceClient userServiceClient;
+    private final String username;
+    private final String password;
+    private final Clock clock;
+    private String token;
+    private Instant renewAt;
+
+    @Autowired
+    public ServiceAccount(UserServiceClient userServiceClient,
+                          @Value("${service-account.username:}") String username,
+                          @Value("${service-account.password:}") String password) {
+        this(userServiceClient, username, password, Clock.systemUTC());
+    }
+
+    ServiceAccount(UserServiceClient userServiceClient, String username, String password, Clock clock) {
+        this.userServiceClient = userServiceClient;
+        this.username = username;
+        this.password = password;
+        this.clock = clock;
+    }
+
+    public boolean isConfigured() {
+        return !username.isBlank();
+    }
+
+    /**
+     * Value for the Authorization header, logging in again when the token is about to expire.
+     */
+    public synchronized String authorizationHeader() {
+        Instant now = clock.instant();
+        if (token == null || !now.isBefore(renewAt)) {
+            AuthTokenDto response = userServiceClient.login(new LoginRequestDto(username, password));
+            token = response.token();
+            renewAt = now.plusSeconds(response.expiresIn()).minus(RENEW_BEFORE_EXPIRY);
+        }
+        return "Bearer " + token;
+    }
+}
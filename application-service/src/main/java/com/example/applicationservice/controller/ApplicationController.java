@@ -213,4 +213,19 @@ public class ApplicationController {
         log.debug("Getting applications with tag: {}", tagName);
         return applicationService.findApplicationsByTag(tagName);
     }
+
+    @GetMapping("/tag-usage/top")
+    public Mono<List<TagUsageDto>> getTopTags(@RequestParam(defaultValue = "10") int limit) {
+        if (limit > MAX_PAGE_SIZE) {
+            return Mono.error(new BadRequestException(String.format("Limit cannot be greater than %d", MAX_PAGE_SIZE)));
+        }
+        log.debug("Getting top {} tags by usage", limit);
+        return applicationService.findTopTags(limit);
+    }
+
+    @GetMapping("/tag-usage")
+    public Mono<List<TagUsageDto>> getTagUsage(@RequestParam("tag") List<String> tagNames) {
+        log.debug("Getting usage counts for tags: {}", tagNames);
+        return applicationService.findTagUsage(tagNames);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.example.applicationservice.dto;
+
+/**
+ * Token pair returned by user-service login; {@code expiresIn} is the access token lifetime in seconds.
+ */
+public record AuthTokenDto(String token, String refreshToken, long expiresIn) { }
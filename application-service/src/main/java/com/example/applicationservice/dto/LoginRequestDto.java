@@ -0,0 +1,6 @@
+package com.example.applicationservice.dto;
+
+/**
+ * Credentials sent to user-service {@code /api/v1/auth/login}.
+ */
+public record LoginRequestDto(String username, String password) { }
@@ -0,0 +1,20 @@
+package com.example.applicationservice.dto;
+
+public class TagUsageDto {
+    private String name;
+    private long usageCount;
+
+    public TagUsageDto() {}
+
+    public TagUsageDto(String name, long usageCount) {
+        this.name = name;
+        this.usageCount = usageCount;
+    }
+
+    // Геттеры и сеттеры
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getUsageCount() { return usageCount; }
+    public void setUsageCount(long usageCount) { this.usageCount = usageCount; }
+}
@@ -3,7 +3,11 @@ package com.example.applicationservice.feign;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -15,4 +19,8 @@ public interface ProductServiceClient {
 
     @GetMapping("/api/v1/products/{id}/exists")
     Boolean productExists(@PathVariable("id") UUID id);
-}
\ No newline at end of file
+
+    // Возвращает те id из переданных, для которых продукт существует
+    @PostMapping("/api/v1/products/exists")
+    List<UUID> existingProducts(@RequestBody Collection<UUID> productIds);
+}
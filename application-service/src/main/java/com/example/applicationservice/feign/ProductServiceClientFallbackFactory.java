@@ -3,6 +3,8 @@ package com.example.applicationservice.feign;
 import com.example.applicationservice.exception.ServiceUnavailableException;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -14,6 +16,11 @@ public class ProductServiceClientFallbackFactory implements FallbackFactory<Prod
             public Boolean productExists(UUID id) {
                 throw new ServiceUnavailableException("Product service is unavailable now");
             }
+
+            @Override
+            public List<UUID> existingProducts(Collection<UUID> productIds) {
+                throw new ServiceUnavailableException("Product service is unavailable now");
+            }
         };
     }
 }
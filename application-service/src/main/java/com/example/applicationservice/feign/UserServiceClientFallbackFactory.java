@@ -1,9 +1,16 @@
 package com.example.applicationservice.feign;
 
+import com.example.applicationservice.dto.AuthTokenDto;
+import com.example.applicationservice.dto.LoginRequestDto;
+import com.example.applicationservice.dto.RevokedTokenDto;
 import com.example.applicationservice.exception.ServiceUnavailableException;
 import com.example.applicationservice.model.enums.UserRole;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Component
@@ -15,6 +22,26 @@ public class UserServiceClientFallbackFactory implements FallbackFactory<UserSer
             public Boolean userExists(UUID id) {
                 throw new ServiceUnavailableException("User service is unavailable now");
             }
+
+            @Override
+            public List<UUID> existingUsers(Collection<UUID> userIds) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public List<RevokedTokenDto> revokedTokens(Instant since) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public Map<String, Object> jwks() {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public AuthTokenDto login(LoginRequestDto request) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
         };
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.applicationservice.model.entity;
+
+import jakarta.persistence.*;
+
+// Материализованный счётчик использования тега: поддерживается инкрементально
+// при добавлении/удалении тегов заявки, чтобы не сканировать application_tag
+@Entity
+@Table(name = "tag_usage")
+public class TagUsage {
+
+    @Id
+    @Column(name = "tag_name", nullable = false, updatable = false)
+    private String tagName;
+
+    @Column(name = "usage_count", nullable = false)
+    private long usageCount;
+
+    public TagUsage() {}
+
+    public TagUsage(String tagName, long usageCount) {
+        this.tagName = tagName;
+        this.usageCount = usageCount;
+    }
+
+    public String getTagName() { return tagName; }
+    public void setTagName(String tagName) { this.tagName = tagName; }
+
+    public long getUsageCount() { return usageCount; }
+    public void setUsageCount(long usageCount) { this.usageCount = usageCount; }
+}
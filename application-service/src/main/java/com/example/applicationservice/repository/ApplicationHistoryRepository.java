@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,4 +17,9 @@ public interface ApplicationHistoryRepository extends JpaRepository<ApplicationH
     @Transactional
     @Query("DELETE FROM ApplicationHistory h WHERE h.application.id = :applicationId")
     void deleteByApplicationId(@Param("applicationId") UUID applicationId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ApplicationHistory h WHERE h.application.id IN :applicationIds")
+    int deleteByApplicationIds(@Param("applicationIds") Collection<UUID> applicationIds);
 }
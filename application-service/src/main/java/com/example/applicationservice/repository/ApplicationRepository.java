@@ -1,6 +1,7 @@
 package com.example.applicationservice.repository;
 
 import com.example.applicationservice.model.entity.Application;
+import com.example.applicationservice.util.ApplicationRef;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -70,6 +72,25 @@ public interface ApplicationRepository extends JpaRepository<Application, UUID>
     @Query("SELECT DISTINCT a FROM Application a LEFT JOIN FETCH a.tags t WHERE t = :tagName")
     List<Application> findByTag(@Param("tagName") String tagName);
 
+    // Keyset-обход всей таблицы для OrphanReconciliationService: только id, без загрузки сущностей
+    @Query("SELECT new com.example.applicationservice.util.ApplicationRef(a.id, a.applicantId, a.productId) " +
+            "FROM Application a ORDER BY a.id")
+    List<ApplicationRef> findRefsFirstPage(Pageable pageable);
+
+    @Query("SELECT new com.example.applicationservice.util.ApplicationRef(a.id, a.applicantId, a.productId) " +
+            "FROM Application a WHERE a.id > :lastId ORDER BY a.id")
+    List<ApplicationRef> findRefsAfter(@Param("lastId") UUID lastId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM application_tag WHERE application_id IN (:applicationIds)", nativeQuery = true)
+    int deleteTagsByApplicationIds(@Param("applicationIds") Collection<UUID> applicationIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Application a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
     long countByApplicantId(UUID applicantId);
 
     long countByProductId(UUID productId);
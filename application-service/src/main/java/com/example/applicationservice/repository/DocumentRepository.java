@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface DocumentRepository extends JpaRepository<Document, UUID> {
@@ -16,4 +17,9 @@ public interface DocumentRepository extends JpaRepository<Document, UUID> {
     @Transactional
     @Query("DELETE FROM Document d WHERE d.application.id = :applicationId")
     void deleteByApplicationId(@Param("applicationId") UUID applicationId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Document d WHERE d.application.id IN :applicationIds")
+    int deleteByApplicationIds(@Param("applicationIds") Collection<UUID> applicationIds);
 }
@@ -0,0 +1,50 @@
+package com.example.applicationservice.repository;
+
+import com.example.applicationservice.model.entity.TagUsage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TagUsageRepository extends JpaRepository<TagUsage, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO tag_usage (tag_name, usage_count) VALUES (:tagName, 1) " +
+            "ON CONFLICT (tag_name) DO UPDATE SET usage_count = tag_usage.usage_count + 1", nativeQuery = true)
+    void increment(@Param("tagName") String tagName);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE tag_usage SET usage_count = usage_count - 1 " +
+            "WHERE tag_name IN (:tagNames) AND usage_count > 0", nativeQuery = true)
+    int decrement(@Param("tagNames") Collection<String> tagNames);
+
+    // Вызывать ДО удаления строк application_tag: счётчики уменьшаются на число удаляемых связей
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE tag_usage u SET usage_count = GREATEST(u.usage_count - c.cnt, 0) " +
+            "FROM (SELECT tag_name, COUNT(*) AS cnt FROM application_tag " +
+            "WHERE application_id IN (:applicationIds) GROUP BY tag_name) c " +
+            "WHERE u.tag_name = c.tag_name", nativeQuery = true)
+    int decrementForApplications(@Param("applicationIds") Collection<UUID> applicationIds);
+
+    @Query("SELECT u FROM TagUsage u WHERE u.usageCount > 0 ORDER BY u.usageCount DESC, u.tagName ASC")
+    List<TagUsage> findTop(Pageable pageable);
+
+    @Query("SELECT u FROM TagUsage u WHERE u.tagName IN :tagNames")
+    List<TagUsage> findByTagNames(@Param("tagNames") Collection<String> tagNames);
+
+    default List<TagUsage> findTop(int limit) {
+        return findTop(PageRequest.of(0, limit));
+    }
+}
@@ -15,7 +15,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -35,6 +37,8 @@ public class ApplicationService {
     private final UserServiceClient userServiceClient;
     private final ProductServiceClient productServiceClient;
     private final TagServiceClient tagServiceClient;
+    private final TagUsageRepository tagUsageRepository;
+    private final TransactionTemplate transactionTemplate;
 
     public ApplicationService(
             ApplicationRepository applicationRepository,
@@ -42,13 +46,19 @@ public class ApplicationService {
             DocumentRepository documentRepository,
             UserServiceClient userServiceClient,
             ProductServiceClient productServiceClient,
-            TagServiceClient tagServiceClient) {
+            TagServiceClient tagServiceClient,
+            TagUsageRepository tagUsageRepository,
+            PlatformTransactionManager transactionManager) {
         this.applicationRepository = applicationRepository;
         this.applicationHistoryRepository = applicationHistoryRepository;
         this.documentRepository = documentRepository;
         this.userServiceClient = userServiceClient;
         this.productServiceClient = productServiceClient;
         this.tagServiceClient = tagServiceClient;
+        this.tagUsageRepository = tagUsageRepository;
+        // @Transactional на методах, возвращающих Mono, покрывает только сборку цепочки:
+        // записи идут на boundedElastic, поэтому каждая пачка изменений оборачивается явно
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -110,7 +120,7 @@ public class ApplicationService {
                         return Mono.error(new NotFoundException("Product with this ID not found"));
                     }
 
-                    return Mono.fromCallable(() -> {
+                    return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
                         Application app = new Application();
                         app.setId(UUID.randomUUID());
                         app.setApplicantId(applicantId);
@@ -146,7 +156,7 @@ public class ApplicationService {
 
                         log.info("Application created: {}", app.getId());
                         return app;
-                    }).subscribeOn(Schedulers.boundedElastic());
+                    })).subscribeOn(Schedulers.boundedElastic());
                 })
                 .flatMap(app -> {
                     List<String> tagNames = req.getTags() != null ? req.getTags() : List.of();
@@ -163,15 +173,16 @@ public class ApplicationService {
                                     if (tagDtos == null) {
                                         return Mono.error(new ServiceUnavailableException("Tag service is unavailable now. Application saved without tags"));
                                     }
-                                    return Mono.fromCallable(() -> {
+                                    return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
                                         Set<String> tagNamesSet = tagDtos.stream()
                                                 .map(TagDto::getName)
                                                 .collect(Collectors.toSet());
                                         app.setTags(tagNamesSet);
                                         applicationRepository.save(app);
+                                        tagNamesSet.forEach(tagUsageRepository::increment);
                                         log.info("Added {} tags to application {}", tagNamesSet.size(), app.getId());
                                         return app;
-                                    }).subscribeOn(Schedulers.boundedElastic());
+                                    })).subscribeOn(Schedulers.boundedElastic());
                                 });
                     }
                     return Mono.just(app);
@@ -294,21 +305,32 @@ public class ApplicationService {
                         return Mono.error(new ForbiddenException("Insufficient permissions"));
                     }
                     return Mono.fromCallable(() -> {
-                        Application app = applicationRepository.findByIdWithTags(applicationId)
-                                .orElseThrow(() -> new NotFoundException("Application not found"));
+                        // Вызов tag-service до транзакции: соединение с БД не ждёт удалённый ответ
+                        List<TagDto> tagDtos;
                         try {
-                            List<TagDto> tagDtos = tagServiceClient.createOrGetTagsBatch(tagNames);
-                            Set<String> newTags = tagDtos.stream()
-                                    .map(TagDto::getName)
-                                    .collect(Collectors.toSet());
-                            if (app.getTags() == null) app.setTags(new HashSet<>());
-                            app.getTags().addAll(newTags);
-                            applicationRepository.save(app);
-                            log.info("Added {} tags to existing application {}", newTags.size(), applicationId);
-                            return (Void) null;
+                            tagDtos = tagServiceClient.createOrGetTagsBatch(tagNames);
                         } catch (Exception e) {
                             throw new ServiceUnavailableException("Tag service is unavailable now");
                         }
+                        if (tagDtos == null) {
+                            throw new ServiceUnavailableException("Tag service is unavailable now");
+                        }
+                        Set<String> newTags = tagDtos.stream()
+                                .map(TagDto::getName)
+                                .collect(Collectors.toSet());
+                        transactionTemplate.executeWithoutResult(status -> {
+                            Application app = applicationRepository.findByIdWithTags(applicationId)
+                                    .orElseThrow(() -> new NotFoundException("Application not found"));
+                            if (app.getTags() == null) app.setTags(new HashSet<>());
+                            Set<String> addedTags = newTags.stream()
+                                    .filter(n -> !app.getTags().contains(n))
+                                    .collect(Collectors.toSet());
+                            app.getTags().addAll(addedTags);
+                            applicationRepository.save(app);
+                            addedTags.forEach(tagUsageRepository::increment);
+                        });
+                        log.info("Added {} tags to existing application {}", newTags.size(), applicationId);
+                        return (Void) null;
                     }).subscribeOn(Schedulers.boundedElastic());
                 });
     }
@@ -320,16 +342,20 @@ public class ApplicationService {
                     if (!valid) {
                         return Mono.error(new ForbiddenException("Insufficient permissions"));
                     }
-                    return Mono.fromCallable(() -> {
+                    return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
                         Application app = applicationRepository.findByIdWithTags(applicationId)
                                 .orElseThrow(() -> new NotFoundException("Application not found"));
+                        Set<String> removedTags = new HashSet<>();
                         tagNames.forEach(n -> {
-                            if (app.getTags() != null) app.getTags().remove(n);
+                            if (app.getTags() != null && app.getTags().remove(n)) removedTags.add(n);
                         });
                         applicationRepository.save(app);
+                        if (!removedTags.isEmpty()) {
+                            tagUsageRepository.decrement(removedTags);
+                        }
                         log.info("Removed {} tags from application {}", tagNames.size(), applicationId);
                         return (Void) null;
-                    }).subscribeOn(Schedulers.boundedElastic());
+                    })).subscribeOn(Schedulers.boundedElastic());
                 });
     }
 
@@ -389,7 +415,8 @@ public class ApplicationService {
         if (!isAdmin) {
             return Mono.error(new ForbiddenException("Only admin can delete applications"));
         }
-        return Mono.fromCallable(() -> {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+            tagUsageRepository.decrementForApplications(List.of(applicationId));
             documentRepository.deleteByApplicationId(applicationId);
             applicationHistoryRepository.deleteByApplicationId(applicationId);
             applicationRepository.deleteTagsByApplicationId(applicationId);
@@ -397,7 +424,7 @@ public class ApplicationService {
 
             log.info("Application deleted: {}", applicationId);
             return (Void) null;
-        }).subscribeOn(Schedulers.boundedElastic());
+        })).subscribeOn(Schedulers.boundedElastic());
     }
 
     public Flux<ApplicationHistoryDto> listHistory(UUID applicationId, UUID actorId, String actorRoleClaim) {
@@ -419,8 +446,11 @@ public class ApplicationService {
 
     @Transactional
     public Mono<Void> deleteApplicationsByUserId(UUID userId) {
-        return Mono.fromCallable(() -> {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
             List<UUID> applicationIds = applicationRepository.findIdsByApplicantId(userId);
+            if (!applicationIds.isEmpty()) {
+                tagUsageRepository.decrementForApplications(applicationIds);
+            }
             for (UUID appId : applicationIds) {
                 documentRepository.deleteByApplicationId(appId);
                 applicationHistoryRepository.deleteByApplicationId(appId);
@@ -430,13 +460,16 @@ public class ApplicationService {
                 log.info("Deleted application {} for user {}", appId, userId);
             }
             return (Void) null;
-        }).subscribeOn(Schedulers.boundedElastic());
+        })).subscribeOn(Schedulers.boundedElastic());
     }
 
     @Transactional
     public Mono<Void> deleteApplicationsByProductId(UUID productId) {
-        return Mono.fromCallable(() -> {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
             List<UUID> productIds = applicationRepository.findIdsByProductId(productId);
+            if (!productIds.isEmpty()) {
+                tagUsageRepository.decrementForApplications(productIds);
+            }
             for (UUID appId : productIds) {
                 documentRepository.deleteByApplicationId(appId);
                 applicationHistoryRepository.deleteByApplicationId(appId);
@@ -446,7 +479,23 @@ public class ApplicationService {
                 log.info("Deleted application {} for product {}", appId, productId);
             }
             return (Void) null;
-        }).subscribeOn(Schedulers.boundedElastic());
+        })).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Deletes orphaned applications found by {@link OrphanReconciliationService} together with
+     * their documents, history and tags. Blocking: called from the background job, not from requests.
+     */
+    @Transactional
+    public int deleteOrphans(Collection<UUID> applicationIds) {
+        if (applicationIds.isEmpty()) {
+            return 0;
+        }
+        tagUsageRepository.decrementForApplications(applicationIds);
+        documentRepository.deleteByApplicationIds(applicationIds);
+        applicationHistoryRepository.deleteByApplicationIds(applicationIds);
+        applicationRepository.deleteTagsByApplicationIds(applicationIds);
+        return applicationRepository.deleteByIds(applicationIds);
     }
 
     @Transactional(readOnly = true)
@@ -467,6 +516,33 @@ public class ApplicationService {
         }).subscribeOn(Schedulers.boundedElastic());
     }
 
+    // Счётчики использования тегов читаются из tag_usage, без сканирования application_tag
+    @Transactional(readOnly = true)
+    public Mono<List<TagUsageDto>> findTopTags(int limit) {
+        if (limit <= 0) {
+            return Mono.error(new BadRequestException("limit must be greater than 0"));
+        }
+        return Mono.fromCallable(() -> tagUsageRepository.findTop(limit).stream()
+                        .map(u -> new TagUsageDto(u.getTagName(), u.getUsageCount()))
+                        .collect(Collectors.toList()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<List<TagUsageDto>> findTagUsage(List<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return Mono.fromCallable(() -> {
+            Map<String, Long> counts = tagUsageRepository.findByTagNames(tagNames).stream()
+                    .collect(Collectors.toMap(TagUsage::getTagName, TagUsage::getUsageCount));
+            return tagNames.stream()
+                    .distinct()
+                    .map(name -> new TagUsageDto(name, counts.getOrDefault(name, 0L)))
+                    .collect(Collectors.toList());
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
     // helper mapping methods unchanged
     private ApplicationInfoDto toInfoDto(Application app) {
         ApplicationInfoDto dto = new ApplicationInfoDto();
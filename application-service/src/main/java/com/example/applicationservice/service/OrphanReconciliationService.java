@@ -0,0 +1,180 @@
+package com.example.applicationservice.service;
+
+import com.example.applicationservice.auth.AuthHeaderHolder;
+import com.example.applicationservice.auth.ServiceAccount;
+import com.example.applicationservice.exception.ServiceUnavailableException;
+import com.example.applicationservice.feign.ProductServiceClient;
+import com.example.applicationservice.feign.UserServiceClient;
+import com.example.applicationservice.repository.ApplicationRepository;
+import com.example.applicationservice.util.ApplicationRef;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background cleanup of applications whose applicant or product no longer exists, together
+ * with their documents, history and tags. User and product deletes reach this service only
+ * through best-effort synchronous calls, so such rows accumulate. The job walks the table by
+ * id in chunks, checks the chunk's applicant and product ids with one bulk existence call
+ * each and deletes orphans in one transaction per chunk. Chunks are rate-limited; if either
+ * service cannot answer, the run stops without deleting anything for the current chunk.
+ */
+@Service
+public class OrphanReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanReconciliationService.class);
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private final ApplicationRepository applicationRepository;
+    private final ApplicationService applicationService;
+    private final UserServiceClient userServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final ServiceAccount serviceAccount;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long minChunkIntervalNanos;
+    private final Counter scanned;
+    private final Counter removed;
+    private final Counter failedRuns;
+
+    public OrphanReconciliationService(
+            ApplicationRepository applicationRepository,
+            ApplicationService applicationService,
+            UserServiceClient userServiceClient,
+            ProductServiceClient productServiceClient,
+            ServiceAccount serviceAccount,
+            MeterRegistry meterRegistry,
+            @Value("${applications.reconciliation.enabled:true}") boolean enabled,
+            @Value("${applications.reconciliation.chunk-size:500}") int chunkSize,
+            @Value("${applications.reconciliation.chunks-per-second:5}") double chunksPerSecond) {
+        this.applicationRepository = applicationRepository;
+        this.applicationService = applicationService;
+        this.userServiceClient = userServiceClient;
+        this.productServiceClient = productServiceClient;
+        this.serviceAccount = serviceAccount;
+        this.enabled = enabled;
+        this.chunkSize = Math.min(Math.max(chunkSize, 1), MAX_CHUNK_SIZE);
+        this.minChunkIntervalNanos = chunksPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / chunksPerSecond) : 0;
+        this.scanned = Counter.builder("reconciliation.rows.scanned")
+                .description("Rows checked by the orphan reconciliation job")
+                .tag("entity", "application")
+                .register(meterRegistry);
+        this.removed = Counter.builder("reconciliation.rows.removed")
+                .description("Orphaned rows deleted by the orphan reconciliation job")
+                .tag("entity", "application")
+                .register(meterRegistry);
+        this.failedRuns = Counter.builder("reconciliation.runs.failed")
+                .description("Reconciliation runs stopped because existence could not be verified")
+                .tag("entity", "application")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${applications.reconciliation.interval:PT1H}",
+            initialDelayString = "${applications.reconciliation.initial-delay:PT10M}")
+    public void scheduledReconcile() {
+        if (!enabled) {
+            return;
+        }
+        if (!serviceAccount.isConfigured()) {
+            log.warn("Orphan reconciliation skipped: no service account to call user-service and product-service");
+            return;
+        }
+        // FeignAuthRequestInterceptor берёт заголовок из AuthHeaderHolder текущего потока
+        try {
+            AuthHeaderHolder.set(serviceAccount.authorizationHeader());
+        } catch (RuntimeException e) {
+            failedRuns.increment();
+            log.warn("Orphan reconciliation skipped, service account login failed: {}", e.getMessage());
+            return;
+        }
+        try {
+            reconcile();
+        } finally {
+            AuthHeaderHolder.clear();
+        }
+    }
+
+    /**
+     * Runs one full pass over the table and returns the number of deleted applications.
+     */
+    public long reconcile() {
+        long totalScanned = 0;
+        long totalRemoved = 0;
+        long nextChunkAt = System.nanoTime();
+        UUID lastId = null;
+        try {
+            List<ApplicationRef> chunk;
+            do {
+                throttle(nextChunkAt);
+                nextChunkAt = System.nanoTime() + minChunkIntervalNanos;
+
+                PageRequest page = PageRequest.of(0, chunkSize);
+                chunk = lastId == null
+                        ? applicationRepository.findRefsFirstPage(page)
+                        : applicationRepository.findRefsAfter(lastId, page);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).id();
+
+                List<UUID> orphans = findOrphans(chunk);
+                int deleted = applicationService.deleteOrphans(orphans);
+
+                scanned.increment(chunk.size());
+                removed.increment(deleted);
+                totalScanned += chunk.size();
+                totalRemoved += deleted;
+            } while (chunk.size() == chunkSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Orphan reconciliation interrupted after {} applications", totalScanned);
+            return totalRemoved;
+        } catch (RuntimeException e) {
+            failedRuns.increment();
+            log.warn("Orphan reconciliation stopped after {} applications: {}", totalScanned, e.getMessage());
+            return totalRemoved;
+        }
+        log.info("Orphan reconciliation finished: {} applications scanned, {} removed", totalScanned, totalRemoved);
+        return totalRemoved;
+    }
+
+    private List<UUID> findOrphans(List<ApplicationRef> chunk) {
+        Set<UUID> applicantIds = new HashSet<>();
+        Set<UUID> productIds = new HashSet<>();
+        for (ApplicationRef ref : chunk) {
+            applicantIds.add(ref.applicantId());
+            productIds.add(ref.productId());
+        }
+        Set<UUID> existingUsers = existing(userServiceClient.existingUsers(applicantIds), "user");
+        Set<UUID> existingProducts = existing(productServiceClient.existingProducts(productIds), "product");
+        return chunk.stream()
+                .filter(ref -> !existingUsers.contains(ref.applicantId()) || !existingProducts.contains(ref.productId()))
+                .map(ApplicationRef::id)
+                .toList();
+    }
+
+    private static Set<UUID> existing(List<UUID> ids, String kind) {
+        if (ids == null) {
+            throw new ServiceUnavailableException("Cannot verify " + kind + " existence");
+        }
+        return new HashSet<>(ids);
+    }
+
+    private static void throttle(long nextChunkAt) throws InterruptedException {
+        long waitNanos = nextChunkAt - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.applicationservice.util;
+
+import java.util.UUID;
+
+/**
+ * Ids of an application and the user and product it refers to; what the orphan reconciliation job scans.
+ */
+public record ApplicationRef(UUID id, UUID applicantId, UUID productId) { }
@@ -0,0 +1,67 @@
+package com.example.applicationservice.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachingReactiveJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private ReactiveJwtDecoder delegate;
+    private Clock clock;
+    private CachingReactiveJwtDecoder decoder;
+
+    @BeforeEach
+    public void setUp() {
+        delegate = mock(ReactiveJwtDecoder.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        decoder = new CachingReactiveJwtDecoder(delegate, 100, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void decode_verifiesTokenOnceUntilItExpires() {
+        Jwt jwt = jwt("a", NOW.plusSeconds(60));
+        when(delegate.decode("a")).thenReturn(Mono.just(jwt));
+
+        StepVerifier.create(decoder.decode("a")).expectNext(jwt).verifyComplete();
+        StepVerifier.create(decoder.decode("a")).expectNext(jwt).verifyComplete();
+        verify(delegate, times(1)).decode("a");
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+        StepVerifier.create(decoder.decode("a")).expectNext(jwt).verifyComplete();
+        verify(delegate, times(2)).decode("a");
+    }
+
+    @Test
+    public void decode_doesNotCacheFailures() {
+        when(delegate.decode("bad")).thenReturn(Mono.error(new BadJwtException("bad signature")));
+
+        StepVerifier.create(decoder.decode("bad")).verifyError(BadJwtException.class);
+        StepVerifier.create(decoder.decode("bad")).verifyError(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("bad");
+        assertEquals(0, decoder.size());
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("user")
+                .issuedAt(NOW.minusSeconds(1))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
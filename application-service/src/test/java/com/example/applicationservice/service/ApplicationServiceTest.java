@@ -13,6 +13,7 @@ import com.example.applicationservice.util.CursorUtil;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Instant;
 import java.util.*;
@@ -45,6 +46,12 @@ public class ApplicationServiceTest {
     @Mock
     private TagServiceClient tagServiceClient;
 
+    @Mock
+    private TagUsageRepository tagUsageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ApplicationService applicationService;
 
@@ -202,6 +209,8 @@ public class ApplicationServiceTest {
         verify(applicationRepository, atLeastOnce()).save(any(Application.class));
         verify(applicationHistoryRepository, times(1)).save(any(ApplicationHistory.class));
         verify(tagServiceClient, times(1)).createOrGetTagsBatch(List.of("t1", "t2"));
+        verify(tagUsageRepository, times(1)).increment("t1");
+        verify(tagUsageRepository, times(1)).increment("t2");
         verify(userServiceClient, times(1)).userExists(aid);
         verify(productServiceClient, times(1)).productExists(pid);
     }
@@ -477,6 +486,28 @@ public class ApplicationServiceTest {
         assertFalse(app.getTags().contains("tag1"));
         assertTrue(app.getTags().contains("tag2"));
         verify(applicationRepository, times(1)).save(app);
+        verify(tagUsageRepository, times(1)).decrement(Set.of("tag1"));
+    }
+
+    @Test
+    public void removeTags_tagNotAttached_doesNotDecrementUsage() {
+        UUID applicationId = UUID.randomUUID();
+        UUID actorId = UUID.randomUUID();
+        String actorRoleClaim = "ROLE_CLIENT";
+
+        Application app = new Application();
+        app.setId(applicationId);
+        app.setApplicantId(actorId);
+        app.setTags(new HashSet<>(Set.of("tag2")));
+
+        when(applicationRepository.findByIdWithTags(applicationId)).thenReturn(Optional.of(app));
+        when(applicationRepository.findByIdWithDocuments(applicationId))
+                .thenReturn(Optional.of(app));
+
+        StepVerifier.create(applicationService.removeTags(applicationId, List.of("tag1"), actorId, actorRoleClaim))
+                .verifyComplete();
+
+        verify(tagUsageRepository, never()).decrement(any());
     }
 
     // -----------------------
@@ -650,6 +681,7 @@ public class ApplicationServiceTest {
         StepVerifier.create(applicationService.deleteApplication(applicationId, actorId, actorRoleClaim))
                 .verifyComplete();
 
+        verify(tagUsageRepository, times(1)).decrementForApplications(List.of(applicationId));
         verify(documentRepository, times(1)).deleteByApplicationId(applicationId);
         verify(applicationHistoryRepository, times(1)).deleteByApplicationId(applicationId);
         verify(applicationRepository, times(1)).deleteTagsByApplicationId(applicationId);
@@ -747,6 +779,7 @@ public class ApplicationServiceTest {
         StepVerifier.create(applicationService.deleteApplicationsByUserId(userId))
                 .verifyComplete();
 
+        verify(tagUsageRepository, times(1)).decrementForApplications(List.of(appId));
         verify(documentRepository, times(1)).deleteByApplicationId(appId);
         verify(applicationHistoryRepository, times(1)).deleteByApplicationId(appId);
         verify(applicationRepository, times(1)).deleteTagsByApplicationId(appId);
@@ -776,6 +809,31 @@ public class ApplicationServiceTest {
         verify(applicationRepository, times(1)).deleteById(appId);
     }
 
+    // -----------------------
+    // deleteOrphans tests
+    // -----------------------
+    @Test
+    public void deleteOrphans_deletesApplicationsAndRelatedRowsInBulk() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(applicationRepository.deleteByIds(ids)).thenReturn(2);
+
+        assertEquals(2, applicationService.deleteOrphans(ids));
+
+        InOrder order = inOrder(tagUsageRepository, applicationRepository);
+        order.verify(tagUsageRepository).decrementForApplications(ids);
+        order.verify(applicationRepository).deleteTagsByApplicationIds(ids);
+        order.verify(applicationRepository).deleteByIds(ids);
+        verify(documentRepository).deleteByApplicationIds(ids);
+        verify(applicationHistoryRepository).deleteByApplicationIds(ids);
+    }
+
+    @Test
+    public void deleteOrphans_emptyList_doesNothing() {
+        assertEquals(0, applicationService.deleteOrphans(List.of()));
+        verifyNoInteractions(tagUsageRepository, documentRepository, applicationHistoryRepository);
+        verify(applicationRepository, never()).deleteByIds(any());
+    }
+
     // -----------------------
     // findApplicationsByTag tests
     // -----------------------
@@ -799,6 +857,116 @@ public class ApplicationServiceTest {
                 .verifyComplete();
     }
 
+    // -----------------------
+    // tag usage tests
+    // -----------------------
+    @Test
+    public void attachTags_alreadyAttachedTag_incrementsOnlyNewOnes() {
+        UUID applicationId = UUID.randomUUID();
+        UUID actorId = UUID.randomUUID();
+        List<String> tags = List.of("tag1", "tag2");
+
+        Application app = new Application();
+        app.setId(applicationId);
+        app.setApplicantId(actorId);
+        app.setTags(new HashSet<>(Set.of("tag1")));
+
+        TagDto tag1 = new TagDto();
+        tag1.setName("tag1");
+        TagDto tag2 = new TagDto();
+        tag2.setName("tag2");
+
+        when(applicationRepository.findByIdWithTags(applicationId)).thenReturn(Optional.of(app));
+        when(applicationRepository.findByIdWithDocuments(applicationId)).thenReturn(Optional.of(app));
+        when(tagServiceClient.createOrGetTagsBatch(tags)).thenReturn(List.of(tag1, tag2));
+
+        StepVerifier.create(applicationService.attachTags(applicationId, tags, actorId, "ROLE_CLIENT"))
+                .verifyComplete();
+
+        verify(tagUsageRepository, never()).increment("tag1");
+        verify(tagUsageRepository, times(1)).increment("tag2");
+    }
+
+    @Test
+    public void attachTags_callsTagServiceBeforeTransaction_andCountsInsideIt() {
+        UUID applicationId = UUID.randomUUID();
+        UUID actorId = UUID.randomUUID();
+        List<String> tags = List.of("tag1");
+
+        Application app = new Application();
+        app.setId(applicationId);
+        app.setApplicantId(actorId);
+        app.setTags(new HashSet<>());
+
+        TagDto tag1 = new TagDto();
+        tag1.setName("tag1");
+
+        when(applicationRepository.findByIdWithTags(applicationId)).thenReturn(Optional.of(app));
+        when(applicationRepository.findByIdWithDocuments(applicationId)).thenReturn(Optional.of(app));
+        when(tagServiceClient.createOrGetTagsBatch(tags)).thenReturn(List.of(tag1));
+
+        StepVerifier.create(applicationService.attachTags(applicationId, tags, actorId, "ROLE_CLIENT"))
+                .verifyComplete();
+
+        InOrder inOrder = inOrder(tagServiceClient, transactionManager, applicationRepository, tagUsageRepository);
+        inOrder.verify(tagServiceClient).createOrGetTagsBatch(tags);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(applicationRepository).save(app);
+        inOrder.verify(tagUsageRepository).increment("tag1");
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void deleteApplication_decrementsCountersInSameTransactionAsDelete() {
+        UUID applicationId = UUID.randomUUID();
+
+        StepVerifier.create(applicationService.deleteApplication(applicationId, UUID.randomUUID(), "ROLE_ADMIN"))
+                .verifyComplete();
+
+        InOrder inOrder = inOrder(transactionManager, tagUsageRepository, applicationRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(tagUsageRepository).decrementForApplications(List.of(applicationId));
+        inOrder.verify(applicationRepository).deleteById(applicationId);
+        inOrder.verify(transactionManager).commit(any());
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    public void findTopTags_invalidLimit_throwsBadRequest() {
+        StepVerifier.create(applicationService.findTopTags(0))
+                .expectError(BadRequestException.class)
+                .verify();
+    }
+
+    @Test
+    public void findTopTags_returnsCountersFromRepository() {
+        when(tagUsageRepository.findTop(2)).thenReturn(List.of(
+                new TagUsage("urgent", 10), new TagUsage("vip", 3)));
+
+        StepVerifier.create(applicationService.findTopTags(2))
+                .assertNext(list -> {
+                    assertEquals(2, list.size());
+                    assertEquals("urgent", list.get(0).getName());
+                    assertEquals(10, list.get(0).getUsageCount());
+                })
+                .verifyComplete();
+        verify(applicationRepository, never()).findByTag(anyString());
+    }
+
+    @Test
+    public void findTagUsage_unknownTag_returnsZero() {
+        when(tagUsageRepository.findByTagNames(List.of("urgent", "unused")))
+                .thenReturn(List.of(new TagUsage("urgent", 4)));
+
+        StepVerifier.create(applicationService.findTagUsage(List.of("urgent", "unused")))
+                .assertNext(list -> {
+                    assertEquals(2, list.size());
+                    assertEquals(4, list.get(0).getUsageCount());
+                    assertEquals(0, list.get(1).getUsageCount());
+                })
+                .verifyComplete();
+    }
+
     // -----------------------
     // count tests
     // -----------------------
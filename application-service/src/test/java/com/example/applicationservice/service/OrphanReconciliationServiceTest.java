@@ -0,0 +1,133 @@
+package com.example.applicationservice.service;
+
+import com.example.applicationservice.auth.AuthHeaderHolder;
+import com.example.applicationservice.auth.ServiceAccount;
+import com.example.applicationservice.exception.ServiceUnavailableException;
+import com.example.applicationservice.feign.ProductServiceClient;
+import com.example.applicationservice.feign.UserServiceClient;
+import com.example.applicationservice.repository.ApplicationRepository;
+import com.example.applicationservice.util.ApplicationRef;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OrphanReconciliationServiceTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private ApplicationService applicationService;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    @Mock
+    private ServiceAccount serviceAccount;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrphanReconciliationService job;
+
+    private final UUID liveUser = UUID.randomUUID();
+    private final UUID liveProduct = UUID.randomUUID();
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new OrphanReconciliationService(applicationRepository, applicationService,
+                userServiceClient, productServiceClient, serviceAccount, meterRegistry, true, 2, 0);
+    }
+
+    @Test
+    public void reconcile_deletesApplicationsOfMissingApplicantsAndProducts_chunkByChunk() {
+        ApplicationRef live = ref(liveUser, liveProduct);
+        ApplicationRef noApplicant = ref(UUID.randomUUID(), liveProduct);
+        ApplicationRef noProduct = ref(liveUser, UUID.randomUUID());
+        when(applicationRepository.findRefsFirstPage(any(Pageable.class))).thenReturn(List.of(live, noApplicant));
+        when(applicationRepository.findRefsAfter(eq(noApplicant.id()), any(Pageable.class))).thenReturn(List.of(noProduct));
+        when(userServiceClient.existingUsers(any())).thenReturn(List.of(liveUser));
+        when(productServiceClient.existingProducts(any())).thenReturn(List.of(liveProduct));
+        when(applicationService.deleteOrphans(anyCollection()))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        assertEquals(2, job.reconcile());
+
+        verify(applicationService).deleteOrphans(List.of(noApplicant.id()));
+        verify(applicationService).deleteOrphans(List.of(noProduct.id()));
+        assertEquals(3, counter("reconciliation.rows.scanned"));
+        assertEquals(2, counter("reconciliation.rows.removed"));
+    }
+
+    @Test
+    public void reconcile_stopsWithoutDeleting_whenProductServiceIsDown() {
+        when(applicationRepository.findRefsFirstPage(any(Pageable.class)))
+                .thenReturn(List.of(ref(liveUser, UUID.randomUUID())));
+        when(userServiceClient.existingUsers(any())).thenReturn(List.of(liveUser));
+        when(productServiceClient.existingProducts(any())).thenThrow(new ServiceUnavailableException("down"));
+
+        assertEquals(0, job.reconcile());
+
+        verify(applicationService, never()).deleteOrphans(anyCollection());
+        assertEquals(1, counter("reconciliation.runs.failed"));
+        assertEquals(0, counter("reconciliation.rows.removed"));
+    }
+
+    @Test
+    public void scheduledReconcile_doesNothing_whenDisabled() {
+        OrphanReconciliationService disabled = new OrphanReconciliationService(applicationRepository,
+                applicationService, userServiceClient, productServiceClient, serviceAccount, meterRegistry, false, 100, 0);
+
+        disabled.scheduledReconcile();
+
+        verifyNoInteractions(applicationRepository, applicationService, userServiceClient, productServiceClient,
+                serviceAccount);
+    }
+
+    @Test
+    public void scheduledReconcile_callsServicesWithServiceAccountToken() {
+        when(serviceAccount.isConfigured()).thenReturn(true);
+        when(serviceAccount.authorizationHeader()).thenReturn("Bearer service-token");
+        when(applicationRepository.findRefsFirstPage(any(Pageable.class))).thenReturn(List.of(ref(liveUser, liveProduct)));
+        AtomicReference<String> header = new AtomicReference<>();
+        when(userServiceClient.existingUsers(any())).thenAnswer(invocation -> {
+            header.set(AuthHeaderHolder.get());
+            return List.of(liveUser);
+        });
+        when(productServiceClient.existingProducts(any())).thenReturn(List.of(liveProduct));
+
+        job.scheduledReconcile();
+
+        assertEquals("Bearer service-token", header.get());
+        assertNull(AuthHeaderHolder.get());
+    }
+
+    @Test
+    public void scheduledReconcile_skipped_withoutServiceAccount() {
+        job.scheduledReconcile();
+
+        verifyNoInteractions(applicationRepository, applicationService, userServiceClient, productServiceClient);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("entity", "application").counter().count();
+    }
+
+    private static ApplicationRef ref(UUID applicantId, UUID productId) {
+        return new ApplicationRef(UUID.randomUUID(), applicantId, productId);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.assignmentservice.auth;
+
+import com.example.assignmentservice.dto.RevokedTokenDto;
+import com.example.assignmentservice.feign.UserServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of the access tokens revoked in user-service (logout, refresh token reuse), polled
+ * from its revocation list. The check is one hash lookup by {@code jti} and runs after decoding,
+ * so tokens served from the decoder cache are rejected too. An entry is dropped once the token
+ * would have expired anyway. If user-service is unreachable the last known list is kept.
+ */
+@Component
+public class RevokedTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokens.class);
+    // Отзыв мог закоммититься позже своего revokedAt: каждый опрос перекрывает предыдущий
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
+    private final UserServiceClient userServiceClient;
+    private final Clock clock;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    // Курсор по времени user-service, а не по своим часам — расхождение часов не теряет отзывы
+    private volatile Instant syncedUpTo;
+
+    @Autowired
+    public RevokedTokens(UserServiceClient userServiceClient) {
+        this(userServiceClient, Clock.systemUTC());
+    }
+
+    RevokedTokens(UserServiceClient userServiceClient, Clock clock) {
+        this.userServiceClient = userServiceClient;
+        this.clock = clock;
+    }
+
+    public Jwt check(Jwt jwt) {
+        if (jwt.getId() != null && revoked.containsKey(jwt.getId())) {
+            throw new BadJwtException("Token has been revoked");
+        }
+        return jwt;
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval:PT5S}")
+    public void sync() {
+        Instant since = syncedUpTo != null ? syncedUpTo.minus(SYNC_OVERLAP) : null;
+        List<RevokedTokenDto> tokens;
+        try {
+            tokens = userServiceClient.revokedTokens(since);
+        } catch (RuntimeException e) {
+            log.warn("Revocation sync failed, keeping {} known revocations: {}", revoked.size(), e.getMessage());
+            return;
+        }
+        Instant now = clock.instant();
+        if (tokens != null) {
+            for (RevokedTokenDto token : tokens) {
+                if (token.expiresAt().isAfter(now)) {
+                    revoked.put(token.jti(), token.expiresAt());
+                }
+                if (syncedUpTo == null || token.revokedAt().isAfter(syncedUpTo)) {
+                    syncedUpTo = token.revokedAt();
+                }
+            }
+        }
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+
+    int size() {
+        return revoked.size();
+    }
+}
@@ -1,21 +1,34 @@
 package com.example.assignmentservice.controller;
 
+import com.example.assignmentservice.dto.AssignmentBatchItemResult;
+import com.example.assignmentservice.dto.AssignmentBatchRequest;
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
 import com.example.assignmentservice.dto.UserProductAssignmentRequest;
 import com.example.assignmentservice.model.enums.AssignmentRole;
 import com.example.assignmentservice.service.UserProductAssignmentService;
+import com.example.assignmentservice.util.AssignmentPage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.*;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,10 +38,16 @@ import java.util.UUID;
 public class UserProductAssignmentController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserProductAssignmentController.class);
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String DELETED_COUNT_HEADER = "X-Deleted-Count";
+    private static final String NDJSON = "application/x-ndjson";
+
     private final UserProductAssignmentService service;
+    private final ObjectMapper objectMapper;
 
-    public UserProductAssignmentController(UserProductAssignmentService service) {
+    public UserProductAssignmentController(UserProductAssignmentService service, ObjectMapper objectMapper) {
         this.service = service;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Create a new user-product assignment",
@@ -64,18 +83,107 @@ public class UserProductAssignmentController {
         return ResponseEntity.created(location).body(dto);
     }
 
+    @Operation(summary = "Create or update many user-product assignments",
+            description = "Validates users and products in bulk, checks rights once per product and upserts all valid rows; "
+                    + "returns a result for every row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per-row results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "503", description = "User or product service is unavailable now")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<AssignmentBatchItemResult>> assignBatch(
+            @Valid @RequestBody AssignmentBatchRequest req,
+            @AuthenticationPrincipal Jwt jwt) {
+
+        if (jwt == null) {
+            return ResponseEntity.status(401).build();
+        }
+        String uid = jwt.getClaimAsString("uid");
+        if (uid == null) uid = jwt.getSubject();
+        UUID actorId = UUID.fromString(uid);
+        String actorRole = jwt.getClaimAsString("role");
+
+        return ResponseEntity.ok(service.assignBatch(actorId, actorRole, req.getAssignments()));
+    }
+
     @Operation(summary = "Read all user-product assignments",
-            description = "Returns list of assignments")
+            description = "Without limit and cursor returns every assignment matching the optional filters "
+                    + "as a JSON array, as before pagination was introduced; the array is written in batches")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of assignments"),
     })
+    @GetMapping(params = {"!limit", "!cursor"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listAll(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) AssignmentRole role) {
+
+        StreamingResponseBody body = output -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+            generator.writeStartArray();
+            service.forEach(userId, productId, role, dto -> {
+                try {
+                    generator.writeObject(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @Operation(summary = "Read user-product assignments with keyset pagination",
+            description = "Returns a page of assignments ordered by id, optionally filtered by user, product and role; "
+                    + "the cursor of the next page is returned in the X-Next-Cursor header")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of assignments"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit too large")
+    })
     @GetMapping
     public ResponseEntity<List<UserProductAssignmentDto>> list(
             @RequestParam(required = false) UUID userId,
-            @RequestParam(required = false) UUID productId) {
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) AssignmentRole role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        AssignmentPage page = service.list(userId, productId, role, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
 
-        List<UserProductAssignmentDto> list = service.list(userId, productId);
-        return ResponseEntity.ok(list);
+    @Operation(summary = "Stream user-product assignments as NDJSON",
+            description = "Streams all matching assignments, one JSON object per line, without loading them into memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of assignments"),
+    })
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) AssignmentRole role) {
+
+        StreamingResponseBody body = output -> {
+            // Буфер отдельный от ответа: строки уходят клиенту пачками, а не по одной
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+            service.forEach(userId, productId, role, dto -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @Operation(summary = "Check if assignment exists",
@@ -102,13 +210,12 @@ public class UserProductAssignmentController {
     }
 
     @Operation(summary = "Delete assignments",
-            description = "Deletes assignments based on criteria")
+            description = "Deletes assignments based on criteria; the number of deleted rows is returned in the "
+                    + DELETED_COUNT_HEADER + " header")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Assignments deleted successfully"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
-            @ApiResponse(responseCode = "403", description = "Insufficient rights"),
-            @ApiResponse(responseCode = "404", description = "User or product not found"),
-            @ApiResponse(responseCode = "503", description = "User or product service is unavailable now")
+            @ApiResponse(responseCode = "403", description = "Insufficient rights")
     })
     @DeleteMapping
     public ResponseEntity<Void> deleteAssignments(
@@ -124,7 +231,22 @@ public class UserProductAssignmentController {
         UUID actorId = UUID.fromString(uid);
         String actorRole = jwt.getClaimAsString("role");
 
-        service.deleteAssignments(actorId, actorRole, userId, productId);
-        return ResponseEntity.noContent().build();
+        int deleted = service.deleteAssignments(actorId, actorRole, userId, productId);
+        return ResponseEntity.noContent().header(DELETED_COUNT_HEADER, String.valueOf(deleted)).build();
+    }
+
+    // Internal endpoint: каскадное удаление назначений при удалении продукта (product-service)
+    @DeleteMapping("/internal/by-product")
+    public ResponseEntity<Void> deleteAssignmentsByProductId(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("productId") UUID productId) {
+        String uid = jwt.getClaimAsString("uid");
+        if (uid == null) uid = jwt.getSubject();
+        UUID actorId = UUID.fromString(uid);
+        String actorRole = jwt.getClaimAsString("role");
+
+        logger.info("Deleting all assignments for product {} (internal call by {})", productId, actorId);
+        int deleted = service.deleteByProductId(actorId, actorRole, productId);
+        return ResponseEntity.noContent().header(DELETED_COUNT_HEADER, String.valueOf(deleted)).build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.example.assignmentservice.dto;
+
+import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.model.enums.BatchItemStatus;
+import java.util.UUID;
+
+// Результат одной строки пакетного назначения; index — позиция строки в запросе
+public class AssignmentBatchItemResult {
+
+    private int index;
+    private UUID userId;
+    private UUID productId;
+    private AssignmentRole role;
+    private BatchItemStatus status;
+    private UUID assignmentId;
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    public UUID getProductId() { return productId; }
+    public void setProductId(UUID productId) { this.productId = productId; }
+
+    public AssignmentRole getRole() { return role; }
+    public void setRole(AssignmentRole role) { this.role = role; }
+
+    public BatchItemStatus getStatus() { return status; }
+    public void setStatus(BatchItemStatus status) { this.status = status; }
+
+    public UUID getAssignmentId() { return assignmentId; }
+    public void setAssignmentId(UUID assignmentId) { this.assignmentId = assignmentId; }
+}
@@ -0,0 +1,17 @@
+package com.example.assignmentservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class AssignmentBatchRequest {
+
+    @NotEmpty
+    @Size(max = 500)
+    private List<@NotNull @Valid UserProductAssignmentRequest> assignments;
+
+    public List<UserProductAssignmentRequest> getAssignments() { return assignments; }
+    public void setAssignments(List<UserProductAssignmentRequest> assignments) { this.assignments = assignments; }
+}
@@ -1,9 +1,15 @@
 package com.example.assignmentservice.feign;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @FeignClient(
@@ -14,4 +20,14 @@ public interface ProductServiceClient {
 
     @GetMapping("/api/v1/products/{productId}/exists")
     Boolean productExists(@PathVariable("productId") UUID productId);
+
+    // Возвращает те id из переданных, для которых продукт существует
+    @PostMapping("/api/v1/products/exists")
+    List<UUID> existingProducts(@RequestBody Collection<UUID> productIds);
+
+    @DeleteMapping("/api/v1/products/ownership-cache")
+    void evictOwnershipCache(
+            @RequestParam(value = "userId", required = false) UUID userId,
+            @RequestParam(value = "productId", required = false) UUID productId
+    );
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package com.example.assignmentservice.feign;
 
 import com.example.assignmentservice.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Component
 public class ProductServiceClientFallbackFactory implements FallbackFactory<ProductServiceClient> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductServiceClientFallbackFactory.class);
+
     @Override
     public ProductServiceClient create(Throwable cause) {
         return new ProductServiceClient() {
@@ -15,6 +22,18 @@ public class ProductServiceClientFallbackFactory implements FallbackFactory<Prod
             public Boolean productExists(UUID productId) {
                 throw new ServiceUnavailableException("Product service is unavailable now");
             }
+
+            @Override
+            public List<UUID> existingProducts(Collection<UUID> productIds) {
+                throw new ServiceUnavailableException("Product service is unavailable now");
+            }
+
+            // Сброс кэша не критичен: записи в product-service всё равно истекут по TTL
+            @Override
+            public void evictOwnershipCache(UUID userId, UUID productId) {
+                logger.warn("Could not evict product ownership cache (user={}, product={}): {}",
+                        userId, productId, cause.getMessage());
+            }
         };
     }
 }
@@ -1,10 +1,20 @@
 package com.example.assignmentservice.feign;
 
+import com.example.assignmentservice.dto.AuthTokenDto;
+import com.example.assignmentservice.dto.LoginRequestDto;
+import com.example.assignmentservice.dto.RevokedTokenDto;
 import com.example.assignmentservice.model.enums.UserRole;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @FeignClient(
@@ -14,4 +24,20 @@ import java.util.UUID;
 public interface UserServiceClient {
     @GetMapping("/api/v1/users/{userId}/exists")
     Boolean userExists(@PathVariable("userId") UUID userId);
-}
\ No newline at end of file
+
+    // Возвращает те id из переданных, для которых пользователь существует
+    @PostMapping("/api/v1/users/exists")
+    List<UUID> existingUsers(@RequestBody Collection<UUID> userIds);
+
+    // Access-токены, отозванные после since (все действующие, если since не задан)
+    @GetMapping("/api/v1/auth/revocations")
+    List<RevokedTokenDto> revokedTokens(@RequestParam(value = "since", required = false) Instant since);
+
+    // Публичные ключи проверки подписи access-токенов (JWK Set)
+    @GetMapping("/api/v1/auth/jwks")
+    Map<String, Object> jwks();
+
+    // Вход сервисной учётной записи для фоновых задач без пользовательского токена
+    @PostMapping("/api/v1/auth/login")
+    AuthTokenDto login(@RequestBody LoginRequestDto request);
+}
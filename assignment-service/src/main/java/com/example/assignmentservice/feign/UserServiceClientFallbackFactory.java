@@ -1,10 +1,18 @@
 package com.example.assignmentservice.feign;
 
+import com.example.assignmentservice.dto.AuthTokenDto;
+import com.example.assignmentservice.dto.LoginRequestDto;
+import com.example.assignmentservice.dto.RevokedTokenDto;
+import com.example.assignmentservice.exception.ServiceUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Component
@@ -23,6 +31,30 @@ public class UserServiceClientFallbackFactory implements FallbackFactory<UserSer
                     return null;
                 }
             }
+
+            @Override
+            public List<UUID> existingUsers(Collection<UUID> userIds) {
+                logger.error(cause.getMessage());
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public List<RevokedTokenDto> revokedTokens(Instant since) {
+                logger.error(cause.getMessage());
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public Map<String, Object> jwks() {
+                logger.error(cause.getMessage());
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public AuthTokenDto login(LoginRequestDto request) {
+                logger.error(cause.getMessage());
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
         };
     }
 }
\ No newline at end of file
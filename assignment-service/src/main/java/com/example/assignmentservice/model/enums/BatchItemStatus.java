@@ -0,0 +1,8 @@
+package com.example.assignmentservice.model.enums;
+
+public enum BatchItemStatus {
+    ASSIGNED,
+    FORBIDDEN,
+    USER_NOT_FOUND,
+    PRODUCT_NOT_FOUND
+}
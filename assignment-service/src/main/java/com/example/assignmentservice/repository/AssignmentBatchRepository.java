@@ -0,0 +1,74 @@
+package com.example.assignmentservice.repository;
+
+import com.example.assignmentservice.model.entity.UserProductAssignment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk writes over plain JDBC: one {@code INSERT ... ON CONFLICT} per row, sent in JDBC batches,
+ * without loading or merging entities. Runs in the caller's transaction.
+ */
+@Repository
+public class AssignmentBatchRepository {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_product_assignment (id, user_id, product_id, role_on_product, assigned_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, product_id)
+            DO UPDATE SET role_on_product = EXCLUDED.role_on_product, assigned_at = EXCLUDED.assigned_at
+            """;
+
+    private static final String FIND_IDS_SQL = """
+            SELECT a.id, a.user_id, a.product_id
+            FROM user_product_assignment a
+            JOIN unnest(?::uuid[], ?::uuid[]) AS p(user_id, product_id)
+              ON a.user_id = p.user_id AND a.product_id = p.product_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AssignmentBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts or updates all rows. Afterwards each row carries the id stored in the DB:
+     * an existing pair keeps its original id instead of the generated one.
+     */
+    public void upsertAll(List<UserProductAssignment> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setObject(1, row.getId());
+            ps.setObject(2, row.getUserId());
+            ps.setObject(3, row.getProductId());
+            ps.setString(4, row.getRoleOnProduct().name());
+            ps.setTimestamp(5, Timestamp.from(row.getAssignedAt()));
+        });
+
+        UUID[] userIds = rows.stream().map(UserProductAssignment::getUserId).toArray(UUID[]::new);
+        UUID[] productIds = rows.stream().map(UserProductAssignment::getProductId).toArray(UUID[]::new);
+        Map<Key, UUID> stored = new HashMap<>();
+        jdbcTemplate.query(FIND_IDS_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("uuid", userIds));
+                    ps.setArray(2, ps.getConnection().createArrayOf("uuid", productIds));
+                },
+                rs -> {
+                    stored.put(new Key(rs.getObject("user_id", UUID.class), rs.getObject("product_id", UUID.class)),
+                            rs.getObject("id", UUID.class));
+                });
+        rows.forEach(row -> row.setId(stored.getOrDefault(new Key(row.getUserId(), row.getProductId()), row.getId())));
+    }
+
+    private record Key(UUID userId, UUID productId) {}
+}
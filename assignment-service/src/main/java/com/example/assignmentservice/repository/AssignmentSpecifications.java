@@ -0,0 +1,37 @@
+package com.example.assignmentservice.repository;
+
+import com.example.assignmentservice.model.entity.UserProductAssignment;
+import com.example.assignmentservice.model.enums.AssignmentRole;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+
+/**
+ * Filters for assignment listing; null arguments are not applied.
+ * Combined with keyset ordering by id, served by the (user_id, id) and (product_id, id) indexes.
+ */
+public final class AssignmentSpecifications {
+
+    private AssignmentSpecifications() {
+    }
+
+    public static Specification<UserProductAssignment> matching(
+            UUID userId, UUID productId, AssignmentRole role, UUID afterId) {
+        return (root, query, cb) -> {
+            var predicate = cb.conjunction();
+            if (userId != null) {
+                predicate = cb.and(predicate, cb.equal(root.get("userId"), userId));
+            }
+            if (productId != null) {
+                predicate = cb.and(predicate, cb.equal(root.get("productId"), productId));
+            }
+            if (role != null) {
+                predicate = cb.and(predicate, cb.equal(root.get("roleOnProduct"), role));
+            }
+            if (afterId != null) {
+                predicate = cb.and(predicate, cb.greaterThan(root.get("id"), afterId));
+            }
+            return predicate;
+        };
+    }
+}
@@ -2,37 +2,73 @@ package com.example.assignmentservice.repository;
 
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserProductAssignmentRepository extends JpaRepository<UserProductAssignment, UUID> {
+public interface UserProductAssignmentRepository extends JpaRepository<UserProductAssignment, UUID>,
+        JpaSpecificationExecutor<UserProductAssignment> {
 
     List<UserProductAssignment> findByUserId(UUID userId);
     List<UserProductAssignment> findByProductId(UUID productId);
 
     Optional<UserProductAssignment> findByUserIdAndProductId(UUID userId, UUID productId);
 
+    // Вставка или смена роли одним запросом: без предварительного SELECT и без гонки на uc_user_product.
+    // Для существующей пары сохраняется её id, переданный id используется только для новой строки
+    @Query(value = """
+            INSERT INTO user_product_assignment (id, user_id, product_id, role_on_product, assigned_at)
+            VALUES (:id, :userId, :productId, :role, :assignedAt)
+            ON CONFLICT (user_id, product_id)
+            DO UPDATE SET role_on_product = EXCLUDED.role_on_product, assigned_at = EXCLUDED.assigned_at
+            RETURNING *
+            """, nativeQuery = true)
+    UserProductAssignment upsert(@Param("id") UUID id,
+                                 @Param("userId") UUID userId,
+                                 @Param("productId") UUID productId,
+                                 @Param("role") String role,
+                                 @Param("assignedAt") Instant assignedAt);
+
+    // Keyset-выборка для загрузки AssignmentRoleIndex
+    @Query("SELECT a FROM UserProductAssignment a ORDER BY a.id")
+    List<UserProductAssignment> findFirstPage(Pageable pageable);
+
+    @Query("SELECT a FROM UserProductAssignment a WHERE a.id > :lastId ORDER BY a.id")
+    List<UserProductAssignment> findPageAfter(@Param("lastId") UUID lastId, Pageable pageable);
+
     boolean existsByUserIdAndProductIdAndRoleOnProduct(UUID userId, UUID productId, AssignmentRole role);
 
     boolean existsByUserIdAndProductId(UUID userId, UUID productId);
 
+    // Удаления — один DELETE без загрузки сущностей, возвращают число удалённых строк
     @Modifying
     @Query("DELETE FROM UserProductAssignment a WHERE a.userId = :userId AND a.productId = :productId")
-    void deleteByUserIdAndProductId(@Param("userId") UUID userId, @Param("productId") UUID productId);
+    int deleteByUserIdAndProductId(@Param("userId") UUID userId, @Param("productId") UUID productId);
 
     @Modifying
     @Query("DELETE FROM UserProductAssignment a WHERE a.userId = :userId")
-    void deleteByUserId(@Param("userId") UUID userId);
+    int deleteByUserId(@Param("userId") UUID userId);
 
     @Modifying
     @Query("DELETE FROM UserProductAssignment a WHERE a.productId = :productId")
-    void deleteByProductId(@Param("productId") UUID productId);
+    int deleteByProductId(@Param("productId") UUID productId);
+
+    @Modifying
+    @Query("DELETE FROM UserProductAssignment a")
+    int deleteAllAssignments();
+
+    @Modifying
+    @Query("DELETE FROM UserProductAssignment a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
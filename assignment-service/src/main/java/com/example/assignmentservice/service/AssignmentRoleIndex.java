@@ -0,0 +1,174 @@
+package com.example.assignmentservice.service;
+
+import com.example.assignmentservice.model.entity.UserProductAssignment;
+import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import com.example.assignmentservice.util.UserProductRoleMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of all assignments as (user, product) → roles, answering authorization
+ * checks without a DB round trip. Rebuilt from the DB at startup, kept in sync after commit
+ * of every assignment write. Until the initial load completes {@link #isReady()} is false
+ * and callers should query the DB.
+ */
+@Component
+public class AssignmentRoleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentRoleIndex.class);
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int MAX_PRESIZE = 1 << 25;
+
+    private final UserProductAssignmentRepository repo;
+    private final StampedLock lock = new StampedLock();
+    // Изменения, пришедшие во время загрузки: повторно применяются к загруженной карте
+    private final Queue<Consumer<UserProductRoleMap>> changesDuringLoad = new ConcurrentLinkedQueue<>();
+    private UserProductRoleMap roles = new UserProductRoleMap(0);
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public AssignmentRoleIndex(UserProductAssignmentRepository repo) {
+        this.repo = repo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        loading = true;
+        changesDuringLoad.clear();
+        try {
+            UserProductRoleMap loaded = new UserProductRoleMap((int) Math.min(repo.count(), MAX_PRESIZE));
+            List<UserProductAssignment> batch = repo.findFirstPage(PageRequest.of(0, LOAD_BATCH_SIZE));
+            while (!batch.isEmpty()) {
+                for (UserProductAssignment assignment : batch) {
+                    if (assignment.getRoleOnProduct() != null) {
+                        loaded.put(assignment.getUserId(), assignment.getProductId(),
+                                UserProductRoleMap.bit(assignment.getRoleOnProduct()));
+                    }
+                }
+                if (batch.size() < LOAD_BATCH_SIZE) {
+                    break;
+                }
+                batch = repo.findPageAfter(batch.get(batch.size() - 1).getId(), PageRequest.of(0, LOAD_BATCH_SIZE));
+            }
+            long stamp = lock.writeLock();
+            try {
+                roles = loaded;
+                loading = false;
+                changesDuringLoad.forEach(change -> change.accept(roles));
+                changesDuringLoad.clear();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            ready = true;
+            logger.info("Assignment role index loaded: {} assignments", size());
+        } finally {
+            loading = false;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean hasRole(UUID userId, UUID productId, AssignmentRole role) {
+        return (roleBits(userId, productId) & UserProductRoleMap.bit(role)) != 0;
+    }
+
+    public EnumSet<AssignmentRole> roles(UUID userId, UUID productId) {
+        return UserProductRoleMap.toRoles(roleBits(userId, productId));
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return roles.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Одна пара (user, product) — одна роль (уникальный ключ в БД), поэтому put заменяет роль
+    public void put(UUID userId, UUID productId, AssignmentRole role) {
+        int bits = role == null ? 0 : UserProductRoleMap.bit(role);
+        afterCommit(map -> map.put(userId, productId, bits));
+    }
+
+    public void remove(UUID userId, UUID productId) {
+        afterCommit(map -> map.remove(userId, productId));
+    }
+
+    public void removeUser(UUID userId) {
+        afterCommit(map -> map.removeUser(userId));
+    }
+
+    public void removeProduct(UUID productId) {
+        afterCommit(map -> map.removeProduct(productId));
+    }
+
+    public void clear() {
+        afterCommit(UserProductRoleMap::clear);
+    }
+
+    private int roleBits(UUID userId, UUID productId) {
+        long uHi = userId.getMostSignificantBits();
+        long uLo = userId.getLeastSignificantBits();
+        long pHi = productId.getMostSignificantBits();
+        long pLo = productId.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        int bits;
+        try {
+            bits = roles.get(uHi, uLo, pHi, pLo);
+        } catch (RuntimeException concurrentResize) {
+            bits = 0;
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                bits = roles.get(uHi, uLo, pHi, pLo);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return bits;
+    }
+
+    private void afterCommit(Consumer<UserProductRoleMap> change) {
+        Runnable apply = () -> {
+            long stamp = lock.writeLock();
+            try {
+                change.accept(roles);
+                if (loading) {
+                    changesDuringLoad.add(change);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
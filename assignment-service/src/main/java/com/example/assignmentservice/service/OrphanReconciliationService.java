@@ -0,0 +1,176 @@
+package com.example.assignmentservice.service;
+
+import com.example.assignmentservice.auth.ServiceAccount;
+import com.example.assignmentservice.exception.ServiceUnavailableException;
+import com.example.assignmentservice.feign.ProductServiceClient;
+import com.example.assignmentservice.feign.UserServiceClient;
+import com.example.assignmentservice.model.entity.UserProductAssignment;
+import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background cleanup of assignments whose user or product no longer exists. Deletes in
+ * user-service and product-service are not propagated here, so such rows accumulate.
+ * The job walks the table by id in chunks, checks the chunk's user and product ids with
+ * one bulk existence call each and deletes orphans in a single statement per chunk.
+ * Chunks are rate-limited; if either service cannot answer, the run stops without
+ * deleting anything for the current chunk.
+ */
+@Service
+public class OrphanReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanReconciliationService.class);
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private final UserProductAssignmentRepository repo;
+    private final UserProductAssignmentService assignmentService;
+    private final UserServiceClient userServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final ServiceAccount serviceAccount;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long minChunkIntervalNanos;
+    private final Counter scanned;
+    private final Counter removed;
+    private final Counter failedRuns;
+
+    public OrphanReconciliationService(
+            UserProductAssignmentRepository repo,
+            UserProductAssignmentService assignmentService,
+            UserServiceClient userServiceClient,
+            ProductServiceClient productServiceClient,
+            ServiceAccount serviceAccount,
+            MeterRegistry meterRegistry,
+            @Value("${assignments.reconciliation.enabled:true}") boolean enabled,
+            @Value("${assignments.reconciliation.chunk-size:500}") int chunkSize,
+            @Value("${assignments.reconciliation.chunks-per-second:5}") double chunksPerSecond) {
+        this.repo = repo;
+        this.assignmentService = assignmentService;
+        this.userServiceClient = userServiceClient;
+        this.productServiceClient = productServiceClient;
+        this.serviceAccount = serviceAccount;
+        this.enabled = enabled;
+        this.chunkSize = Math.min(Math.max(chunkSize, 1), MAX_CHUNK_SIZE);
+        this.minChunkIntervalNanos = chunksPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / chunksPerSecond) : 0;
+        this.scanned = Counter.builder("reconciliation.rows.scanned")
+                .description("Rows checked by the orphan reconciliation job")
+                .tag("entity", "assignment")
+                .register(meterRegistry);
+        this.removed = Counter.builder("reconciliation.rows.removed")
+                .description("Orphaned rows deleted by the orphan reconciliation job")
+                .tag("entity", "assignment")
+                .register(meterRegistry);
+        this.failedRuns = Counter.builder("reconciliation.runs.failed")
+                .description("Reconciliation runs stopped because existence could not be verified")
+                .tag("entity", "assignment")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${assignments.reconciliation.interval:PT1H}",
+            initialDelayString = "${assignments.reconciliation.initial-delay:PT10M}")
+    public void scheduledReconcile() {
+        if (!enabled) {
+            return;
+        }
+        if (!serviceAccount.isConfigured()) {
+            logger.warn("Orphan reconciliation skipped: no service account to call user-service and product-service");
+            return;
+        }
+        try {
+            SecurityContextHolder.setContext(serviceAccount.securityContext());
+        } catch (RuntimeException e) {
+            failedRuns.increment();
+            logger.warn("Orphan reconciliation skipped, service account login failed: {}", e.getMessage());
+            return;
+        }
+        try {
+            reconcile();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Runs one full pass over the table and returns the number of deleted assignments.
+     */
+    public long reconcile() {
+        long totalScanned = 0;
+        long totalRemoved = 0;
+        long nextChunkAt = System.nanoTime();
+        UUID lastId = null;
+        try {
+            List<UserProductAssignment> chunk;
+            do {
+                throttle(nextChunkAt);
+                nextChunkAt = System.nanoTime() + minChunkIntervalNanos;
+
+                PageRequest page = PageRequest.of(0, chunkSize);
+                chunk = lastId == null ? repo.findFirstPage(page) : repo.findPageAfter(lastId, page);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).getId();
+
+                List<UserProductAssignment> orphans = findOrphans(chunk);
+                int deleted = assignmentService.deleteOrphans(orphans);
+
+                scanned.increment(chunk.size());
+                removed.increment(deleted);
+                totalScanned += chunk.size();
+                totalRemoved += deleted;
+            } while (chunk.size() == chunkSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Orphan reconciliation interrupted after {} assignments", totalScanned);
+            return totalRemoved;
+        } catch (RuntimeException e) {
+            failedRuns.increment();
+            logger.warn("Orphan reconciliation stopped after {} assignments: {}", totalScanned, e.getMessage());
+            return totalRemoved;
+        }
+        logger.info("Orphan reconciliation finished: {} assignments scanned, {} removed", totalScanned, totalRemoved);
+        return totalRemoved;
+    }
+
+    private List<UserProductAssignment> findOrphans(List<UserProductAssignment> chunk) {
+        Set<UUID> userIds = new HashSet<>();
+        Set<UUID> productIds = new HashSet<>();
+        for (UserProductAssignment assignment : chunk) {
+            userIds.add(assignment.getUserId());
+            productIds.add(assignment.getProductId());
+        }
+        Set<UUID> existingUsers = existing(userServiceClient.existingUsers(userIds), "user");
+        Set<UUID> existingProducts = existing(productServiceClient.existingProducts(productIds), "product");
+        return chunk.stream()
+                .filter(a -> !existingUsers.contains(a.getUserId()) || !existingProducts.contains(a.getProductId()))
+                .toList();
+    }
+
+    private static Set<UUID> existing(List<UUID> ids, String kind) {
+        if (ids == null) {
+            throw new ServiceUnavailableException("Cannot verify " + kind + " existence");
+        }
+        return new HashSet<>(ids);
+    }
+
+    private static void throttle(long nextChunkAt) throws InterruptedException {
+        long waitNanos = nextChunkAt - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.assignmentservice.service;
+
+import com.example.assignmentservice.feign.ProductServiceClient;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * product-service caches PRODUCT_OWNER checks; this tells it to drop affected answers after
+ * assignments change. The call is queued once the transaction has completed as committed and runs
+ * on a small background pool with the caller's security context, so no pooled connection is held
+ * during the remote call and the caller's token is still forwarded. A failed or dropped eviction
+ * only leaves the entry until its TTL expires, so errors are logged and swallowed.
+ */
+@Component
+public class ProductOwnershipEvictor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductOwnershipEvictor.class);
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private final ProductServiceClient productServiceClient;
+    private final Executor executor;
+
+    @Autowired
+    public ProductOwnershipEvictor(ProductServiceClient productServiceClient) {
+        this(productServiceClient, new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                Thread.ofPlatform().name("ownership-evict-", 0).daemon(true).factory()));
+    }
+
+    ProductOwnershipEvictor(ProductServiceClient productServiceClient, Executor executor) {
+        this.productServiceClient = productServiceClient;
+        this.executor = executor;
+    }
+
+    /**
+     * Evicts entries for the user and/or product (null matches any) after the current transaction
+     * commits; without a transaction the eviction is queued right away.
+     */
+    public void evictAfterCommit(UUID userId, UUID productId) {
+        SecurityContext context = SecurityContextHolder.getContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        dispatch(userId, productId, context);
+                    }
+                }
+            });
+        } else {
+            dispatch(userId, productId, context);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void dispatch(UUID userId, UUID productId, SecurityContext context) {
+        try {
+            executor.execute(new DelegatingSecurityContextRunnable(() -> evict(userId, productId), context));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Product ownership cache eviction dropped (user={}, product={}): {}",
+                    userId, productId, e.getMessage());
+        }
+    }
+
+    private void evict(UUID userId, UUID productId) {
+        try {
+            productServiceClient.evictOwnershipCache(userId, productId);
+        } catch (Exception e) {
+            logger.warn("Failed to evict product ownership cache (user={}, product={}): {}",
+                    userId, productId, e.getMessage());
+        }
+    }
+}
@@ -1,38 +1,63 @@
 package com.example.assignmentservice.service;
 
+import com.example.assignmentservice.dto.AssignmentBatchItemResult;
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
+import com.example.assignmentservice.dto.UserProductAssignmentRequest;
 import com.example.assignmentservice.exception.*;
 import com.example.assignmentservice.feign.ProductServiceClient;
 import com.example.assignmentservice.feign.UserServiceClient;
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.model.enums.BatchItemStatus;
 import com.example.assignmentservice.model.enums.UserRole;
+import com.example.assignmentservice.repository.AssignmentBatchRepository;
+import com.example.assignmentservice.repository.AssignmentSpecifications;
 import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import com.example.assignmentservice.util.AssignmentPage;
+import com.example.assignmentservice.util.CursorUtil;
 import feign.FeignException;
 import org.slf4j.*;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class UserProductAssignmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserProductAssignmentService.class);
+    public static final int MAX_PAGE_SIZE = 50;
+    private static final int STREAM_BATCH_SIZE = 1000;
 
     private final UserProductAssignmentRepository repo;
     private final UserServiceClient userServiceClient;
     private final ProductServiceClient productServiceClient;
+    private final AssignmentRoleIndex roleIndex;
+    private final AssignmentBatchRepository batchRepo;
+    private final ProductOwnershipEvictor ownershipEvictor;
+    private final TransactionTemplate transactionTemplate;
 
     public UserProductAssignmentService(
             UserProductAssignmentRepository repo,
             UserServiceClient userServiceClient,
-            ProductServiceClient productServiceClient) {
+            ProductServiceClient productServiceClient,
+            AssignmentRoleIndex roleIndex,
+            AssignmentBatchRepository batchRepo,
+            ProductOwnershipEvictor ownershipEvictor,
+            PlatformTransactionManager transactionManager) {
         this.repo = repo;
+        this.batchRepo = batchRepo;
+        this.ownershipEvictor = ownershipEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.userServiceClient = userServiceClient;
         this.productServiceClient = productServiceClient;
+        this.roleIndex = roleIndex;
     }
 
     @Transactional
@@ -44,45 +69,131 @@ public class UserProductAssignmentService {
 
         checkUserAndProductExist(userId, productId);
 
-        Optional<UserProductAssignment> existingAssignment = repo.findByUserIdAndProductId(userId, productId);
-        UserProductAssignment assignment = new UserProductAssignment();
+        UserProductAssignment saved = repo.upsert(UUID.randomUUID(), userId, productId, role.name(), Instant.now());
+        logger.info("Assignment saved: {}", saved.getId());
+        roleIndex.put(userId, productId, role);
+        ownershipEvictor.evictAfterCommit(userId, productId);
+        return saved;
+    }
 
-        if (existingAssignment.isPresent()) {
-            assignment = existingAssignment.get();
-            assignment.setRoleOnProduct(role);
-            assignment.setAssignedAt(Instant.now());
-            logger.info("Updating existing assignment: {}", assignment.getId());
-        } else {
-            assignment.setId(UUID.randomUUID());
-            assignment.setUserId(userId);
-            assignment.setProductId(productId);
-            assignment.setRoleOnProduct(role);
-            assignment.setAssignedAt(Instant.now());
-            logger.info("Creating new assignment");
+    /**
+     * Assigns many (user, product, role) rows at once. Users and products are validated with one
+     * remote call each, rights are checked once per product, and valid rows are upserted in JDBC
+     * batches. Invalid rows do not fail the request; each row gets its own status.
+     * The remote checks run before the transaction, which covers only the upsert.
+     */
+    public List<AssignmentBatchItemResult> assignBatch(
+            UUID actorId, String actorRoleClaim, List<UserProductAssignmentRequest> requests) {
+        if (actorId == null) {
+            throw new UnauthorizedException("Actor ID is required");
+        }
+        Set<UUID> existingUsers = existingUsers(
+                requests.stream().map(UserProductAssignmentRequest::getUserId).collect(Collectors.toSet()));
+        Set<UUID> existingProducts = existingProducts(
+                requests.stream().map(UserProductAssignmentRequest::getProductId).collect(Collectors.toSet()));
+        boolean isAdmin = "ROLE_ADMIN".equals(actorRoleClaim);
+        Map<UUID, Boolean> ownedProducts = new HashMap<>();
+
+        Instant now = Instant.now();
+        List<AssignmentBatchItemResult> results = new ArrayList<>(requests.size());
+        List<UserProductAssignment> rows = new ArrayList<>();
+        List<AssignmentBatchItemResult> assigned = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserProductAssignmentRequest req = requests.get(i);
+            AssignmentBatchItemResult result = new AssignmentBatchItemResult();
+            result.setIndex(i);
+            result.setUserId(req.getUserId());
+            result.setProductId(req.getProductId());
+            result.setRole(req.getRole());
+
+            if (!isAdmin && !ownedProducts.computeIfAbsent(req.getProductId(),
+                    productId -> hasRole(actorId, productId, AssignmentRole.PRODUCT_OWNER))) {
+                result.setStatus(BatchItemStatus.FORBIDDEN);
+            } else if (!existingUsers.contains(req.getUserId())) {
+                result.setStatus(BatchItemStatus.USER_NOT_FOUND);
+            } else if (!existingProducts.contains(req.getProductId())) {
+                result.setStatus(BatchItemStatus.PRODUCT_NOT_FOUND);
+            } else {
+                UserProductAssignment row = new UserProductAssignment();
+                row.setId(UUID.randomUUID());
+                row.setUserId(req.getUserId());
+                row.setProductId(req.getProductId());
+                row.setRoleOnProduct(req.getRole());
+                row.setAssignedAt(now);
+                rows.add(row);
+                assigned.add(result);
+                result.setStatus(BatchItemStatus.ASSIGNED);
+            }
+            results.add(result);
         }
 
-        return repo.save(assignment);
+        transactionTemplate.executeWithoutResult(status -> {
+            batchRepo.upsertAll(rows);
+            Set<UUID> changedProducts = new HashSet<>();
+            for (int i = 0; i < rows.size(); i++) {
+                UserProductAssignment row = rows.get(i);
+                assigned.get(i).setAssignmentId(row.getId());
+                roleIndex.put(row.getUserId(), row.getProductId(), row.getRoleOnProduct());
+                changedProducts.add(row.getProductId());
+            }
+            // Один сброс кэша владельцев на продукт, а не на каждую строку
+            changedProducts.forEach(productId -> ownershipEvictor.evictAfterCommit(null, productId));
+        });
+        logger.info("Batch assignment by actor {}: {} of {} rows assigned", actorId, rows.size(), requests.size());
+        return results;
     }
 
+    /**
+     * Keyset page of assignments ordered by id; userId, productId and role are optional filters.
+     */
     @Transactional(readOnly = true)
-    public List<UserProductAssignmentDto> list(UUID userId, UUID productId) {
-        List<UserProductAssignment> assignments;
+    public AssignmentPage list(UUID userId, UUID productId, AssignmentRole role, String cursor, int limit) {
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        if (limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit cannot be greater than " + MAX_PAGE_SIZE);
+        }
+        UUID afterId = null;
+        if (cursor != null && !cursor.trim().isEmpty()) {
+            afterId = CursorUtil.decode(cursor);
+            if (afterId == null) {
+                throw new BadRequestException("Invalid cursor format");
+            }
+        }
 
-        if (userId != null) {
-            assignments = repo.findByUserId(userId);
-        } else if (productId != null) {
-            assignments = repo.findByProductId(productId);
-        } else {
-            assignments = repo.findAll();
+        List<UserProductAssignment> assignments = fetchPage(userId, productId, role, afterId, limit);
+        String nextCursor = null;
+        if (assignments.size() == limit) {
+            nextCursor = CursorUtil.encode(assignments.get(assignments.size() - 1).getId());
         }
+        return new AssignmentPage(assignments.stream().map(this::toDto).toList(), nextCursor);
+    }
 
-        return assignments.stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Passes every matching assignment to {@code action}, reading keyset batches so that
+     * memory use does not depend on the result size. Each batch is a separate read:
+     * no transaction or connection is held while the caller writes the output.
+     */
+    public void forEach(UUID userId, UUID productId, AssignmentRole role, Consumer<UserProductAssignmentDto> action) {
+        UUID afterId = null;
+        List<UserProductAssignment> batch;
+        do {
+            batch = fetchPage(userId, productId, role, afterId, STREAM_BATCH_SIZE);
+            batch.forEach(assignment -> action.accept(toDto(assignment)));
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == STREAM_BATCH_SIZE);
     }
 
+    /**
+     * Deletes assignments matching the given filters and returns the number of deleted rows.
+     * Purely local: users and products are not checked remotely, so dangling assignments
+     * can be removed while user-service or product-service is down.
+     */
     @Transactional
-    public void deleteAssignments(UUID actorId, String actorRoleClaim, UUID userId, UUID productId) {
+    public int deleteAssignments(UUID actorId, String actorRoleClaim, UUID userId, UUID productId) {
         logger.info("Deleting assignments: actor={}, actorRole={}, user={}, product={}",
                 actorId, actorRoleClaim, userId, productId);
 
@@ -92,44 +203,99 @@ public class UserProductAssignmentService {
 
         checkAdminRights(actorId, actorRoleClaim);
 
+        int deleted;
         if (userId != null && productId != null) {
-            checkUserAndProductExist(userId, productId);
-            repo.deleteByUserIdAndProductId(userId, productId);
-            logger.info("Deleted assignment for user {} and product {}", userId, productId);
+            deleted = repo.deleteByUserIdAndProductId(userId, productId);
+            roleIndex.remove(userId, productId);
+            logger.info("Deleted {} assignment(s) for user {} and product {}", deleted, userId, productId);
 
         } else if (userId != null) {
-            checkUserExists(userId);
-            repo.deleteByUserId(userId);
-            logger.info("Deleted all assignments for user {}", userId);
+            deleted = repo.deleteByUserId(userId);
+            roleIndex.removeUser(userId);
+            logger.info("Deleted {} assignment(s) for user {}", deleted, userId);
 
         } else if (productId != null) {
-            checkProductExists(productId);
-            repo.deleteByProductId(productId);
-            logger.info("Deleted all assignments for product {}", productId);
+            deleted = repo.deleteByProductId(productId);
+            roleIndex.removeProduct(productId);
+            logger.info("Deleted {} assignment(s) for product {}", deleted, productId);
 
         } else {
-            repo.deleteAll();
-            logger.info("Deleted all assignments");
+            deleted = repo.deleteAllAssignments();
+            roleIndex.clear();
+            logger.info("Deleted all {} assignment(s)", deleted);
+        }
+
+        // Нечего удалять — не дёргаем product-service ради сброса кэша
+        if (deleted > 0) {
+            ownershipEvictor.evictAfterCommit(userId, productId);
         }
+        return deleted;
     }
 
-    @Transactional(readOnly = true)
+    // Без транзакции: после загрузки AssignmentRoleIndex ответ берётся из памяти и БД не нужна
     public boolean existsByUserAndProductAndRole(UUID userId, UUID productId, AssignmentRole role) {
-        return repo.existsByUserIdAndProductIdAndRoleOnProduct(userId, productId, role);
+        return hasRole(userId, productId, role);
     }
 
+    /**
+     * Cascade delete of a product's assignments requested by product-service; it forwards the token
+     * of the admin or owner deleting the product, or of its service account when retrying.
+     */
     @Transactional
-    public void deleteByProductId(UUID productId) {
-        repo.deleteByProductId(productId);
+    public int deleteByProductId(UUID actorId, String actorRoleClaim, UUID productId) {
+        if (actorId == null) {
+            throw new UnauthorizedException("Actor ID is required");
+        }
+        if (!"ROLE_ADMIN".equals(actorRoleClaim) && !hasRole(actorId, productId, AssignmentRole.PRODUCT_OWNER)) {
+            throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can delete product assignments");
+        }
+        return deleteByProductId(productId);
+    }
+
+    @Transactional
+    public int deleteByProductId(UUID productId) {
+        int deleted = repo.deleteByProductId(productId);
+        roleIndex.removeProduct(productId);
+        ownershipEvictor.evictAfterCommit(null, productId);
+        return deleted;
     }
 
     @Transactional
-    public void deleteByUserId(UUID userId) {
-        repo.deleteByUserId(userId);
+    public int deleteByUserId(UUID userId) {
+        int deleted = repo.deleteByUserId(userId);
+        roleIndex.removeUser(userId);
+        ownershipEvictor.evictAfterCommit(userId, null);
+        return deleted;
+    }
+
+    /**
+     * Deletes orphaned assignments found by {@link OrphanReconciliationService}; no rights or
+     * existence checks, the caller has already verified that their user or product is gone.
+     */
+    @Transactional
+    public int deleteOrphans(List<UserProductAssignment> orphans) {
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        int deleted = repo.deleteByIds(orphans.stream().map(UserProductAssignment::getId).toList());
+        for (UserProductAssignment orphan : orphans) {
+            roleIndex.remove(orphan.getUserId(), orphan.getProductId());
+            // product-service кэширует только проверки PRODUCT_OWNER
+            if (orphan.getRoleOnProduct() == AssignmentRole.PRODUCT_OWNER) {
+                ownershipEvictor.evictAfterCommit(orphan.getUserId(), orphan.getProductId());
+            }
+        }
+        return deleted;
     }
 
     // Helper methods
 
+    private List<UserProductAssignment> fetchPage(
+            UUID userId, UUID productId, AssignmentRole role, UUID afterId, int limit) {
+        return repo.findBy(AssignmentSpecifications.matching(userId, productId, role, afterId),
+                query -> query.sortBy(Sort.by("id")).limit(limit).all());
+    }
+
     /**
      * Check actor rights using actorRoleClaim if provided; fallback to userServiceClient if necessary.
      * Allowed: ROLE_ADMIN OR PRODUCT_OWNER assignment for the actor on product.
@@ -141,10 +307,7 @@ public class UserProductAssignmentService {
                 isAdmin = "ROLE_ADMIN".equals(actorRoleClaim);
             }
 
-            boolean isOwner = repo.existsByUserIdAndProductIdAndRoleOnProduct(
-                    actorId, productId, AssignmentRole.PRODUCT_OWNER);
-
-            if (!isAdmin && !isOwner) {
+            if (!isAdmin && !hasRole(actorId, productId, AssignmentRole.PRODUCT_OWNER)) {
                 throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can assign products");
             }
         } catch (FeignException.NotFound e) {
@@ -155,6 +318,13 @@ public class UserProductAssignmentService {
         }
     }
 
+    private boolean hasRole(UUID userId, UUID productId, AssignmentRole role) {
+        if (roleIndex.isReady()) {
+            return roleIndex.hasRole(userId, productId, role);
+        }
+        return repo.existsByUserIdAndProductIdAndRoleOnProduct(userId, productId, role);
+    }
+
     private void checkAdminRights(UUID actorId, String actorRoleClaim) {
         try {
             boolean isAdmin = false;
@@ -177,6 +347,32 @@ public class UserProductAssignmentService {
         checkProductExists(productId);
     }
 
+    private Set<UUID> existingUsers(Set<UUID> userIds) {
+        try {
+            List<UUID> existing = userServiceClient.existingUsers(userIds);
+            if (existing == null) {
+                throw new ServiceUnavailableException("Cannot verify users. User service unavailable now");
+            }
+            return new HashSet<>(existing);
+        } catch (FeignException e) {
+            logger.error("Error checking users existence: {}", e.getMessage());
+            throw new ServiceUnavailableException("Cannot verify users. User service is unavailable now");
+        }
+    }
+
+    private Set<UUID> existingProducts(Set<UUID> productIds) {
+        try {
+            List<UUID> existing = productServiceClient.existingProducts(productIds);
+            if (existing == null) {
+                throw new ServiceUnavailableException("Cannot verify products. Product service unavailable now");
+            }
+            return new HashSet<>(existing);
+        } catch (FeignException e) {
+            logger.error("Error checking products existence: {}", e.getMessage());
+            throw new ServiceUnavailableException("Cannot verify products. Product service is unavailable now");
+        }
+    }
+
     private void checkUserExists(UUID userId) {
         try {
             Boolean exists = userServiceClient.userExists(userId);
@@ -0,0 +1,7 @@
+package com.example.assignmentservice.util;
+
+import com.example.assignmentservice.dto.UserProductAssignmentDto;
+
+import java.util.List;
+
+public record AssignmentPage(List<UserProductAssignmentDto> items, String nextCursor) {}
@@ -0,0 +1,26 @@
+package com.example.assignmentservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// Непрозрачный курсор keyset-пагинации назначений по id
+public class CursorUtil {
+
+    public static UUID decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return UUID.fromString(decoded);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static String encode(UUID id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
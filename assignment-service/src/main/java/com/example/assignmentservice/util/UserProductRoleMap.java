@@ -0,0 +1,220 @@
+package com.example.assignmentservice.util;
+
+import com.example.assignmentservice.model.enums.AssignmentRole;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact map from a (userId, productId) pair to a bit set of {@link AssignmentRole}s.
+ * Keys are stored in four parallel {@code long[]} arrays and roles in a {@code byte[]}
+ * ({@code 1 << ordinal} per role), with open addressing and linear probing; no
+ * per-entry objects, about 33 bytes per slot. A zero role byte marks an empty slot,
+ * so pairs without roles are not stored. Not thread-safe: callers provide synchronization.
+ */
+public class UserProductRoleMap {
+
+    private static final float MAX_LOAD = 0.6f;
+
+    static {
+        if (AssignmentRole.values().length > Byte.SIZE) {
+            throw new IllegalStateException("AssignmentRole no longer fits into a byte bit set");
+        }
+    }
+
+    private long[] userHi;
+    private long[] userLo;
+    private long[] productHi;
+    private long[] productLo;
+    private byte[] roles;
+    private int mask;
+    private int size;
+
+    public UserProductRoleMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public static int bit(AssignmentRole role) {
+        return 1 << role.ordinal();
+    }
+
+    public static EnumSet<AssignmentRole> toRoles(int bits) {
+        EnumSet<AssignmentRole> result = EnumSet.noneOf(AssignmentRole.class);
+        for (AssignmentRole role : AssignmentRole.values()) {
+            if ((bits & bit(role)) != 0) {
+                result.add(role);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the role bits of the pair, 0 when it is absent.
+     */
+    public int get(long uHi, long uLo, long pHi, long pLo) {
+        int i = slot(uHi, uLo, pHi, pLo);
+        while (true) {
+            byte r = roles[i];
+            if (r == 0) {
+                return 0;
+            }
+            if (userHi[i] == uHi && userLo[i] == uLo && productHi[i] == pHi && productLo[i] == pLo) {
+                return r & 0xFF;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public int get(UUID userId, UUID productId) {
+        return get(userId.getMostSignificantBits(), userId.getLeastSignificantBits(),
+                productId.getMostSignificantBits(), productId.getLeastSignificantBits());
+    }
+
+    /**
+     * Sets the role bits of the pair, replacing previous ones; zero bits remove the pair.
+     */
+    public void put(UUID userId, UUID productId, int roleBits) {
+        if (roleBits == 0) {
+            remove(userId, productId);
+            return;
+        }
+        if (size + 1 > (mask + 1) * MAX_LOAD) {
+            rehash((mask + 1) << 1);
+        }
+        insert(userId.getMostSignificantBits(), userId.getLeastSignificantBits(),
+                productId.getMostSignificantBits(), productId.getLeastSignificantBits(), (byte) roleBits);
+    }
+
+    public boolean remove(UUID userId, UUID productId) {
+        long uHi = userId.getMostSignificantBits();
+        long uLo = userId.getLeastSignificantBits();
+        long pHi = productId.getMostSignificantBits();
+        long pLo = productId.getLeastSignificantBits();
+        int i = slot(uHi, uLo, pHi, pLo);
+        while (true) {
+            if (roles[i] == 0) {
+                return false;
+            }
+            if (userHi[i] == uHi && userLo[i] == uLo && productHi[i] == pHi && productLo[i] == pLo) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * Removes all pairs of the user; a full scan, meant for rare bulk deletes.
+     */
+    public int removeUser(UUID userId) {
+        long hi = userId.getMostSignificantBits();
+        long lo = userId.getLeastSignificantBits();
+        List<UUID> products = new ArrayList<>();
+        for (int i = 0; i < roles.length; i++) {
+            if (roles[i] != 0 && userHi[i] == hi && userLo[i] == lo) {
+                products.add(new UUID(productHi[i], productLo[i]));
+            }
+        }
+        products.forEach(productId -> remove(userId, productId));
+        return products.size();
+    }
+
+    /**
+     * Removes all pairs of the product; a full scan, meant for rare bulk deletes.
+     */
+    public int removeProduct(UUID productId) {
+        long hi = productId.getMostSignificantBits();
+        long lo = productId.getLeastSignificantBits();
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < roles.length; i++) {
+            if (roles[i] != 0 && productHi[i] == hi && productLo[i] == lo) {
+                users.add(new UUID(userHi[i], userLo[i]));
+            }
+        }
+        users.forEach(userId -> remove(userId, productId));
+        return users.size();
+    }
+
+    public void clear() {
+        allocate(16);
+        size = 0;
+    }
+
+    private void insert(long uHi, long uLo, long pHi, long pLo, byte roleBits) {
+        int i = slot(uHi, uLo, pHi, pLo);
+        while (true) {
+            if (roles[i] == 0) {
+                userHi[i] = uHi;
+                userLo[i] = uLo;
+                productHi[i] = pHi;
+                productLo[i] = pLo;
+                roles[i] = roleBits;
+                size++;
+                return;
+            }
+            if (userHi[i] == uHi && userLo[i] == uLo && productHi[i] == pHi && productLo[i] == pLo) {
+                roles[i] = roleBits;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // backward-shift deletion: keeps probe chains intact without tombstones
+    private void removeAt(int i) {
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (roles[j] != 0) {
+            int home = slot(userHi[j], userLo[j], productHi[j], productLo[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                userHi[hole] = userHi[j];
+                userLo[hole] = userLo[j];
+                productHi[hole] = productHi[j];
+                productLo[hole] = productLo[j];
+                roles[hole] = roles[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        roles[hole] = 0;
+        size--;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldUserHi = userHi;
+        long[] oldUserLo = userLo;
+        long[] oldProductHi = productHi;
+        long[] oldProductLo = productLo;
+        byte[] oldRoles = roles;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < oldRoles.length; i++) {
+            if (oldRoles[i] != 0) {
+                insert(oldUserHi[i], oldUserLo[i], oldProductHi[i], oldProductLo[i], oldRoles[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        userHi = new long[capacity];
+        userLo = new long[capacity];
+        productHi = new long[capacity];
+        productLo = new long[capacity];
+        roles = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long uHi, long uLo, long pHi, long pLo) {
+        long h = (uHi ^ uLo) * 0x9E3779B97F4A7C15L;
+        h = (h ^ pHi ^ Long.rotateLeft(pLo, 29)) * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
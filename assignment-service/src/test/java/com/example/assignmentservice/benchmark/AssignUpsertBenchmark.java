@@ -0,0 +1,150 @@
+package com.example.assignmentservice.benchmark;
+
+import com.example.assignmentservice.AssignmentServiceApplication;
+import com.example.assignmentservice.feign.ProductServiceClient;
+import com.example.assignmentservice.feign.UserServiceClient;
+import com.example.assignmentservice.model.entity.UserProductAssignment;
+import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of assign's write step against PostgreSQL: the previous find + save through JPA
+ * versus the single INSERT ... ON CONFLICT DO UPDATE RETURNING statement. Threads hit a small
+ * set of pairs, so concurrent assigns of the same pair are frequent; failed transactions
+ * (unique constraint races) are counted separately.
+ * Needs Docker. Run with: mvn -pl assignment-service test -Dtest=AssignUpsertBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers
+@ActiveProfiles("test")
+@SpringBootTest(classes = AssignmentServiceApplication.class)
+public class AssignUpsertBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int PAIRS = 2_000;
+    private static final long DURATION_MS = 10_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> String.valueOf(THREADS));
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.liquibase.enabled", () -> "false");
+        registry.add("spring.cloud.discovery.enabled", () -> "false");
+        registry.add("spring.cloud.config.enabled", () -> "false");
+        registry.add("jwt.secret", () -> "test-secret-very-long-string-at-least-32-bytes-123456");
+    }
+
+    @Autowired
+    private UserProductAssignmentRepository repo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private UserServiceClient userServiceClient;
+
+    @MockitoBean
+    private ProductServiceClient productServiceClient;
+
+    @Test
+    public void assignThroughput() throws Exception {
+        UUID[][] pairs = new UUID[PAIRS][];
+        for (int i = 0; i < PAIRS; i++) {
+            pairs[i] = new UUID[]{UUID.randomUUID(), UUID.randomUUID()};
+        }
+
+        double findAndSave = run("find + save", pairs, (userId, productId, role) -> {
+            Optional<UserProductAssignment> existing = repo.findByUserIdAndProductId(userId, productId);
+            UserProductAssignment assignment = existing.orElseGet(() -> {
+                UserProductAssignment created = new UserProductAssignment();
+                created.setId(UUID.randomUUID());
+                created.setUserId(userId);
+                created.setProductId(productId);
+                return created;
+            });
+            assignment.setRoleOnProduct(role);
+            assignment.setAssignedAt(Instant.now());
+            repo.save(assignment);
+        });
+        repo.deleteAllInBatch();
+
+        double upsert = run("upsert", pairs, (userId, productId, role) ->
+                repo.upsert(UUID.randomUUID(), userId, productId, role.name(), Instant.now()));
+
+        System.out.printf("upsert / find + save: %.2fx%n", upsert / findAndSave);
+    }
+
+    private double run(String label, UUID[][] pairs, Write write) throws Exception {
+        AssignmentRole[] roles = AssignmentRole.values();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        UUID[] pair = pairs[random.nextInt(pairs.length)];
+                        AssignmentRole role = roles[random.nextInt(roles.length)];
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> write.apply(pair[0], pair[1], role));
+                            ok.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double commitsPerSecond = ok.get() * 1000.0 / DURATION_MS;
+        System.out.printf("assign via %s: %d threads, %.0f commits/s, %d failed transactions%n",
+                label, THREADS, commitsPerSecond, failed.get());
+        return commitsPerSecond;
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void apply(UUID userId, UUID productId, AssignmentRole role);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.assignmentservice.benchmark;
+
+import com.example.assignmentservice.controller.UserProductAssignmentController;
+import com.example.assignmentservice.feign.ProductServiceClient;
+import com.example.assignmentservice.feign.UserServiceClient;
+import com.example.assignmentservice.model.entity.UserProductAssignment;
+import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.repository.AssignmentBatchRepository;
+import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import com.example.assignmentservice.service.AssignmentRoleIndex;
+import com.example.assignmentservice.service.ProductOwnershipEvictor;
+import com.example.assignmentservice.service.UserProductAssignmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Benchmarks for the assignment role index: raw lookup latency over 2M assignments and
+ * throughput of {@code GET /api/v1/assignments/exists} through the MVC stack, compared with
+ * a simulated DB path (1 ms per query, pool of 10 connections).
+ * Run with: mvn -pl assignment-service test -Dtest=AssignmentRoleIndexBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class AssignmentRoleIndexBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int ASSIGNMENTS = 2_000_000;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int HTTP_THREADS = 32;
+    private static final long HTTP_DURATION_MS = 10_000;
+    private static final long DB_LATENCY_MS = 1;
+    private static final int DB_POOL_SIZE = 10;
+    private static final int MAX_SAMPLES_PER_THREAD = 1 << 18;
+
+    @Test
+    public void lookupLatency() {
+        Random random = new Random(42);
+        List<UserProductAssignment> assignments = assignments(random);
+        AssignmentRoleIndex index = loadedIndex(assignments);
+
+        UUID[][] probes = probes(random, assignments, LOOKUPS);
+        // прогрев JIT
+        long found = 0;
+        for (UUID[] probe : probes) {
+            found += index.hasRole(probe[0], probe[1], AssignmentRole.PRODUCT_OWNER) ? 1 : 0;
+        }
+
+        long[] latencies = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            found += index.hasRole(probes[i][0], probes[i][1], AssignmentRole.PRODUCT_OWNER) ? 1 : 0;
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("AssignmentRoleIndex: %d assignments, %d lookups (%d hits)%n", index.size(), LOOKUPS, found);
+        System.out.printf("  p50=%d ns  p99=%d ns  p99.9=%d ns  max=%.1f us%n",
+                latencies[LOOKUPS / 2],
+                latencies[(int) (LOOKUPS * 0.99)],
+                latencies[(int) (LOOKUPS * 0.999)],
+                latencies[LOOKUPS - 1] / 1000.0);
+    }
+
+    @Test
+    public void existsEndpointThroughput() throws Exception {
+        Random random = new Random(7);
+        List<UserProductAssignment> assignments = assignments(random);
+        UUID[][] probes = probes(random, assignments, 100_000);
+
+        AssignmentRoleIndex index = loadedIndex(assignments);
+        report("index", mockMvc(index, mock(UserProductAssignmentRepository.class)), probes);
+
+        // Запросы к БД: 1 мс на запрос, не больше DB_POOL_SIZE одновременно, как с пулом соединений
+        UserProductAssignmentRepository dbRepo = mock(UserProductAssignmentRepository.class);
+        Semaphore pool = new Semaphore(DB_POOL_SIZE);
+        when(dbRepo.existsByUserIdAndProductIdAndRoleOnProduct(any(), any(), any())).thenAnswer(invocation -> {
+            pool.acquire();
+            try {
+                Thread.sleep(DB_LATENCY_MS);
+                return false;
+            } finally {
+                pool.release();
+            }
+        });
+        report("database", mockMvc(new AssignmentRoleIndex(dbRepo), dbRepo), probes);
+    }
+
+    private static MockMvc mockMvc(AssignmentRoleIndex index, UserProductAssignmentRepository repo) {
+        UserProductAssignmentService service = new UserProductAssignmentService(
+                repo, mock(UserServiceClient.class), mock(ProductServiceClient.class), index,
+                mock(AssignmentBatchRepository.class), mock(ProductOwnershipEvictor.class),
+                mock(PlatformTransactionManager.class));
+        return MockMvcBuilders.standaloneSetup(new UserProductAssignmentController(service, new ObjectMapper())).build();
+    }
+
+    private static void report(String label, MockMvc mockMvc, UUID[][] probes) throws Exception {
+        // прогрев JIT и MVC-инфраструктуры
+        for (int i = 0; i < 5_000; i++) {
+            UUID[] probe = probes[i % probes.length];
+            mockMvc.perform(get("/api/v1/assignments/exists")
+                    .param("userId", probe[0].toString())
+                    .param("productId", probe[1].toString())
+                    .param("role", AssignmentRole.PRODUCT_OWNER.name()));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(HTTP_THREADS);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(HTTP_DURATION_MS);
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < HTTP_THREADS; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    long[] latencies = new long[MAX_SAMPLES_PER_THREAD];
+                    int count = 0;
+                    for (int i = offset; System.nanoTime() < deadline && count < latencies.length; i += HTTP_THREADS) {
+                        UUID[] probe = probes[i % probes.length];
+                        long start = System.nanoTime();
+                        mockMvc.perform(get("/api/v1/assignments/exists")
+                                        .param("userId", probe[0].toString())
+                                        .param("productId", probe[1].toString())
+                                        .param("role", AssignmentRole.PRODUCT_OWNER.name()))
+                                .andExpect(status().isOk());
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            long[] all = new long[0];
+            for (Future<long[]> result : results) {
+                long[] part = result.get();
+                long[] merged = Arrays.copyOf(all, all.length + part.length);
+                System.arraycopy(part, 0, merged, all.length, part.length);
+                all = merged;
+            }
+            Arrays.sort(all);
+            System.out.printf("GET /exists via %s: %d threads, %.0f req/s, p50=%.1f us p99=%.1f us%n",
+                    label, HTTP_THREADS, all.length * 1000.0 / HTTP_DURATION_MS,
+                    all[all.length / 2] / 1000.0, all[(int) (all.length * 0.99)] / 1000.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static AssignmentRoleIndex loadedIndex(List<UserProductAssignment> assignments) {
+        UserProductAssignmentRepository repo = mock(UserProductAssignmentRepository.class);
+        when(repo.count()).thenReturn((long) assignments.size());
+        when(repo.findFirstPage(any(Pageable.class))).thenReturn(assignments);
+        AssignmentRoleIndex index = new AssignmentRoleIndex(repo);
+        long start = System.nanoTime();
+        index.rebuild();
+        System.out.printf("AssignmentRoleIndex: loaded %d assignments in %d ms%n",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    private static List<UserProductAssignment> assignments(Random random) {
+        UUID[] users = new UUID[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        AssignmentRole[] roles = AssignmentRole.values();
+        List<UserProductAssignment> assignments = new ArrayList<>(ASSIGNMENTS);
+        for (int i = 0; i < ASSIGNMENTS; i++) {
+            UserProductAssignment assignment = new UserProductAssignment();
+            assignment.setId(new UUID(random.nextLong(), random.nextLong()));
+            assignment.setUserId(users[random.nextInt(USERS)]);
+            assignment.setProductId(new UUID(random.nextLong(), random.nextLong()));
+            assignment.setRoleOnProduct(roles[random.nextInt(roles.length)]);
+            assignments.add(assignment);
+        }
+        return assignments;
+    }
+
+    // Половина проверок попадает в существующие пары, половина — промахи
+    private static UUID[][] probes(Random random, List<UserProductAssignment> assignments, int count) {
+        UUID[][] probes = new UUID[count][];
+        for (int i = 0; i < count; i++) {
+            if (random.nextBoolean()) {
+                UserProductAssignment assignment = assignments.get(random.nextInt(assignments.size()));
+                probes[i] = new UUID[]{assignment.getUserId(), assignment.getProductId()};
+            } else {
+                probes[i] = new UUID[]{UUID.randomUUID(), UUID.randomUUID()};
+            }
+        }
+        return probes;
+    }
+}
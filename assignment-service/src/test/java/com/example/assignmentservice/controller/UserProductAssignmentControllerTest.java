@@ -1,11 +1,16 @@
 package com.example.assignmentservice.controller;
 
 import com.example.assignmentservice.controller.UserProductAssignmentController;
+import com.example.assignmentservice.dto.AssignmentBatchItemResult;
+import com.example.assignmentservice.dto.AssignmentBatchRequest;
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
 import com.example.assignmentservice.dto.UserProductAssignmentRequest;
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.model.enums.BatchItemStatus;
 import com.example.assignmentservice.service.UserProductAssignmentService;
+import com.example.assignmentservice.util.AssignmentPage;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,10 +20,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -133,35 +143,120 @@ class UserProductAssignmentControllerTest {
     }
 
     @Test
-    void list_NoFilters_ReturnsAllAssignments() {
+    void assignBatch_Success_ReturnsPerRowResults() {
+        // Arrange
+        UserProductAssignmentRequest item = new UserProductAssignmentRequest();
+        item.setUserId(testUserId);
+        item.setProductId(testProductId);
+        item.setRole(AssignmentRole.VIEWER);
+        AssignmentBatchRequest req = new AssignmentBatchRequest();
+        req.setAssignments(List.of(item));
+        AssignmentBatchItemResult result = new AssignmentBatchItemResult();
+        result.setStatus(BatchItemStatus.ASSIGNED);
+
+        when(jwt.getClaimAsString("uid")).thenReturn(actorId.toString());
+        when(jwt.getClaimAsString("role")).thenReturn("ROLE_ADMIN");
+        when(service.assignBatch(actorId, "ROLE_ADMIN", req.getAssignments())).thenReturn(List.of(result));
+
+        // Act
+        ResponseEntity<List<AssignmentBatchItemResult>> response = controller.assignBatch(req, jwt);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(result);
+    }
+
+    @Test
+    void assignBatch_NoJwt_ReturnsUnauthorized() {
+        ResponseEntity<List<AssignmentBatchItemResult>> response =
+                controller.assignBatch(new AssignmentBatchRequest(), null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        verify(service, never()).assignBatch(any(), any(), any());
+    }
+
+    @Test
+    void list_NoFilters_ReturnsFirstPage() {
         // Arrange
         List<UserProductAssignmentDto> assignments = List.of(testDto);
-        when(service.list(null, null)).thenReturn(assignments);
+        when(service.list(null, null, null, null, 20)).thenReturn(new AssignmentPage(assignments, null));
 
         // Act
-        ResponseEntity<List<UserProductAssignmentDto>> response = controller.list(null, null);
+        ResponseEntity<List<UserProductAssignmentDto>> response = controller.list(null, null, null, null, 20);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(assignments);
+        assertThat(response.getHeaders().containsKey("X-Next-Cursor")).isFalse();
 
-        verify(service).list(null, null);
+        verify(service).list(null, null, null, null, 20);
     }
 
     @Test
-    void list_WithFilters_ReturnsFilteredAssignments() {
+    void list_WithFilters_ReturnsFilteredPageWithNextCursor() {
         // Arrange
         List<UserProductAssignmentDto> assignments = List.of(testDto);
-        when(service.list(testUserId, testProductId)).thenReturn(assignments);
+        when(service.list(testUserId, testProductId, AssignmentRole.PRODUCT_OWNER, "abc", 1))
+                .thenReturn(new AssignmentPage(assignments, "next"));
 
         // Act
-        ResponseEntity<List<UserProductAssignmentDto>> response = controller.list(testUserId, testProductId);
+        ResponseEntity<List<UserProductAssignmentDto>> response =
+                controller.list(testUserId, testProductId, AssignmentRole.PRODUCT_OWNER, "abc", 1);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(assignments);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("next");
+    }
+
+    @Test
+    void listAll_WritesEveryMatchAsJsonArray() throws Exception {
+        // Arrange
+        UserProductAssignmentController streamingController = new UserProductAssignmentController(
+                service, JsonMapper.builder().findAndAddModules().build());
+        doAnswer(invocation -> {
+            Consumer<UserProductAssignmentDto> action = invocation.getArgument(3);
+            action.accept(testDto);
+            action.accept(testDto);
+            return null;
+        }).when(service).forEach(isNull(), eq(testProductId), isNull(), any());
 
-        verify(service).list(testUserId, testProductId);
+        // Act
+        ResponseEntity<StreamingResponseBody> response = streamingController.listAll(null, testProductId, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertThat(response.getHeaders().getContentType().toString()).isEqualTo("application/json");
+        List<UserProductAssignmentDto> items = JsonMapper.builder().findAndAddModules().build()
+                .readerForListOf(UserProductAssignmentDto.class).readValue(output.toByteArray());
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getId()).isEqualTo(assignmentId);
+        verify(service, never()).list(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void stream_WritesOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        UserProductAssignmentController streamingController = new UserProductAssignmentController(
+                service, JsonMapper.builder().findAndAddModules().build());
+        doAnswer(invocation -> {
+            Consumer<UserProductAssignmentDto> action = invocation.getArgument(3);
+            action.accept(testDto);
+            action.accept(testDto);
+            return null;
+        }).when(service).forEach(eq(testUserId), isNull(), isNull(), any());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = streamingController.stream(testUserId, null, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertThat(response.getHeaders().getContentType().toString()).isEqualTo("application/x-ndjson");
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains(assignmentId.toString()).contains("PRODUCT_OWNER");
     }
 
     @Test
@@ -211,13 +306,14 @@ class UserProductAssignmentControllerTest {
         // Arrange
         when(jwt.getClaimAsString("uid")).thenReturn(actorId.toString());
         when(jwt.getClaimAsString("role")).thenReturn("ROLE_ADMIN");
-        doNothing().when(service).deleteAssignments(actorId, "ROLE_ADMIN", testUserId, testProductId);
+        when(service.deleteAssignments(actorId, "ROLE_ADMIN", testUserId, testProductId)).thenReturn(1);
 
         // Act
         ResponseEntity<Void> response = controller.deleteAssignments(jwt, testUserId, testProductId);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.getHeaders().getFirst("X-Deleted-Count")).isEqualTo("1");
 
         verify(service).deleteAssignments(actorId, "ROLE_ADMIN", testUserId, testProductId);
         verify(jwt).getClaimAsString("uid");
@@ -229,13 +325,14 @@ class UserProductAssignmentControllerTest {
         // Arrange
         when(jwt.getClaimAsString("uid")).thenReturn(actorId.toString());
         when(jwt.getClaimAsString("role")).thenReturn("ROLE_ADMIN");
-        doNothing().when(service).deleteAssignments(actorId, "ROLE_ADMIN", null, null);
+        when(service.deleteAssignments(actorId, "ROLE_ADMIN", null, null)).thenReturn(5);
 
         // Act
         ResponseEntity<Void> response = controller.deleteAssignments(jwt, null, null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.getHeaders().getFirst("X-Deleted-Count")).isEqualTo("5");
 
         verify(service).deleteAssignments(actorId, "ROLE_ADMIN", null, null);
     }
@@ -256,7 +353,7 @@ class UserProductAssignmentControllerTest {
         when(jwt.getClaimAsString("uid")).thenReturn(null);
         when(jwt.getSubject()).thenReturn(actorId.toString());
         when(jwt.getClaimAsString("role")).thenReturn("ROLE_ADMIN");
-        doNothing().when(service).deleteAssignments(actorId, "ROLE_ADMIN", null, null);
+        when(service.deleteAssignments(actorId, "ROLE_ADMIN", null, null)).thenReturn(5);
 
         // Act
         ResponseEntity<Void> response = controller.deleteAssignments(jwt, null, null);
@@ -268,4 +365,17 @@ class UserProductAssignmentControllerTest {
         verify(jwt).getSubject();
         verify(jwt).getClaimAsString("role");
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteAssignmentsByProductId_InternalCall_Success() {
+        // Act
+        when(jwt.getClaimAsString("uid")).thenReturn(actorId.toString());
+        when(jwt.getClaimAsString("role")).thenReturn("ROLE_ADMIN");
+
+        ResponseEntity<Void> response = controller.deleteAssignmentsByProductId(jwt, testProductId);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        verify(service).deleteByProductId(actorId, "ROLE_ADMIN", testProductId);
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.assignmentservice.integration;
 
 import com.example.assignmentservice.AssignmentServiceApplication;
+import com.example.assignmentservice.dto.AssignmentBatchItemResult;
+import com.example.assignmentservice.dto.AssignmentBatchRequest;
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
 import com.example.assignmentservice.dto.UserProductAssignmentRequest;
+import com.example.assignmentservice.exception.ServiceUnavailableException;
 import com.example.assignmentservice.feign.ProductServiceClient;
 import com.example.assignmentservice.feign.UserServiceClient;
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.model.enums.BatchItemStatus;
 import com.example.assignmentservice.repository.UserProductAssignmentRepository;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -339,6 +343,87 @@ public class AssignmentIntegrationTest {
         }
     }
 
+    @Test
+    void listAssignments_keysetPages_shouldReturnAllWithoutDuplicates() {
+        createTestAssignments();
+
+        HttpHeaders headers = headersWithToken(adminUserId, "ROLE_ADMIN");
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<UserProductAssignmentDto[]> first = restTemplate.exchange(
+                "/api/v1/assignments?limit=2",
+                HttpMethod.GET,
+                entity,
+                UserProductAssignmentDto[].class
+        );
+        String cursor = first.getHeaders().getFirst("X-Next-Cursor");
+        assertNotNull(cursor);
+        assertEquals(2, first.getBody().length);
+
+        ResponseEntity<UserProductAssignmentDto[]> second = restTemplate.exchange(
+                "/api/v1/assignments?limit=2&cursor={cursor}",
+                HttpMethod.GET,
+                entity,
+                UserProductAssignmentDto[].class,
+                cursor
+        );
+        assertEquals(1, second.getBody().length);
+        assertNull(second.getHeaders().getFirst("X-Next-Cursor"));
+        assertTrue(Arrays.stream(first.getBody())
+                .noneMatch(dto -> dto.getId().equals(second.getBody()[0].getId())));
+    }
+
+    @Test
+    void batchAssign_shouldUpsertValidRowsAndReportInvalidOnes() {
+        UserProductAssignment existing = new UserProductAssignment();
+        existing.setId(UUID.randomUUID());
+        existing.setUserId(regularUserId);
+        existing.setProductId(productId);
+        existing.setRoleOnProduct(AssignmentRole.VIEWER);
+        existing.setAssignedAt(Instant.now());
+        assignmentRepository.save(existing);
+        UUID unknownUser = UUID.randomUUID();
+        when(userServiceClient.existingUsers(any())).thenReturn(List.of(regularUserId, productOwnerUserId));
+        when(productServiceClient.existingProducts(any())).thenReturn(List.of(productId, anotherProductId));
+
+        AssignmentBatchRequest request = new AssignmentBatchRequest();
+        request.setAssignments(List.of(
+                assignmentRequest(regularUserId, productId, AssignmentRole.RESELLER),
+                assignmentRequest(productOwnerUserId, anotherProductId, AssignmentRole.PRODUCT_OWNER),
+                assignmentRequest(unknownUser, productId, AssignmentRole.VIEWER)));
+        HttpEntity<AssignmentBatchRequest> entity = new HttpEntity<>(request, headersWithToken(adminUserId, "ROLE_ADMIN"));
+
+        ResponseEntity<AssignmentBatchItemResult[]> response = restTemplate.exchange(
+                "/api/v1/assignments/batch",
+                HttpMethod.POST,
+                entity,
+                AssignmentBatchItemResult[].class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        AssignmentBatchItemResult[] results = response.getBody();
+        assertNotNull(results);
+        assertEquals(BatchItemStatus.ASSIGNED, results[0].getStatus());
+        // Существующая пара обновляется на месте и сохраняет свой id
+        assertEquals(existing.getId(), results[0].getAssignmentId());
+        assertEquals(BatchItemStatus.ASSIGNED, results[1].getStatus());
+        assertEquals(BatchItemStatus.USER_NOT_FOUND, results[2].getStatus());
+
+        assertEquals(2, assignmentRepository.count());
+        assertEquals(AssignmentRole.RESELLER,
+                assignmentRepository.findByUserIdAndProductId(regularUserId, productId).get().getRoleOnProduct());
+        assertTrue(assignmentRepository.existsByUserIdAndProductIdAndRoleOnProduct(
+                productOwnerUserId, anotherProductId, AssignmentRole.PRODUCT_OWNER));
+    }
+
+    private UserProductAssignmentRequest assignmentRequest(UUID userId, UUID productId, AssignmentRole role) {
+        UserProductAssignmentRequest request = new UserProductAssignmentRequest();
+        request.setUserId(userId);
+        request.setProductId(productId);
+        request.setRole(role);
+        return request;
+    }
+
     @Test
     void listAssignments_empty_shouldReturnEmptyList() {
         HttpHeaders headers = headersWithToken(adminUserId, "ROLE_ADMIN");
@@ -417,9 +502,30 @@ public class AssignmentIntegrationTest {
         );
 
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("X-Deleted-Count"));
         assertFalse(assignmentRepository.existsByUserIdAndProductId(productOwnerUserId, productId));
     }
 
+    @Test
+    void deleteAssignments_asAdmin_whenUserServiceIsDown_stillDeletesDanglingAssignments() {
+        createAssignmentAsOwner();
+        when(userServiceClient.userExists(any(UUID.class))).thenThrow(new ServiceUnavailableException("down"));
+        when(productServiceClient.productExists(any(UUID.class))).thenThrow(new ServiceUnavailableException("down"));
+
+        HttpHeaders headers = headersWithToken(adminUserId, "ROLE_ADMIN");
+        ResponseEntity<Void> response = restTemplate.exchange(
+                "/api/v1/assignments?userId={userId}",
+                HttpMethod.DELETE,
+                new HttpEntity<>(headers),
+                Void.class,
+                productOwnerUserId
+        );
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("X-Deleted-Count"));
+        assertTrue(assignmentRepository.findByUserId(productOwnerUserId).isEmpty());
+    }
+
     @Test
     void deleteAssignments_asAdmin_deleteAllUserAssignments_shouldReturnNoContent() {
         createTestAssignments();
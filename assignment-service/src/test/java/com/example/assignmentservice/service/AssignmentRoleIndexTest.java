@@ -0,0 +1,137 @@
+package com.example.assignmentservice.service;
+
+import com.example.assignmentservice.model.entity.UserProductAssignment;
+import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssignmentRoleIndexTest {
+
+    @Mock
+    private UserProductAssignmentRepository repo;
+
+    @Test
+    void rebuild_loadsAllBatches() {
+        List<UserProductAssignment> firstBatch = IntStream.range(0, 10_000)
+                .mapToObj(i -> assignment(UUID.randomUUID(), UUID.randomUUID(), AssignmentRole.VIEWER))
+                .toList();
+        UserProductAssignment last = assignment(UUID.randomUUID(), UUID.randomUUID(), AssignmentRole.PRODUCT_OWNER);
+        when(repo.count()).thenReturn(10_001L);
+        when(repo.findFirstPage(any(Pageable.class))).thenReturn(firstBatch);
+        when(repo.findPageAfter(eq(firstBatch.get(9_999).getId()), any(Pageable.class))).thenReturn(List.of(last));
+        AssignmentRoleIndex index = new AssignmentRoleIndex(repo);
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(10_001, index.size());
+        UserProductAssignment sample = firstBatch.get(42);
+        assertTrue(index.hasRole(sample.getUserId(), sample.getProductId(), AssignmentRole.VIEWER));
+        assertFalse(index.hasRole(sample.getUserId(), sample.getProductId(), AssignmentRole.PRODUCT_OWNER));
+        assertEquals(EnumSet.of(AssignmentRole.PRODUCT_OWNER), index.roles(last.getUserId(), last.getProductId()));
+    }
+
+    @Test
+    void writes_keepIndexInSync() {
+        AssignmentRoleIndex index = emptyIndex();
+        UUID user = UUID.randomUUID();
+        UUID product = UUID.randomUUID();
+        UUID otherProduct = UUID.randomUUID();
+
+        index.put(user, product, AssignmentRole.SUPPORT);
+        index.put(user, otherProduct, AssignmentRole.VIEWER);
+        assertTrue(index.hasRole(user, product, AssignmentRole.SUPPORT));
+
+        // Смена роли заменяет предыдущую: у пары одна роль
+        index.put(user, product, AssignmentRole.RESELLER);
+        assertFalse(index.hasRole(user, product, AssignmentRole.SUPPORT));
+        assertTrue(index.hasRole(user, product, AssignmentRole.RESELLER));
+
+        index.remove(user, product);
+        assertTrue(index.roles(user, product).isEmpty());
+
+        index.removeUser(user);
+        assertEquals(0, index.size());
+
+        index.put(user, product, AssignmentRole.VIEWER);
+        index.removeProduct(product);
+        assertEquals(0, index.size());
+
+        index.put(user, product, AssignmentRole.VIEWER);
+        index.clear();
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void writes_areAppliedOnlyAfterCommit() {
+        AssignmentRoleIndex index = emptyIndex();
+        UUID user = UUID.randomUUID();
+        UUID product = UUID.randomUUID();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.put(user, product, AssignmentRole.VIEWER);
+            assertFalse(index.hasRole(user, product, AssignmentRole.VIEWER));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.hasRole(user, product, AssignmentRole.VIEWER));
+    }
+
+    @Test
+    void writesDuringRebuild_areNotLost() {
+        UUID user = UUID.randomUUID();
+        UUID product = UUID.randomUUID();
+        UserProductAssignment removed = assignment(UUID.randomUUID(), UUID.randomUUID(), AssignmentRole.VIEWER);
+        AssignmentRoleIndex index = new AssignmentRoleIndex(repo);
+        // Запись и удаление приходят, пока загрузка читает снимок БД, в котором их ещё нет
+        when(repo.findFirstPage(any(Pageable.class))).thenAnswer(invocation -> {
+            index.put(user, product, AssignmentRole.PRODUCT_OWNER);
+            index.remove(removed.getUserId(), removed.getProductId());
+            return List.of(removed);
+        });
+
+        index.rebuild();
+
+        assertTrue(index.hasRole(user, product, AssignmentRole.PRODUCT_OWNER));
+        assertFalse(index.hasRole(removed.getUserId(), removed.getProductId(), AssignmentRole.VIEWER));
+        assertEquals(1, index.size());
+    }
+
+    private AssignmentRoleIndex emptyIndex() {
+        when(repo.findFirstPage(any(Pageable.class))).thenReturn(List.of());
+        AssignmentRoleIndex index = new AssignmentRoleIndex(repo);
+        index.rebuild();
+        return index;
+    }
+
+    private static UserProductAssignment assignment(UUID userId, UUID productId, AssignmentRole role) {
+        UserProductAssignment assignment = new UserProductAssignment();
+        assignment.setId(UUID.randomUUID());
+        assignment.setUserId(userId);
+        assignment.setProductId(productId);
+        assignment.setRoleOnProduct(role);
+        return assignment;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.assignmentservice.service;
 
+import com.example.assignmentservice.dto.AssignmentBatchItemResult;
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
+import com.example.assignmentservice.dto.UserProductAssignmentRequest;
+import com.example.assignmentservice.exception.BadRequestException;
 import com.example.assignmentservice.exception.ForbiddenException;
 import com.example.assignmentservice.exception.NotFoundException;
 import com.example.assignmentservice.exception.ServiceUnavailableException;
@@ -9,18 +12,27 @@ import com.example.assignmentservice.feign.ProductServiceClient;
 import com.example.assignmentservice.feign.UserServiceClient;
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.model.enums.BatchItemStatus;
+import com.example.assignmentservice.repository.AssignmentBatchRepository;
 import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import com.example.assignmentservice.util.AssignmentPage;
+import com.example.assignmentservice.util.CursorUtil;
 import feign.FeignException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +51,18 @@ class AssignmentServiceTest {
     @Mock
     private ProductServiceClient productServiceClient;
 
+    @Mock
+    private AssignmentRoleIndex roleIndex;
+
+    @Mock
+    private AssignmentBatchRepository batchRepo;
+
+    @Mock
+    private ProductOwnershipEvictor ownershipEvictor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserProductAssignmentService svc;
 
@@ -65,8 +89,6 @@ class AssignmentServiceTest {
         // Arrange
         when(userServiceClient.userExists(userId)).thenReturn(true);
         when(productServiceClient.productExists(productId)).thenReturn(true);
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
-        when(repo.findByUserIdAndProductId(userId, productId)).thenReturn(Optional.empty());
 
         UserProductAssignment savedAssignment = new UserProductAssignment();
         savedAssignment.setId(UUID.randomUUID());
@@ -75,16 +97,19 @@ class AssignmentServiceTest {
         savedAssignment.setRoleOnProduct(AssignmentRole.PRODUCT_OWNER);
         savedAssignment.setAssignedAt(Instant.now());
 
-        when(repo.save(any(UserProductAssignment.class))).thenReturn(savedAssignment);
+        when(repo.upsert(any(UUID.class), eq(userId), eq(productId), anyString(), any(Instant.class)))
+                .thenReturn(savedAssignment);
 
         // Act
         UserProductAssignment result = svc.assign(actorId, adminRole, userId, productId, AssignmentRole.PRODUCT_OWNER);
 
         // Assert
         assertNotNull(result);
-        verify(repo, times(1)).save(any(UserProductAssignment.class));
+        verify(repo, times(1)).upsert(any(UUID.class), eq(userId), eq(productId), anyString(), any(Instant.class));
         verify(userServiceClient, times(1)).userExists(userId);
         verify(productServiceClient, times(1)).productExists(productId);
+        verify(ownershipEvictor, times(1)).evictAfterCommit(userId, productId);
+        verify(roleIndex, times(1)).put(userId, productId, AssignmentRole.PRODUCT_OWNER);
     }
 
     @Test
@@ -93,7 +118,6 @@ class AssignmentServiceTest {
         when(userServiceClient.userExists(userId)).thenReturn(true);
         when(productServiceClient.productExists(productId)).thenReturn(true);
         when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(true);
-        when(repo.findByUserIdAndProductId(userId, productId)).thenReturn(Optional.empty());
 
         UserProductAssignment savedAssignment = new UserProductAssignment();
         savedAssignment.setId(UUID.randomUUID());
@@ -102,14 +126,15 @@ class AssignmentServiceTest {
         savedAssignment.setRoleOnProduct(AssignmentRole.VIEWER);
         savedAssignment.setAssignedAt(Instant.now());
 
-        when(repo.save(any(UserProductAssignment.class))).thenReturn(savedAssignment);
+        when(repo.upsert(any(UUID.class), eq(userId), eq(productId), anyString(), any(Instant.class)))
+                .thenReturn(savedAssignment);
 
         // Act
         UserProductAssignment result = svc.assign(actorId, clientRole, userId, productId, AssignmentRole.VIEWER);
 
         // Assert
         assertNotNull(result);
-        verify(repo, times(1)).save(any(UserProductAssignment.class));
+        verify(repo, times(1)).upsert(any(UUID.class), eq(userId), eq(productId), anyString(), any(Instant.class));
         verify(repo, times(1)).existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER);
     }
 
@@ -129,8 +154,13 @@ class AssignmentServiceTest {
         existingAssignment.setRoleOnProduct(AssignmentRole.VIEWER);
         existingAssignment.setAssignedAt(oldAssignedAt);
 
-        when(repo.findByUserIdAndProductId(userId, productId)).thenReturn(Optional.of(existingAssignment));
-        when(repo.save(any(UserProductAssignment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // ON CONFLICT DO UPDATE возвращает существующую строку с новой ролью и временем
+        when(repo.upsert(any(UUID.class), eq(userId), eq(productId), eq("PRODUCT_OWNER"), any(Instant.class)))
+                .thenAnswer(invocation -> {
+                    existingAssignment.setRoleOnProduct(AssignmentRole.valueOf(invocation.getArgument(3)));
+                    existingAssignment.setAssignedAt(invocation.getArgument(4));
+                    return existingAssignment;
+                });
 
         // Act
         UserProductAssignment result = svc.assign(actorId, clientRole, userId, productId, AssignmentRole.PRODUCT_OWNER);
@@ -140,7 +170,8 @@ class AssignmentServiceTest {
         assertEquals(AssignmentRole.PRODUCT_OWNER, result.getRoleOnProduct());
         assertTrue(result.getAssignedAt().isAfter(oldAssignedAt),
                 "New assignedAt should be after old assignedAt");
-        verify(repo, times(1)).save(existingAssignment);
+        assertEquals(existingAssignment.getId(), result.getId());
+        verify(repo, never()).findByUserIdAndProductId(any(), any());
     }
 
     @Test
@@ -152,7 +183,7 @@ class AssignmentServiceTest {
         assertThrows(ForbiddenException.class,
                 () -> svc.assign(actorId, clientRole, userId, productId, AssignmentRole.PRODUCT_OWNER));
 
-        verify(repo, never()).save(any());
+        verify(repo, never()).upsert(any(), any(), any(), any(), any());
         verify(userServiceClient, never()).userExists(any());
         verify(productServiceClient, never()).productExists(any());
     }
@@ -166,7 +197,7 @@ class AssignmentServiceTest {
         assertThrows(ForbiddenException.class,
                 () -> svc.assign(actorId, null, userId, productId, AssignmentRole.PRODUCT_OWNER));
 
-        verify(repo, never()).save(any());
+        verify(repo, never()).upsert(any(), any(), any(), any(), any());
         verify(userServiceClient, never()).userExists(any());
         verify(productServiceClient, never()).productExists(any());
     }
@@ -174,20 +205,18 @@ class AssignmentServiceTest {
     @Test
     void assign_throwsNotFound_whenUserNotFound() {
         // Arrange
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(NotFoundException.class,
                 () -> svc.assign(actorId, adminRole, userId, productId, AssignmentRole.PRODUCT_OWNER));
 
-        verify(repo, never()).save(any());
+        verify(repo, never()).upsert(any(), any(), any(), any(), any());
     }
 
     @Test
     void assign_throwsNotFound_whenProductNotFound() {
         // Arrange
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenReturn(true);
         when(productServiceClient.productExists(productId)).thenReturn(false);
 
@@ -195,130 +224,237 @@ class AssignmentServiceTest {
         assertThrows(NotFoundException.class,
                 () -> svc.assign(actorId, adminRole, userId, productId, AssignmentRole.PRODUCT_OWNER));
 
-        verify(repo, never()).save(any());
+        verify(repo, never()).upsert(any(), any(), any(), any(), any());
     }
 
     @Test
     void assign_throwsServiceUnavailable_whenUserServiceFailsCheckingUser() {
         // Arrange
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenThrow(FeignException.class);
 
         // Act & Assert
         assertThrows(ServiceUnavailableException.class,
                 () -> svc.assign(actorId, adminRole, userId, productId, AssignmentRole.PRODUCT_OWNER));
 
-        verify(repo, never()).save(any());
+        verify(repo, never()).upsert(any(), any(), any(), any(), any());
     }
 
     @Test
     void assign_throwsNotFoundException_whenActorNotFound_inCheckActorRights() {
         // Arrange
         FeignException.NotFound notFoundException = mock(FeignException.NotFound.class);
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenThrow(notFoundException);
 
         // Act & Assert
         assertThrows(ServiceUnavailableException.class,
                 () -> svc.assign(actorId, adminRole, userId, productId, AssignmentRole.PRODUCT_OWNER));
 
-        verify(repo, never()).save(any());
+        verify(repo, never()).upsert(any(), any(), any(), any(), any());
     }
 
     @Test
     void assign_throwsServiceUnavailable_whenUserServiceFails_inCheckActorRights() {
         // Arrange
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenThrow(FeignException.class);
 
         // Act & Assert
         assertThrows(ServiceUnavailableException.class,
                 () -> svc.assign(actorId, adminRole, userId, productId, AssignmentRole.PRODUCT_OWNER));
 
-        verify(repo, never()).save(any());
+        verify(repo, never()).upsert(any(), any(), any(), any(), any());
     }
 
     // -----------------------
-    // list tests
+    // assignBatch tests
     // -----------------------
     @Test
-    void list_byUser_returnsMappedDtos() {
+    void assignBatch_asAdmin_validatesInBulkAndUpsertsValidRows() {
         // Arrange
-        UserProductAssignment assignment = new UserProductAssignment();
-        assignment.setId(UUID.randomUUID());
-        assignment.setUserId(userId);
-        assignment.setProductId(productId);
-        assignment.setRoleOnProduct(AssignmentRole.PRODUCT_OWNER);
-        assignment.setAssignedAt(Instant.now());
+        UUID unknownUser = UUID.randomUUID();
+        UUID unknownProduct = UUID.randomUUID();
+        when(userServiceClient.existingUsers(any())).thenReturn(List.of(userId));
+        when(productServiceClient.existingProducts(any())).thenReturn(List.of(productId));
+        UUID storedId = UUID.randomUUID();
+        doAnswer(invocation -> {
+            List<UserProductAssignment> rows = invocation.getArgument(0);
+            rows.get(0).setId(storedId);
+            return null;
+        }).when(batchRepo).upsertAll(anyList());
+
+        // Act
+        List<AssignmentBatchItemResult> results = svc.assignBatch(actorId, adminRole, List.of(
+                request(userId, productId, AssignmentRole.SUPPORT),
+                request(unknownUser, productId, AssignmentRole.VIEWER),
+                request(userId, unknownProduct, AssignmentRole.VIEWER)));
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(BatchItemStatus.ASSIGNED, results.get(0).getStatus());
+        assertEquals(storedId, results.get(0).getAssignmentId());
+        assertEquals(BatchItemStatus.USER_NOT_FOUND, results.get(1).getStatus());
+        assertNull(results.get(1).getAssignmentId());
+        assertEquals(BatchItemStatus.PRODUCT_NOT_FOUND, results.get(2).getStatus());
+        assertEquals(2, results.get(2).getIndex());
+
+        verify(userServiceClient, times(1)).existingUsers(Set.of(userId, unknownUser));
+        verify(productServiceClient, times(1)).existingProducts(Set.of(productId, unknownProduct));
+        verify(userServiceClient, never()).userExists(any());
+        verify(batchRepo, times(1)).upsertAll(argThat(rows -> rows.size() == 1));
+        verify(roleIndex, times(1)).put(userId, productId, AssignmentRole.SUPPORT);
+        verify(ownershipEvictor, times(1)).evictAfterCommit(null, productId);
+    }
+
+    @Test
+    void assignBatch_asOwner_checksRightsOncePerProduct() {
+        // Arrange
+        UUID otherProduct = UUID.randomUUID();
+        UUID otherUser = UUID.randomUUID();
+        when(userServiceClient.existingUsers(any())).thenReturn(List.of(userId, otherUser));
+        when(productServiceClient.existingProducts(any())).thenReturn(List.of(productId, otherProduct));
+        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER))
+                .thenReturn(true);
+        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, otherProduct, AssignmentRole.PRODUCT_OWNER))
+                .thenReturn(false);
+
+        // Act
+        List<AssignmentBatchItemResult> results = svc.assignBatch(actorId, clientRole, List.of(
+                request(userId, productId, AssignmentRole.VIEWER),
+                request(otherUser, productId, AssignmentRole.VIEWER),
+                request(userId, otherProduct, AssignmentRole.VIEWER)));
+
+        // Assert
+        assertEquals(BatchItemStatus.ASSIGNED, results.get(0).getStatus());
+        assertEquals(BatchItemStatus.ASSIGNED, results.get(1).getStatus());
+        assertEquals(BatchItemStatus.FORBIDDEN, results.get(2).getStatus());
+        verify(repo, times(1)).existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER);
+        verify(batchRepo, times(1)).upsertAll(argThat(rows -> rows.size() == 2));
+    }
+
+    @Test
+    void assignBatch_checksExistenceBeforeOpeningTransaction() {
+        when(userServiceClient.existingUsers(any())).thenReturn(List.of(userId));
+        when(productServiceClient.existingProducts(any())).thenReturn(List.of(productId));
+
+        svc.assignBatch(actorId, adminRole, List.of(request(userId, productId, AssignmentRole.VIEWER)));
+
+        InOrder order = inOrder(userServiceClient, productServiceClient, transactionManager, batchRepo);
+        order.verify(userServiceClient).existingUsers(any());
+        order.verify(productServiceClient).existingProducts(any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(batchRepo).upsertAll(anyList());
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void assignBatch_userServiceUnavailable_throwsServiceUnavailable() {
+        when(userServiceClient.existingUsers(any())).thenThrow(FeignException.class);
+
+        assertThrows(ServiceUnavailableException.class, () -> svc.assignBatch(actorId, adminRole,
+                List.of(request(userId, productId, AssignmentRole.VIEWER))));
+
+        verifyNoInteractions(batchRepo);
+    }
 
-        when(repo.findByUserId(userId)).thenReturn(List.of(assignment));
+    @Test
+    void assignBatch_throwsUnauthorized_whenActorIdIsNull() {
+        assertThrows(UnauthorizedException.class, () -> svc.assignBatch(null, adminRole,
+                List.of(request(userId, productId, AssignmentRole.VIEWER))));
+    }
+
+    private UserProductAssignmentRequest request(UUID userId, UUID productId, AssignmentRole role) {
+        UserProductAssignmentRequest request = new UserProductAssignmentRequest();
+        request.setUserId(userId);
+        request.setProductId(productId);
+        request.setRole(role);
+        return request;
+    }
+
+    // -----------------------
+    // list tests
+    // -----------------------
+    @Test
+    void list_returnsMappedDtos_andNextCursor_whenPageIsFull() {
+        // Arrange
+        UserProductAssignment assignment = assignment(AssignmentRole.PRODUCT_OWNER);
+        when(repo.findBy(any(Specification.class), any())).thenReturn(List.of(assignment));
 
         // Act
-        List<UserProductAssignmentDto> result = svc.list(userId, null);
+        AssignmentPage page = svc.list(userId, null, AssignmentRole.PRODUCT_OWNER, null, 1);
 
         // Assert
-        assertEquals(1, result.size());
-        UserProductAssignmentDto dto = result.get(0);
+        assertEquals(1, page.items().size());
+        UserProductAssignmentDto dto = page.items().get(0);
         assertEquals(assignment.getId(), dto.getId());
         assertEquals(userId, dto.getUserId());
         assertEquals(productId, dto.getProductId());
         assertEquals(AssignmentRole.PRODUCT_OWNER, dto.getRole());
         assertEquals(assignment.getAssignedAt(), dto.getAssignedAt());
+        assertEquals(assignment.getId(), CursorUtil.decode(page.nextCursor()));
     }
 
     @Test
-    void list_byProduct_returnsMappedDtos() {
+    void list_lastPage_hasNoNextCursor() {
         // Arrange
-        UserProductAssignment assignment = new UserProductAssignment();
-        assignment.setId(UUID.randomUUID());
-        assignment.setUserId(userId);
-        assignment.setProductId(productId);
-        assignment.setRoleOnProduct(AssignmentRole.VIEWER);
-        assignment.setAssignedAt(Instant.now());
-
-        when(repo.findByProductId(productId)).thenReturn(List.of(assignment));
+        when(repo.findBy(any(Specification.class), any())).thenReturn(List.of(assignment(AssignmentRole.VIEWER)));
 
         // Act
-        List<UserProductAssignmentDto> result = svc.list(null, productId);
+        AssignmentPage page = svc.list(null, productId, null, CursorUtil.encode(UUID.randomUUID()), 20);
 
         // Assert
-        assertEquals(1, result.size());
-        UserProductAssignmentDto dto = result.get(0);
-        assertEquals(productId, dto.getProductId());
-        assertEquals(userId, dto.getUserId());
-        assertEquals(AssignmentRole.VIEWER, dto.getRole());
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
     }
 
     @Test
-    void list_all_returnsMappedDtos() {
+    void list_whenNoAssignments_returnsEmptyPage() {
         // Arrange
-        UserProductAssignment assignment = new UserProductAssignment();
-        assignment.setId(UUID.randomUUID());
-        assignment.setUserId(userId);
-        assignment.setProductId(productId);
-        assignment.setRoleOnProduct(AssignmentRole.PRODUCT_OWNER);
-        assignment.setAssignedAt(Instant.now());
-
-        when(repo.findAll()).thenReturn(List.of(assignment));
+        when(repo.findBy(any(Specification.class), any())).thenReturn(List.of());
 
         // Act
-        List<UserProductAssignmentDto> result = svc.list(null, null);
+        AssignmentPage page = svc.list(null, null, null, null, 20);
 
         // Assert
-        assertEquals(1, result.size());
-        assertEquals(assignment.getId(), result.get(0).getId());
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void list_invalidCursor_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> svc.list(null, null, null, "not-a-cursor", 20));
+        verify(repo, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void list_nonPositiveLimit_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> svc.list(null, null, null, null, 0));
+    }
+
+    @Test
+    void list_limitAboveMaximum_throwsBadRequest() {
+        int limit = UserProductAssignmentService.MAX_PAGE_SIZE + 1;
+        assertThrows(BadRequestException.class, () -> svc.list(null, null, null, null, limit));
+        verify(repo, never()).findBy(any(Specification.class), any());
     }
 
     @Test
-    void list_byUser_whenNoAssignments_returnsEmptyList() {
+    void forEach_readsKeysetBatchesUntilShortBatch() {
         // Arrange
-        when(repo.findByUserId(userId)).thenReturn(List.of());
+        List<UserProductAssignment> fullBatch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            fullBatch.add(assignment(AssignmentRole.VIEWER));
+        }
+        when(repo.findBy(any(Specification.class), any()))
+                .thenReturn(fullBatch)
+                .thenReturn(List.of(assignment(AssignmentRole.SUPPORT)));
+        List<UserProductAssignmentDto> streamed = new ArrayList<>();
 
         // Act
-        List<UserProductAssignmentDto> result = svc.list(userId, null);
+        svc.forEach(userId, null, null, streamed::add);
 
         // Assert
-        assertTrue(result.isEmpty());
+        assertEquals(1001, streamed.size());
+        assertEquals(AssignmentRole.SUPPORT, streamed.get(1000).getRole());
+        verify(repo, times(2)).findBy(any(Specification.class), any());
     }
 
     // -----------------------
@@ -345,79 +481,84 @@ class AssignmentServiceTest {
     @Test
     void deleteAssignments_deleteSpecificAssignment_whenBothIdsProvided() {
         // Arrange
-        when(userServiceClient.userExists(userId)).thenReturn(true);
-        when(productServiceClient.productExists(productId)).thenReturn(true);
+        when(repo.deleteByUserIdAndProductId(userId, productId)).thenReturn(1);
 
         // Act
-        svc.deleteAssignments(actorId, adminRole, userId, productId);
+        int deleted = svc.deleteAssignments(actorId, adminRole, userId, productId);
 
         // Assert
+        assertEquals(1, deleted);
         verify(repo, times(1)).deleteByUserIdAndProductId(userId, productId);
-        verify(userServiceClient, times(1)).userExists(userId);
-        verify(productServiceClient, times(1)).productExists(productId);
+        verify(roleIndex, times(1)).remove(userId, productId);
+        verify(ownershipEvictor, times(1)).evictAfterCommit(userId, productId);
+        verifyNoInteractions(productServiceClient);
+        verifyNoRemoteExistenceChecks();
     }
 
     @Test
     void deleteAssignments_deleteByUser_whenUserProvided() {
         // Arrange
-        when(userServiceClient.userExists(userId)).thenReturn(true);
+        when(repo.deleteByUserId(userId)).thenReturn(3);
 
         // Act
-        svc.deleteAssignments(actorId, adminRole, userId, null);
+        int deleted = svc.deleteAssignments(actorId, adminRole, userId, null);
 
         // Assert
+        assertEquals(3, deleted);
         verify(repo, times(1)).deleteByUserId(userId);
-        verify(userServiceClient, times(1)).userExists(userId);
-        verify(productServiceClient, never()).productExists(any());
+        verify(roleIndex, times(1)).removeUser(userId);
+        verifyNoRemoteExistenceChecks();
     }
 
     @Test
     void deleteAssignments_deleteByProduct_whenProductProvided() {
         // Arrange
-        when(productServiceClient.productExists(productId)).thenReturn(true);
+        when(repo.deleteByProductId(productId)).thenReturn(2);
 
         // Act
-        svc.deleteAssignments(actorId, adminRole, null, productId);
+        int deleted = svc.deleteAssignments(actorId, adminRole, null, productId);
 
         // Assert
+        assertEquals(2, deleted);
         verify(repo, times(1)).deleteByProductId(productId);
-        verify(productServiceClient, times(1)).productExists(productId);
-        verify(userServiceClient, never()).userExists(any());
+        verify(roleIndex, times(1)).removeProduct(productId);
+        verifyNoRemoteExistenceChecks();
     }
 
     @Test
     void deleteAssignments_deleteAll_whenNoIdsProvided() {
+        // Arrange
+        when(repo.deleteAllAssignments()).thenReturn(10);
+
         // Act
-        svc.deleteAssignments(actorId, adminRole, null, null);
+        int deleted = svc.deleteAssignments(actorId, adminRole, null, null);
 
         // Assert
-        verify(repo, times(1)).deleteAll();
-        verify(userServiceClient, never()).userExists(any());
-        verify(productServiceClient, never()).productExists(any());
+        assertEquals(10, deleted);
+        verify(repo, times(1)).deleteAllAssignments();
+        verify(repo, never()).deleteAll();
+        verify(roleIndex, times(1)).clear();
+        verifyNoRemoteExistenceChecks();
     }
 
     @Test
-    void deleteAssignments_throwsNotFoundException_whenUserNotFound() {
-        // Arrange
-        when(userServiceClient.userExists(userId)).thenReturn(false);
-
-        // Act & Assert
-        assertThrows(NotFoundException.class,
-                () -> svc.deleteAssignments(actorId, adminRole, userId, null));
+    void deleteAssignments_succeeds_whenUserAndProductServicesAreDown() {
+        // Висячие назначения удаляются, даже если user-service и product-service недоступны
+        lenient().when(userServiceClient.userExists(any())).thenThrow(FeignException.class);
+        lenient().when(productServiceClient.productExists(any())).thenThrow(FeignException.class);
+        when(repo.deleteByUserIdAndProductId(userId, productId)).thenReturn(1);
 
-        verify(repo, never()).deleteByUserId(any());
+        assertEquals(1, svc.deleteAssignments(actorId, adminRole, userId, productId));
+        verifyNoRemoteExistenceChecks();
     }
 
     @Test
-    void deleteAssignments_throwsServiceUnavailable_whenUserServiceFails() {
-        // Arrange
-        when(userServiceClient.userExists(userId)).thenThrow(FeignException.class);
+    void deleteAssignments_nothingDeleted_skipsOwnershipCacheEviction() {
+        when(repo.deleteByUserId(userId)).thenReturn(0);
 
-        // Act & Assert
-        assertThrows(ServiceUnavailableException.class,
-                () -> svc.deleteAssignments(actorId, adminRole, userId, productId));
+        assertEquals(0, svc.deleteAssignments(actorId, adminRole, userId, null));
 
-        verify(repo, never()).deleteByUserIdAndProductId(any(), any());
+        verify(ownershipEvictor, never()).evictAfterCommit(any(), any());
     }
 
     @Test
@@ -427,27 +568,6 @@ class AssignmentServiceTest {
                 () -> svc.deleteAssignments(null, adminRole, userId, productId));
     }
 
-    @Test
-    void deleteAssignments_throwsNotFoundException_whenActorNotFound_inCheckAdminRights() {
-        // Arrange
-        FeignException.NotFound notFoundException = mock(FeignException.NotFound.class);
-        when(userServiceClient.userExists(userId)).thenThrow(notFoundException);
-
-        // Act & Assert
-        assertThrows(ServiceUnavailableException.class,
-                () -> svc.deleteAssignments(actorId, adminRole, userId, productId));
-    }
-
-    @Test
-    void deleteAssignments_throwsServiceUnavailable_whenUserServiceFails_inCheckAdminRights() {
-        // Arrange
-        when(userServiceClient.userExists(userId)).thenThrow(FeignException.class);
-
-        // Act & Assert
-        assertThrows(ServiceUnavailableException.class,
-                () -> svc.deleteAssignments(actorId, adminRole, userId, productId));
-    }
-
     // -----------------------
     // existsByUserAndProductAndRole tests
     // -----------------------
@@ -479,6 +599,28 @@ class AssignmentServiceTest {
         verify(repo, times(1)).existsByUserIdAndProductIdAndRoleOnProduct(userId, productId, role);
     }
 
+    @Test
+    void existsByUserAndProductAndRole_usesRoleIndex_whenReady() {
+        when(roleIndex.isReady()).thenReturn(true);
+        when(roleIndex.hasRole(userId, productId, AssignmentRole.VIEWER)).thenReturn(true);
+
+        assertTrue(svc.existsByUserAndProductAndRole(userId, productId, AssignmentRole.VIEWER));
+
+        verify(repo, never()).existsByUserIdAndProductIdAndRoleOnProduct(any(), any(), any());
+    }
+
+    @Test
+    void assign_checksOwnerInRoleIndex_whenReady() {
+        when(roleIndex.isReady()).thenReturn(true);
+        when(roleIndex.hasRole(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
+
+        assertThrows(ForbiddenException.class,
+                () -> svc.assign(actorId, clientRole, userId, productId, AssignmentRole.VIEWER));
+
+        verify(repo, never()).existsByUserIdAndProductIdAndRoleOnProduct(any(), any(), any());
+        verify(roleIndex, never()).put(any(), any(), any());
+    }
+
     // -----------------------
     // deleteByProductId tests
     // -----------------------
@@ -489,6 +631,38 @@ class AssignmentServiceTest {
 
         // Assert
         verify(repo, times(1)).deleteByProductId(productId);
+        verify(roleIndex, times(1)).removeProduct(productId);
+        verify(ownershipEvictor, times(1)).evictAfterCommit(null, productId);
+        verifyNoInteractions(productServiceClient);
+    }
+
+    @Test
+    void deleteByProductId_asOwner_deletes() {
+        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER))
+                .thenReturn(true);
+
+        svc.deleteByProductId(actorId, clientRole, productId);
+
+        verify(repo, times(1)).deleteByProductId(productId);
+    }
+
+    @Test
+    void deleteByProductId_notAdminNorOwner_throwsForbidden() {
+        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER))
+                .thenReturn(false);
+
+        assertThrows(ForbiddenException.class, () -> svc.deleteByProductId(actorId, clientRole, productId));
+
+        verify(repo, never()).deleteByProductId(any());
+    }
+
+    @Test
+    void deleteByUserId_leavesOwnershipCacheEvictionToEvictor() {
+        assertDoesNotThrow(() -> svc.deleteByUserId(userId));
+
+        verify(repo, times(1)).deleteByUserId(userId);
+        verify(ownershipEvictor, times(1)).evictAfterCommit(userId, null);
+        verifyNoInteractions(productServiceClient);
     }
 
     @Test
@@ -500,6 +674,37 @@ class AssignmentServiceTest {
         verify(repo, times(1)).deleteByUserId(userId);
     }
 
+    @Test
+    void deleteOrphans_deletesByIds_andEvictsOnlyOwnerEntries() {
+        UserProductAssignment owner = assignment(AssignmentRole.PRODUCT_OWNER);
+        UserProductAssignment viewer = assignment(AssignmentRole.VIEWER);
+        viewer.setUserId(UUID.randomUUID());
+        when(repo.deleteByIds(List.of(owner.getId(), viewer.getId()))).thenReturn(2);
+
+        assertEquals(2, svc.deleteOrphans(List.of(owner, viewer)));
+
+        verify(roleIndex).remove(owner.getUserId(), owner.getProductId());
+        verify(roleIndex).remove(viewer.getUserId(), viewer.getProductId());
+        verify(ownershipEvictor, times(1)).evictAfterCommit(owner.getUserId(), owner.getProductId());
+        verify(ownershipEvictor, never()).evictAfterCommit(eq(viewer.getUserId()), any());
+    }
+
+    @Test
+    void deleteOrphans_emptyList_doesNothing() {
+        assertEquals(0, svc.deleteOrphans(List.of()));
+        verify(repo, never()).deleteByIds(any());
+    }
+
+    private UserProductAssignment assignment(AssignmentRole role) {
+        UserProductAssignment assignment = new UserProductAssignment();
+        assignment.setId(UUID.randomUUID());
+        assignment.setUserId(userId);
+        assignment.setProductId(productId);
+        assignment.setRoleOnProduct(role);
+        assignment.setAssignedAt(Instant.now());
+        return assignment;
+    }
+
     // -----------------------
     // toDto tests
     // -----------------------
@@ -536,7 +741,6 @@ class AssignmentServiceTest {
     @Test
     void checkUserExists_returnsNull_throwsServiceUnavailable() {
         // Arrange
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenReturn(null);
 
         // Act & Assert
@@ -547,7 +751,6 @@ class AssignmentServiceTest {
     @Test
     void checkUserExists_returnsFalse_throwsNotFoundException() {
         // Arrange
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenReturn(false);
 
         // Act & Assert
@@ -558,7 +761,6 @@ class AssignmentServiceTest {
     @Test
     void checkProductExists_returnsNull_throwsServiceUnavailable() {
         // Arrange
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenReturn(true);
         when(productServiceClient.productExists(productId)).thenReturn(null);
 
@@ -570,7 +772,6 @@ class AssignmentServiceTest {
     @Test
     void checkProductExists_throwsServiceUnavailable_whenFeignException() {
         // Arrange
-        when(repo.existsByUserIdAndProductIdAndRoleOnProduct(actorId, productId, AssignmentRole.PRODUCT_OWNER)).thenReturn(false);
         when(userServiceClient.userExists(userId)).thenReturn(true);
         when(productServiceClient.productExists(productId)).thenThrow(FeignException.class);
 
@@ -579,23 +780,8 @@ class AssignmentServiceTest {
                 () -> svc.assign(actorId, adminRole, userId, productId, AssignmentRole.PRODUCT_OWNER));
     }
 
-    @Test
-    void checkAdminRights_throwsNotFoundException_whenActorNotFound() {
-        // Arrange
-        FeignException.NotFound notFoundException = mock(FeignException.NotFound.class);
-        when(userServiceClient.userExists(userId)).thenThrow(notFoundException);
-        // Act & Assert
-        assertThrows(ServiceUnavailableException.class,
-                () -> svc.deleteAssignments(actorId, adminRole, userId, productId));
-    }
-
-    @Test
-    void checkAdminRights_throwsServiceUnavailable_whenFeignException() {
-        // Arrange
-        when(userServiceClient.userExists(userId)).thenThrow(FeignException.class);
-
-        // Act & Assert
-        assertThrows(ServiceUnavailableException.class,
-                () -> svc.deleteAssignments(actorId, adminRole, userId, productId));
+    private void verifyNoRemoteExistenceChecks() {
+        verify(userServiceClient, never()).userExists(any());
+        verify(productServiceClient, never()).productExists(any());
     }
-}
\ No newline at end of file
+}
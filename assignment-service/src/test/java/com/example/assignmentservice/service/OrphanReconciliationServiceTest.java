@@ -0,0 +1,160 @@
+package com.example.assignmentservice.service;
+
+import com.example.assignmentservice.auth.ServiceAccount;
+import com.example.assignmentservice.exception.ServiceUnavailableException;
+import com.example.assignmentservice.feign.ProductServiceClient;
+import com.example.assignmentservice.feign.UserServiceClient;
+import com.example.assignmentservice.model.entity.UserProductAssignment;
+import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanReconciliationServiceTest {
+
+    @Mock
+    private UserProductAssignmentRepository repo;
+
+    @Mock
+    private UserProductAssignmentService assignmentService;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    @Mock
+    private ServiceAccount serviceAccount;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrphanReconciliationService job;
+
+    private final UUID liveUser = UUID.randomUUID();
+    private final UUID liveProduct = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new OrphanReconciliationService(repo, assignmentService, userServiceClient, productServiceClient,
+                serviceAccount, meterRegistry, true, 2, 0);
+    }
+
+    @Test
+    void reconcile_deletesAssignmentsOfMissingUsersAndProducts_chunkByChunk() {
+        UserProductAssignment live = assignment(liveUser, liveProduct);
+        UserProductAssignment noUser = assignment(UUID.randomUUID(), liveProduct);
+        UserProductAssignment noProduct = assignment(liveUser, UUID.randomUUID());
+        when(repo.findFirstPage(any(Pageable.class))).thenReturn(List.of(live, noUser));
+        when(repo.findPageAfter(eq(noUser.getId()), any(Pageable.class))).thenReturn(List.of(noProduct));
+        when(userServiceClient.existingUsers(any())).thenReturn(List.of(liveUser));
+        when(productServiceClient.existingProducts(any())).thenReturn(List.of(liveProduct));
+        when(assignmentService.deleteOrphans(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        long removed = job.reconcile();
+
+        assertEquals(2, removed);
+        verify(assignmentService).deleteOrphans(List.of(noUser));
+        verify(assignmentService).deleteOrphans(List.of(noProduct));
+        verify(userServiceClient, times(2)).existingUsers(any());
+        assertEquals(3, counter("reconciliation.rows.scanned"));
+        assertEquals(2, counter("reconciliation.rows.removed"));
+    }
+
+    @Test
+    void reconcile_stopsWithoutDeleting_whenExistenceCannotBeVerified() {
+        when(repo.findFirstPage(any(Pageable.class)))
+                .thenReturn(List.of(assignment(liveUser, liveProduct), assignment(UUID.randomUUID(), liveProduct)));
+        when(userServiceClient.existingUsers(any())).thenThrow(new ServiceUnavailableException("down"));
+
+        assertEquals(0, job.reconcile());
+
+        verify(assignmentService, never()).deleteOrphans(anyList());
+        verify(repo, never()).findPageAfter(any(), any(Pageable.class));
+        assertEquals(1, counter("reconciliation.runs.failed"));
+        assertEquals(0, counter("reconciliation.rows.scanned"));
+    }
+
+    @Test
+    void reconcile_treatsNullResponseAsFailure() {
+        when(repo.findFirstPage(any(Pageable.class))).thenReturn(List.of(assignment(liveUser, liveProduct)));
+        when(userServiceClient.existingUsers(any())).thenReturn(List.of(liveUser));
+        when(productServiceClient.existingProducts(any())).thenReturn(null);
+
+        assertEquals(0, job.reconcile());
+
+        verify(assignmentService, never()).deleteOrphans(anyList());
+        assertEquals(1, counter("reconciliation.runs.failed"));
+    }
+
+    @Test
+    void scheduledReconcile_doesNothing_whenDisabled() {
+        OrphanReconciliationService disabled = new OrphanReconciliationService(repo, assignmentService,
+                userServiceClient, productServiceClient, serviceAccount, meterRegistry, false, 100, 0);
+
+        disabled.scheduledReconcile();
+
+        verifyNoInteractions(repo, userServiceClient, productServiceClient, assignmentService, serviceAccount);
+    }
+
+    @Test
+    void scheduledReconcile_callsServicesWithServiceAccountToken() {
+        Authentication service = new TestingAuthenticationToken("assignment-service", "token");
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(service);
+        when(serviceAccount.isConfigured()).thenReturn(true);
+        when(serviceAccount.securityContext()).thenReturn(context);
+        when(repo.findFirstPage(any(Pageable.class))).thenReturn(List.of(assignment(liveUser, liveProduct)));
+        AtomicReference<Authentication> callerAuth = new AtomicReference<>();
+        when(userServiceClient.existingUsers(any())).thenAnswer(invocation -> {
+            callerAuth.set(SecurityContextHolder.getContext().getAuthentication());
+            return List.of(liveUser);
+        });
+        when(productServiceClient.existingProducts(any())).thenReturn(List.of(liveProduct));
+
+        job.scheduledReconcile();
+
+        assertSame(service, callerAuth.get());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void scheduledReconcile_skipped_withoutServiceAccount() {
+        job.scheduledReconcile();
+
+        verifyNoInteractions(repo, userServiceClient, productServiceClient, assignmentService);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("entity", "assignment").counter().count();
+    }
+
+    private static UserProductAssignment assignment(UUID userId, UUID productId) {
+        UserProductAssignment assignment = new UserProductAssignment();
+        assignment.setId(UUID.randomUUID());
+        assignment.setUserId(userId);
+        assignment.setProductId(productId);
+        assignment.setRoleOnProduct(AssignmentRole.VIEWER);
+        return assignment;
+    }
+}
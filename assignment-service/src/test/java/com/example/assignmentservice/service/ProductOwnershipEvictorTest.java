@@ -0,0 +1,107 @@
+package com.example.assignmentservice.service;
+
+import com.example.assignmentservice.feign.ProductServiceClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductOwnershipEvictorTest {
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    // Задачи копятся и выполняются тестом явно, как фоновым пулом
+    private final List<Runnable> queued = new ArrayList<>();
+    private ProductOwnershipEvictor evictor;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        evictor = new ProductOwnershipEvictor(productServiceClient, queued::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void evictAfterCommit_queuesCallOnlyAfterCommittedCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        evictor.evictAfterCommit(userId, productId);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertTrue(queued.isEmpty());
+
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        verifyNoInteractions(productServiceClient);
+        queued.forEach(Runnable::run);
+
+        verify(productServiceClient).evictOwnershipCache(userId, productId);
+    }
+
+    @Test
+    void evictAfterCommit_rolledBack_doesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        evictor.evictAfterCommit(userId, productId);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void evictAfterCommit_forwardsCallerSecurityContext() {
+        Authentication caller = new TestingAuthenticationToken("admin", "token");
+        SecurityContextHolder.getContext().setAuthentication(caller);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        doAnswer(invocation -> {
+            seen.set(SecurityContextHolder.getContext().getAuthentication());
+            return null;
+        }).when(productServiceClient).evictOwnershipCache(userId, null);
+
+        evictor.evictAfterCommit(userId, null);
+        SecurityContextHolder.clearContext();
+        queued.forEach(Runnable::run);
+
+        assertSame(caller, seen.get());
+    }
+
+    @Test
+    void evictAfterCommit_failuresAndFullQueueAreSwallowed() {
+        doThrow(new RuntimeException("connection refused")).when(productServiceClient).evictOwnershipCache(any(), any());
+        evictor.evictAfterCommit(userId, productId);
+        assertDoesNotThrow(() -> queued.forEach(Runnable::run));
+
+        ProductOwnershipEvictor saturated = new ProductOwnershipEvictor(productServiceClient, task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        assertDoesNotThrow(() -> saturated.evictAfterCommit(userId, productId));
+    }
+}
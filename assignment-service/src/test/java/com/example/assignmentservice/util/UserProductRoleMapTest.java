@@ -0,0 +1,113 @@
+package com.example.assignmentservice.util;
+
+import com.example.assignmentservice.model.enums.AssignmentRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProductRoleMapTest {
+
+    @Test
+    void put_get_remove_singlePair() {
+        UserProductRoleMap map = new UserProductRoleMap(0);
+        UUID user = UUID.randomUUID();
+        UUID product = UUID.randomUUID();
+
+        map.put(user, product, UserProductRoleMap.bit(AssignmentRole.PRODUCT_OWNER));
+
+        assertEquals(1, map.size());
+        assertEquals(EnumSet.of(AssignmentRole.PRODUCT_OWNER), UserProductRoleMap.toRoles(map.get(user, product)));
+        assertEquals(0, map.get(product, user));
+
+        map.put(user, product, UserProductRoleMap.bit(AssignmentRole.VIEWER));
+        assertEquals(1, map.size());
+        assertEquals(EnumSet.of(AssignmentRole.VIEWER), UserProductRoleMap.toRoles(map.get(user, product)));
+
+        assertTrue(map.remove(user, product));
+        assertFalse(map.remove(user, product));
+        assertEquals(0, map.size());
+        assertEquals(0, map.get(user, product));
+    }
+
+    @Test
+    void put_withZeroBits_removesPair() {
+        UserProductRoleMap map = new UserProductRoleMap(0);
+        UUID user = UUID.randomUUID();
+        UUID product = UUID.randomUUID();
+        map.put(user, product, UserProductRoleMap.bit(AssignmentRole.VIEWER));
+
+        map.put(user, product, 0);
+
+        assertEquals(0, map.size());
+        assertEquals(0, map.get(user, product));
+    }
+
+    @Test
+    void removeUser_and_removeProduct_removeOnlyMatchingPairs() {
+        UserProductRoleMap map = new UserProductRoleMap(0);
+        UUID user = UUID.randomUUID();
+        UUID otherUser = UUID.randomUUID();
+        UUID product = UUID.randomUUID();
+        UUID otherProduct = UUID.randomUUID();
+        int viewer = UserProductRoleMap.bit(AssignmentRole.VIEWER);
+        map.put(user, product, viewer);
+        map.put(user, otherProduct, viewer);
+        map.put(otherUser, product, viewer);
+        map.put(otherUser, otherProduct, viewer);
+
+        assertEquals(2, map.removeUser(user));
+        assertEquals(2, map.size());
+        assertEquals(0, map.get(user, product));
+        assertEquals(viewer, map.get(otherUser, product));
+
+        assertEquals(1, map.removeProduct(product));
+        assertEquals(1, map.size());
+        assertEquals(viewer, map.get(otherUser, otherProduct));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(0, map.get(otherUser, otherProduct));
+    }
+
+    @Test
+    void randomOperations_matchHashMap() {
+        // Сверка с HashMap: проверяет рост таблицы и удаление со сдвигом цепочек
+        Random random = new Random(42);
+        UserProductRoleMap map = new UserProductRoleMap(0);
+        Map<List<UUID>, Integer> expected = new HashMap<>();
+        List<UUID> users = new ArrayList<>();
+        List<UUID> products = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            users.add(new UUID(random.nextLong(), random.nextLong()));
+            products.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        AssignmentRole[] roles = AssignmentRole.values();
+
+        for (int i = 0; i < 50_000; i++) {
+            UUID user = users.get(random.nextInt(users.size()));
+            UUID product = products.get(random.nextInt(products.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(List.of(user, product)) != null, map.remove(user, product));
+            } else {
+                int bits = UserProductRoleMap.bit(roles[random.nextInt(roles.length)]);
+                map.put(user, product, bits);
+                expected.put(List.of(user, product), bits);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (UUID user : users) {
+            for (UUID product : products) {
+                assertEquals(expected.getOrDefault(List.of(user, product), 0), map.get(user, product));
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.productservice.auth;
+
+import com.example.productservice.feign.UserServiceClient;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Public keys user-service signs access tokens with, taken from its JWK set. The set is loaded on the
+ * first ES256/RS256 token and then refreshed in the background, so signatures are verified locally.
+ * A token with an unknown key id (a key rotation) reloads the set at once, but not more often than
+ * every {@value #MIN_RELOAD_INTERVAL_SECONDS} s, so made-up key ids cannot flood user-service. If
+ * user-service is unreachable the last loaded set is kept.
+ */
+@Component
+public class JwkSetCache implements JWKSource<SecurityContext> {
+
+    private static final Logger log = LoggerFactory.getLogger(JwkSetCache.class);
+    private static final long MIN_RELOAD_INTERVAL_SECONDS = 10;
+    private static final long MIN_RELOAD_INTERVAL_NANOS = Duration.ofSeconds(MIN_RELOAD_INTERVAL_SECONDS).toNanos();
+
+    private final UserServiceClient userServiceClient;
+    private final Object reloadLock = new Object();
+    // null, пока не пришёл первый токен с асимметричной подписью
+    private volatile JWKSet keys;
+    private long lastReloadAt;
+    private boolean throttled;
+
+    public JwkSetCache(UserServiceClient userServiceClient) {
+        this.userServiceClient = userServiceClient;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        JWKSet current = keys;
+        List<JWK> matches = current != null ? selector.select(current) : List.of();
+        if (matches.isEmpty()) {
+            matches = selector.select(reload(current));
+        }
+        return matches;
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwks.refresh-interval:PT5M}")
+    public void refresh() {
+        if (keys == null) {
+            return;
+        }
+        try {
+            load();
+        } catch (RuntimeException | ParseException e) {
+            log.warn("JWK set refresh failed, keeping {} known keys: {}", keys.getKeys().size(), e.getMessage());
+        }
+    }
+
+    JWKSet reload(JWKSet seen) throws KeySourceException {
+        synchronized (reloadLock) {
+            JWKSet current = keys;
+            if (current != seen) {
+                return current;
+            }
+            long now = System.nanoTime();
+            if (!throttled || now - lastReloadAt >= MIN_RELOAD_INTERVAL_NANOS) {
+                // Первая успешная загрузка не ограничивает следующую: ротация сразу после старта видна
+                try {
+                    JWKSet loaded = load();
+                    throttled = seen != null;
+                    lastReloadAt = now;
+                    return loaded;
+                } catch (RuntimeException | ParseException e) {
+                    throttled = true;
+                    lastReloadAt = now;
+                    log.warn("JWK set load failed: {}", e.getMessage());
+                }
+            }
+            if (current == null) {
+                throw new KeySourceException("JWK set of user-service is unavailable");
+            }
+            return current;
+        }
+    }
+
+    private JWKSet load() throws ParseException {
+        JWKSet loaded = JWKSet.parse(userServiceClient.jwks());
+        keys = loaded;
+        return loaded;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.productservice.auth;
+
+import com.example.productservice.dto.AuthTokenDto;
+import com.example.productservice.dto.LoginRequestDto;
+import com.example.productservice.feign.UserServiceClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Identity of product-service itself for background work that runs without a user request, such as
+ * retried product deletions. It logs in to user-service with {@code service-account.username} and
+ * {@code service-account.password} (an admin account) and keeps the access token until shortly before
+ * it expires. Without credentials {@link #securityContext()} is empty and such calls are rejected.
+ */
+@Component
+public class ServiceAccount {
+
+    // Токен обновляется заранее, чтобы не истечь посреди каскада
+    private static final Duration RENEW_BEFORE_EXPIRY = Duration.ofMinutes(1);
+
+    private final UserServiceClient userServiceClient;
+    private final JwtDecoder jwtDecoder;
+    private final String username;
+    private final String password;
+    private final Clock clock;
+    private Jwt token;
+
+    @Autowired
+    public ServiceAccount(UserServiceClient userServiceClient,
+                          JwtDecoder jwtDecoder,
+                          @Value("${service-account.username:}") String username,
+                          @Value("${service-account.password:}") String password) {
+        this(userServiceClient, jwtDecoder, username, password, Clock.systemUTC());
+    }
+
+    ServiceAccount(UserServiceClient userServiceClient, JwtDecoder jwtDecoder,
+                   String username, String password, Clock clock) {
+        this.userServiceClient = userServiceClient;
+        this.jwtDecoder = jwtDecoder;
+        this.username = username;
+        this.password = password;
+        this.clock = clock;
+    }
+
+    public boolean isConfigured() {
+        return !username.isBlank();
+    }
+
+    /**
+     * Security context carrying the service account token, for FeignAuthRequestInterceptor to forward;
+     * empty when no credentials are configured.
+     */
+    public synchronized SecurityContext securityContext() {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        if (!isConfigured()) {
+            return context;
+        }
+        if (token == null || token.getExpiresAt() == null
+                || clock.instant().isAfter(token.getExpiresAt().minus(RENEW_BEFORE_EXPIRY))) {
+            AuthTokenDto response = userServiceClient.login(new LoginRequestDto(username, password));
+            token = jwtDecoder.decode(response.token());
+        }
+        context.setAuthentication(new JwtAuthenticationToken(token));
+        return context;
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.productservice.controller;
 
+import com.example.productservice.dto.ProductDeletionDto;
 import com.example.productservice.dto.ProductDto;
 import com.example.productservice.dto.ProductRequest;
 import com.example.productservice.exception.BadRequestException;
 import com.example.productservice.exception.UnauthorizedException;
 import com.example.productservice.service.ProductService;
+import com.example.productservice.util.ETagUtil;
+import com.example.productservice.util.ProductPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -15,6 +18,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -23,6 +28,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,6 +39,7 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
     private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_EXISTS_BATCH_SIZE = 1000;
 
     private final ProductService productService;
 
@@ -59,12 +66,14 @@ public class ProductController {
     @Operation(summary = "Read all products with pagination", description = "Returns a paginated list of products")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of products"),
+            @ApiResponse(responseCode = "304", description = "Page not modified (If-None-Match)"),
             @ApiResponse(responseCode = "400", description = "Page size too large")
     })
     @GetMapping
     public ResponseEntity<List<ProductDto>> list(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             HttpServletResponse response) {
 
         if (size > MAX_PAGE_SIZE) {
@@ -74,23 +83,69 @@ public class ProductController {
         Page<ProductDto> products = productService.list(page, size);
         response.setHeader("X-Total-Count", String.valueOf(products.getTotalElements()));
 
+        String etag = ETagUtil.of(products.getContent(), products.getTotalElements(), page, size);
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         logger.debug("Returning {} products from page {}", products.getContent().size(), page);
-        return ResponseEntity.ok(products.getContent());
+        return ResponseEntity.ok().eTag(etag).body(products.getContent());
+    }
+
+    @Operation(summary = "Read products with keyset pagination", description = "Returns one JSON page of products ordered by name with an opaque cursor for the next page; pass the cursor back to continue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of products"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit too large")
+    })
+    @GetMapping("/keyset")
+    public ResponseEntity<ProductPage> listKeyset(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        if (limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit cannot be greater than " + MAX_PAGE_SIZE);
+        }
+        logger.debug("Listing products by keyset - cursor: {}, limit: {}", cursor, limit);
+        return ResponseEntity.ok(productService.listKeyset(cursor, limit, includeTotal));
+    }
+
+    @Operation(summary = "Full-text search of products", description = "Searches product names and descriptions, ordered by relevance, with an opaque cursor for the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching products"),
+            @ApiResponse(responseCode = "400", description = "Empty query, invalid cursor or limit too large")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<ProductPage> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit cannot be greater than " + MAX_PAGE_SIZE);
+        }
+        logger.debug("Searching products - query: {}, cursor: {}, limit: {}", query, cursor, limit);
+        return ResponseEntity.ok(productService.search(query, cursor, limit));
     }
 
     @Operation(summary = "Read certain product by its ID", description = "Returns data about a single product")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Data about a single product"),
+            @ApiResponse(responseCode = "304", description = "Product not modified (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Product with this ID is not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> get(@PathVariable UUID id) {
+    public ResponseEntity<ProductDto> get(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         ProductDto productDto = productService.get(id);
         if (productDto == null) {
             logger.debug("Product not found: {}", id);
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(productDto);
+        String etag = ETagUtil.of(productDto);
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(productDto);
     }
 
     @Operation(summary = "Update the data of a specific product", description = "Update any data of single product")
@@ -121,17 +176,16 @@ public class ProductController {
         return ResponseEntity.ok(dto);
     }
 
-    @Operation(summary = "Delete a specific product", description = "Deletes one specific product from the database")
+    @Operation(summary = "Delete a specific product", description = "Hides the product immediately and deletes it with its applications and assignments in the background")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "204", description = "Product deleted successfully"),
+            @ApiResponse(responseCode = "202", description = "Product deletion accepted"),
             @ApiResponse(responseCode = "401", description = "Actor is unauthorized"),
             @ApiResponse(responseCode = "403", description = "Insufficient rights"),
             @ApiResponse(responseCode = "404", description = "Product or actor not found"),
-            @ApiResponse(responseCode = "409", description = "Error during deletion"),
-            @ApiResponse(responseCode = "503", description = "User or application service is unavailable")
+            @ApiResponse(responseCode = "503", description = "Assignment service is unavailable")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(
+    public ResponseEntity<ProductDeletionDto> deleteProduct(
             @PathVariable("id") UUID id,
             @AuthenticationPrincipal Jwt jwt) {
 
@@ -143,8 +197,19 @@ public class ProductController {
         UUID actorId = UUID.fromString(uidStr);
 
         logger.info("Deleting product {} by actor {}", id, actorId);
-        productService.deleteProduct(id, actorId, jwt);
-        return ResponseEntity.noContent().build();
+        ProductDeletionDto deletion = productService.deleteProduct(id, actorId, jwt);
+        URI location = URI.create("/api/v1/products/" + id + "/deletion");
+        return ResponseEntity.accepted().location(location).body(deletion);
+    }
+
+    @Operation(summary = "Read product deletion status", description = "Returns the progress of an asynchronous product deletion")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deletion status"),
+            @ApiResponse(responseCode = "404", description = "No deletion was requested for the product")
+    })
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<ProductDeletionDto> getDeletionStatus(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(productService.getDeletionStatus(id));
     }
 
     // Internal endpoints для других сервисов
@@ -153,4 +218,21 @@ public class ProductController {
         boolean exists = productService.existsById(id);
         return ResponseEntity.ok(exists);
     }
+
+    @PostMapping("/exists")
+    public ResponseEntity<List<UUID>> existingProducts(@RequestBody List<UUID> ids) {
+        if (ids.size() > MAX_EXISTS_BATCH_SIZE) {
+            throw new BadRequestException("Cannot check more than " + MAX_EXISTS_BATCH_SIZE + " products at once");
+        }
+        return ResponseEntity.ok(productService.findExistingIds(new HashSet<>(ids)));
+    }
+
+    // Вызывается assignment-service после изменения назначений, чтобы сбросить кэш проверок владельца
+    @DeleteMapping("/ownership-cache")
+    public ResponseEntity<Void> evictOwnershipCache(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) UUID productId) {
+        productService.evictOwnership(userId, productId);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
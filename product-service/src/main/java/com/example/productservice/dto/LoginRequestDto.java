@@ -0,0 +1,6 @@
+package com.example.productservice.dto;
+
+/**
+ * Credentials sent to user-service {@code /api/v1/auth/login}.
+ */
+public record LoginRequestDto(String username, String password) { }
@@ -0,0 +1,64 @@
+package com.example.productservice.dto;
+
+import com.example.productservice.model.enums.DeletionStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class ProductDeletionDto {
+
+    private UUID productId;
+    private DeletionStatus status;
+    private int attempts;
+    private String lastError;
+    private Instant requestedAt;
+    private Instant completedAt;
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public DeletionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DeletionStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getRequestedAt() {
+        return requestedAt;
+    }
+
+    public void setRequestedAt(Instant requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+}
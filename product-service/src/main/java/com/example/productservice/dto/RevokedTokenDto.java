@@ -0,0 +1,8 @@
+package com.example.productservice.dto;
+
+import java.time.Instant;
+
+/**
+ * Revoked access token as published by user-service; it can be forgotten after {@code expiresAt}.
+ */
+public record RevokedTokenDto(String jti, Instant expiresAt, Instant revokedAt) { }
@@ -1,6 +1,7 @@
 package com.example.productservice.feign;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -18,4 +19,7 @@ public interface AssignmentServiceClient {
             @RequestParam("productId") UUID productId,
             @RequestParam("role") String role
     );
+
+    @DeleteMapping("/api/v1/assignments/internal/by-product")
+    Void deleteAssignmentsByProductId(@RequestParam("productId") UUID productId);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.productservice.feign;
 
+import com.example.productservice.exception.ServiceUnavailableException;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
@@ -14,6 +15,11 @@ public class AssignmentServiceClientFallbackFactory implements FallbackFactory<A
             public Boolean existsByUserAndProductAndRole(UUID userId, UUID productId, String role) {
                 return null;
             }
+
+            @Override
+            public Void deleteAssignmentsByProductId(UUID productId) {
+                throw new ServiceUnavailableException("Assignment service is unavailable now");
+            }
         };
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.productservice.feign;
+
+import com.example.productservice.dto.AuthTokenDto;
+import com.example.productservice.dto.LoginRequestDto;
+import com.example.productservice.dto.RevokedTokenDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@FeignClient(
+        name = "user-service",
+        fallbackFactory = UserServiceClientFallbackFactory.class
+)
+public interface UserServiceClient {
+
+    // Access-токены, отозванные после since (все действующие, если since не задан)
+    @GetMapping("/api/v1/auth/revocations")
+    List<RevokedTokenDto> revokedTokens(@RequestParam(value = "since", required = false) Instant since);
+
+    // Публичные ключи проверки подписи access-токенов (JWK Set)
+    @GetMapping("/api/v1/auth/jwks")
+    Map<String, Object> jwks();
+
+    // Вход сервисной учётной записи для фоновых задач без пользовательского токена
+    @PostMapping("/api/v1/auth/login")
+    AuthTokenDto login(@RequestBody LoginRequestDto request);
+}
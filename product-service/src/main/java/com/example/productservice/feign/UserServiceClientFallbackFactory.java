@@ -0,0 +1,35 @@
+package com.example.productservice.feign;
+
+import com.example.productservice.dto.AuthTokenDto;
+import com.example.productservice.dto.LoginRequestDto;
+import com.example.productservice.dto.RevokedTokenDto;
+import com.example.productservice.exception.ServiceUnavailableException;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class UserServiceClientFallbackFactory implements FallbackFactory<UserServiceClient> {
+    @Override
+    public UserServiceClient create(Throwable cause) {
+        return new UserServiceClient() {
+            @Override
+            public List<RevokedTokenDto> revokedTokens(Instant since) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public Map<String, Object> jwks() {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public AuthTokenDto login(LoginRequestDto request) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+        };
+    }
+}
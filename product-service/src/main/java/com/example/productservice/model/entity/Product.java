@@ -1,10 +1,15 @@
 package com.example.productservice.model.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 @Table(name = "product")
+// Продукт, помеченный на удаление, скрыт сразу; строка удаляется, когда завершится каскад (ProductDeletionService)
+@SQLRestriction("deleted_at IS NULL")
 public class Product {
 
     @Id
@@ -17,6 +22,9 @@ public class Product {
     @Column(length = 1000)
     private String description;
 
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     public Product() {}
 
     public Product(UUID id, String name, String description) {
@@ -48,4 +56,12 @@ public class Product {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.example.productservice.model.enums;
+
+public enum DeletionStatus {
+    PENDING,
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,40 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.model.entity.ProductDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProductDeletionRepository extends JpaRepository<ProductDeletion, UUID> {
+
+    // Задания, которые пора (повторно) выполнить: ожидающие дольше retryBefore
+    // и «зависшие» в IN_PROGRESS дольше staleBefore (например, после падения экземпляра)
+    @Query("SELECT d.productId FROM ProductDeletion d " +
+            "WHERE (d.status = com.example.productservice.model.enums.DeletionStatus.PENDING AND d.updatedAt < :retryBefore) " +
+            "OR (d.status = com.example.productservice.model.enums.DeletionStatus.IN_PROGRESS AND d.updatedAt < :staleBefore) " +
+            "ORDER BY d.updatedAt")
+    List<UUID> findDue(@Param("retryBefore") Instant retryBefore,
+                       @Param("staleBefore") Instant staleBefore,
+                       Pageable pageable);
+
+    // Захват задания: условный UPDATE, поэтому при нескольких экземплярах задание выполняет только один
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProductDeletion d SET d.status = com.example.productservice.model.enums.DeletionStatus.IN_PROGRESS, " +
+            "d.attempts = d.attempts + 1, d.updatedAt = :now " +
+            "WHERE d.productId = :productId " +
+            "AND (d.status = com.example.productservice.model.enums.DeletionStatus.PENDING " +
+            "OR (d.status = com.example.productservice.model.enums.DeletionStatus.IN_PROGRESS AND d.updatedAt < :staleBefore))")
+    int claim(@Param("productId") UUID productId,
+              @Param("staleBefore") Instant staleBefore,
+              @Param("now") Instant now);
+}
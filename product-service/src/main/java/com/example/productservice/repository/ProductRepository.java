@@ -1,12 +1,71 @@
 package com.example.productservice.repository;
 
 import com.example.productservice.model.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
-    boolean existsByName(String name);
+    // Учитывает и продукты, ожидающие удаления: их имя занято, пока строка не удалена
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM product WHERE name = :name)", nativeQuery = true)
+    boolean existsByName(@Param("name") String name);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.deletedAt = :now WHERE p.id = :id AND p.deletedAt IS NULL")
+    int markDeleted(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM product WHERE id = :id", nativeQuery = true)
+    int hardDeleteById(@Param("id") UUID id);
+
+    // Keyset-пагинация по (name, id): использует уникальный индекс по name, без OFFSET и count(*)
+    @Query("SELECT p FROM Product p ORDER BY p.name, p.id")
+    List<Product> findFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Product p " +
+            "WHERE (p.name > :name OR (p.name = :name AND p.id > :id)) " +
+            "ORDER BY p.name, p.id")
+    List<Product> findPageAfter(@Param("name") String name, @Param("id") UUID id, Pageable pageable);
+
+    // Полнотекстовый поиск по GIN-индексу search_vector (name — вес A, description — вес B),
+    // keyset-пагинация по (rank DESC, id)
+    @Query(value = "SELECT p.id AS id, p.name AS name, p.description AS description, " +
+            "ts_rank(p.search_vector, q) AS rank " +
+            "FROM product p, plainto_tsquery('simple', :query) q " +
+            "WHERE p.search_vector @@ q AND p.deleted_at IS NULL " +
+            "ORDER BY rank DESC, p.id LIMIT :limit", nativeQuery = true)
+    List<ProductSearchRow> searchFirstPage(@Param("query") String query, @Param("limit") int limit);
+
+    @Query(value = "SELECT r.id AS id, r.name AS name, r.description AS description, r.rank AS rank FROM (" +
+            "SELECT p.id, p.name, p.description, ts_rank(p.search_vector, q) AS rank " +
+            "FROM product p, plainto_tsquery('simple', :query) q " +
+            "WHERE p.search_vector @@ q AND p.deleted_at IS NULL) r " +
+            "WHERE r.rank < CAST(:rank AS real) OR (r.rank = CAST(:rank AS real) AND r.id > :id) " +
+            "ORDER BY r.rank DESC, r.id LIMIT :limit", nativeQuery = true)
+    List<ProductSearchRow> searchPageAfter(@Param("query") String query,
+                                           @Param("rank") float rank,
+                                           @Param("id") UUID id,
+                                           @Param("limit") int limit);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Keyset-выборка идентификаторов для загрузки ProductIdIndex
+    @Query("SELECT p.id FROM Product p ORDER BY p.id")
+    List<UUID> findIdsFirstPage(Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
 }
\ No newline at end of file
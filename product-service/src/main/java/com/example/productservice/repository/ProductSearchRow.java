@@ -0,0 +1,14 @@
+package com.example.productservice.repository;
+
+import java.util.UUID;
+
+// Строка результата полнотекстового поиска вместе с её ts_rank
+public interface ProductSearchRow {
+    UUID getId();
+
+    String getName();
+
+    String getDescription();
+
+    Float getRank();
+}
@@ -0,0 +1,84 @@
+package com.example.productservice.service;
+
+import com.example.productservice.dto.ProductDto;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of the product catalog: single products by id and the first
+ * {@value #MAX_CACHED_PAGES} pages of the listing, each loaded with its own paged query.
+ * Deeper pages always go to the DB, so memory does not grow with the catalog.
+ * Products change rarely, so every write simply invalidates the affected entries. Invalidation happens immediately and again
+ * after commit; loads that overlap a write are not cached (generation check), so a
+ * reader can never install data older than the last committed write.
+ */
+@Component
+public class ProductCatalogCache {
+
+    static final int MAX_CACHED_PAGES = 10;
+
+    private final Map<UUID, ProductDto> byId = new ConcurrentHashMap<>();
+    private final Map<PageKey, Page<ProductDto>> pages = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductDto getById(UUID id, Supplier<ProductDto> loader) {
+        ProductDto cached = byId.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long gen = generation.get();
+        ProductDto loaded = loader.get();
+        if (loaded != null && generation.get() == gen) {
+            byId.put(id, loaded);
+        }
+        return loaded;
+    }
+
+    public Page<ProductDto> getPage(int page, int size, Supplier<Page<ProductDto>> loader) {
+        if (page >= MAX_CACHED_PAGES) {
+            return loader.get();
+        }
+        PageKey key = new PageKey(page, size);
+        Page<ProductDto> cached = pages.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long gen = generation.get();
+        Page<ProductDto> loaded = loader.get();
+        if (generation.get() == gen) {
+            pages.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public void invalidate(UUID id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID id) {
+        generation.incrementAndGet();
+        if (id != null) {
+            byId.remove(id);
+        }
+        // Любое изменение может сдвинуть все страницы
+        pages.clear();
+    }
+
+    private record PageKey(int page, int size) {}
+}
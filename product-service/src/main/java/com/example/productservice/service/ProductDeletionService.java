@@ -0,0 +1,221 @@
+package com.example.productservice.service;
+
+import com.example.productservice.auth.ServiceAccount;
+import com.example.productservice.dto.ProductDeletionDto;
+import com.example.productservice.exception.NotFoundException;
+import com.example.productservice.feign.ApplicationServiceClient;
+import com.example.productservice.feign.AssignmentServiceClient;
+import com.example.productservice.model.entity.ProductDeletion;
+import com.example.productservice.model.enums.DeletionStatus;
+import com.example.productservice.repository.ProductDeletionRepository;
+import com.example.productservice.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous product deletion. A request only hides the product (deleted_at) and records
+ * a job; deleting its applications and assignments and finally the product row runs in the
+ * background. Every step is idempotent, so failed or interrupted jobs are simply retried
+ * by the poller until {@code products.deletion.max-attempts} is reached. The first run forwards
+ * the token of the user who requested the deletion; retries use the {@link ServiceAccount}.
+ */
+@Service
+public class ProductDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductDeletionService.class);
+    private static final int WORKERS = 2;
+    private static final int POLL_BATCH_SIZE = 50;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductDeletionRepository productDeletionRepository;
+    private final ApplicationServiceClient applicationServiceClient;
+    private final AssignmentServiceClient assignmentServiceClient;
+    private final ServiceAccount serviceAccount;
+    private final Executor executor;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration staleAfter;
+
+    @Autowired
+    public ProductDeletionService(
+            ProductRepository productRepository,
+            ProductDeletionRepository productDeletionRepository,
+            ApplicationServiceClient applicationServiceClient,
+            AssignmentServiceClient assignmentServiceClient,
+            ServiceAccount serviceAccount,
+            @Value("${products.deletion.max-attempts:10}") int maxAttempts,
+            @Value("${products.deletion.retry-delay:30s}") Duration retryDelay,
+            @Value("${products.deletion.stale-after:5m}") Duration staleAfter) {
+        this(productRepository, productDeletionRepository, applicationServiceClient, assignmentServiceClient,
+                serviceAccount, Executors.newFixedThreadPool(WORKERS, Thread.ofPlatform().name("product-deletion-", 0).daemon(true).factory()),
+                maxAttempts, retryDelay, staleAfter);
+    }
+
+    ProductDeletionService(
+            ProductRepository productRepository,
+            ProductDeletionRepository productDeletionRepository,
+            ApplicationServiceClient applicationServiceClient,
+            AssignmentServiceClient assignmentServiceClient,
+            ServiceAccount serviceAccount,
+            Executor executor,
+            int maxAttempts,
+            Duration retryDelay,
+            Duration staleAfter) {
+        this.productRepository = productRepository;
+        this.productDeletionRepository = productDeletionRepository;
+        this.applicationServiceClient = applicationServiceClient;
+        this.assignmentServiceClient = assignmentServiceClient;
+        this.serviceAccount = serviceAccount;
+        this.executor = executor;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Hides the product and records a deletion job; the cascade starts after commit.
+     */
+    @Transactional
+    public ProductDeletionDto requestDeletion(UUID productId) {
+        Instant now = Instant.now();
+        if (productRepository.markDeleted(productId, now) == 0) {
+            throw new NotFoundException("Product not found: " + productId);
+        }
+        ProductDeletion deletion = productDeletionRepository.save(new ProductDeletion(productId, now));
+
+        SecurityContext requester = SecurityContextHolder.getContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(productId, requester);
+                }
+            });
+        } else {
+            submit(productId, requester);
+        }
+        logger.info("Product {} marked for deletion", productId);
+        return toDto(deletion);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductDeletionDto getStatus(UUID productId) {
+        return productDeletionRepository.findById(productId)
+                .map(this::toDto)
+                .orElseThrow(() -> new NotFoundException("No deletion requested for product: " + productId));
+    }
+
+    // Подбирает задания, не выполненные сразу: ошибка каскада, переполнение очереди, падение экземпляра
+    @Scheduled(fixedDelayString = "${products.deletion.poll-interval:PT30S}",
+            initialDelayString = "${products.deletion.poll-interval:PT30S}")
+    public void processDue() {
+        Instant now = Instant.now();
+        List<UUID> due = productDeletionRepository.findDue(
+                now.minus(retryDelay), now.minus(staleAfter), PageRequest.of(0, POLL_BATCH_SIZE));
+        if (due.isEmpty()) {
+            return;
+        }
+        if (!serviceAccount.isConfigured()) {
+            logger.warn("{} product deletion(s) due for retry, but no service account is configured; "
+                    + "assignment-service will reject them", due.size());
+        }
+        SecurityContext context;
+        try {
+            context = serviceAccount.securityContext();
+        } catch (Exception ex) {
+            logger.warn("Product deletion retries postponed, service account login failed: {}", ex.getMessage());
+            return;
+        }
+        due.forEach(productId -> submit(productId, context));
+    }
+
+    // Без транзакции: удалённые вызовы не должны удерживать соединение с БД
+    void process(UUID productId) {
+        Instant now = Instant.now();
+        if (productDeletionRepository.claim(productId, now.minus(staleAfter), now) == 0) {
+            // Задание уже выполняется другим потоком или экземпляром либо завершено
+            return;
+        }
+        try {
+            applicationServiceClient.deleteApplicationsByProductId(productId);
+            assignmentServiceClient.deleteAssignmentsByProductId(productId);
+            productRepository.hardDeleteById(productId);
+            finish(productId, null);
+            logger.info("Product {} deleted with its applications and assignments", productId);
+        } catch (Exception ex) {
+            logger.warn("Deletion of product {} failed: {}", productId, ex.getMessage());
+            finish(productId, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    // Каскад выполняется с переданным контекстом: FeignAuthRequestInterceptor пересылает его токен
+    private void submit(UUID productId, SecurityContext context) {
+        try {
+            executor.execute(new DelegatingSecurityContextRunnable(() -> process(productId), context));
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Deletion of product {} deferred to the next poll: {}", productId, ex.getMessage());
+        }
+    }
+
+    // error == null — каскад завершён успешно
+    private void finish(UUID productId, Exception error) {
+        productDeletionRepository.findById(productId).ifPresent(deletion -> {
+            Instant now = Instant.now();
+            deletion.setUpdatedAt(now);
+            if (error == null) {
+                deletion.setStatus(DeletionStatus.COMPLETED);
+                deletion.setCompletedAt(now);
+                deletion.setLastError(null);
+            } else {
+                boolean exhausted = deletion.getAttempts() >= maxAttempts;
+                deletion.setStatus(exhausted ? DeletionStatus.FAILED : DeletionStatus.PENDING);
+                String message = String.valueOf(error.getMessage());
+                deletion.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                if (exhausted) {
+                    logger.error("Deletion of product {} failed after {} attempts", productId, deletion.getAttempts());
+                }
+            }
+            productDeletionRepository.save(deletion);
+        });
+    }
+
+    private ProductDeletionDto toDto(ProductDeletion deletion) {
+        ProductDeletionDto dto = new ProductDeletionDto();
+        dto.setProductId(deletion.getProductId());
+        dto.setStatus(deletion.getStatus());
+        dto.setAttempts(deletion.getAttempts());
+        dto.setLastError(deletion.getLastError());
+        dto.setRequestedAt(deletion.getRequestedAt());
+        dto.setCompletedAt(deletion.getCompletedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.productservice.service;
+
+import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.util.UuidOpenHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory set of all product IDs answering the exists check without a DB round trip.
+ * Rebuilt from the DB at startup, kept in sync after commit of create/delete.
+ * Until the initial load completes {@link #isReady()} is false and callers should query the DB.
+ */
+@Component
+public class ProductIdIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIdIndex.class);
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int MAX_PRESIZE = 1 << 26;
+
+    private final ProductRepository productRepository;
+    private final StampedLock lock = new StampedLock();
+    // Изменения, пришедшие во время загрузки: повторно применяются к загруженному набору
+    private final Queue<Change> changesDuringLoad = new ConcurrentLinkedQueue<>();
+    private UuidOpenHashSet ids = new UuidOpenHashSet(0);
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public ProductIdIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        loading = true;
+        changesDuringLoad.clear();
+        try {
+            UuidOpenHashSet loaded = new UuidOpenHashSet((int) Math.min(productRepository.count(), MAX_PRESIZE));
+            List<UUID> batch = productRepository.findIdsFirstPage(PageRequest.of(0, LOAD_BATCH_SIZE));
+            while (!batch.isEmpty()) {
+                batch.forEach(loaded::add);
+                if (batch.size() < LOAD_BATCH_SIZE) {
+                    break;
+                }
+                batch = productRepository.findIdsAfter(batch.get(batch.size() - 1), PageRequest.of(0, LOAD_BATCH_SIZE));
+            }
+            long stamp = lock.writeLock();
+            try {
+                ids = loaded;
+                loading = false;
+                for (Change change : changesDuringLoad) {
+                    if (change.added()) {
+                        ids.add(change.id());
+                    } else {
+                        ids.remove(change.id());
+                    }
+                }
+                changesDuringLoad.clear();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            ready = true;
+            logger.info("Product id index loaded: {} products", size());
+        } finally {
+            loading = false;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean contains(UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        boolean result;
+        try {
+            result = ids.contains(hi, lo);
+        } catch (RuntimeException concurrentResize) {
+            result = false;
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = ids.contains(hi, lo);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return ids.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void add(UUID id) {
+        afterCommit(() -> {
+            long stamp = lock.writeLock();
+            try {
+                ids.add(id);
+                if (loading) {
+                    changesDuringLoad.add(new Change(id, true));
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        });
+    }
+
+    public void remove(UUID id) {
+        afterCommit(() -> {
+            long stamp = lock.writeLock();
+            try {
+                ids.remove(id);
+                if (loading) {
+                    changesDuringLoad.add(new Change(id, false));
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        });
+    }
+
+    private record Change(UUID id, boolean added) {}
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.productservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of "is user PRODUCT_OWNER of product" answers from assignment-service.
+ * assignment-service evicts entries after its assignment changes commit; the TTL only
+ * bounds staleness if such an eviction is lost. Loads that overlap an eviction are
+ * not cached (generation check), like in {@link ProductCatalogCache}.
+ */
+@Component
+public class ProductOwnershipCache {
+
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+
+    public ProductOwnershipCache(@Value("${products.ownership-cache.ttl:30s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the cached answer or asks {@code loader}. A null answer (service unavailable) is not cached.
+     */
+    public Boolean isOwner(UUID userId, UUID productId, Supplier<Boolean> loader) {
+        Key key = new Key(userId, productId);
+        long now = System.nanoTime();
+        Entry cached = entries.get(key);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return cached.owner();
+        }
+        long gen = generation.get();
+        Boolean loaded = loader.get();
+        if (loaded != null && ttlNanos > 0 && generation.get() == gen) {
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+            }
+            if (entries.size() < MAX_ENTRIES) {
+                entries.put(key, new Entry(loaded, now));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts answers for the given user and/or product; both null clears the whole cache.
+     */
+    public void evict(UUID userId, UUID productId) {
+        generation.incrementAndGet();
+        if (userId != null && productId != null) {
+            entries.remove(new Key(userId, productId));
+        } else if (userId != null) {
+            entries.keySet().removeIf(key -> key.userId().equals(userId));
+        } else if (productId != null) {
+            entries.keySet().removeIf(key -> key.productId().equals(productId));
+        } else {
+            entries.clear();
+        }
+    }
+
+    private record Key(UUID userId, UUID productId) {}
+
+    private record Entry(boolean owner, long loadedAt) {}
+}
@@ -0,0 +1,346 @@
+package com.example.productservice.service;
+
+import com.example.productservice.dto.ProductDto;
+import com.example.productservice.model.entity.Product;
+import com.example.productservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name and description, an alternative to the
+ * Postgres tsvector search for small catalogs and tests.
+ * Tokenization mirrors the 'simple' text search configuration: lower-casing and splitting
+ * on non-alphanumerics, no stemming. A hit must contain every query term; its rank is the
+ * sum of term weights, name terms counting as ts_rank class 'A' and description terms as 'B'.
+ * Enabled with {@code products.search.in-memory.enabled=true}. Until loading completes
+ * {@link #isReady()} is false and callers should query the DB.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int MIN_DEAD_SLOTS_TO_COMPACT = 1024;
+    private static final float NAME_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 0.4f;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Порядок id как у типа uuid в Postgres: беззнаковое сравнение старших, затем младших байт
+    private static final Comparator<UUID> ID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    // Ранг по убыванию, при равенстве — id по возрастанию, как ORDER BY rank DESC, id
+    private static final Comparator<Hit> HIT_ORDER = Comparator
+            .comparing(Hit::rank, Comparator.reverseOrder())
+            .thenComparing(hit -> hit.product().getId(), ID_ORDER);
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Документы по порядковому номеру; изменённые и удалённые заменяются null, а их записи
+    // в postings отбрасываются compact(), когда мёртвых слотов становится больше живых
+    private final List<ProductDto> docs = new ArrayList<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    // Изменения, пришедшие во время загрузки: повторно применяются поверх загруженных данных
+    private final Queue<Change> changesDuringLoad = new ConcurrentLinkedQueue<>();
+    private int deadSlots;
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${products.search.in-memory.enabled:false}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+    }
+
+    public record Hit(ProductDto product, float rank) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            logger.info("In-memory product search index is disabled, search will use the database");
+            return;
+        }
+        ready = false;
+        withWriteLock(() -> {
+            docs.clear();
+            ordinals.clear();
+            postings.clear();
+            changesDuringLoad.clear();
+            deadSlots = 0;
+            loading = true;
+        });
+        try {
+            List<Product> batch = productRepository.findFirstPage(PageRequest.of(0, LOAD_BATCH_SIZE));
+            while (!batch.isEmpty()) {
+                List<Product> loaded = batch;
+                withWriteLock(() -> loaded.forEach(product -> index(toDto(product))));
+                if (batch.size() < LOAD_BATCH_SIZE) {
+                    break;
+                }
+                Product last = batch.get(batch.size() - 1);
+                batch = productRepository.findPageAfter(last.getName(), last.getId(), PageRequest.of(0, LOAD_BATCH_SIZE));
+            }
+            withWriteLock(() -> {
+                changesDuringLoad.forEach(this::apply);
+                changesDuringLoad.clear();
+                loading = false;
+            });
+            ready = true;
+            logger.info("Product search index loaded: {} products, {} terms", size(), termCount());
+        } finally {
+            loading = false;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a product. Inside a transaction the update is deferred until commit.
+     */
+    public void put(ProductDto product) {
+        if (enabled) {
+            afterCommit(() -> record(new Change(product.getId(), product)));
+        }
+    }
+
+    public void remove(UUID id) {
+        if (enabled) {
+            afterCommit(() -> record(new Change(id, null)));
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products containing every term of {@code query}, ordered by
+     * rank descending and id. When {@code afterRank} is given only hits past ({@code afterRank},
+     * {@code afterId}) in that order are returned.
+     */
+    public List<Hit> search(String query, Float afterRank, UUID afterId, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(terms.get(i));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            // Обходим самый короткий список, остальные проверяем бинарным поиском
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+            Postings shortest = lists[0];
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, HIT_ORDER.reversed());
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                int ordinal = shortest.ordinals[i];
+                ProductDto product = docs.get(ordinal);
+                if (product == null) {
+                    continue;
+                }
+                float rank = shortest.weights[i];
+                for (int j = 1; j < lists.length; j++) {
+                    float weight = lists[j].weightOf(ordinal);
+                    if (weight == 0f) {
+                        continue candidates;
+                    }
+                    rank += weight;
+                }
+                if (afterRank != null && !isAfter(rank, product.getId(), afterRank, afterId)) {
+                    continue;
+                }
+                top.add(new Hit(product, rank));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Hit> result = new ArrayList<>(top);
+            result.sort(HIT_ORDER);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static boolean isAfter(float rank, UUID id, float afterRank, UUID afterId) {
+        return rank < afterRank || (rank == afterRank && ID_ORDER.compare(id, afterId) > 0);
+    }
+
+    // Число слотов в docs, включая мёртвые; для тестов
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void record(Change change) {
+        withWriteLock(() -> {
+            apply(change);
+            if (loading) {
+                changesDuringLoad.add(change);
+            }
+            if (deadSlots >= MIN_DEAD_SLOTS_TO_COMPACT && deadSlots > ordinals.size()) {
+                compact();
+            }
+        });
+    }
+
+    /**
+     * Re-indexes the live documents from memory, dropping dead slots and their postings.
+     * Runs only once dead slots outnumber live ones, so its cost is amortized over the updates
+     * that created them and memory stays within about twice the live index.
+     */
+    private void compact() {
+        List<ProductDto> live = new ArrayList<>(ordinals.size());
+        for (ProductDto doc : docs) {
+            if (doc != null) {
+                live.add(doc);
+            }
+        }
+        int dropped = deadSlots;
+        docs.clear();
+        ordinals.clear();
+        postings.clear();
+        deadSlots = 0;
+        live.forEach(this::index);
+        logger.debug("Product search index compacted: {} dead slots dropped, {} products kept", dropped, live.size());
+    }
+
+    private void apply(Change change) {
+        if (change.product() == null) {
+            unindex(change.id());
+        } else {
+            index(change.product());
+        }
+    }
+
+    private void index(ProductDto product) {
+        unindex(product.getId());
+        int ordinal = docs.size();
+        docs.add(product);
+        ordinals.put(product.getId(), ordinal);
+
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(product.getName())) {
+            weights.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(product.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, weight));
+    }
+
+    private void unindex(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            docs.set(ordinal, null);
+            deadSlots++;
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static ProductDto toDto(Product product) {
+        ProductDto dto = new ProductDto();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        return dto;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Change(UUID id, ProductDto product) {}
+
+    // Список документов термина: номера растут по мере добавления, поэтому массив отсортирован
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        float weightOf(int ordinal) {
+            int i = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            return i >= 0 ? weights[i] : 0f;
+        }
+    }
+}
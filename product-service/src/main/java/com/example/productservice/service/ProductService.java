@@ -1,23 +1,29 @@
 package com.example.productservice.service;
 
+import com.example.productservice.dto.ProductDeletionDto;
 import com.example.productservice.dto.ProductDto;
 import com.example.productservice.dto.ProductRequest;
 import com.example.productservice.exception.*;
-import com.example.productservice.feign.ApplicationServiceClient;
 import com.example.productservice.feign.AssignmentServiceClient;
 import com.example.productservice.model.entity.Product;
 import com.example.productservice.model.enums.AssignmentRole;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.repository.ProductSearchRow;
+import com.example.productservice.util.CursorUtil;
+import com.example.productservice.util.ProductPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,19 +31,32 @@ import java.util.UUID;
 public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    private static final Sort CATALOG_ORDER = Sort.by("name", "id");
 
     private final ProductRepository productRepository;
-    private final ApplicationServiceClient applicationServiceClient;
     private final AssignmentServiceClient assignmentServiceClient;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductIdIndex productIdIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductOwnershipCache productOwnershipCache;
+    private final ProductDeletionService productDeletionService;
 
     @Autowired
     public ProductService(
             ProductRepository productRepository,
-            ApplicationServiceClient applicationServiceClient,
-            AssignmentServiceClient assignmentServiceClient) {
+            AssignmentServiceClient assignmentServiceClient,
+            ProductCatalogCache productCatalogCache,
+            ProductIdIndex productIdIndex,
+            ProductSearchIndex productSearchIndex,
+            ProductOwnershipCache productOwnershipCache,
+            ProductDeletionService productDeletionService) {
         this.productRepository = productRepository;
-        this.applicationServiceClient = applicationServiceClient;
         this.assignmentServiceClient = assignmentServiceClient;
+        this.productCatalogCache = productCatalogCache;
+        this.productIdIndex = productIdIndex;
+        this.productSearchIndex = productSearchIndex;
+        this.productOwnershipCache = productOwnershipCache;
+        this.productDeletionService = productDeletionService;
     }
 
     @Transactional
@@ -69,31 +88,107 @@ public class ProductService {
         product.setDescription(description.trim());
 
         product = productRepository.save(product);
+        productCatalogCache.invalidate(product.getId());
+        productIdIndex.add(product.getId());
+        ProductDto dto = toDto(product);
+        productSearchIndex.put(dto);
         logger.info("Product created: {}", product.getId());
 
-        return toDto(product);
+        return dto;
     }
 
-    @Transactional(readOnly = true)
+    // Без @Transactional: при попадании в кэш соединение с БД не берётся вовсе
     public Page<ProductDto> list(int page, int size) {
         if (size > 50) {
             throw new BadRequestException("Page size cannot exceed 50");
         }
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productRepository.findAll(pageable);
+        Pageable pageable = PageRequest.of(page, size, CATALOG_ORDER);
+        return productCatalogCache.getPage(page, size, () -> productRepository.findAll(pageable).map(this::toDto));
+    }
+
+    public ProductPage listKeyset(String cursor, int limit, boolean includeTotal) {
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        int capped = Math.min(limit, 50);
+        CursorUtil.Decoded decoded = null;
+        if (cursor != null && !cursor.trim().isEmpty()) {
+            decoded = CursorUtil.decode(cursor);
+            if (decoded == null) {
+                throw new BadRequestException("Invalid cursor format");
+            }
+        }
+
+        List<Product> products = decoded == null
+                ? productRepository.findFirstPage(PageRequest.of(0, capped))
+                : productRepository.findPageAfter(decoded.name, decoded.id, PageRequest.of(0, capped));
 
-        return products.map(this::toDto);
+        String nextCursor = null;
+        if (products.size() == capped) {
+            Product last = products.get(products.size() - 1);
+            nextCursor = CursorUtil.encode(last.getName(), last.getId());
+        }
+        Long total = includeTotal ? count() : null;
+        return new ProductPage(products.stream().map(this::toDto).toList(), nextCursor, total);
+    }
+
+    // Полнотекстовый поиск по name и description; in-memory индекс, если он включён и загружен, иначе GIN-индекс в БД
+    public ProductPage search(String query, String cursor, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        int capped = Math.min(limit, 50);
+        CursorUtil.RankDecoded after = null;
+        if (cursor != null && !cursor.trim().isEmpty()) {
+            after = CursorUtil.decodeRanked(cursor);
+            if (after == null) {
+                throw new BadRequestException("Invalid cursor format");
+            }
+        }
+
+        String trimmed = query.trim();
+        List<ProductSearchIndex.Hit> hits;
+        if (productSearchIndex.isReady()) {
+            hits = after == null
+                    ? productSearchIndex.search(trimmed, null, null, capped)
+                    : productSearchIndex.search(trimmed, after.rank, after.id, capped);
+        } else {
+            List<ProductSearchRow> rows = after == null
+                    ? productRepository.searchFirstPage(trimmed, capped)
+                    : productRepository.searchPageAfter(trimmed, after.rank, after.id, capped);
+            hits = rows.stream()
+                    .map(row -> new ProductSearchIndex.Hit(toDto(row), row.getRank()))
+                    .toList();
+        }
+
+        String nextCursor = null;
+        if (hits.size() == capped) {
+            ProductSearchIndex.Hit last = hits.get(hits.size() - 1);
+            nextCursor = CursorUtil.encodeRanked(last.rank(), last.product().getId());
+        }
+        return new ProductPage(hits.stream().map(ProductSearchIndex.Hit::product).toList(), nextCursor, null);
+    }
+
+    // Счётчик берётся из ProductIdIndex, который поддерживается при create/delete
+    public long count() {
+        if (productIdIndex.isReady()) {
+            return productIdIndex.size();
+        }
+        return productRepository.count();
     }
 
-    @Transactional(readOnly = true)
     public ProductDto get(UUID id) {
-        return productRepository.findById(id)
+        return productCatalogCache.getById(id, () -> productRepository.findById(id)
                 .map(this::toDto)
-                .orElse(null);
+                .orElse(null));
     }
 
-    @Transactional
+    // Без @Transactional: проверка владельца идёт в assignment-service, и соединение с БД
+    // не должно удерживаться на время удалённого вызова. Запись — короткая транзакция save()
     public ProductDto updateProduct(UUID productId, ProductRequest req, UUID actorId, Jwt jwt) {
         if (req == null) {
             throw new BadRequestException("Request is required");
@@ -103,24 +198,7 @@ public class ProductService {
         }
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new NotFoundException("Product not found: " + productId));
-        boolean isAdmin = false;
-        if (jwt != null) {
-            Object roleClaim = jwt.getClaims().get("role");
-            if (roleClaim != null && ("ROLE_ADMIN".equals(roleClaim.toString()))) {
-                isAdmin = true;
-            }
-        }
-
-        Boolean isOwner = assignmentServiceClient.existsByUserAndProductAndRole(
-                actorId, productId, AssignmentRole.PRODUCT_OWNER.name()
-        );
-        if (isOwner == null) {
-            throw new ServiceUnavailableException("Assignment service is unavailable now");
-        }
-
-        if (!isAdmin && !isOwner) {
-            throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can update product");
-        }
+        checkAdminOrOwner(actorId, productId, jwt, "update");
 
         if (req.getName() != null && !req.getName().trim().isEmpty()) {
             String newName = req.getName().trim();
@@ -135,50 +213,36 @@ public class ProductService {
         }
 
         Product saved = productRepository.save(product);
+        productCatalogCache.invalidate(productId);
+        ProductDto dto = toDto(saved);
+        productSearchIndex.put(dto);
         logger.info("Product updated: {}", productId);
 
-        return toDto(saved);
+        return dto;
     }
 
-    @Transactional
-    public void deleteProduct(UUID productId, UUID actorId, Jwt jwt) {
+    // Продукт сразу скрывается, а удаление его заявок, назначений и самой строки
+    // выполняется асинхронно (ProductDeletionService); статус — getDeletionStatus
+    public ProductDeletionDto deleteProduct(UUID productId, UUID actorId, Jwt jwt) {
         if (actorId == null) {
             throw new UnauthorizedException("You must be authenticated to perform this action");
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product not found: " + productId));
-
-        boolean isAdmin = false;
-        if (jwt != null) {
-            Object roleClaim = jwt.getClaims().get("role");
-            if (roleClaim != null && ("ROLE_ADMIN".equals(roleClaim.toString()))) {
-                isAdmin = true;
-            }
-        }
-
-        Boolean isOwner = assignmentServiceClient.existsByUserAndProductAndRole(
-                actorId, productId, AssignmentRole.PRODUCT_OWNER.name()
-        );
-        if (isOwner == null) {
-            throw new ServiceUnavailableException("Assignment service is unavailable now");
-        }
-
-        if (!isAdmin && !isOwner) {
-            throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can delete product");
+        if (!productRepository.existsById(productId)) {
+            throw new NotFoundException("Product not found: " + productId);
         }
+        checkAdminOrOwner(actorId, productId, jwt, "delete");
+
+        ProductDeletionDto deletion = productDeletionService.requestDeletion(productId);
+        productCatalogCache.invalidate(productId);
+        productIdIndex.remove(productId);
+        productSearchIndex.remove(productId);
+        productOwnershipCache.evict(null, productId);
+        return deletion;
+    }
 
-        try {
-            applicationServiceClient.deleteApplicationsByProductId(productId);
-            productRepository.delete(product);
-            logger.info("Product deleted: {}", productId);
-        } catch (ServiceUnavailableException ex) {
-            logger.error("Application service is unavailable now");
-            throw new ServiceUnavailableException("Application service is unavailable now");
-        } catch (Exception ex) {
-            logger.error("Failed to delete product and its applications: {}", ex.getMessage(), ex);
-            throw new ConflictException("Failed to delete product and its applications: " + ex.getMessage());
-        }
+    public ProductDeletionDto getDeletionStatus(UUID productId) {
+        return productDeletionService.getStatus(productId);
     }
 
     @Transactional(readOnly = true)
@@ -186,11 +250,50 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
-    @Transactional(readOnly = true)
+    // Отвечает из ProductIdIndex; к БД обращается только до окончания его загрузки
     public boolean existsById(UUID id) {
+        if (productIdIndex.isReady()) {
+            return productIdIndex.contains(id);
+        }
         return productRepository.existsById(id);
     }
 
+    // Пакетная проверка для assignment-service: из индекса, иначе одним запросом к БД
+    public List<UUID> findExistingIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (productIdIndex.isReady()) {
+            return ids.stream().filter(productIdIndex::contains).toList();
+        }
+        return productRepository.findExistingIds(ids);
+    }
+
+    public void evictOwnership(UUID userId, UUID productId) {
+        productOwnershipCache.evict(userId, productId);
+    }
+
+    // Администратору удалённая проверка не нужна; ответ assignment-service кэшируется по (user, product)
+    private void checkAdminOrOwner(UUID actorId, UUID productId, Jwt jwt, String action) {
+        if (jwt != null) {
+            Object roleClaim = jwt.getClaims().get("role");
+            if (roleClaim != null && "ROLE_ADMIN".equals(roleClaim.toString())) {
+                return;
+            }
+        }
+
+        Boolean isOwner = productOwnershipCache.isOwner(actorId, productId, () ->
+                assignmentServiceClient.existsByUserAndProductAndRole(
+                        actorId, productId, AssignmentRole.PRODUCT_OWNER.name()));
+        if (isOwner == null) {
+            throw new ServiceUnavailableException("Assignment service is unavailable now");
+        }
+
+        if (!isOwner) {
+            throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can " + action + " product");
+        }
+    }
+
     private ProductDto toDto(Product product) {
         ProductDto dto = new ProductDto();
         dto.setId(product.getId());
@@ -198,4 +301,12 @@ public class ProductService {
         dto.setDescription(product.getDescription());
         return dto;
     }
+
+    private ProductDto toDto(ProductSearchRow row) {
+        ProductDto dto = new ProductDto();
+        dto.setId(row.getId());
+        dto.setName(row.getName());
+        dto.setDescription(row.getDescription());
+        return dto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.example.productservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// Непрозрачный курсор keyset-пагинации продуктов по (name, id)
+public class CursorUtil {
+
+    public static class Decoded {
+        public final String name;
+        public final UUID id;
+
+        public Decoded(String name, UUID id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    // Курсор результатов поиска: позиция по (rank, id)
+    public static class RankDecoded {
+        public final float rank;
+        public final UUID id;
+
+        public RankDecoded(float rank, UUID id) {
+            this.rank = rank;
+            this.id = id;
+        }
+    }
+
+    public static Decoded decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // id идёт первым: имя продукта может содержать разделитель
+            int separator = decoded.indexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+
+            UUID id = UUID.fromString(decoded.substring(0, separator));
+            String name = decoded.substring(separator + 1);
+
+            return new Decoded(name, id);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static RankDecoded decodeRanked(String cursor) {
+        Decoded decoded = decode(cursor);
+        if (decoded == null) {
+            return null;
+        }
+
+        try {
+            float rank = Float.parseFloat(decoded.name);
+            return Float.isFinite(rank) ? new RankDecoded(rank, decoded.id) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Float.toString даёт точное представление, поэтому сравнение rank = :rank в БД не теряет строки
+    public static String encodeRanked(float rank, UUID id) {
+        return encode(Float.toString(rank), id);
+    }
+
+    public static String encode(String name, UUID id) {
+        String data = id.toString() + "|" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.productservice.util;
+
+import com.example.productservice.dto.ProductDto;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Строгие ETag, вычисляемые по содержимому ответа: одинаковы на всех экземплярах сервиса
+// и не требуют сериализации тела для проверки If-None-Match
+public final class ETagUtil {
+
+    private ETagUtil() {}
+
+    public static String of(ProductDto dto) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, dto);
+        return quote(sb);
+    }
+
+    public static String of(List<ProductDto> items, long total, int page, int size) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(total).append('|').append(page).append('|').append(size);
+        for (ProductDto dto : items) {
+            sb.append('\n');
+            append(sb, dto);
+        }
+        return quote(sb);
+    }
+
+    /**
+     * Checks an If-None-Match header value against the current ETag (weak comparison, RFC 9110).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void append(StringBuilder sb, ProductDto dto) {
+        sb.append(dto.getId()).append('|')
+                .append(dto.getName()).append('|')
+                .append(dto.getDescription());
+    }
+
+    private static String quote(StringBuilder sb) {
+        return "\"" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
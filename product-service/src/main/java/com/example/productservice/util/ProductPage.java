@@ -0,0 +1,8 @@
+package com.example.productservice.util;
+
+import com.example.productservice.dto.ProductDto;
+
+import java.util.List;
+
+// total заполняется только по запросу (includeTotal=true), иначе null
+public record ProductPage(List<ProductDto> items, String nextCursor, Long total) { }
@@ -0,0 +1,133 @@
+package com.example.productservice.util;
+
+import java.util.UUID;
+
+/**
+ * Compact set of UUIDs stored as two parallel {@code long[]} arrays (most/least
+ * significant bits) with open addressing and linear probing. No per-element objects,
+ * about 16 bytes per slot. The nil UUID is used as the empty-slot marker and cannot be stored.
+ * Not thread-safe: callers provide synchronization.
+ */
+public class UuidOpenHashSet {
+
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] msb;
+    private long[] lsb;
+    private int mask;
+    private int size;
+
+    public UuidOpenHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(UUID id) {
+        return contains(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public boolean contains(long hi, long lo) {
+        int i = slot(hi, lo);
+        while (true) {
+            long h = msb[i];
+            long l = lsb[i];
+            if (h == 0L && l == 0L) {
+                return false;
+            }
+            if (h == hi && l == lo) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean add(UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        if (hi == 0L && lo == 0L) {
+            throw new IllegalArgumentException("nil UUID cannot be stored");
+        }
+        if (size + 1 > (mask + 1) * MAX_LOAD) {
+            rehash((mask + 1) << 1);
+        }
+        return insert(hi, lo);
+    }
+
+    public boolean remove(UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        int i = slot(hi, lo);
+        while (true) {
+            long h = msb[i];
+            long l = lsb[i];
+            if (h == 0L && l == 0L) {
+                return false;
+            }
+            if (h == hi && l == lo) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        // backward-shift deletion: keeps probe chains intact without tombstones
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (msb[j] != 0L || lsb[j] != 0L) {
+            int home = slot(msb[j], lsb[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                msb[hole] = msb[j];
+                lsb[hole] = lsb[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        msb[hole] = 0L;
+        lsb[hole] = 0L;
+        size--;
+        return true;
+    }
+
+    private boolean insert(long hi, long lo) {
+        int i = slot(hi, lo);
+        while (true) {
+            long h = msb[i];
+            long l = lsb[i];
+            if (h == 0L && l == 0L) {
+                msb[i] = hi;
+                lsb[i] = lo;
+                size++;
+                return true;
+            }
+            if (h == hi && l == lo) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldMsb = msb;
+        long[] oldLsb = lsb;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < oldMsb.length; i++) {
+            if (oldMsb[i] != 0L || oldLsb[i] != 0L) {
+                insert(oldMsb[i], oldLsb[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msb = new long[capacity];
+        lsb = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long hi, long lo) {
+        long h = (hi ^ lo) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
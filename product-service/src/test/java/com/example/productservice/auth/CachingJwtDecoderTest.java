@@ -0,0 +1,97 @@
+package com.example.productservice.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private JwtDecoder delegate;
+    private Clock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    public void setUp() {
+        delegate = mock(JwtDecoder.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new CachingJwtDecoder(delegate, 2, clock, meterRegistry);
+    }
+
+    @Test
+    public void decode_verifiesTokenOnceUntilItExpires() {
+        Jwt jwt = jwt("a", NOW.plusSeconds(60));
+        when(delegate.decode("a")).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode("a"));
+        assertSame(jwt, decoder.decode("a"));
+        verify(delegate, times(1)).decode("a");
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+        decoder.decode("a");
+        verify(delegate, times(2)).decode("a");
+        assertEquals(1, requests("hit"));
+        assertEquals(2, requests("miss"));
+    }
+
+    @Test
+    public void decode_doesNotCacheFailuresOrTokensWithoutExpiry() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("bad signature"));
+        when(delegate.decode("no-exp")).thenReturn(jwt("no-exp", null));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        decoder.decode("no-exp");
+        decoder.decode("no-exp");
+
+        verify(delegate, times(2)).decode("bad");
+        verify(delegate, times(2)).decode("no-exp");
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    public void decode_staysWithinMaxEntries_andReplacesExpiredOnes() {
+        when(delegate.decode("a")).thenReturn(jwt("a", NOW.plusSeconds(10)));
+        when(delegate.decode("b")).thenReturn(jwt("b", NOW.plusSeconds(60)));
+        when(delegate.decode("c")).thenReturn(jwt("c", NOW.plusSeconds(60)));
+        decoder.decode("a");
+        decoder.decode("b");
+
+        decoder.decode("c");
+        assertEquals(2, decoder.size());
+        decoder.decode("c");
+        verify(delegate, times(2)).decode("c");
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(30));
+        decoder.decode("c");
+        decoder.decode("c");
+        verify(delegate, times(3)).decode("c");
+        assertEquals(2, decoder.size());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("security.jwt.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("user")
+                .issuedAt(NOW.minusSeconds(1))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.productservice.auth;
+
+import com.example.productservice.exception.ServiceUnavailableException;
+import com.example.productservice.feign.UserServiceClient;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JwkSetCacheTest {
+
+    private UserServiceClient userServiceClient;
+    private JwkSetCache jwkSetCache;
+    private JwtDecoder decoder;
+    private ECKey key;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        userServiceClient = mock(UserServiceClient.class);
+        jwkSetCache = new JwkSetCache(userServiceClient);
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(Set.of(JWSAlgorithm.ES256), jwkSetCache));
+        decoder = new NimbusJwtDecoder(processor);
+        key = new ECKeyGenerator(Curve.P_256).keyIDFromThumbprint(true).generate();
+    }
+
+    @Test
+    public void decode_loadsKeySetOnceAndVerifiesLocally() throws Exception {
+        when(userServiceClient.jwks()).thenReturn(publish(key));
+
+        assertEquals("alice", decoder.decode(token(key, "alice")).getSubject());
+        assertEquals("bob", decoder.decode(token(key, "bob")).getSubject());
+
+        verify(userServiceClient, times(1)).jwks();
+    }
+
+    @Test
+    public void decode_unknownKeyId_reloadsKeySetAtMostOncePerInterval() throws Exception {
+        ECKey rotated = new ECKeyGenerator(Curve.P_256).keyIDFromThumbprint(true).generate();
+        ECKey forged = new ECKeyGenerator(Curve.P_256).keyIDFromThumbprint(true).generate();
+        when(userServiceClient.jwks()).thenReturn(publish(key), publish(rotated, key));
+        decoder.decode(token(key, "alice"));
+
+        assertEquals("alice", decoder.decode(token(rotated, "alice")).getSubject());
+        assertThrows(JwtException.class, () -> decoder.decode(token(forged, "mallory")));
+        assertThrows(JwtException.class, () -> decoder.decode(token(forged, "mallory")));
+
+        verify(userServiceClient, times(2)).jwks();
+    }
+
+    @Test
+    public void refresh_keepsLoadedKeysWhenUserServiceIsDown() throws Exception {
+        when(userServiceClient.jwks()).thenReturn(publish(key));
+        decoder.decode(token(key, "alice"));
+
+        when(userServiceClient.jwks()).thenThrow(new ServiceUnavailableException("down"));
+        jwkSetCache.refresh();
+
+        assertEquals("alice", decoder.decode(token(key, "alice")).getSubject());
+    }
+
+    @Test
+    public void decode_withoutKeySet_failsAndRefreshDoesNotLoadIt() throws Exception {
+        when(userServiceClient.jwks()).thenThrow(new ServiceUnavailableException("down"));
+
+        jwkSetCache.refresh();
+        verify(userServiceClient, never()).jwks();
+
+        assertThrows(JwtException.class, () -> decoder.decode(token(key, "alice")));
+    }
+
+    private static Map<String, Object> publish(ECKey... keys) {
+        return new JWKSet(List.of(keys)).toJSONObject(true);
+    }
+
+    private static String token(ECKey key, String username) throws Exception {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(username)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(60)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.ES256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new ECDSASigner(key));
+        return jwt.serialize();
+    }
+}
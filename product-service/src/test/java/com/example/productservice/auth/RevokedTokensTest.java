@@ -0,0 +1,86 @@
+package com.example.productservice.auth;
+
+import com.example.productservice.dto.RevokedTokenDto;
+import com.example.productservice.exception.ServiceUnavailableException;
+import com.example.productservice.feign.UserServiceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RevokedTokensTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private UserServiceClient userServiceClient;
+    private Clock clock;
+    private RevokedTokens revokedTokens;
+
+    @BeforeEach
+    public void setUp() {
+        userServiceClient = mock(UserServiceClient.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        revokedTokens = new RevokedTokens(userServiceClient, clock);
+    }
+
+    @Test
+    public void check_rejectsRevokedTokenUntilItExpires() {
+        when(userServiceClient.revokedTokens(null)).thenReturn(List.of(
+                new RevokedTokenDto("a", NOW.plusSeconds(60), NOW.minusSeconds(5))));
+
+        revokedTokens.sync();
+
+        assertThrows(BadJwtException.class, () -> revokedTokens.check(jwt("a")));
+        assertNotNull(revokedTokens.check(jwt("b")));
+        assertNotNull(revokedTokens.check(jwt(null)));
+
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+        revokedTokens.sync();
+        assertEquals(0, revokedTokens.size());
+    }
+
+    @Test
+    public void sync_continuesFromLastRevocationWithOverlap() {
+        Instant revokedAt = NOW.minusSeconds(5);
+        when(userServiceClient.revokedTokens(any())).thenReturn(List.of(
+                new RevokedTokenDto("a", NOW.plusSeconds(60), revokedAt)));
+
+        revokedTokens.sync();
+        revokedTokens.sync();
+
+        verify(userServiceClient).revokedTokens(null);
+        verify(userServiceClient).revokedTokens(revokedAt.minusSeconds(10));
+    }
+
+    @Test
+    public void sync_keepsKnownRevocationsWhenUserServiceIsDown() {
+        when(userServiceClient.revokedTokens(null)).thenReturn(List.of(
+                new RevokedTokenDto("a", NOW.plusSeconds(60), NOW.minusSeconds(5))));
+        revokedTokens.sync();
+
+        when(userServiceClient.revokedTokens(any())).thenThrow(new ServiceUnavailableException("down"));
+        revokedTokens.sync();
+
+        assertThrows(BadJwtException.class, () -> revokedTokens.check(jwt("a")));
+    }
+
+    private static Jwt jwt(String id) {
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("user")
+                .expiresAt(NOW.plusSeconds(60));
+        if (id != null) {
+            builder.jti(id);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.productservice.auth;
+
+import com.example.productservice.dto.AuthTokenDto;
+import com.example.productservice.dto.LoginRequestDto;
+import com.example.productservice.feign.UserServiceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ServiceAccountTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private UserServiceClient userServiceClient;
+    private JwtDecoder jwtDecoder;
+    private Clock clock;
+
+    @BeforeEach
+    public void setUp() {
+        userServiceClient = mock(UserServiceClient.class);
+        jwtDecoder = mock(JwtDecoder.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    private Jwt jwt(String value, Instant expiresAt) {
+        return Jwt.withTokenValue(value).header("alg", "RS256").subject("service")
+                .issuedAt(expiresAt.minusSeconds(900)).expiresAt(expiresAt).build();
+    }
+
+    @Test
+    public void securityContext_withoutCredentials_isEmpty() {
+        ServiceAccount account = new ServiceAccount(userServiceClient, jwtDecoder, "", "", clock);
+
+        SecurityContext context = account.securityContext();
+
+        assertFalse(account.isConfigured());
+        assertNull(context.getAuthentication());
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    public void securityContext_reusesTokenUntilShortlyBeforeExpiry() {
+        ServiceAccount account = new ServiceAccount(userServiceClient, jwtDecoder, "svc", "secret", clock);
+        when(userServiceClient.login(new LoginRequestDto("svc", "secret")))
+                .thenReturn(new AuthTokenDto("t1", "r1", 900), new AuthTokenDto("t2", "r2", 900));
+        when(jwtDecoder.decode("t1")).thenReturn(jwt("t1", NOW.plusSeconds(900)));
+        when(jwtDecoder.decode("t2")).thenReturn(jwt("t2", NOW.plusSeconds(1800)));
+
+        JwtAuthenticationToken first = (JwtAuthenticationToken) account.securityContext().getAuthentication();
+        when(clock.instant()).thenReturn(NOW.plusSeconds(600));
+        JwtAuthenticationToken cached = (JwtAuthenticationToken) account.securityContext().getAuthentication();
+        when(clock.instant()).thenReturn(NOW.plusSeconds(850));
+        JwtAuthenticationToken renewed = (JwtAuthenticationToken) account.securityContext().getAuthentication();
+
+        assertEquals("t1", first.getToken().getTokenValue());
+        assertEquals("t1", cached.getToken().getTokenValue());
+        assertEquals("t2", renewed.getToken().getTokenValue());
+        verify(userServiceClient, times(2)).login(any());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.productservice.benchmark;
+
+import com.example.productservice.auth.CachingJwtDecoder;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * CPU per request spent in bearer token decoding: plain NimbusJwtDecoder versus CachingJwtDecoder.
+ * The request mix models one service instance: 2 000 active sessions with tokens shaped like the ones
+ * user-service issues (sub, uid, role, 1 h exp), 5% of requests come with a freshly issued token
+ * (login or re-login) and 1% with a token whose signature does not verify.
+ * Run with: mvn -pl product-service test -Dtest=JwtDecoderCacheBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JwtDecoderCacheBenchmark {
+
+    private static final String SECRET = "test-secret-very-long-string-at-least-32-bytes-123456";
+    private static final int SESSIONS = 2_000;
+    private static final int REQUESTS = 200_000;
+    private static final double NEW_TOKEN_SHARE = 0.05;
+    private static final double INVALID_TOKEN_SHARE = 0.01;
+
+    @Test
+    public void decodeCpuPerRequest() throws Exception {
+        SecretKey key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        String[] requests = requestMix(new MACSigner(key));
+
+        JwtDecoder plain = NimbusJwtDecoder.withSecretKey(key).build();
+        JwtDecoder cached = new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(key).build(),
+                10_000, Clock.systemUTC(), new SimpleMeterRegistry());
+
+        // прогрев JIT, кэш после него заполнен как у долго работающего экземпляра
+        run(plain, requests);
+        run(cached, requests);
+
+        double plainMicros = run(plain, requests);
+        double cachedMicros = run(cached, requests);
+        System.out.printf("NimbusJwtDecoder:  %.2f us CPU/request%n", plainMicros);
+        System.out.printf("CachingJwtDecoder: %.2f us CPU/request (%.0f%% less)%n",
+                cachedMicros, 100 * (1 - cachedMicros / plainMicros));
+    }
+
+    private static double run(JwtDecoder decoder, String[] requests) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        int rejected = 0;
+        for (String token : requests) {
+            try {
+                decoder.decode(token);
+            } catch (JwtException e) {
+                rejected++;
+            }
+        }
+        long cpuNanos = threads.getCurrentThreadCpuTime() - start;
+        if (rejected == 0) {
+            throw new IllegalStateException("Request mix contains no invalid tokens");
+        }
+        return cpuNanos / 1_000.0 / requests.length;
+    }
+
+    private static String[] requestMix(MACSigner signer) throws JOSEException {
+        Random random = new Random(42);
+        String[] sessions = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions[i] = token(signer, "user" + i);
+        }
+        String[] requests = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            double roll = random.nextDouble();
+            int session = random.nextInt(SESSIONS);
+            if (roll < INVALID_TOKEN_SHARE) {
+                String valid = sessions[session];
+                requests[i] = valid.substring(0, valid.length() - 4) + "AAAA";
+            } else if (roll < INVALID_TOKEN_SHARE + NEW_TOKEN_SHARE) {
+                sessions[session] = token(signer, "user" + session);
+                requests[i] = sessions[session];
+            } else {
+                requests[i] = sessions[session];
+            }
+        }
+        return requests;
+    }
+
+    private static String token(MACSigner signer, String username) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(username)
+                .claim("uid", UUID.randomUUID().toString())
+                .claim("role", "ROLE_USER")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(3600)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+}
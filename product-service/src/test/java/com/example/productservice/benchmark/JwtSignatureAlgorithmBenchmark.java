@@ -0,0 +1,109 @@
+package com.example.productservice.benchmark;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * CPU per token for signing (user-service, once per login or refresh) and for verification without
+ * the decoder cache (resource servers, once per token and instance): HS256 with the shared secret,
+ * RS256 with a 2048-bit key and ES256 on P-256, both verified with keys from a JWK set.
+ * Run with: mvn -pl product-service test -Dtest=JwtSignatureAlgorithmBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JwtSignatureAlgorithmBenchmark {
+
+    private static final String SECRET = "test-secret-very-long-string-at-least-32-bytes-123456";
+    private static final int TOKENS = 2_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void signAndVerifyCpuPerToken() throws Exception {
+        RSAKey rsa = new RSAKeyGenerator(2048).keyID("rsa").generate();
+        ECKey ec = new ECKeyGenerator(Curve.P_256).keyID("ec").generate();
+
+        measure("HS256", JWSAlgorithm.HS256, new MACSigner(SECRET.getBytes(StandardCharsets.UTF_8)),
+                NimbusJwtDecoder.withSecretKey(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                        .build());
+        measure("RS256", JWSAlgorithm.RS256, new RSASSASigner(rsa), jwkSetDecoder(JWSAlgorithm.RS256, rsa));
+        measure("ES256", JWSAlgorithm.ES256, new ECDSASigner(ec), jwkSetDecoder(JWSAlgorithm.ES256, ec));
+    }
+
+    private static void measure(String name, JWSAlgorithm algorithm, JWSSigner signer, JwtDecoder decoder)
+            throws JOSEException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        String keyId = algorithm == JWSAlgorithm.HS256 ? null : algorithm == JWSAlgorithm.RS256 ? "rsa" : "ec";
+        double signMicros = Double.MAX_VALUE;
+        double verifyMicros = Double.MAX_VALUE;
+        // лучший из нескольких прогонов: первые уходят на прогрев JIT
+        for (int round = 0; round < ROUNDS; round++) {
+            String[] tokens = new String[TOKENS];
+            long start = threads.getCurrentThreadCpuTime();
+            for (int i = 0; i < TOKENS; i++) {
+                tokens[i] = token(algorithm, keyId, signer, "user" + i);
+            }
+            signMicros = Math.min(signMicros, (threads.getCurrentThreadCpuTime() - start) / 1_000.0 / TOKENS);
+
+            start = threads.getCurrentThreadCpuTime();
+            for (String token : tokens) {
+                decoder.decode(token);
+            }
+            verifyMicros = Math.min(verifyMicros, (threads.getCurrentThreadCpuTime() - start) / 1_000.0 / TOKENS);
+        }
+        System.out.printf("%s: sign %.1f us CPU/token, verify %.1f us CPU/token%n", name, signMicros, verifyMicros);
+    }
+
+    private static JwtDecoder jwkSetDecoder(JWSAlgorithm algorithm, JWK key) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(Set.of(algorithm),
+                new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK()))));
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private static String token(JWSAlgorithm algorithm, String keyId, JWSSigner signer, String username)
+            throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .jwtID(UUID.randomUUID().toString())
+                .subject(username)
+                .claim("uid", UUID.randomUUID().toString())
+                .claim("role", "ROLE_CLIENT")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(900)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(keyId).build(), claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+}
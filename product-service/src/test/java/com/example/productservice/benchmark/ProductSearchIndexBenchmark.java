@@ -0,0 +1,85 @@
+package com.example.productservice.benchmark;
+
+import com.example.productservice.dto.ProductDto;
+import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.service.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Latency benchmark for full-text search over 1M products held in the in-memory index.
+ * The Postgres GIN path needs a real database and is not covered here.
+ * Run with: mvn -pl product-service test -Dtest=ProductSearchIndexBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ProductSearchIndexBenchmark {
+
+    private static final int PRODUCT_COUNT = 1_000_000;
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int QUERIES = 20_000;
+
+    @Test
+    public void searchLatency() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = "w" + Integer.toString(i, 36);
+        }
+
+        ProductSearchIndex index = new ProductSearchIndex(mock(ProductRepository.class), true);
+        long loadStart = System.nanoTime();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            ProductDto dto = new ProductDto();
+            dto.setId(UUID.randomUUID());
+            dto.setName(words(random, vocabulary, 3) + " " + i);
+            dto.setDescription(words(random, vocabulary, 12));
+            index.put(dto);
+        }
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = words(random, vocabulary, 1 + random.nextInt(2));
+        }
+        // прогрев JIT
+        for (String query : queries) {
+            index.search(query, null, null, 20);
+        }
+
+        long[] latencies = new long[QUERIES];
+        long hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            hits += index.search(queries[i], null, null, 20).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("ProductSearchIndex: %d products loaded in %d ms, %d queries (limit 20, %d results)%n",
+                index.size(), loadMs, QUERIES, hits);
+        System.out.printf("  p50=%.1f us  p99=%.1f us  p99.9=%.1f us  max=%.1f us%n",
+                latencies[QUERIES / 2] / 1000.0,
+                latencies[(int) (QUERIES * 0.99)] / 1000.0,
+                latencies[(int) (QUERIES * 0.999)] / 1000.0,
+                latencies[QUERIES - 1] / 1000.0);
+    }
+
+    // Частоты слов распределены неравномерно (квадрат равномерного), как в реальных текстах
+    private static String words(Random random, String[] vocabulary, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double skewed = random.nextDouble() * random.nextDouble();
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(vocabulary[(int) (skewed * vocabulary.length)]);
+        }
+        return sb.toString();
+    }
+}
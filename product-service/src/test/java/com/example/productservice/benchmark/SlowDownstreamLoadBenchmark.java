@@ -0,0 +1,172 @@
+package com.example.productservice.benchmark;
+
+import com.example.productservice.ProductServiceApplication;
+import com.example.productservice.model.entity.Product;
+import com.example.productservice.repository.ProductDeletionRepository;
+import com.example.productservice.repository.ProductRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test of PUT /api/v1/products/{id} by a non-admin actor, whose ownership check
+ * (AssignmentServiceClient.existsByUserAndProductAndRole) is served by a stub assignment-service that
+ * answers after {@link #DOWNSTREAM_DELAY_MS}. Every request targets a new product id, so the ownership
+ * cache never answers. The real controller, security filter chain, Feign client and circuit breaker
+ * run in embedded Tomcat; the repositories are mocks, so no database is needed. The test starts the
+ * service with spring.threads.virtual.enabled=false and then true and reports how many slow requests
+ * were in flight concurrently in each mode.
+ * Run with: mvn -pl product-service test -Dtest=SlowDownstreamLoadBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SlowDownstreamLoadBenchmark {
+
+    private static final String SECRET = "test-secret-very-long-string-at-least-32-bytes-123456";
+    private static final long DOWNSTREAM_DELAY_MS = 500;
+    private static final int[] CONCURRENCY_LEVELS = {200, 1000};
+
+    @Test
+    public void platformVsVirtualThreads() throws Exception {
+        HttpServer downstream = startDownstream();
+        try {
+            for (boolean virtual : new boolean[]{false, true}) {
+                try (ConfigurableApplicationContext context = startService(downstream.getAddress().getPort(), virtual)) {
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    run(port, 50); // прогрев
+                    for (int concurrency : CONCURRENCY_LEVELS) {
+                        report(virtual, concurrency, run(port, concurrency));
+                    }
+                }
+            }
+        } finally {
+            downstream.stop(0);
+        }
+    }
+
+    // Заглушка assignment-service: актор владеет любым продуктом, ответ приходит через DOWNSTREAM_DELAY_MS
+    private static HttpServer startDownstream() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(DOWNSTREAM_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "true".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static ConfigurableApplicationContext startService(int downstreamPort, boolean virtual) {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findById(any())).thenAnswer(invocation ->
+                Optional.of(new Product(invocation.getArgument(0), "old-name", "description")));
+        when(productRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return new SpringApplicationBuilder(ProductServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.config.import=",
+                        "spring.cloud.config.enabled=false",
+                        "eureka.client.enabled=false",
+                        "spring.cloud.discovery.client.simple.instances.assignment-service[0].uri=http://localhost:" + downstreamPort,
+                        "spring.autoconfigure.exclude=" + String.join(",",
+                                DataSourceAutoConfiguration.class.getName(),
+                                DataSourceTransactionManagerAutoConfiguration.class.getName(),
+                                HibernateJpaAutoConfiguration.class.getName(),
+                                LiquibaseAutoConfiguration.class.getName()),
+                        "jwt.secret=" + SECRET,
+                        "logging.level.root=WARN")
+                .initializers(context -> {
+                    context.getBeanFactory().registerSingleton("productRepository", productRepository);
+                    context.getBeanFactory().registerSingleton("productDeletionRepository", mock(ProductDeletionRepository.class));
+                    context.getBeanFactory().registerSingleton("transactionManager", mock(PlatformTransactionManager.class));
+                })
+                .run();
+    }
+
+    private static Result run(int port, int concurrency) {
+        String actorId = UUID.randomUUID().toString();
+        String token = Jwts.builder()
+                .setSubject(actorId)
+                .claim("uid", actorId)
+                .claim("role", "ROLE_MANAGER")
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientThreads)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            long start = System.nanoTime();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                String body = "{\"name\":\"product-" + i + "\",\"description\":\"updated\"}";
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/products/" + UUID.randomUUID()))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(body))
+                        .timeout(Duration.ofSeconds(60))
+                        .build();
+                futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .handle((response, ex) -> ex == null ? response.statusCode() : -1));
+            }
+            long ok = futures.stream().map(CompletableFuture::join).filter(status -> status == 200).count();
+            double wallMs = (System.nanoTime() - start) / 1_000_000.0;
+            return new Result(concurrency, ok, wallMs);
+        } finally {
+            clientThreads.shutdownNow();
+        }
+    }
+
+    private static void report(boolean virtual, int concurrency, Result result) {
+        System.out.printf("product-service %s threads: %5d requests, %5d ok, wall %7.0f ms, ~%6.0f concurrent slow requests sustained%n",
+                virtual ? "virtual " : "platform", concurrency, result.ok(), result.wallMs(),
+                result.ok() * DOWNSTREAM_DELAY_MS / result.wallMs());
+    }
+
+    private record Result(int requests, long ok, double wallMs) { }
+}
@@ -1,9 +1,12 @@
 package com.example.productservice.controller;
 
+import com.example.productservice.dto.ProductDeletionDto;
 import com.example.productservice.dto.ProductDto;
 import com.example.productservice.dto.ProductRequest;
 import com.example.productservice.exception.*;
+import com.example.productservice.model.enums.DeletionStatus;
 import com.example.productservice.service.ProductService;
+import com.example.productservice.util.ProductPage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -19,7 +22,9 @@ import org.springframework.security.oauth2.jwt.Jwt;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -107,7 +112,7 @@ public class ProductControllerTest {
         when(productService.list(0, 20)).thenReturn(page);
 
         HttpServletResponse mockResponse = mock(HttpServletResponse.class);
-        ResponseEntity<List<ProductDto>> response = productController.list(0, 20, mockResponse);
+        ResponseEntity<List<ProductDto>> response = productController.list(0, 20, null, mockResponse);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -117,7 +122,7 @@ public class ProductControllerTest {
     @Test
     void list_sizeExceedsMax_throwsBadRequestException() {
         assertThrows(BadRequestException.class, () ->
-                productController.list(0, 100, mock(HttpServletResponse.class))
+                productController.list(0, 100, null, mock(HttpServletResponse.class))
         );
         verify(productService, never()).list(anyInt(), anyInt());
     }
@@ -128,10 +133,47 @@ public class ProductControllerTest {
                 .thenThrow(new BadRequestException("Invalid parameters"));
 
         assertThrows(BadRequestException.class, () ->
-                productController.list(0, 20, mock(HttpServletResponse.class))
+                productController.list(0, 20, null, mock(HttpServletResponse.class))
         );
     }
 
+    // -----------------------
+    // listKeyset tests
+    // -----------------------
+    @Test
+    void listKeyset_validParameters_returnsPage() {
+        ProductPage page = new ProductPage(List.of(createSampleProductDto()), "next", null);
+        when(productService.listKeyset("cursor", 20, false)).thenReturn(page);
+
+        ResponseEntity<ProductPage> response = productController.listKeyset("cursor", 20, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void listKeyset_limitExceedsMax_throwsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> productController.listKeyset(null, 51, false));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void searchProducts_validParameters_returnsPage() {
+        ProductPage page = new ProductPage(List.of(createSampleProductDto()), null, null);
+        when(productService.search("card", null, 20)).thenReturn(page);
+
+        ResponseEntity<ProductPage> response = productController.searchProducts("card", null, 20);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void searchProducts_limitExceedsMax_throwsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> productController.searchProducts("card", null, 51));
+        verifyNoInteractions(productService);
+    }
+
     // -----------------------
     // get tests
     // -----------------------
@@ -143,7 +185,7 @@ public class ProductControllerTest {
 
         when(productService.get(productId)).thenReturn(dto);
 
-        ResponseEntity<ProductDto> response = productController.get(productId);
+        ResponseEntity<ProductDto> response = productController.get(productId, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(productId, response.getBody().getId());
@@ -155,7 +197,7 @@ public class ProductControllerTest {
 
         when(productService.get(productId)).thenReturn(null);
 
-        ResponseEntity<ProductDto> response = productController.get(productId);
+        ResponseEntity<ProductDto> response = productController.get(productId, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
@@ -169,10 +211,66 @@ public class ProductControllerTest {
                 .thenThrow(new RuntimeException("DB error"));
 
         assertThrows(RuntimeException.class, () ->
-                productController.get(productId)
+                productController.get(productId, null)
         );
     }
 
+    @Test
+    void get_productFound_returnsStrongETag() {
+        UUID productId = UUID.randomUUID();
+        ProductDto dto = createSampleProductDto();
+        dto.setId(productId);
+        when(productService.get(productId)).thenReturn(dto);
+
+        ResponseEntity<ProductDto> response = productController.get(productId, null);
+
+        String etag = response.getHeaders().getETag();
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("\""));
+        assertEquals(etag, productController.get(productId, null).getHeaders().getETag());
+    }
+
+    @Test
+    void get_ifNoneMatchMatches_returnsNotModified() {
+        UUID productId = UUID.randomUUID();
+        ProductDto dto = createSampleProductDto();
+        dto.setId(productId);
+        when(productService.get(productId)).thenReturn(dto);
+        String etag = productController.get(productId, null).getHeaders().getETag();
+
+        ResponseEntity<ProductDto> response = productController.get(productId, "\"other\", " + etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(etag, response.getHeaders().getETag());
+    }
+
+    @Test
+    void get_ifNoneMatchStale_returnsOk() {
+        UUID productId = UUID.randomUUID();
+        ProductDto dto = createSampleProductDto();
+        dto.setId(productId);
+        when(productService.get(productId)).thenReturn(dto);
+
+        ResponseEntity<ProductDto> response = productController.get(productId, "\"stale\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+    }
+
+    @Test
+    void list_ifNoneMatchMatches_returnsNotModified() {
+        Page<ProductDto> page = new PageImpl<>(List.of(createSampleProductDto()), PageRequest.of(0, 20), 1);
+        when(productService.list(0, 20)).thenReturn(page);
+        HttpServletResponse mockResponse = mock(HttpServletResponse.class);
+        String etag = productController.list(0, 20, null, mockResponse).getHeaders().getETag();
+
+        ResponseEntity<List<ProductDto>> response = productController.list(0, 20, "W/" + etag, mockResponse);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
     // -----------------------
     // updateProduct tests
     // -----------------------
@@ -312,19 +410,37 @@ public class ProductControllerTest {
     // deleteProduct tests
     // -----------------------
     @Test
-    void deleteProduct_success_returnsNoContent() {
+    void deleteProduct_success_returnsAcceptedWithStatusLocation() {
         UUID productId = UUID.randomUUID();
         UUID actorId = UUID.randomUUID();
 
         Jwt jwt = mock(Jwt.class);
         when(jwt.getClaimAsString("uid")).thenReturn(actorId.toString());
 
-        doNothing().when(productService).deleteProduct(eq(productId), eq(actorId), eq(jwt));
+        ProductDeletionDto job = new ProductDeletionDto();
+        job.setProductId(productId);
+        job.setStatus(DeletionStatus.PENDING);
+        when(productService.deleteProduct(eq(productId), eq(actorId), eq(jwt))).thenReturn(job);
 
-        ResponseEntity<Void> response = productController.deleteProduct(productId, jwt);
+        ResponseEntity<ProductDeletionDto> response = productController.deleteProduct(productId, jwt);
 
-        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        assertNull(response.getBody());
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertSame(job, response.getBody());
+        assertEquals("/api/v1/products/" + productId + "/deletion", response.getHeaders().getLocation().toString());
+    }
+
+    @Test
+    void getDeletionStatus_returnsJobStatus() {
+        UUID productId = UUID.randomUUID();
+        ProductDeletionDto job = new ProductDeletionDto();
+        job.setProductId(productId);
+        job.setStatus(DeletionStatus.COMPLETED);
+        when(productService.getDeletionStatus(productId)).thenReturn(job);
+
+        ResponseEntity<ProductDeletionDto> response = productController.getDeletionStatus(productId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(DeletionStatus.COMPLETED, response.getBody().getStatus());
     }
 
     @Test
@@ -434,6 +550,37 @@ public class ProductControllerTest {
         assertFalse(response.getBody());
     }
 
+    @Test
+    void existingProducts_deduplicatesIdsAndReturnsExisting() {
+        UUID existing = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+
+        when(productService.findExistingIds(Set.of(existing, missing))).thenReturn(List.of(existing));
+
+        ResponseEntity<List<UUID>> response = productController.existingProducts(List.of(existing, missing, existing));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(existing), response.getBody());
+    }
+
+    @Test
+    void existingProducts_tooManyIds_throwsBadRequest() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(1001).toList();
+
+        assertThrows(BadRequestException.class, () -> productController.existingProducts(ids));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void evictOwnershipCache_delegatesToServiceAndReturnsNoContent() {
+        UUID userId = UUID.randomUUID();
+
+        ResponseEntity<Void> response = productController.evictOwnershipCache(userId, null);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(productService).evictOwnership(userId, null);
+    }
+
     // -----------------------
     // edge cases tests
     // -----------------------
@@ -495,7 +642,7 @@ public class ProductControllerTest {
         when(productService.list(0, 20)).thenReturn(page);
 
         HttpServletResponse mockResponse = mock(HttpServletResponse.class);
-        ResponseEntity<List<ProductDto>> response = productController.list(0, 20, mockResponse);
+        ResponseEntity<List<ProductDto>> response = productController.list(0, 20, null, mockResponse);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -509,7 +656,7 @@ public class ProductControllerTest {
         when(productService.list(100, 20)).thenReturn(page);
 
         HttpServletResponse mockResponse = mock(HttpServletResponse.class);
-        ResponseEntity<List<ProductDto>> response = productController.list(100, 20, mockResponse);
+        ResponseEntity<List<ProductDto>> response = productController.list(100, 20, null, mockResponse);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
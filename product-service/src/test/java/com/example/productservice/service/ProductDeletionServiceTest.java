@@ -0,0 +1,209 @@
+package com.example.productservice.service;
+
+import com.example.productservice.auth.ServiceAccount;
+import com.example.productservice.dto.ProductDeletionDto;
+import com.example.productservice.exception.NotFoundException;
+import com.example.productservice.exception.ServiceUnavailableException;
+import com.example.productservice.feign.ApplicationServiceClient;
+import com.example.productservice.feign.AssignmentServiceClient;
+import com.example.productservice.model.entity.ProductDeletion;
+import com.example.productservice.model.enums.DeletionStatus;
+import com.example.productservice.repository.ProductDeletionRepository;
+import com.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductDeletionServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductDeletionRepository productDeletionRepository;
+
+    @Mock
+    private ApplicationServiceClient applicationServiceClient;
+
+    @Mock
+    private AssignmentServiceClient assignmentServiceClient;
+
+    @Mock
+    private ServiceAccount serviceAccount;
+
+    private ProductDeletionService deletionService;
+
+    private final UUID productId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        // Задания выполняются синхронно в вызывающем потоке
+        deletionService = new ProductDeletionService(productRepository, productDeletionRepository,
+                applicationServiceClient, assignmentServiceClient, serviceAccount, Runnable::run,
+                MAX_ATTEMPTS, Duration.ofSeconds(30), Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private SecurityContext contextOf(Authentication authentication) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        return context;
+    }
+
+    // Аутентификация, с которой каскад вызывает assignment-service
+    private AtomicReference<Authentication> captureCascadeAuthentication() {
+        AtomicReference<Authentication> captured = new AtomicReference<>();
+        when(assignmentServiceClient.deleteAssignmentsByProductId(productId)).thenAnswer(inv -> {
+            captured.set(SecurityContextHolder.getContext().getAuthentication());
+            return null;
+        });
+        return captured;
+    }
+
+    private ProductDeletion claimedJob(int attempts) {
+        ProductDeletion job = new ProductDeletion(productId, Instant.now());
+        job.setStatus(DeletionStatus.IN_PROGRESS);
+        job.setAttempts(attempts);
+        when(productDeletionRepository.claim(eq(productId), any(Instant.class), any(Instant.class))).thenReturn(1);
+        when(productDeletionRepository.findById(productId)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    @Test
+    void requestDeletion_hidesProductAndRunsCascade() {
+        when(productRepository.markDeleted(eq(productId), any(Instant.class))).thenReturn(1);
+        when(productDeletionRepository.save(any(ProductDeletion.class))).thenAnswer(inv -> inv.getArgument(0));
+        ProductDeletion job = claimedJob(1);
+
+        ProductDeletionDto result = deletionService.requestDeletion(productId);
+
+        assertEquals(productId, result.getProductId());
+        verify(applicationServiceClient).deleteApplicationsByProductId(productId);
+        verify(assignmentServiceClient).deleteAssignmentsByProductId(productId);
+        verify(productRepository).hardDeleteById(productId);
+        assertEquals(DeletionStatus.COMPLETED, job.getStatus());
+        assertNotNull(job.getCompletedAt());
+    }
+
+    @Test
+    void requestDeletion_runsCascadeWithRequesterToken() {
+        Authentication requester = new TestingAuthenticationToken("owner", "token");
+        SecurityContextHolder.setContext(contextOf(requester));
+        when(productRepository.markDeleted(eq(productId), any(Instant.class))).thenReturn(1);
+        when(productDeletionRepository.save(any(ProductDeletion.class))).thenAnswer(inv -> inv.getArgument(0));
+        claimedJob(1);
+        AtomicReference<Authentication> cascadeAuth = captureCascadeAuthentication();
+
+        deletionService.requestDeletion(productId);
+
+        assertSame(requester, cascadeAuth.get());
+        verifyNoInteractions(serviceAccount);
+    }
+
+    @Test
+    void requestDeletion_productMissing_throwsNotFound() {
+        when(productRepository.markDeleted(eq(productId), any(Instant.class))).thenReturn(0);
+
+        assertThrows(NotFoundException.class, () -> deletionService.requestDeletion(productId));
+        verifyNoInteractions(productDeletionRepository, applicationServiceClient, assignmentServiceClient);
+    }
+
+    @Test
+    void process_downstreamFails_keepsJobPendingForRetry() {
+        ProductDeletion job = claimedJob(1);
+        doThrow(new ServiceUnavailableException("Application service is unavailable now"))
+                .when(applicationServiceClient).deleteApplicationsByProductId(productId);
+
+        deletionService.process(productId);
+
+        assertEquals(DeletionStatus.PENDING, job.getStatus());
+        assertEquals("Application service is unavailable now", job.getLastError());
+        verify(productRepository, never()).hardDeleteById(any());
+        verify(productDeletionRepository).save(job);
+    }
+
+    @Test
+    void process_lastAttemptFails_marksJobFailed() {
+        ProductDeletion job = claimedJob(MAX_ATTEMPTS);
+        doThrow(new ServiceUnavailableException("Assignment service is unavailable now"))
+                .when(assignmentServiceClient).deleteAssignmentsByProductId(productId);
+
+        deletionService.process(productId);
+
+        assertEquals(DeletionStatus.FAILED, job.getStatus());
+        verify(productRepository, never()).hardDeleteById(any());
+    }
+
+    @Test
+    void process_jobNotClaimed_doesNothing() {
+        when(productDeletionRepository.claim(eq(productId), any(Instant.class), any(Instant.class))).thenReturn(0);
+
+        deletionService.process(productId);
+
+        verifyNoInteractions(applicationServiceClient, assignmentServiceClient);
+        verify(productRepository, never()).hardDeleteById(any());
+    }
+
+    @Test
+    void processDue_runsEveryDueJob() {
+        when(productDeletionRepository.findDue(any(Instant.class), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(productId));
+        claimedJob(2);
+        Authentication service = new TestingAuthenticationToken("product-service", "token");
+        when(serviceAccount.isConfigured()).thenReturn(true);
+        when(serviceAccount.securityContext()).thenReturn(contextOf(service));
+        AtomicReference<Authentication> cascadeAuth = captureCascadeAuthentication();
+
+        deletionService.processDue();
+
+        verify(productRepository).hardDeleteById(productId);
+        assertSame(service, cascadeAuth.get());
+    }
+
+    @Test
+    void processDue_serviceAccountLoginFails_postponesRetries() {
+        when(productDeletionRepository.findDue(any(Instant.class), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(productId));
+        when(serviceAccount.isConfigured()).thenReturn(true);
+        when(serviceAccount.securityContext()).thenThrow(new ServiceUnavailableException("User service is unavailable now"));
+
+        deletionService.processDue();
+
+        verify(productDeletionRepository, never()).claim(any(), any(), any());
+        verifyNoInteractions(applicationServiceClient, assignmentServiceClient);
+    }
+
+    @Test
+    void getStatus_noJob_throwsNotFound() {
+        when(productDeletionRepository.findById(productId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> deletionService.getStatus(productId));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.productservice.service;
+
+import com.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductIdIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    public void rebuild_loadsAllBatches() {
+        List<UUID> firstBatch = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID()).toList();
+        UUID last = UUID.randomUUID();
+        when(productRepository.count()).thenReturn(10_001L);
+        when(productRepository.findIdsFirstPage(any(Pageable.class))).thenReturn(firstBatch);
+        when(productRepository.findIdsAfter(eq(firstBatch.get(9_999)), any(Pageable.class))).thenReturn(List.of(last));
+        ProductIdIndex index = new ProductIdIndex(productRepository);
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(10_001, index.size());
+        assertTrue(index.contains(firstBatch.get(42)));
+        assertTrue(index.contains(last));
+    }
+
+    @Test
+    public void addAndRemove_keepIndexInSync() {
+        when(productRepository.findIdsFirstPage(any(Pageable.class))).thenReturn(List.of());
+        ProductIdIndex index = new ProductIdIndex(productRepository);
+        index.rebuild();
+        UUID id = UUID.randomUUID();
+
+        index.add(id);
+        assertTrue(index.contains(id));
+
+        index.remove(id);
+        assertFalse(index.contains(id));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductOwnershipCacheTest {
+
+    @Test
+    public void isOwner_cachesAnswerPerUserAndProduct() {
+        ProductOwnershipCache cache = new ProductOwnershipCache(Duration.ofMinutes(1));
+        UUID userId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertTrue(cache.isOwner(userId, productId, () -> calls.incrementAndGet() > 0));
+        assertTrue(cache.isOwner(userId, productId, () -> calls.incrementAndGet() > 0));
+        assertFalse(cache.isOwner(UUID.randomUUID(), productId, () -> calls.incrementAndGet() < 0));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void isOwner_nullAnswerIsNotCached() {
+        ProductOwnershipCache cache = new ProductOwnershipCache(Duration.ofMinutes(1));
+        UUID userId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        assertNull(cache.isOwner(userId, productId, () -> null));
+        assertTrue(cache.isOwner(userId, productId, () -> true));
+    }
+
+    @Test
+    public void evict_byProductDropsAllUsersOfThatProduct() {
+        ProductOwnershipCache cache = new ProductOwnershipCache(Duration.ofMinutes(1));
+        UUID productId = UUID.randomUUID();
+        UUID otherProductId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        cache.isOwner(userId, productId, () -> true);
+        cache.isOwner(userId, otherProductId, () -> true);
+
+        cache.evict(null, productId);
+
+        assertFalse(cache.isOwner(userId, productId, () -> false));
+        assertTrue(cache.isOwner(userId, otherProductId, () -> false));
+    }
+
+    @Test
+    public void isOwner_evictionDuringLoad_answerIsNotCached() {
+        ProductOwnershipCache cache = new ProductOwnershipCache(Duration.ofMinutes(1));
+        UUID userId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        assertTrue(cache.isOwner(userId, productId, () -> {
+            cache.evict(userId, productId);
+            return true;
+        }));
+
+        assertFalse(cache.isOwner(userId, productId, () -> false));
+    }
+}
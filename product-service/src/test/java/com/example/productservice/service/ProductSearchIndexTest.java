@@ -0,0 +1,127 @@
+package com.example.productservice.service;
+
+import com.example.productservice.dto.ProductDto;
+import com.example.productservice.model.entity.Product;
+import com.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex loadedIndex(Product... products) {
+        when(productRepository.findFirstPage(any(Pageable.class))).thenReturn(List.of(products));
+        ProductSearchIndex index = new ProductSearchIndex(productRepository, true);
+        index.rebuild();
+        return index;
+    }
+
+    private static ProductDto dto(UUID id, String name, String description) {
+        ProductDto dto = new ProductDto();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setDescription(description);
+        return dto;
+    }
+
+    @Test
+    public void search_requiresAllTermsAndRanksNameAboveDescription() {
+        Product inName = new Product(UUID.randomUUID(), "Premium credit card", "Cashback on purchases");
+        Product inDescription = new Product(UUID.randomUUID(), "Gold account", "Premium service with a credit line");
+        Product partial = new Product(UUID.randomUUID(), "Credit line", "For business");
+        ProductSearchIndex index = loadedIndex(inName, inDescription, partial);
+
+        List<ProductSearchIndex.Hit> hits = index.search("PREMIUM, credit", null, null, 10);
+
+        assertEquals(2, hits.size());
+        assertEquals(inName.getId(), hits.get(0).product().getId());
+        assertEquals(inDescription.getId(), hits.get(1).product().getId());
+        assertTrue(hits.get(0).rank() > hits.get(1).rank());
+    }
+
+    @Test
+    public void search_keysetPagesCoverAllHitsWithoutDuplicates() {
+        Product[] products = new Product[25];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Product(UUID.randomUUID(), "Deposit " + i, i % 2 == 0 ? "deposit" : "other");
+        }
+        ProductSearchIndex index = loadedIndex(products);
+
+        List<ProductSearchIndex.Hit> first = index.search("deposit", null, null, 10);
+        ProductSearchIndex.Hit last = first.get(first.size() - 1);
+        List<ProductSearchIndex.Hit> second = index.search("deposit", last.rank(), last.product().getId(), 10);
+        ProductSearchIndex.Hit lastOfSecond = second.get(second.size() - 1);
+        List<ProductSearchIndex.Hit> third = index.search("deposit", lastOfSecond.rank(), lastOfSecond.product().getId(), 10);
+
+        assertEquals(10, first.size());
+        assertEquals(10, second.size());
+        assertEquals(5, third.size());
+        long distinct = Stream.of(first, second, third)
+                .flatMap(List::stream)
+                .map(hit -> hit.product().getId())
+                .distinct()
+                .count();
+        assertEquals(25, distinct);
+    }
+
+    @Test
+    public void putAndRemove_keepIndexInSync() {
+        ProductSearchIndex index = loadedIndex();
+        UUID id = UUID.randomUUID();
+
+        index.put(dto(id, "Travel insurance", "Covers trips"));
+        assertEquals(1, index.search("travel", null, null, 10).size());
+
+        index.put(dto(id, "Health insurance", "Covers clinics"));
+        assertTrue(index.search("travel", null, null, 10).isEmpty());
+        assertEquals(1, index.search("health", null, null, 10).size());
+
+        index.remove(id);
+        assertTrue(index.search("insurance", null, null, 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void repeatedUpdates_compactDeadSlots() {
+        ProductSearchIndex index = loadedIndex();
+        UUID kept = UUID.randomUUID();
+        UUID updated = UUID.randomUUID();
+        index.put(dto(kept, "Savings account", "Monthly interest"));
+
+        for (int i = 0; i < 10_000; i++) {
+            index.put(dto(updated, "Mortgage " + i, "Fixed rate"));
+        }
+
+        assertTrue(index.slotCount() < 2_100, "dead slots must be compacted, got " + index.slotCount());
+        assertEquals(2, index.size());
+        assertEquals(1, index.search("savings", null, null, 10).size());
+        assertEquals(1, index.search("mortgage 9999", null, null, 10).size());
+        assertTrue(index.search("mortgage 5000", null, null, 10).isEmpty());
+    }
+
+    @Test
+    public void disabled_isNeverReady() {
+        ProductSearchIndex index = new ProductSearchIndex(productRepository, false);
+
+        index.rebuild();
+        index.put(dto(UUID.randomUUID(), "Loan", "Consumer loan"));
+
+        assertFalse(index.isReady());
+        assertEquals(0, index.size());
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.productservice.service;
 
+import com.example.productservice.dto.ProductDeletionDto;
 import com.example.productservice.dto.ProductDto;
 import com.example.productservice.dto.ProductRequest;
 import com.example.productservice.exception.*;
-import com.example.productservice.feign.ApplicationServiceClient;
 import com.example.productservice.feign.AssignmentServiceClient;
 import com.example.productservice.model.entity.Product;
+import com.example.productservice.model.enums.DeletionStatus;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.repository.ProductSearchRow;
+import com.example.productservice.util.CursorUtil;
+import com.example.productservice.util.ProductPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -14,8 +18,11 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,7 +36,7 @@ public class ProductServiceTest {
     private ProductRepository productRepository;
 
     @Mock
-    private ApplicationServiceClient applicationServiceClient;
+    private ProductDeletionService productDeletionService;
 
     @Mock
     private AssignmentServiceClient assignmentServiceClient;
@@ -39,13 +46,20 @@ public class ProductServiceTest {
 
     private ProductService productService;
 
+    private ProductOwnershipCache ownershipCache;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ownershipCache = new ProductOwnershipCache(Duration.ofSeconds(30));
         productService = new ProductService(
                 productRepository,
-                applicationServiceClient,
-                assignmentServiceClient
+                assignmentServiceClient,
+                new ProductCatalogCache(),
+                new ProductIdIndex(productRepository),
+                new ProductSearchIndex(productRepository, false),
+                ownershipCache,
+                productDeletionService
         );
     }
 
@@ -153,15 +167,51 @@ public class ProductServiceTest {
         p2.setDescription("d2");
 
         List<Product> list = List.of(p1, p2);
-        Page<Product> page = new PageImpl<>(list);
 
-        when(productRepository.findAll(PageRequest.of(0, 10))).thenReturn(page);
+        when(productRepository.findAll(any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(list, inv.getArgument(0), list.size()));
 
         Page<ProductDto> resp = productService.list(0, 10);
 
         assertEquals(2, resp.getTotalElements());
         assertEquals("p1", resp.getContent().get(0).getName());
-        verify(productRepository, times(1)).findAll(PageRequest.of(0, 10));
+        verify(productRepository, times(1)).findAll(PageRequest.of(0, 10, Sort.by("name", "id")));
+    }
+
+    @Test
+    public void list_pagesInDatabase_andCachesOnlyFirstPages() {
+        Product p1 = new Product(UUID.randomUUID(), "p1", "d1");
+        when(productRepository.findAll(any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(p1), inv.getArgument(0), 1000));
+
+        productService.list(1, 2);
+        Page<ProductDto> cached = productService.list(1, 2);
+        int deep = ProductCatalogCache.MAX_CACHED_PAGES;
+        productService.list(deep, 2);
+        productService.list(deep, 2);
+
+        assertEquals(List.of("p1"), cached.getContent().stream().map(ProductDto::getName).toList());
+        assertEquals(1000, cached.getTotalElements());
+        verify(productRepository, times(1)).findAll(PageRequest.of(1, 2, Sort.by("name", "id")));
+        verify(productRepository, times(2)).findAll(PageRequest.of(deep, 2, Sort.by("name", "id")));
+        verify(productRepository, never()).findAll(any(Sort.class));
+    }
+
+    @Test
+    public void list_afterCreate_reloadsPage() {
+        when(productRepository.findAll(any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(), inv.getArgument(0), 0));
+        when(productRepository.existsByName("new")).thenReturn(false);
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        productService.list(0, 10);
+        ProductRequest req = new ProductRequest();
+        req.setName("new");
+        req.setDescription("desc");
+        productService.create(req);
+        productService.list(0, 10);
+
+        verify(productRepository, times(2)).findAll(any(Pageable.class));
     }
 
     @Test
@@ -170,6 +220,128 @@ public class ProductServiceTest {
         verifyNoInteractions(productRepository);
     }
 
+    // -----------------------
+    // listKeyset tests
+    // -----------------------
+    @Test
+    public void listKeyset_firstPage_returnsNextCursorWithoutTotal() {
+        Product p1 = new Product();
+        p1.setId(UUID.randomUUID());
+        p1.setName("A");
+        Product p2 = new Product();
+        p2.setId(UUID.randomUUID());
+        p2.setName("B");
+        when(productRepository.findFirstPage(PageRequest.of(0, 2))).thenReturn(List.of(p1, p2));
+
+        ProductPage page = productService.listKeyset(null, 2, false);
+
+        assertEquals(2, page.items().size());
+        assertNull(page.total());
+        CursorUtil.Decoded decoded = CursorUtil.decode(page.nextCursor());
+        assertNotNull(decoded);
+        assertEquals("B", decoded.name);
+        assertEquals(p2.getId(), decoded.id);
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    public void listKeyset_withCursor_queriesAfterLastKey() {
+        UUID lastId = UUID.randomUUID();
+        String cursor = CursorUtil.encode("Name|with|pipes", lastId);
+        when(productRepository.findPageAfter("Name|with|pipes", lastId, PageRequest.of(0, 10)))
+                .thenReturn(List.of());
+
+        ProductPage page = productService.listKeyset(cursor, 10, false);
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void listKeyset_includeTotal_usesCountWhenIndexNotReady() {
+        when(productRepository.findFirstPage(any())).thenReturn(List.of());
+        when(productRepository.count()).thenReturn(42L);
+
+        ProductPage page = productService.listKeyset(null, 10, true);
+
+        assertEquals(42L, page.total());
+    }
+
+    @Test
+    public void listKeyset_invalidCursor_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> productService.listKeyset("not-a-cursor", 10, false));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void listKeyset_nonPositiveLimit_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> productService.listKeyset(null, 0, false));
+    }
+
+    // -----------------------
+    // search tests
+    // -----------------------
+    @Test
+    public void search_indexDisabled_queriesDatabaseAndReturnsRankCursor() {
+        UUID id = UUID.randomUUID();
+        ProductSearchRow row = mock(ProductSearchRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getName()).thenReturn("Credit card");
+        when(row.getDescription()).thenReturn("desc");
+        when(row.getRank()).thenReturn(0.0607927f);
+        when(productRepository.searchFirstPage("credit", 1)).thenReturn(List.of(row));
+
+        ProductPage page = productService.search("  credit ", null, 1);
+
+        assertEquals(1, page.items().size());
+        assertEquals("Credit card", page.items().get(0).getName());
+        CursorUtil.RankDecoded decoded = CursorUtil.decodeRanked(page.nextCursor());
+        assertNotNull(decoded);
+        assertEquals(0.0607927f, decoded.rank);
+        assertEquals(id, decoded.id);
+    }
+
+    @Test
+    public void search_withCursor_queriesAfterRankAndId() {
+        UUID id = UUID.randomUUID();
+        when(productRepository.searchPageAfter("credit", 0.5f, id, 10)).thenReturn(List.of());
+
+        ProductPage page = productService.search("credit", CursorUtil.encodeRanked(0.5f, id), 10);
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void search_inMemoryIndexReady_doesNotQueryDatabase() {
+        Product product = new Product(UUID.randomUUID(), "Mortgage", "Home loan");
+        when(productRepository.findFirstPage(any())).thenReturn(List.of(product));
+        ProductSearchIndex searchIndex = new ProductSearchIndex(productRepository, true);
+        searchIndex.rebuild();
+        productService = new ProductService(productRepository,
+                assignmentServiceClient, new ProductCatalogCache(), new ProductIdIndex(productRepository), searchIndex,
+                ownershipCache, productDeletionService);
+
+        ProductPage page = productService.search("loan", null, 10);
+
+        assertEquals(1, page.items().size());
+        assertEquals(product.getId(), page.items().get(0).getId());
+        verify(productRepository, never()).searchFirstPage(anyString(), anyInt());
+    }
+
+    @Test
+    public void search_emptyQuery_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> productService.search("  ", null, 10));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void search_invalidCursor_throwsBadRequest() {
+        String nameCursor = CursorUtil.encode("not-a-rank", UUID.randomUUID());
+        assertThrows(BadRequestException.class, () -> productService.search("credit", nameCursor, 10));
+        verifyNoInteractions(productRepository);
+    }
+
     // -----------------------
     // getProduct tests
     // -----------------------
@@ -200,6 +372,35 @@ public class ProductServiceTest {
         assertEquals("desc", resp.getDescription());
     }
 
+    @Test
+    public void get_secondCall_servedFromCache() {
+        UUID id = UUID.randomUUID();
+        when(productRepository.findById(id)).thenReturn(Optional.of(new Product(id, "name", "desc")));
+
+        productService.get(id);
+        productService.get(id);
+
+        verify(productRepository, times(1)).findById(id);
+    }
+
+    @Test
+    public void get_afterUpdate_reloadsProduct() {
+        UUID id = UUID.randomUUID();
+        UUID actorId = UUID.randomUUID();
+        Product product = new Product(id, "name", "desc");
+        when(productRepository.findById(id)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(jwt.getClaims()).thenReturn(java.util.Map.of("role", "ROLE_ADMIN"));
+        when(assignmentServiceClient.existsByUserAndProductAndRole(actorId, id, "PRODUCT_OWNER")).thenReturn(false);
+
+        productService.get(id);
+        ProductRequest req = new ProductRequest();
+        req.setDescription("changed");
+        productService.updateProduct(id, req, actorId, jwt);
+
+        assertEquals("changed", productService.get(id).getDescription());
+    }
+
     // -----------------------
     // updateProduct tests
     // -----------------------
@@ -352,6 +553,47 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).save(any(Product.class));
     }
 
+    @Test
+    public void updateProduct_asAdmin_skipsRemoteOwnershipCheck() {
+        UUID actorId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        ProductRequest req = new ProductRequest();
+        req.setDescription("newDesc");
+        Product existing = new Product(productId, "name", "oldDesc");
+
+        when(jwt.getClaims()).thenReturn(java.util.Map.of("role", "ROLE_ADMIN"));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(existing));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        productService.updateProduct(productId, req, actorId, jwt);
+
+        verifyNoInteractions(assignmentServiceClient);
+    }
+
+    @Test
+    public void updateProduct_asOwnerTwice_ownershipAnswerIsCachedUntilEvicted() {
+        UUID actorId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        ProductRequest req = new ProductRequest();
+        req.setDescription("newDesc");
+        Product existing = new Product(productId, "name", "oldDesc");
+
+        when(jwt.getClaims()).thenReturn(java.util.Map.of());
+        when(productRepository.findById(productId)).thenReturn(Optional.of(existing));
+        when(assignmentServiceClient.existsByUserAndProductAndRole(actorId, productId, "PRODUCT_OWNER"))
+                .thenReturn(true, false);
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        productService.updateProduct(productId, req, actorId, jwt);
+        productService.updateProduct(productId, req, actorId, jwt);
+        verify(assignmentServiceClient, times(1)).existsByUserAndProductAndRole(actorId, productId, "PRODUCT_OWNER");
+
+        // assignment-service сообщил об изменении назначений — следующий запрос снова идёт в сервис
+        productService.evictOwnership(actorId, null);
+        assertThrows(ForbiddenException.class, () -> productService.updateProduct(productId, req, actorId, jwt));
+        verify(assignmentServiceClient, times(2)).existsByUserAndProductAndRole(actorId, productId, "PRODUCT_OWNER");
+    }
+
     @Test
     public void updateProduct_nameConflict_throwsConflict() {
         UUID actorId = UUID.randomUUID();
@@ -495,11 +737,12 @@ public class ProductServiceTest {
         UUID actorId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productRepository.existsById(productId)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () ->
                 productService.deleteProduct(productId, actorId, jwt));
-        verify(productRepository, times(1)).findById(productId);
+        verify(productRepository, times(1)).existsById(productId);
+        verifyNoInteractions(productDeletionService);
     }
 
     @Test
@@ -512,7 +755,7 @@ public class ProductServiceTest {
 
         // JWT не содержит роль ADMIN
         when(jwt.getClaims()).thenReturn(java.util.Map.of());
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.existsById(productId)).thenReturn(true);
         when(assignmentServiceClient.existsByUserAndProductAndRole(
                 actorId, productId, "PRODUCT_OWNER"))
                 .thenReturn(false);
@@ -533,7 +776,7 @@ public class ProductServiceTest {
         product.setId(productId);
 
         when(jwt.getClaims()).thenReturn(java.util.Map.of());
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.existsById(productId)).thenReturn(true);
         when(assignmentServiceClient.existsByUserAndProductAndRole(
                 actorId, productId, "PRODUCT_OWNER"))
                 .thenReturn(null); // Сервис недоступен
@@ -543,7 +786,7 @@ public class ProductServiceTest {
     }
 
     @Test
-    public void deleteProduct_success_deletesApplicationsAndProduct() {
+    public void deleteProduct_asAdmin_requestsAsyncDeletion() {
         UUID actorId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
@@ -552,20 +795,21 @@ public class ProductServiceTest {
 
         // JWT содержит роль ADMIN
         when(jwt.getClaims()).thenReturn(java.util.Map.of("role", "ROLE_ADMIN"));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.existsById(productId)).thenReturn(true);
         when(assignmentServiceClient.existsByUserAndProductAndRole(
                 actorId, productId, "PRODUCT_OWNER"))
                 .thenReturn(false);
 
         productService.deleteProduct(productId, actorId, jwt);
 
-        // Проверяем вызовы к внешним сервисам
-        verify(applicationServiceClient, times(1)).deleteApplicationsByProductId(productId);
-        verify(productRepository, times(1)).delete(product);
+        // Администратору проверка владельца не нужна, каскад поставлен в очередь
+        verify(assignmentServiceClient, never()).existsByUserAndProductAndRole(any(), any(), any());
+        verify(productDeletionService, times(1)).requestDeletion(productId);
+        verify(productRepository, never()).delete(any(Product.class));
     }
 
     @Test
-    public void deleteProduct_asOwner_success_deletesApplicationsAndProduct() {
+    public void deleteProduct_asOwner_requestsAsyncDeletion() {
         UUID actorId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
@@ -574,59 +818,40 @@ public class ProductServiceTest {
 
         // JWT не содержит роль ADMIN, но пользователь является владельцем
         when(jwt.getClaims()).thenReturn(java.util.Map.of());
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.existsById(productId)).thenReturn(true);
         when(assignmentServiceClient.existsByUserAndProductAndRole(
                 actorId, productId, "PRODUCT_OWNER"))
                 .thenReturn(true);
 
         productService.deleteProduct(productId, actorId, jwt);
 
-        verify(applicationServiceClient, times(1)).deleteApplicationsByProductId(productId);
-        verify(productRepository, times(1)).delete(product);
+        verify(productDeletionService, times(1)).requestDeletion(productId);
+        verify(productRepository, never()).delete(any(Product.class));
     }
 
     @Test
-    public void deleteProduct_applicationServiceUnavailable_throwsServiceUnavailable() {
+    public void deleteProduct_success_hidesProductFromIndexesAndReturnsJob() {
         UUID actorId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
-
-        Product product = new Product();
-        product.setId(productId);
+        ProductIdIndex idIndex = new ProductIdIndex(productRepository);
+        when(productRepository.findIdsFirstPage(any())).thenReturn(List.of(productId));
+        idIndex.rebuild();
+        productService = new ProductService(productRepository,
+                assignmentServiceClient, new ProductCatalogCache(), idIndex,
+                new ProductSearchIndex(productRepository, false), ownershipCache,
+                productDeletionService);
+        ProductDeletionDto job = new ProductDeletionDto();
+        job.setProductId(productId);
+        job.setStatus(DeletionStatus.PENDING);
 
         when(jwt.getClaims()).thenReturn(java.util.Map.of("role", "ROLE_ADMIN"));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(assignmentServiceClient.existsByUserAndProductAndRole(
-                actorId, productId, "PRODUCT_OWNER"))
-                .thenReturn(false);
+        when(productRepository.existsById(productId)).thenReturn(true);
+        when(productDeletionService.requestDeletion(productId)).thenReturn(job);
 
-        // Симулируем ошибку сервиса приложений
-        doThrow(ServiceUnavailableException.class).when(applicationServiceClient)
-                .deleteApplicationsByProductId(productId);
+        ProductDeletionDto result = productService.deleteProduct(productId, actorId, jwt);
 
-        assertThrows(ServiceUnavailableException.class, () ->
-                productService.deleteProduct(productId, actorId, jwt));
-    }
-
-    @Test
-    public void deleteProduct_generalException_throwsConflict() {
-        UUID actorId = UUID.randomUUID();
-        UUID productId = UUID.randomUUID();
-
-        Product product = new Product();
-        product.setId(productId);
-
-        when(jwt.getClaims()).thenReturn(java.util.Map.of("role", "ROLE_ADMIN"));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(assignmentServiceClient.existsByUserAndProductAndRole(
-                actorId, productId, "PRODUCT_OWNER"))
-                .thenReturn(false);
-
-        // Симулируем общее исключение при вызове Feign-клиента
-        doThrow(new RuntimeException("General error")).when(applicationServiceClient)
-                .deleteApplicationsByProductId(productId);
-
-        assertThrows(ConflictException.class, () ->
-                productService.deleteProduct(productId, actorId, jwt));
+        assertSame(job, result);
+        assertFalse(productService.existsById(productId));
     }
 
     // -----------------------
@@ -666,6 +891,32 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).existsById(id);
     }
 
+    @Test
+    public void findExistingIds_indexNotReady_queriesDatabaseOnce() {
+        UUID existing = UUID.randomUUID();
+        List<UUID> ids = List.of(existing, UUID.randomUUID());
+        when(productRepository.findExistingIds(ids)).thenReturn(List.of(existing));
+
+        assertEquals(List.of(existing), productService.findExistingIds(ids));
+        verify(productRepository, never()).existsById(any());
+    }
+
+    @Test
+    public void existsById_indexReady_answersWithoutDatabase() {
+        UUID existing = UUID.randomUUID();
+        ProductIdIndex index = new ProductIdIndex(productRepository);
+        when(productRepository.findIdsFirstPage(any())).thenReturn(List.of(existing));
+        index.rebuild();
+        productService = new ProductService(productRepository,
+                assignmentServiceClient, new ProductCatalogCache(), index,
+                new ProductSearchIndex(productRepository, false), ownershipCache,
+                productDeletionService);
+
+        assertTrue(productService.existsById(existing));
+        assertFalse(productService.existsById(UUID.randomUUID()));
+        verify(productRepository, never()).existsById(any());
+    }
+
     @Test
     public void existsById_whenNotExists_returnsFalse() {
         UUID id = UUID.randomUUID();
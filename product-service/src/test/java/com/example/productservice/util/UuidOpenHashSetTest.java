@@ -0,0 +1,61 @@
+package com.example.productservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidOpenHashSetTest {
+
+    @Test
+    public void addContainsRemove_basicOperations() {
+        UuidOpenHashSet set = new UuidOpenHashSet(4);
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        assertTrue(set.add(a));
+        assertFalse(set.add(a));
+        assertTrue(set.add(b));
+        assertEquals(2, set.size());
+        assertTrue(set.contains(a));
+        assertFalse(set.contains(UUID.randomUUID()));
+
+        assertTrue(set.remove(a));
+        assertFalse(set.remove(a));
+        assertFalse(set.contains(a));
+        assertTrue(set.contains(b));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void nilUuid_rejected() {
+        UuidOpenHashSet set = new UuidOpenHashSet(4);
+        assertThrows(IllegalArgumentException.class, () -> set.add(new UUID(0L, 0L)));
+        assertFalse(set.contains(new UUID(0L, 0L)));
+    }
+
+    @Test
+    public void randomOperations_matchHashSet() {
+        Random random = new Random(7);
+        UuidOpenHashSet set = new UuidOpenHashSet(0);
+        Set<UUID> expected = new HashSet<>();
+        List<UUID> pool = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // небольшие значения дают много коллизий и длинные цепочки пробирования
+            pool.add(new UUID(random.nextInt(64), random.nextInt(1 << 16) + 1));
+        }
+        for (int i = 0; i < 50_000; i++) {
+            UUID id = pool.get(random.nextInt(pool.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), set.remove(id));
+            } else {
+                assertEquals(expected.add(id), set.add(id));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (UUID id : pool) {
+            assertEquals(expected.contains(id), set.contains(id), id.toString());
+        }
+    }
+}
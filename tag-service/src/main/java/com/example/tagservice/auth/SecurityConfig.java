@@ -1,5 +1,15 @@
 package com.example.tagservice.auth;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.nimbusds.jwt.proc.JWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,23 +27,51 @@ import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
-    @Value("${jwt.secret}")
+    @Value("${jwt.secret:}")
     private String jwtSecret;
 
+    @Value("${security.jwt-cache.max-entries:10000}")
+    private int jwtCacheMaxEntries;
+
     @Bean
-    public JwtDecoder jwtDecoder() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(key).build();
+    public JwtDecoder jwtDecoder(MeterRegistry meterRegistry, RevokedTokens revokedTokens, JwkSetCache jwkSetCache) {
+        JwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor(jwkSetCache));
+        // max-entries: 0 отключает кэш проверенных токенов
+        JwtDecoder verified = jwtCacheMaxEntries <= 0
+                ? decoder
+                : new CachingJwtDecoder(decoder, jwtCacheMaxEntries, Clock.systemUTC(), meterRegistry);
+        // Отзыв проверяется после кэша, чтобы отклонять и уже закэшированные токены
+        return token -> revokedTokens.check(verified.decode(token));
+    }
+
+    // ES256/RS256 проверяются ключами из JWK Set user-service, HS256 — только пока задан jwt.secret
+    private JWTProcessor<SecurityContext> jwtProcessor(JwkSetCache jwkSetCache) {
+        Set<JWSAlgorithm> algorithms = new HashSet<>(Set.of(JWSAlgorithm.ES256, JWSAlgorithm.RS256));
+        JWKSource<SecurityContext> keys = jwkSetCache;
+        if (!jwtSecret.isBlank()) {
+            algorithms.add(JWSAlgorithm.HS256);
+            JWKSet secret = new JWKSet(new OctetSequenceKey.Builder(jwtSecret.getBytes(StandardCharsets.UTF_8)).build());
+            keys = (selector, context) -> {
+                List<JWK> matches = selector.select(secret);
+                return matches.isEmpty() ? jwkSetCache.get(selector, context) : matches;
+            };
+        }
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, keys));
+        // exp и nbf проверяет валидатор NimbusJwtDecoder
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return processor;
     }
 
     @Bean
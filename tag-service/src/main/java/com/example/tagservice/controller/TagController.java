@@ -1,6 +1,8 @@
 package com.example.tagservice.controller;
 
 import com.example.tagservice.dto.TagDto;
+import com.example.tagservice.dto.TagUsageDto;
+import com.example.tagservice.exception.BadRequestException;
 import com.example.tagservice.service.TagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -82,6 +84,22 @@ public class TagController {
                 .body(tagPage.getContent());
     }
 
+    @Operation(summary = "Search tags by name prefix", description = "Returns tags whose name starts with the prefix, ordered by name (for autocomplete)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of matching tags"),
+            @ApiResponse(responseCode = "400", description = "Prefix is empty or limit too large")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<TagDto>> searchTags(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException(
+                    String.format("Limit cannot be greater than %d", MAX_PAGE_SIZE));
+        }
+        return ResponseEntity.ok(tagService.searchByPrefix(prefix, limit));
+    }
+
     @Operation(summary = "Read certain tag by its name", description = "Returns data about a single tag: name and list of applications that uses this tag")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Data about a single tag"),
@@ -94,6 +112,32 @@ public class TagController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Read most used tags", description = "Returns top-N tags ordered by number of applications that use them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of tags with usage counts"),
+            @ApiResponse(responseCode = "400", description = "Limit too large"),
+            @ApiResponse(responseCode = "503", description = "Application service is unavailable now")
+    })
+    @GetMapping("/stats/top")
+    public ResponseEntity<List<TagUsageDto>> getTopTags(@RequestParam(defaultValue = "10") int limit) {
+        if (limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException(
+                    String.format("Limit cannot be greater than %d", MAX_PAGE_SIZE));
+        }
+        return ResponseEntity.ok(tagService.getTopTags(limit));
+    }
+
+    @Operation(summary = "Read usage count of certain tag", description = "Returns number of applications that use this tag")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tag usage count"),
+            @ApiResponse(responseCode = "404", description = "Tag with this name is not found"),
+            @ApiResponse(responseCode = "503", description = "Application service is unavailable now")
+    })
+    @GetMapping("/{name}/usage")
+    public ResponseEntity<TagUsageDto> getTagUsage(@PathVariable String name) {
+        return ResponseEntity.ok(tagService.getTagUsage(name));
+    }
+
     // internal-запрос для application-service
     @PostMapping("/batch")
     @ResponseStatus(HttpStatus.CREATED)
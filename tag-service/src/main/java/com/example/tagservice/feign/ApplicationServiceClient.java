@@ -1,6 +1,7 @@
 package com.example.tagservice.feign;
 
 import com.example.tagservice.dto.ApplicationInfoDto;
+import com.example.tagservice.dto.TagUsageDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -15,4 +16,10 @@ public interface ApplicationServiceClient {
 
     @GetMapping("/api/v1/applications/by-tag")
     List<ApplicationInfoDto> getApplicationsByTag(@RequestParam("tag") String tagName);
+
+    @GetMapping("/api/v1/applications/tag-usage/top")
+    List<TagUsageDto> getTopTagUsage(@RequestParam("limit") int limit);
+
+    @GetMapping("/api/v1/applications/tag-usage")
+    List<TagUsageDto> getTagUsage(@RequestParam("tag") List<String> tagNames);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.tagservice.feign;
 
 import com.example.tagservice.dto.ApplicationInfoDto;
+import com.example.tagservice.dto.TagUsageDto;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
@@ -16,6 +17,16 @@ public class ApplicationServiceClientFallbackFactory implements FallbackFactory<
             public List<ApplicationInfoDto> getApplicationsByTag(String tagName) {
                 return null;
             }
+
+            @Override
+            public List<TagUsageDto> getTopTagUsage(int limit) {
+                return null;
+            }
+
+            @Override
+            public List<TagUsageDto> getTagUsage(List<String> tagNames) {
+                return null;
+            }
         };
     }
 }
\ No newline at end of file
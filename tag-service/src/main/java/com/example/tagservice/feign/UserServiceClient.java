@@ -0,0 +1,25 @@
+package com.example.tagservice.feign;
+
+import com.example.tagservice.dto.RevokedTokenDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@FeignClient(
+        name = "user-service",
+        fallbackFactory = UserServiceClientFallbackFactory.class
+)
+public interface UserServiceClient {
+
+    // Access-токены, отозванные после since (все действующие, если since не задан)
+    @GetMapping("/api/v1/auth/revocations")
+    List<RevokedTokenDto> revokedTokens(@RequestParam(value = "since", required = false) Instant since);
+
+    // Публичные ключи проверки подписи access-токенов (JWK Set)
+    @GetMapping("/api/v1/auth/jwks")
+    Map<String, Object> jwks();
+}
@@ -0,0 +1,28 @@
+package com.example.tagservice.feign;
+
+import com.example.tagservice.dto.RevokedTokenDto;
+import com.example.tagservice.exception.ServiceUnavailableException;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class UserServiceClientFallbackFactory implements FallbackFactory<UserServiceClient> {
+    @Override
+    public UserServiceClient create(Throwable cause) {
+        return new UserServiceClient() {
+            @Override
+            public List<RevokedTokenDto> revokedTokens(Instant since) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public Map<String, Object> jwks() {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+        };
+    }
+}
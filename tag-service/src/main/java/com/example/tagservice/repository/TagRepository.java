@@ -1,6 +1,7 @@
 package com.example.tagservice.repository;
 
 import com.example.tagservice.model.entity.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,4 +20,11 @@ public interface TagRepository extends JpaRepository<Tag, UUID> {
     List<Tag> findByNames(@Param("names") List<String> names);
 
     boolean existsByName(String name);
+
+    // Префиксный поиск (fallback для in-memory индекса), использует индекс text_pattern_ops
+    @Query("SELECT t FROM Tag t WHERE t.name LIKE :pattern ESCAPE '!' ORDER BY t.name")
+    List<Tag> findByNamePattern(@Param("pattern") String pattern, Pageable pageable);
+
+    // Keyset-выборка для загрузки индекса порциями
+    List<Tag> findByNameGreaterThanOrderByNameAsc(String name, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.tagservice.service;
+
+import com.example.tagservice.model.entity.Tag;
+import com.example.tagservice.repository.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory sorted index of tag names for prefix (autocomplete) search.
+ * Names are kept in a skip list, so a prefix lookup is a binary search to the
+ * first name >= prefix followed by a bounded forward scan.
+ * Loaded from the DB at startup and updated incrementally as tags are created.
+ * Until loading completes {@link #isReady()} is false and callers should fall back to the DB.
+ */
+@Component
+public class TagPrefixIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TagPrefixIndex.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final TagRepository tagRepository;
+    private final boolean enabled;
+    private final ConcurrentSkipListMap<String, UUID> names = new ConcurrentSkipListMap<>();
+    private volatile boolean ready;
+
+    public TagPrefixIndex(TagRepository tagRepository,
+                          @Value("${tags.prefix-index.enabled:true}") boolean enabled) {
+        this.tagRepository = tagRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Tag prefix index is disabled, prefix search will use the database");
+            return;
+        }
+        ready = false;
+        names.clear();
+        String lastName = "";
+        List<Tag> batch;
+        do {
+            batch = tagRepository.findByNameGreaterThanOrderByNameAsc(lastName, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Tag tag : batch) {
+                names.put(tag.getName(), tag.getId());
+            }
+            if (!batch.isEmpty()) {
+                lastName = batch.get(batch.size() - 1).getName();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        ready = true;
+        log.info("Tag prefix index loaded: {} tags", names.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Registers tags in the index. Inside a transaction the update is deferred
+     * until commit, so rolled back tags never become visible in search results.
+     */
+    public void addAll(Collection<Tag> tags) {
+        if (!enabled || tags.isEmpty()) {
+            return;
+        }
+        List<Tag> snapshot = List.copyOf(tags);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(snapshot);
+                }
+            });
+        } else {
+            put(snapshot);
+        }
+    }
+
+    public void add(Tag tag) {
+        addAll(List.of(tag));
+    }
+
+    /**
+     * Returns up to {@code limit} tags whose name starts with {@code prefix}, in name order.
+     */
+    public List<Tag> search(String prefix, int limit) {
+        ConcurrentNavigableMap<String, UUID> tail = names.tailMap(prefix, true);
+        List<Tag> result = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<String, UUID> entry : tail.entrySet()) {
+            if (result.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            Tag tag = new Tag();
+            tag.setId(entry.getValue());
+            tag.setName(entry.getKey());
+            result.add(tag);
+        }
+        return result;
+    }
+
+    private void put(List<Tag> tags) {
+        for (Tag tag : tags) {
+            names.put(tag.getName(), tag.getId());
+        }
+    }
+}
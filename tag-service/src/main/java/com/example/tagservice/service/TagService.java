@@ -2,6 +2,7 @@ package com.example.tagservice.service;
 
 import com.example.tagservice.dto.ApplicationInfoDto;
 import com.example.tagservice.dto.TagDto;
+import com.example.tagservice.dto.TagUsageDto;
 import com.example.tagservice.exception.BadRequestException;
 import com.example.tagservice.exception.NotFoundException;
 import com.example.tagservice.exception.ServiceUnavailableException;
@@ -25,10 +26,14 @@ public class TagService {
     private static final Logger log = LoggerFactory.getLogger(TagService.class);
     private final TagRepository tagRepository;
     private final ApplicationServiceClient applicationServiceClient;
+    private final TagPrefixIndex tagPrefixIndex;
 
-    public TagService(TagRepository tagRepository, ApplicationServiceClient applicationServiceClient) {
+    public TagService(TagRepository tagRepository,
+                      ApplicationServiceClient applicationServiceClient,
+                      TagPrefixIndex tagPrefixIndex) {
         this.tagRepository = tagRepository;
         this.applicationServiceClient = applicationServiceClient;
+        this.tagPrefixIndex = tagPrefixIndex;
     }
 
     @Transactional
@@ -39,6 +44,7 @@ public class TagService {
                     tag.setId(UUID.randomUUID());
                     tag.setName(name.trim());
                     Tag saved = tagRepository.save(tag);
+                    tagPrefixIndex.add(saved);
                     log.info("Created new tag: {}", name);
                     return saved;
                 });
@@ -73,6 +79,7 @@ public class TagService {
 
         if (!newTags.isEmpty()) {
             List<Tag> savedTags = tagRepository.saveAll(newTags);
+            tagPrefixIndex.addAll(savedTags);
             log.info("Created {} new tags", savedTags.size());
             existingTags.addAll(savedTags);
         }
@@ -88,6 +95,28 @@ public class TagService {
         return tags.map(this::toDto);
     }
 
+    @Transactional(readOnly = true)
+    public List<TagDto> searchByPrefix(String prefix, int limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            throw new BadRequestException("Prefix required");
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        String normalized = prefix.trim();
+        List<Tag> tags = tagPrefixIndex.isReady()
+                ? tagPrefixIndex.search(normalized, limit)
+                : tagRepository.findByNamePattern(toLikePattern(normalized), PageRequest.of(0, limit));
+        return tags.stream()
+                .map(tag -> {
+                    TagDto dto = new TagDto();
+                    dto.setId(tag.getId());
+                    dto.setName(tag.getName());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public TagDto getTagByName(String name) {
         if (name == null || name.trim().isEmpty()) {
@@ -98,6 +127,41 @@ public class TagService {
         return toDto(tag);
     }
 
+    public List<TagUsageDto> getTopTags(int limit) {
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        List<TagUsageDto> top = applicationServiceClient.getTopTagUsage(limit);
+        if (top == null) {
+            throw new ServiceUnavailableException("Application service is unavailable now");
+        }
+        return top;
+    }
+
+    // Без транзакции: соединение с БД не держится на время вызова application-service
+    public TagUsageDto getTagUsage(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new BadRequestException("Tag name required");
+        }
+        if (!tagRepository.existsByName(name)) {
+            throw new NotFoundException("Tag not found: " + name);
+        }
+        List<TagUsageDto> usage = applicationServiceClient.getTagUsage(List.of(name));
+        if (usage == null) {
+            throw new ServiceUnavailableException("Application service is unavailable now");
+        }
+        return usage.stream()
+                .filter(u -> name.equals(u.getName()))
+                .findFirst()
+                .orElse(new TagUsageDto(name, 0));
+    }
+
+    private static String toLikePattern(String prefix) {
+        return prefix.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+    }
+
     private TagDto toDto(Tag tag) {
         List<ApplicationInfoDto> applications = applicationServiceClient.getApplicationsByTag(tag.getName());
         if (applications == null) {
@@ -0,0 +1,77 @@
+package com.example.tagservice.benchmark;
+
+import com.example.tagservice.model.entity.Tag;
+import com.example.tagservice.repository.TagRepository;
+import com.example.tagservice.service.TagPrefixIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Latency benchmark for prefix search over 1M tags.
+ * Run with: mvn -pl tag-service test -Dtest=TagPrefixIndexBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TagPrefixIndexBenchmark {
+
+    private static final int TAG_COUNT = 1_000_000;
+    private static final int QUERIES = 200_000;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789-";
+
+    @Test
+    public void prefixSearchLatency() {
+        Random random = new Random(42);
+        List<Tag> tags = new ArrayList<>(TAG_COUNT);
+        for (int i = 0; i < TAG_COUNT; i++) {
+            Tag tag = new Tag();
+            tag.setId(UUID.randomUUID());
+            tag.setName(randomName(random, 4 + random.nextInt(12)));
+            tags.add(tag);
+        }
+        TagPrefixIndex index = new TagPrefixIndex(mock(TagRepository.class), true);
+        long loadStart = System.nanoTime();
+        index.addAll(tags);
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        String[] prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            prefixes[i] = randomName(random, 1 + random.nextInt(4));
+        }
+        // прогрев JIT
+        for (int i = 0; i < QUERIES; i++) {
+            index.search(prefixes[i], 10);
+        }
+
+        long[] latencies = new long[QUERIES];
+        long hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            hits += index.search(prefixes[i], 10).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("TagPrefixIndex: %d tags loaded in %d ms, %d queries (limit 10, %d results)%n",
+                index.size(), loadMs, QUERIES, hits);
+        System.out.printf("  p50=%.1f us  p99=%.1f us  p99.9=%.1f us  max=%.1f us%n",
+                latencies[QUERIES / 2] / 1000.0,
+                latencies[(int) (QUERIES * 0.99)] / 1000.0,
+                latencies[(int) (QUERIES * 0.999)] / 1000.0,
+                latencies[QUERIES - 1] / 1000.0);
+    }
+
+    private static String randomName(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -2,6 +2,8 @@ package com.example.tagservice.controller;
 
 import com.example.tagservice.dto.ApplicationInfoDto;
 import com.example.tagservice.dto.TagDto;
+import com.example.tagservice.dto.TagUsageDto;
+import com.example.tagservice.exception.BadRequestException;
 import com.example.tagservice.exception.NotFoundException;
 import com.example.tagservice.exception.ServiceUnavailableException;
 import com.example.tagservice.model.entity.Tag;
@@ -24,6 +26,8 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -400,4 +404,56 @@ public class TagControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(2, response.getBody().size());
     }
-}
\ No newline at end of file
+
+    // -----------------------
+    // tag usage tests
+    // -----------------------
+    @Test
+    void getTopTags_returnsOk() {
+        List<TagUsageDto> top = List.of(new TagUsageDto("urgent", 3));
+        when(tagService.getTopTags(10)).thenReturn(top);
+
+        ResponseEntity<List<TagUsageDto>> response = tagController.getTopTags(10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(top, response.getBody());
+    }
+
+    @Test
+    void getTopTags_limitTooLarge_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> tagController.getTopTags(51));
+        verify(tagService, never()).getTopTags(anyInt());
+    }
+
+    @Test
+    void getTagUsage_returnsOk() {
+        TagUsageDto usage = new TagUsageDto("urgent", 3);
+        when(tagService.getTagUsage("urgent")).thenReturn(usage);
+
+        ResponseEntity<TagUsageDto> response = tagController.getTagUsage("urgent");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().getUsageCount());
+    }
+
+    // -----------------------
+    // searchTags tests
+    // -----------------------
+    @Test
+    void searchTags_returnsOk() {
+        TagDto dto = new TagDto();
+        dto.setName("urgent");
+        when(tagService.searchByPrefix("urg", 10)).thenReturn(List.of(dto));
+
+        ResponseEntity<List<TagDto>> response = tagController.searchTags("urg", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+    }
+
+    @Test
+    void searchTags_limitTooLarge_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> tagController.searchTags("urg", 51));
+        verify(tagService, never()).searchByPrefix(anyString(), anyInt());
+    }
+}
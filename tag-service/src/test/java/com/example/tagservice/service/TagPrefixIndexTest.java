@@ -0,0 +1,76 @@
+package com.example.tagservice.service;
+
+import com.example.tagservice.model.entity.Tag;
+import com.example.tagservice.repository.TagRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TagPrefixIndexTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    private static Tag tag(String name) {
+        Tag tag = new Tag();
+        tag.setId(UUID.randomUUID());
+        tag.setName(name);
+        return tag;
+    }
+
+    @Test
+    public void rebuild_loadsAllTagsAndBecomesReady() {
+        when(tagRepository.findByNameGreaterThanOrderByNameAsc(eq(""), any(Pageable.class)))
+                .thenReturn(List.of(tag("alpha"), tag("beta")));
+        TagPrefixIndex index = new TagPrefixIndex(tagRepository, true);
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void rebuild_disabled_staysNotReady() {
+        TagPrefixIndex index = new TagPrefixIndex(tagRepository, false);
+
+        index.rebuild();
+
+        assertFalse(index.isReady());
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    public void search_returnsMatchingNamesInOrderUpToLimit() {
+        TagPrefixIndex index = new TagPrefixIndex(tagRepository, true);
+        index.addAll(List.of(tag("urgent"), tag("urban"), tag("ur"), tag("usual"), tag("vip")));
+
+        List<String> names = index.search("ur", 10).stream().map(Tag::getName).toList();
+        assertEquals(List.of("ur", "urban", "urgent"), names);
+
+        assertEquals(List.of("ur", "urban"),
+                index.search("ur", 2).stream().map(Tag::getName).toList());
+        assertTrue(index.search("x", 10).isEmpty());
+    }
+
+    @Test
+    public void add_existingName_keepsSingleEntry() {
+        TagPrefixIndex index = new TagPrefixIndex(tagRepository, true);
+        index.add(tag("vip"));
+        index.add(tag("vip"));
+
+        assertEquals(1, index.size());
+    }
+}
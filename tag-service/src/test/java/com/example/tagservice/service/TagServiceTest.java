@@ -2,6 +2,9 @@ package com.example.tagservice.service;
 
 import com.example.tagservice.dto.ApplicationInfoDto;
 import com.example.tagservice.dto.TagDto;
+import com.example.tagservice.dto.TagUsageDto;
+import com.example.tagservice.exception.BadRequestException;
+import com.example.tagservice.exception.ServiceUnavailableException;
 import com.example.tagservice.exception.NotFoundException;
 import com.example.tagservice.feign.ApplicationServiceClient;
 import com.example.tagservice.model.entity.Tag;
@@ -21,6 +24,8 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +37,9 @@ public class TagServiceTest {
     @Mock
     private ApplicationServiceClient applicationServiceClient;
 
+    @Mock
+    private TagPrefixIndex tagPrefixIndex;
+
     @InjectMocks
     private TagService tagService;
 
@@ -376,4 +384,96 @@ public class TagServiceTest {
         assertEquals(appInfo, result.getApplications().get(0));
         verify(applicationServiceClient, times(1)).getApplicationsByTag(tagName);
     }
-}
\ No newline at end of file
+
+    // -----------------------
+    // tag usage tests
+    // -----------------------
+    @Test
+    public void getTopTags_returnsCountersFromApplicationService() {
+        List<TagUsageDto> top = List.of(new TagUsageDto("urgent", 5), new TagUsageDto("vip", 2));
+        when(applicationServiceClient.getTopTagUsage(2)).thenReturn(top);
+
+        List<TagUsageDto> result = tagService.getTopTags(2);
+
+        assertEquals(top, result);
+        verify(applicationServiceClient, never()).getApplicationsByTag(anyString());
+    }
+
+    @Test
+    public void getTopTags_invalidLimit_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> tagService.getTopTags(0));
+    }
+
+    @Test
+    public void getTopTags_applicationServiceUnavailable_throwsServiceUnavailable() {
+        when(applicationServiceClient.getTopTagUsage(10)).thenReturn(null);
+
+        assertThrows(ServiceUnavailableException.class, () -> tagService.getTopTags(10));
+    }
+
+    @Test
+    public void getTagUsage_tagNotFound_throwsNotFound() {
+        when(tagRepository.existsByName(tagName)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> tagService.getTagUsage(tagName));
+        verify(applicationServiceClient, never()).getTagUsage(anyList());
+    }
+
+    @Test
+    public void getTagUsage_returnsCounter() {
+        when(tagRepository.existsByName(tagName)).thenReturn(true);
+        when(applicationServiceClient.getTagUsage(List.of(tagName)))
+                .thenReturn(List.of(new TagUsageDto(tagName, 7)));
+
+        TagUsageDto result = tagService.getTagUsage(tagName);
+
+        assertEquals(tagName, result.getName());
+        assertEquals(7, result.getUsageCount());
+    }
+
+    // -----------------------
+    // searchByPrefix tests
+    // -----------------------
+    @Test
+    public void searchByPrefix_indexReady_servedFromIndex() {
+        Tag tag = new Tag();
+        tag.setId(testId);
+        tag.setName("urgent");
+        when(tagPrefixIndex.isReady()).thenReturn(true);
+        when(tagPrefixIndex.search("urg", 5)).thenReturn(List.of(tag));
+
+        List<TagDto> result = tagService.searchByPrefix(" urg ", 5);
+
+        assertEquals(1, result.size());
+        assertEquals("urgent", result.get(0).getName());
+        assertEquals(testId, result.get(0).getId());
+        verify(tagRepository, never()).findByNamePattern(anyString(), any());
+    }
+
+    @Test
+    public void searchByPrefix_indexNotReady_fallsBackToDatabaseWithEscapedPattern() {
+        when(tagPrefixIndex.isReady()).thenReturn(false);
+        when(tagRepository.findByNamePattern(eq("50!%!_off!_%"), any(PageRequest.class)))
+                .thenReturn(Collections.emptyList());
+
+        List<TagDto> result = tagService.searchByPrefix("50%_off_", 10);
+
+        assertTrue(result.isEmpty());
+        verify(tagRepository, times(1)).findByNamePattern(eq("50!%!_off!_%"), any(PageRequest.class));
+    }
+
+    @Test
+    public void searchByPrefix_emptyPrefix_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> tagService.searchByPrefix("  ", 10));
+    }
+
+    @Test
+    public void createOrGetTags_registersNewTagsInPrefixIndex() {
+        when(tagRepository.findByNames(List.of("fresh"))).thenReturn(new ArrayList<>());
+        when(tagRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        tagService.createOrGetTags(List.of("fresh"));
+
+        verify(tagPrefixIndex, times(1)).addAll(argThat(tags -> tags.size() == 1));
+    }
+}
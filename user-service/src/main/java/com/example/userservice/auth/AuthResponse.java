@@ -2,11 +2,26 @@ package com.example.userservice.auth;
 
 public class AuthResponse {
     private String token;
+    private String refreshToken;
+    // Время жизни access-токена в секундах
+    private long expiresIn;
 
     public AuthResponse() {}
 
     public AuthResponse(String token) { this.token = token; }
 
+    public AuthResponse(String token, String refreshToken, long expiresIn) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
-}
\ No newline at end of file
+
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+
+    public long getExpiresIn() { return expiresIn; }
+    public void setExpiresIn(long expiresIn) { this.expiresIn = expiresIn; }
+}
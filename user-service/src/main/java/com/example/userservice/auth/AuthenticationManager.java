@@ -1,23 +1,27 @@
 package com.example.userservice.auth;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
 @Component
 public class AuthenticationManager implements ReactiveAuthenticationManager {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationManager.class);
+
     private final UserDetailsService userDetailsService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
     public AuthenticationManager(UserDetailsService userDetailsService,
-                                 PasswordEncoder passwordEncoder) {
+                                 PasswordHasher passwordHasher) {
         this.userDetailsService = userDetailsService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
     }
 
     @Override
@@ -26,7 +30,9 @@ public class AuthenticationManager implements ReactiveAuthenticationManager {
         String password = authentication.getCredentials().toString();
 
         return userDetailsService.findByUsername(username)
-                .filter(userDetails -> passwordEncoder.matches(password, userDetails.getPassword()))
+                // BCrypt выполняется в PasswordHasher, а не на event loop
+                .filterWhen(userDetails -> passwordHasher.matches(password, userDetails.getPassword()))
+                .flatMap(userDetails -> upgradeEncodingIfNeeded(userDetails, password))
                 .flatMap(userDetails -> {
                     Authentication auth = new UsernamePasswordAuthenticationToken(
                             userDetails.getUsername(),
@@ -37,4 +43,19 @@ public class AuthenticationManager implements ReactiveAuthenticationManager {
                 })
                 .switchIfEmpty(Mono.error(new BadCredentialsException("Invalid credentials")));
     }
-}
\ No newline at end of file
+
+    // Хеш устаревшего алгоритма или стоимости перекодируется при входе; ошибка не мешает входу
+    private Mono<UserDetails> upgradeEncodingIfNeeded(UserDetails userDetails, String password) {
+        if (!passwordHasher.upgradeEncoding(userDetails.getPassword())) {
+            return Mono.just(userDetails);
+        }
+        return passwordHasher.encode(password)
+                .flatMap(newHash -> userDetailsService.updatePassword(userDetails, newHash))
+                .doOnNext(updated -> log.info("Password hash of {} upgraded", userDetails.getUsername()))
+                .defaultIfEmpty(userDetails)
+                .onErrorResume(e -> {
+                    log.warn("Failed to upgrade password hash of {}: {}", userDetails.getUsername(), e.getMessage());
+                    return Mono.just(userDetails);
+                });
+    }
+}
@@ -14,15 +14,16 @@ import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.UUID;
 
 public class JwtAuthWebFilter implements WebFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthWebFilter.class);
     private final JwtService jwtService;
+    private final RevokedTokens revokedTokens;
 
-    public JwtAuthWebFilter(JwtService jwtService) {
+    public JwtAuthWebFilter(JwtService jwtService, RevokedTokens revokedTokens) {
         this.jwtService = jwtService;
+        this.revokedTokens = revokedTokens;
     }
 
     @Override
@@ -30,21 +31,19 @@ public class JwtAuthWebFilter implements WebFilter {
         String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            try {
-                if (jwtService.validateToken(token)) {
-                    String uid = jwtService.extractUserId(token);
-                    String role = jwtService.extractRole(token);
-                    if (uid != null && role != null) {
-                        GrantedAuthority authority = new SimpleGrantedAuthority(role);
-                        Authentication auth = new UsernamePasswordAuthenticationToken(uid, null, List.of(authority));
+            // Одна проверка подписи на запрос: uid и роль берутся из уже разобранных claims
+            JwtClaims claims = jwtService.parse(token).orElse(null);
+            if (claims == null) {
+                log.debug("JWT validation failed");
+            } else if (revokedTokens.isRevoked(claims.tokenId())) {
+                log.debug("JWT {} has been revoked", claims.tokenId());
+            } else if (claims.userId() != null && claims.role() != null) {
+                GrantedAuthority authority = new SimpleGrantedAuthority(claims.role());
+                Authentication auth = new UsernamePasswordAuthenticationToken(claims.userId(), null, List.of(authority));
 
-                        SecurityContextImpl context = new SecurityContextImpl(auth);
-                        return chain.filter(exchange)
-                                .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(context)));
-                    }
-                }
-            } catch (Exception ex) {
-                log.debug("JWT validation failed: {}", ex.getMessage());
+                SecurityContextImpl context = new SecurityContextImpl(auth);
+                return chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(context)));
             }
         }
         return chain.filter(exchange);
@@ -0,0 +1,9 @@
+package com.example.userservice.auth;
+
+import java.time.Instant;
+
+/**
+ * Claims of a verified access token, read once per request by {@link JwtAuthWebFilter};
+ * {@code tokenId} is the {@code jti} used for revocation.
+ */
+public record JwtClaims(String tokenId, String username, String userId, String role, Instant expiresAt) { }
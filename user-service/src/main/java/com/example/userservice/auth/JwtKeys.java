@@ -0,0 +1,181 @@
+package com.example.userservice.auth;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keys user-service signs and verifies access tokens with. With {@code jwt.signing.private-key} and
+ * {@code jwt.signing.public-key} set (PEM, EC P-256 or RSA) tokens are signed with ES256/RS256 and
+ * carry the key id, and only the public keys are published as a JWK set, so resource servers need no
+ * secret. {@code jwt.signing.previous-public-key} keeps tokens signed before a key rotation valid.
+ * Without a key pair tokens are signed with HS256 and {@code jwt.secret}; while the secret is set,
+ * HS256 tokens without a key id are still accepted.
+ */
+@Component
+public class JwtKeys {
+
+    private final SignatureAlgorithm algorithm;
+    private final Key signingKey;
+    private final String keyId;
+    private final SecretKey secretKey;
+    private final Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+    private final JWKSet jwkSet;
+
+    public JwtKeys(@Value("${jwt.secret:}") String secret,
+                   @Value("${jwt.signing.private-key:}") String privateKeyPem,
+                   @Value("${jwt.signing.public-key:}") String publicKeyPem,
+                   @Value("${jwt.signing.previous-public-key:}") String previousPublicKeyPem) {
+        this.secretKey = secret.isBlank() ? null : Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        List<JWK> jwks = new ArrayList<>();
+        if (!privateKeyPem.isBlank()) {
+            if (publicKeyPem.isBlank()) {
+                throw new IllegalStateException("jwt.signing.public-key must be set together with jwt.signing.private-key");
+            }
+            PublicKey publicKey = readPublicKey(publicKeyPem);
+            JWK jwk = toJwk(publicKey);
+            if (publicKey instanceof RSAPublicKey rsa && rsa.getModulus().bitLength() < 2048) {
+                throw new IllegalStateException("JWT RSA signing key must be at least 2048 bits");
+            }
+            this.algorithm = publicKey instanceof ECPublicKey ? SignatureAlgorithm.ES256 : SignatureAlgorithm.RS256;
+            this.signingKey = readPrivateKey(privateKeyPem, publicKey.getAlgorithm());
+            checkKeyPair((PrivateKey) signingKey, publicKey, algorithm);
+            this.keyId = jwk.getKeyID();
+            publicKeys.put(keyId, publicKey);
+            jwks.add(jwk);
+        } else if (secretKey != null) {
+            this.algorithm = SignatureAlgorithm.HS256;
+            this.signingKey = secretKey;
+            this.keyId = null;
+        } else {
+            throw new IllegalStateException("Either jwt.signing.private-key or jwt.secret must be set");
+        }
+        if (!previousPublicKeyPem.isBlank()) {
+            PublicKey previous = readPublicKey(previousPublicKeyPem);
+            JWK jwk = toJwk(previous);
+            publicKeys.putIfAbsent(jwk.getKeyID(), previous);
+            jwks.add(jwk);
+        }
+        this.jwkSet = new JWKSet(jwks);
+    }
+
+    /**
+     * HS256 with the given secret only; for tests and benchmarks.
+     */
+    public static JwtKeys hmac(String secret) {
+        return new JwtKeys(secret, "", "", "");
+    }
+
+    public SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    public Key signingKey() {
+        return signingKey;
+    }
+
+    /**
+     * Key id written to the token header; null for HS256.
+     */
+    public String keyId() {
+        return keyId;
+    }
+
+    /**
+     * Key to verify a token signed with {@code keyId}; null if no such key is known.
+     */
+    public Key verificationKey(String keyId) {
+        return keyId != null ? publicKeys.get(keyId) : secretKey;
+    }
+
+    public JWKSet jwkSet() {
+        return jwkSet;
+    }
+
+    private static JWK toJwk(PublicKey publicKey) {
+        try {
+            if (publicKey instanceof ECPublicKey ec) {
+                return new ECKey.Builder(Curve.P_256, ec).keyUse(KeyUse.SIGNATURE)
+                        .algorithm(JWSAlgorithm.ES256).keyIDFromThumbprint().build();
+            }
+            if (publicKey instanceof RSAPublicKey rsa) {
+                return new RSAKey.Builder(rsa).keyUse(KeyUse.SIGNATURE)
+                        .algorithm(JWSAlgorithm.RS256).keyIDFromThumbprint().build();
+            }
+        } catch (JOSEException | IllegalArgumentException e) {
+            throw new IllegalStateException("Unsupported JWT signing key: " + e.getMessage(), e);
+        }
+        throw new IllegalStateException("Unsupported JWT signing key type: " + publicKey.getAlgorithm());
+    }
+
+    // Несовпадающая пара иначе обнаружится только на первом запросе к resource server
+    private static void checkKeyPair(PrivateKey privateKey, PublicKey publicKey, SignatureAlgorithm algorithm) {
+        try {
+            byte[] probe = "jwt-key-pair-check".getBytes(StandardCharsets.UTF_8);
+            Signature signer = Signature.getInstance(algorithm.getJcaName());
+            signer.initSign(privateKey);
+            signer.update(probe);
+            byte[] signature = signer.sign();
+            Signature verifier = Signature.getInstance(algorithm.getJcaName());
+            verifier.initVerify(publicKey);
+            verifier.update(probe);
+            if (!verifier.verify(signature)) {
+                throw new IllegalStateException("jwt.signing.private-key does not match jwt.signing.public-key");
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT signing key pair cannot be used: " + e.getMessage(), e);
+        }
+    }
+
+    private static PublicKey readPublicKey(String pem) {
+        byte[] der = decodePem(pem);
+        for (String type : List.of("EC", "RSA")) {
+            try {
+                return KeyFactory.getInstance(type).generatePublic(new X509EncodedKeySpec(der));
+            } catch (GeneralSecurityException ignored) {
+                // пробуем следующий тип ключа
+            }
+        }
+        throw new IllegalStateException("JWT public key must be an X.509 PEM encoded EC or RSA key");
+    }
+
+    private static PrivateKey readPrivateKey(String pem, String type) {
+        try {
+            return KeyFactory.getInstance(type).generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT private key must be a PKCS#8 PEM encoded " + type + " key", e);
+        }
+    }
+
+    private static byte[] decodePem(String pem) {
+        String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -2,52 +2,89 @@ package com.example.userservice.auth;
 
 import com.example.userservice.model.entity.User;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
-    private final SecretKey key;
-    private final long expirationMillis;
+    private final JwtKeys keys;
+    private final long accessTokenTtlMillis;
+    // JwtParser неизменяемый и потокобезопасный: строится один раз, а не на каждый вызов
+    private final JwtParser parser;
 
-    public JwtService(@Value("${jwt.secret}") String secret,
-                      @Value("${jwt.expiration-ms}") long expirationMillis) {
-        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
-        this.key = Keys.hmacShaKeyFor(bytes);
-        this.expirationMillis = expirationMillis;
+    // Access-токен короткоживущий: дольше работать позволяет refresh-токен, а не повторный вход
+    public JwtService(JwtKeys keys,
+                      @Value("${jwt.access-expiration-ms:900000}") long accessTokenTtlMillis) {
+        this.keys = keys;
+        this.accessTokenTtlMillis = accessTokenTtlMillis;
+        // Ключ проверки выбирается по kid из заголовка: после ротации принимаются и токены предыдущего ключа
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                Key key = keys.verificationKey(header.getKeyId());
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown signing key: " + header.getKeyId());
+                }
+                return key;
+            }
+        }).build();
     }
 
     public String generateToken(User user) {
         Instant now = Instant.now();
         Date iat = Date.from(now);
-        Date exp = Date.from(now.plusMillis(expirationMillis));
+        Date exp = Date.from(now.plusMillis(accessTokenTtlMillis));
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (keys.keyId() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keys.keyId());
+        }
+        return builder
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getUsername())
                 .claim("uid", user.getId().toString())
                 .claim("role", user.getRole().name())
                 .setIssuedAt(iat)
                 .setExpiration(exp)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(keys.signingKey(), keys.algorithm())
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token once and returns its claims; empty if the signature, format or expiry is invalid.
+     */
+    public Optional<JwtClaims> parse(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            Claims c = parseClaims(token);
+            Object uid = c.get("uid");
+            Object role = c.get("role");
+            Date exp = c.getExpiration();
+            return Optional.of(new JwtClaims(
+                    c.getId(),
+                    c.getSubject(),
+                    uid != null ? uid.toString() : null,
+                    role != null ? role.toString() : null,
+                    exp != null ? exp.toInstant() : null));
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.empty();
         }
     }
 
+    public long getAccessTokenTtlMillis() {
+        return accessTokenTtlMillis;
+    }
+
+    public boolean validateToken(String token) {
+        return parse(token).isPresent();
+    }
+
     public String extractUsername(String token) {
         Claims c = parseClaims(token);
         return c.getSubject();
@@ -66,6 +103,6 @@ public class JwtService {
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.example.userservice.auth;
+
+import com.example.userservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link PasswordEncoder} calls off the Netty event loop. Hashing is CPU-bound
+ * (tens of milliseconds per BCrypt call), so it gets its own pool sized to the number
+ * of cores with a bounded queue; when the queue is full the call fails fast with
+ * {@link ServiceUnavailableException} (503) instead of piling up behind a login storm.
+ * Queue depth and pool usage are exported as {@code executor.*} metrics with
+ * {@code name=password-hashing}, rejections as {@code password.hashing.rejected}.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+    private static final String POOL_NAME = "password-hashing";
+
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler scheduler;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter encodeRejected;
+    private final Counter matchesRejected;
+
+    @Autowired
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.password-hashing.threads:0}") int threads,
+                          @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this(passwordEncoder,
+                Schedulers.fromExecutorService(
+                        ExecutorServiceMetrics.monitor(meterRegistry, executor(threads, queueCapacity), POOL_NAME),
+                        POOL_NAME),
+                meterRegistry);
+    }
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, Scheduler scheduler, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.scheduler = scheduler;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+        this.encodeRejected = rejectedCounter(meterRegistry, "encode");
+        this.matchesRejected = rejectedCounter(meterRegistry, "matches");
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return Mono.fromCallable(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)))
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class, e -> rejected(encodeRejected));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return Mono.fromCallable(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)))
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class, e -> rejected(matchesRejected));
+    }
+
+    /**
+     * Whether the hash was made with another algorithm or a lower cost than configured; cheap, runs inline.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    private ServiceUnavailableException rejected(Counter counter) {
+        counter.increment();
+        log.warn("Password hashing queue is full, rejecting request");
+        return new ServiceUnavailableException("Too many concurrent authentication requests, try again later");
+    }
+
+    // Очередь ограничена: при переполнении AbortPolicy бросает RejectedExecutionException
+    private static ThreadPoolExecutor executor(int threads, int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                Thread.ofPlatform().name(POOL_NAME + "-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hashing")
+                .description("Time spent in PasswordEncoder")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("password.hashing.rejected")
+                .description("Password operations rejected because the hashing queue was full")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
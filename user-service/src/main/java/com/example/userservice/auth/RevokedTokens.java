@@ -0,0 +1,35 @@
+package com.example.userservice.auth;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked access token ids ({@code jti}), checked by {@link JwtAuthWebFilter} on
+ * every request. An entry is only needed until the token would have expired anyway, so the set
+ * holds at most one access token lifetime of revocations and is kept exact; the database table
+ * is the durable copy.
+ */
+@Component
+public class RevokedTokens {
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    public void add(String tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt);
+    }
+
+    public void purgeExpired(Instant now) {
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -14,14 +14,16 @@ import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 public class SecurityConfig {
 
     private final JwtService jwtService;
+    private final RevokedTokens revokedTokens;
 
-    public SecurityConfig(JwtService jwtService) {
+    public SecurityConfig(JwtService jwtService, RevokedTokens revokedTokens) {
         this.jwtService = jwtService;
+        this.revokedTokens = revokedTokens;
     }
 
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
-        JwtAuthWebFilter jwtFilter = new JwtAuthWebFilter(jwtService);
+        JwtAuthWebFilter jwtFilter = new JwtAuthWebFilter(jwtService, revokedTokens);
 
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
@@ -39,7 +41,7 @@ public class SecurityConfig {
                 )
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers(HttpMethod.GET, "/api/v1/users/*/exists").permitAll()
-                        .pathMatchers("/api/v1/auth/login", "/actuator/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()                        .anyExchange().authenticated()
+                        .pathMatchers("/api/v1/auth/login", "/api/v1/auth/refresh", "/api/v1/auth/revocations", "/api/v1/auth/jwks", "/actuator/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()                        .anyExchange().authenticated()
                 )
                 .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
                 .build();
@@ -3,6 +3,7 @@ package com.example.userservice.auth;
 import com.example.userservice.model.entity.User;
 import com.example.userservice.repository.UserRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -10,7 +11,7 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 @Service
-public class UserDetailsService implements ReactiveUserDetailsService {
+public class UserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -25,6 +26,18 @@ public class UserDetailsService implements ReactiveUserDetailsService {
                 .map(this::toUserDetails);
     }
 
+    /**
+     * Stores a re-encoded hash after a successful login. Skipped if the password was changed
+     * meanwhile; the caller keeps the old details then.
+     */
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return userRepository.updatePasswordHash(user.getUsername(), user.getPassword(), newPassword)
+                .map(updated -> updated > 0
+                        ? org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build()
+                        : user);
+    }
+
     private UserDetails toUserDetails(User user) {
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
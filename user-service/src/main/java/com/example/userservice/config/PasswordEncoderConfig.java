@@ -0,0 +1,65 @@
+package com.example.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Password hashing. New hashes are written as {@code {id}hash} with the algorithm from
+ * {@code security.password-hashing.algorithm}; hashes of the other algorithms, and legacy
+ * hashes without a prefix (plain BCrypt), still verify. Hashes made with another algorithm
+ * or a lower cost are re-encoded on the next successful login.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${security.password-hashing.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${security.password-hashing.argon2.memory-kib:19456}") int argon2MemoryKib,
+            @Value("${security.password-hashing.argon2.iterations:2}") int argon2Iterations,
+            @Value("${security.password-hashing.argon2.parallelism:1}") int argon2Parallelism,
+            @Value("${security.password-hashing.pbkdf2.iterations:600000}") int pbkdf2Iterations) {
+        return delegatingEncoder(algorithm,
+                bcrypt(bcryptStrength),
+                argon2(argon2MemoryKib, argon2Iterations, argon2Parallelism),
+                pbkdf2(pbkdf2Iterations));
+    }
+
+    public static PasswordEncoder delegatingEncoder(String algorithm, PasswordEncoder bcrypt,
+                                                    PasswordEncoder argon2, PasswordEncoder pbkdf2) {
+        Map<String, PasswordEncoder> encoders = Map.of(BCRYPT, bcrypt, ARGON2, argon2, PBKDF2, pbkdf2);
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unknown security.password-hashing.algorithm: " + algorithm
+                    + ", expected one of " + encoders.keySet());
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Хеши, созданные до перехода на DelegatingPasswordEncoder, хранятся без префикса {bcrypt}
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    public static PasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    public static PasswordEncoder argon2(int memoryKib, int iterations, int parallelism) {
+        return new Argon2PasswordEncoder(16, 32, parallelism, memoryKib, iterations);
+    }
+
+    public static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+}
@@ -3,17 +3,27 @@ package com.example.userservice.controller;
 import com.example.userservice.auth.AuthRequest;
 import com.example.userservice.auth.AuthResponse;
 import com.example.userservice.auth.AuthenticationManager;
+import com.example.userservice.auth.JwtClaims;
+import com.example.userservice.auth.JwtKeys;
 import com.example.userservice.auth.JwtService;
+import com.example.userservice.auth.RefreshRequest;
+import com.example.userservice.dto.RevokedTokenDto;
+import com.example.userservice.exception.ServiceUnavailableException;
 import com.example.userservice.exception.UnauthorizedException;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.TokenService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Map;
+
 @Tag(name = "Auth", description = "Authentication")
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -22,11 +32,17 @@ public class AuthController {
     private final UserRepository userRepository;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+    private final JwtKeys jwtKeys;
 
-    public AuthController(UserRepository userRepository, JwtService jwtService, AuthenticationManager authenticationManager) {
+    public AuthController(UserRepository userRepository, JwtService jwtService,
+                          AuthenticationManager authenticationManager, TokenService tokenService,
+                          JwtKeys jwtKeys) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.tokenService = tokenService;
+        this.jwtKeys = jwtKeys;
     }
 
     @PostMapping("/login")
@@ -45,8 +61,41 @@ public class AuthController {
                 .flatMap(authentication -> {
                     String username = authentication.getName();
                     return userRepository.findByUsername(username)
-                            .map(user -> new AuthResponse(jwtService.generateToken(user)));
+                            .flatMap(tokenService::issue);
                 })
-                .onErrorResume(e -> Mono.error(new UnauthorizedException("Invalid credentials")));
+                // Переполненная очередь хеширования — 503, а не «неверный пароль»
+                .onErrorResume(e -> !(e instanceof ServiceUnavailableException),
+                        e -> Mono.error(new UnauthorizedException("Invalid credentials")));
+    }
+
+    // Новая пара токенов без проверки пароля: BCrypt только при входе
+    @PostMapping("/refresh")
+    public Mono<AuthResponse> refresh(@RequestBody RefreshRequest request) {
+        return tokenService.refresh(request != null ? request.getRefreshToken() : null);
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                             @RequestBody(required = false) RefreshRequest request) {
+        JwtClaims claims = authorization.startsWith("Bearer ")
+                ? jwtService.parse(authorization.substring(7)).orElse(null)
+                : null;
+        if (claims == null) {
+            return Mono.error(new UnauthorizedException("Invalid token"));
+        }
+        return tokenService.logout(claims, request != null ? request.getRefreshToken() : null);
+    }
+
+    // Опрашивается ресурсными серверами для локального списка отозванных токенов
+    @GetMapping("/revocations")
+    public Flux<RevokedTokenDto> revocations(@RequestParam(required = false) Instant since) {
+        return tokenService.revokedSince(since);
+    }
+
+    // Публичные ключи проверки подписи access-токенов (JWK Set, RFC 7517); пуст при подписи HS256
+    @GetMapping("/jwks")
+    public Mono<Map<String, Object>> jwks() {
+        return Mono.just(jwtKeys.jwkSet().toJSONObject(true));
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,25 @@
 package com.example.userservice.controller;
 
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.UserImportResult;
 import com.example.userservice.dto.UserRequest;
+import com.example.userservice.exception.BadRequestException;
 import com.example.userservice.model.enums.UserRole;
+import com.example.userservice.service.UserImportService;
 import com.example.userservice.service.UserService;
+import com.example.userservice.util.UserPage;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 
 @Tag(name = "Users", description = "API for managing users")
@@ -21,10 +28,15 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
     private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_EXISTS_BATCH_SIZE = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
     // Создавать пользователей может только ADMIN (SUPERVISOR)
@@ -35,15 +47,33 @@ public class UserController {
         return userService.create(request);
     }
 
+    // Массовая загрузка клиентов: по UserRequest в строке; результат по каждой строке приходит потоком
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Flux<UserImportResult> importUsersNdjson(@RequestBody Flux<String> lines) {
+        return userImportService.importNdjson(lines);
+    }
+
+    // То же для CSV с заголовком username,email,password
+    @PostMapping(value = "/import", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Flux<UserImportResult> importUsersCsv(@RequestBody Flux<String> lines) {
+        return userImportService.importCsv(lines);
+    }
+
+    // Следующая страница — по курсору из X-Next-Cursor; page оставлен для старых клиентов
     @GetMapping
-    public Flux<UserDto> getAllUsers(
+    public Mono<ResponseEntity<List<UserDto>>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         if (size > MAX_PAGE_SIZE) {
-            return Flux.error(new IllegalArgumentException(
+            return Mono.error(new IllegalArgumentException(
                     String.format("Page size cannot be greater than %d", MAX_PAGE_SIZE)));
         }
-        return userService.findAll(page, size);
+        return userService.findPage(page, cursor, size, includeTotal).map(UserController::toResponse);
     }
 
     @GetMapping("/{id}")
@@ -82,17 +112,36 @@ public class UserController {
         return userService.demoteToClient(id);
     }
 
+    // Вызывается другими сервисами на каждую операцию: ответ из кэша ролей, без исключения для отсутствующих
     @GetMapping("/{id}/exists")
     public Mono<ResponseEntity<Boolean>> userExists(@PathVariable UUID id) {
-        return userService.findById(id)
-                .map(user -> ResponseEntity.ok(true))
-                .defaultIfEmpty(ResponseEntity.ok(false));
+        return userService.exists(id).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/exists")
+    public Mono<List<UUID>> existingUsers(@RequestBody List<UUID> ids) {
+        if (ids.size() > MAX_EXISTS_BATCH_SIZE) {
+            return Mono.error(new BadRequestException(
+                    String.format("Cannot check more than %d users at once", MAX_EXISTS_BATCH_SIZE)));
+        }
+        return userService.findExistingIds(new HashSet<>(ids)).collectList();
     }
 
     @GetMapping("/{id}/role")
     public Mono<ResponseEntity<UserRole>> getUserRole(@PathVariable UUID id) {
-        return userService.findById(id)
-                .map(user -> ResponseEntity.ok(user.getRole()))
+        return userService.findRole(id)
+                .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
+
+    private static ResponseEntity<List<UserDto>> toResponse(UserPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        if (page.total() != null) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(page.total()));
+        }
+        return response.body(page.items());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.example.userservice.dto;
+
+import java.time.Instant;
+
+/**
+ * Revoked access token as published to resource servers; they drop it after {@code expiresAt}.
+ */
+public record RevokedTokenDto(String jti, Instant expiresAt, Instant revokedAt) { }
@@ -0,0 +1,40 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.model.enums.UserImportStatus;
+
+import java.util.UUID;
+
+// Результат одной строки импорта; line — номер строки во входном файле
+public class UserImportResult {
+
+    private long line;
+    private String username;
+    private UserImportStatus status;
+    private UUID userId;
+    private String message;
+
+    public UserImportResult() {}
+
+    public UserImportResult(long line, String username, UserImportStatus status, UUID userId, String message) {
+        this.line = line;
+        this.username = username;
+        this.status = status;
+        this.userId = userId;
+        this.message = message;
+    }
+
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public UserImportStatus getStatus() { return status; }
+    public void setStatus(UserImportStatus status) { this.status = status; }
+
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,51 @@
+package com.example.userservice.model.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Хранится только SHA-256 от refresh-токена: утечка таблицы не даёт рабочих токенов
+@Table("refresh_token")
+public class RefreshToken {
+
+    @Id
+    private UUID id;
+
+    @Column("user_id")
+    private UUID userId;
+
+    @Column("token_hash")
+    private String tokenHash;
+
+    @Column("created_at")
+    private Instant createdAt;
+
+    @Column("expires_at")
+    private Instant expiresAt;
+
+    @Column("revoked_at")
+    private Instant revokedAt;
+
+    public RefreshToken() {}
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    public String getTokenHash() { return tokenHash; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public Instant getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+}
@@ -0,0 +1,39 @@
+package com.example.userservice.model.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Отозванный access-токен; строка нужна только до истечения самого токена
+@Table("revoked_token")
+public class RevokedToken {
+
+    @Id
+    private UUID jti;
+
+    @Column("expires_at")
+    private Instant expiresAt;
+
+    @Column("revoked_at")
+    private Instant revokedAt;
+
+    public RevokedToken() {}
+
+    public RevokedToken(UUID jti, Instant expiresAt, Instant revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public UUID getJti() { return jti; }
+    public void setJti(UUID jti) { this.jti = jti; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public Instant getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+}
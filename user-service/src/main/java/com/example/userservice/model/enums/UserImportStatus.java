@@ -0,0 +1,8 @@
+package com.example.userservice.model.enums;
+
+public enum UserImportStatus {
+    CREATED,
+    INVALID,
+    CONFLICT,
+    FAILED
+}
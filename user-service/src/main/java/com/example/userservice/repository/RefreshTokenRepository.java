@@ -0,0 +1,41 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.model.entity.RefreshToken;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, UUID> {
+
+    Mono<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Явный INSERT: save() с заданным id сущности без @Version выполнил бы UPDATE
+    @Modifying
+    @Query("INSERT INTO refresh_token (id, user_id, token_hash, created_at, expires_at) "
+            + "VALUES (:id, :userId, :tokenHash, :createdAt, :expiresAt)")
+    Mono<Integer> insert(@Param("id") UUID id,
+                         @Param("userId") UUID userId,
+                         @Param("tokenHash") String tokenHash,
+                         @Param("createdAt") Instant createdAt,
+                         @Param("expiresAt") Instant expiresAt);
+
+    // Ротация: из двух параллельных refresh одним токеном проходит только один
+    @Modifying
+    @Query("UPDATE refresh_token SET revoked_at = :now WHERE id = :id AND revoked_at IS NULL")
+    Mono<Integer> revoke(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE refresh_token SET revoked_at = :now WHERE user_id = :userId AND revoked_at IS NULL")
+    Mono<Integer> revokeAllByUserId(@Param("userId") UUID userId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM refresh_token WHERE expires_at < :now")
+    Mono<Integer> deleteExpired(@Param("now") Instant now);
+}
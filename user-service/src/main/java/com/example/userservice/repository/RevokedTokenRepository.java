@@ -0,0 +1,32 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.model.entity.RevokedToken;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends R2dbcRepository<RevokedToken, UUID> {
+
+    @Modifying
+    @Query("INSERT INTO revoked_token (jti, expires_at, revoked_at) VALUES (:jti, :expiresAt, :revokedAt) "
+            + "ON CONFLICT (jti) DO NOTHING")
+    Mono<Integer> insert(@Param("jti") UUID jti,
+                         @Param("expiresAt") Instant expiresAt,
+                         @Param("revokedAt") Instant revokedAt);
+
+    // Ещё действующие отзывы, сделанные после since: для синхронизации экземпляров и сервисов
+    @Query("SELECT * FROM revoked_token WHERE revoked_at > :since AND expires_at > :now ORDER BY revoked_at")
+    Flux<RevokedToken> findRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM revoked_token WHERE expires_at < :now")
+    Mono<Integer> deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,61 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.model.entity.User;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Bulk inserts for the user import: one {@code INSERT ... ON CONFLICT DO NOTHING} with a binding per
+ * user, sent as a single batched R2DBC statement.
+ */
+@Repository
+public class UserImportRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO app_user (id, username, email, password_hash, role, created_at, version)
+            VALUES ($1, $2, $3, $4, $5, $6, 0)
+            ON CONFLICT DO NOTHING
+            RETURNING id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public UserImportRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * For each user, in order, whether it was inserted; false if a concurrent insert has taken its
+     * username or email since the uniqueness check. All users are inserted or none.
+     */
+    @Transactional
+    public Mono<List<Boolean>> insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL);
+            for (int i = 0; i < users.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                User user = users.get(i);
+                statement.bind(0, user.getId())
+                        .bind(1, user.getUsername())
+                        .bind(2, user.getEmail())
+                        .bind(3, user.getPasswordHash())
+                        .bind(4, user.getRole().name())
+                        .bind(5, user.getCreatedAt());
+            }
+            // Результаты приходят по одному на каждую привязку, в порядке добавления
+            return Flux.from(statement.execute())
+                    .concatMap(result -> Flux.from(result.map((row, metadata) -> Boolean.TRUE)).hasElements());
+        }).collectList();
+    }
+}
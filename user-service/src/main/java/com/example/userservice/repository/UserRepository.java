@@ -1,10 +1,16 @@
 package com.example.userservice.repository;
 
 import com.example.userservice.model.entity.User;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 
 @Repository
@@ -13,4 +19,39 @@ public interface UserRepository extends R2dbcRepository<User, UUID> {
     Mono<Boolean> existsByEmail(String email);
     Mono<User> findByUsername(String username);
     Mono<User> findByEmail(String email);
+
+    // Лёгкие запросы для других сервисов: без чтения password_hash и остальных колонок
+    @Query("SELECT role FROM app_user WHERE id = :id")
+    Mono<String> findRoleById(@Param("id") UUID id);
+
+    @Query("SELECT id FROM app_user WHERE id IN (:ids)")
+    Flux<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Проверка уникальности для импорта: одна выборка на пачку строк вместо двух запросов на строку
+    @Query("SELECT username FROM app_user WHERE username = ANY(:usernames)")
+    Flux<String> findExistingUsernames(@Param("usernames") String[] usernames);
+
+    @Query("SELECT email FROM app_user WHERE email = ANY(:emails)")
+    Flux<String> findExistingEmails(@Param("emails") String[] emails);
+
+    // Keyset-пагинация по (created_at, id): идёт по idx_app_user_created_at и не зависит от глубины страницы
+    @Query("SELECT * FROM app_user ORDER BY created_at DESC, id DESC LIMIT :limit")
+    Flux<User> findFirstPage(@Param("limit") int limit);
+
+    @Query("SELECT * FROM app_user WHERE (created_at, id) < (:createdAt, :id) "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit")
+    Flux<User> findPageAfter(@Param("createdAt") Instant createdAt,
+                             @Param("id") UUID id,
+                             @Param("limit") int limit);
+
+    // Для старых клиентов с ?page=N: смещение по-прежнему O(N), но строки отбрасывает БД, а не сервис
+    @Query("SELECT * FROM app_user ORDER BY created_at DESC, id DESC LIMIT :limit OFFSET :offset")
+    Flux<User> findPageAt(@Param("limit") int limit, @Param("offset") long offset);
+
+    // Перехеширование при входе: обновляем, только если хеш не сменился параллельно
+    @Modifying
+    @Query("UPDATE app_user SET password_hash = :newHash WHERE username = :username AND password_hash = :oldHash")
+    Mono<Integer> updatePasswordHash(@Param("username") String username,
+                                     @Param("oldHash") String oldHash,
+                                     @Param("newHash") String newHash);
 }
\ No newline at end of file
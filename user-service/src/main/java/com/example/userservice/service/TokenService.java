@@ -0,0 +1,184 @@
+package com.example.userservice.service;
+
+import com.example.userservice.auth.AuthResponse;
+import com.example.userservice.auth.JwtClaims;
+import com.example.userservice.auth.JwtService;
+import com.example.userservice.auth.RevokedTokens;
+import com.example.userservice.dto.RevokedTokenDto;
+import com.example.userservice.exception.UnauthorizedException;
+import com.example.userservice.model.entity.RefreshToken;
+import com.example.userservice.model.entity.User;
+import com.example.userservice.repository.RefreshTokenRepository;
+import com.example.userservice.repository.RevokedTokenRepository;
+import com.example.userservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues access/refresh token pairs and keeps the revocation list. Refresh tokens are opaque random
+ * strings stored as SHA-256 and rotated on every use, so refreshing costs two indexed statements
+ * instead of a password hash. Revoked access tokens are written to {@code revoked_token} and to the
+ * in-memory {@link RevokedTokens}; other instances and resource servers pick them up by polling.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+    private static final int REFRESH_TOKEN_BYTES = 32;
+    // Отзыв мог закоммититься позже своего revoked_at: каждый опрос перекрывает предыдущий
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+    private static final Duration SYNC_TIMEOUT = Duration.ofSeconds(30);
+
+    private final JwtService jwtService;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokens revokedTokens;
+    private final long refreshTokenTtlMillis;
+    private final SecureRandom random = new SecureRandom();
+    private volatile Instant syncedUpTo = Instant.EPOCH;
+
+    public TokenService(JwtService jwtService,
+                        UserRepository userRepository,
+                        RefreshTokenRepository refreshTokenRepository,
+                        RevokedTokenRepository revokedTokenRepository,
+                        RevokedTokens revokedTokens,
+                        @Value("${jwt.refresh-expiration-ms:1209600000}") long refreshTokenTtlMillis) {
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedTokens = revokedTokens;
+        this.refreshTokenTtlMillis = refreshTokenTtlMillis;
+    }
+
+    public Mono<AuthResponse> issue(User user) {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = Instant.now();
+        return refreshTokenRepository.insert(UUID.randomUUID(), user.getId(), hash(refreshToken),
+                        now, now.plusMillis(refreshTokenTtlMillis))
+                .thenReturn(new AuthResponse(jwtService.generateToken(user), refreshToken,
+                        jwtService.getAccessTokenTtlMillis() / 1000));
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair with the user's current role. A refresh token works
+     * once: presenting an already rotated one is treated as theft and revokes all of the user's
+     * refresh tokens. Not one transaction on purpose: that revocation must survive the 401.
+     */
+    public Mono<AuthResponse> refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Mono.error(new UnauthorizedException("Refresh token is required"));
+        }
+        Instant now = Instant.now();
+        return refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .switchIfEmpty(Mono.error(new UnauthorizedException("Invalid refresh token")))
+                .flatMap(stored -> {
+                    if (stored.getRevokedAt() != null) {
+                        log.warn("Rotated refresh token reused for user {}, revoking all their refresh tokens",
+                                stored.getUserId());
+                        return refreshTokenRepository.revokeAllByUserId(stored.getUserId(), now)
+                                .then(Mono.error(new UnauthorizedException("Invalid refresh token")));
+                    }
+                    if (!stored.getExpiresAt().isAfter(now)) {
+                        return Mono.error(new UnauthorizedException("Refresh token has expired"));
+                    }
+                    return rotate(stored, now);
+                });
+    }
+
+    /**
+     * Revokes the access token the request was made with and, if given, the caller's refresh token.
+     */
+    public Mono<Void> logout(JwtClaims accessToken, String refreshToken) {
+        Instant now = Instant.now();
+        Mono<Void> revokeRefresh = refreshToken == null || refreshToken.isBlank()
+                ? Mono.empty()
+                : refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                        .filter(stored -> stored.getUserId().toString().equals(accessToken.userId()))
+                        .flatMap(stored -> refreshTokenRepository.revoke(stored.getId(), now))
+                        .then();
+        return revokeAccessToken(accessToken, now).then(revokeRefresh);
+    }
+
+    /**
+     * Revocations made after {@code since} of tokens that have not expired yet; all of them if null.
+     */
+    public Flux<RevokedTokenDto> revokedSince(Instant since) {
+        return revokedTokenRepository.findRevokedSince(since != null ? since : Instant.EPOCH, Instant.now())
+                .map(token -> new RevokedTokenDto(token.getJti().toString(), token.getExpiresAt(), token.getRevokedAt()));
+    }
+
+    // Подхватываем отзывы, сделанные другими экземплярами user-service
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval:PT5S}")
+    public void syncRevocations() {
+        Instant now = Instant.now();
+        try {
+            revokedTokenRepository.findRevokedSince(syncedUpTo.minus(SYNC_OVERLAP), now)
+                    .doOnNext(token -> revokedTokens.add(token.getJti().toString(), token.getExpiresAt()))
+                    .then()
+                    .block(SYNC_TIMEOUT);
+            syncedUpTo = now;
+            revokedTokens.purgeExpired(now);
+        } catch (RuntimeException e) {
+            log.warn("Revocation sync failed, keeping {} known revocations: {}", revokedTokens.size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval:PT1H}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        try {
+            Integer refresh = refreshTokenRepository.deleteExpired(now).block(SYNC_TIMEOUT);
+            Integer revoked = revokedTokenRepository.deleteExpired(now).block(SYNC_TIMEOUT);
+            log.info("Purged {} expired refresh tokens and {} expired revocations", refresh, revoked);
+        } catch (RuntimeException e) {
+            log.warn("Purging expired tokens failed: {}", e.getMessage());
+        }
+    }
+
+    private Mono<AuthResponse> rotate(RefreshToken stored, Instant now) {
+        return refreshTokenRepository.revoke(stored.getId(), now)
+                .flatMap(updated -> updated == 1
+                        ? userRepository.findById(stored.getUserId())
+                        : Mono.error(new UnauthorizedException("Invalid refresh token")))
+                .switchIfEmpty(Mono.error(new UnauthorizedException("User no longer exists")))
+                .flatMap(this::issue);
+    }
+
+    // У токенов, выданных до появления jti, отзывать нечего — они истекут сами
+    private Mono<Void> revokeAccessToken(JwtClaims accessToken, Instant now) {
+        if (accessToken.tokenId() == null || accessToken.expiresAt() == null) {
+            return Mono.empty();
+        }
+        return revokedTokenRepository.insert(UUID.fromString(accessToken.tokenId()), accessToken.expiresAt(), now)
+                .doOnSuccess(inserted -> revokedTokens.add(accessToken.tokenId(), accessToken.expiresAt()))
+                .then();
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
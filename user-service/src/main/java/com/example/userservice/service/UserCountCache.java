@@ -0,0 +1,39 @@
+package com.example.userservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of the total number of users for the {@code X-Total-Count} header.
+ * COUNT(*) over app_user is a full scan, so paging clients asking for the total on every
+ * page would repeat it; the value may lag behind creates and deletes by up to the TTL.
+ */
+@Component
+public class UserCountCache {
+
+    private final long ttlNanos;
+    private volatile Entry cached;
+
+    public UserCountCache(@Value("${users.count-cache.ttl:30s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the cached count or subscribes to {@code loader}; errors are not cached.
+     */
+    public Mono<Long> get(Mono<Long> loader) {
+        return Mono.defer(() -> {
+            Entry entry = cached;
+            if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                return Mono.just(entry.count());
+            }
+            long loadedAt = System.nanoTime();
+            return loader.doOnNext(count -> cached = new Entry(count, loadedAt));
+        });
+    }
+
+    private record Entry(long count, long loadedAt) { }
+}
@@ -0,0 +1,289 @@
+package com.example.userservice.service;
+
+import com.example.userservice.auth.PasswordHasher;
+import com.example.userservice.dto.UserImportResult;
+import com.example.userservice.dto.UserRequest;
+import com.example.userservice.exception.BadRequestException;
+import com.example.userservice.model.entity.User;
+import com.example.userservice.model.enums.UserImportStatus;
+import com.example.userservice.model.enums.UserRole;
+import com.example.userservice.repository.UserImportRepository;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.CsvUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk creation of client users from an NDJSON or CSV stream. Rows are processed in chunks: each
+ * chunk is validated like {@code POST /api/v1/users}, checked for taken usernames and emails with
+ * two queries, hashed on the {@link PasswordHasher} pool and inserted with one batched statement.
+ * Every row gets a result, in input order, as soon as its chunk is done; a failed row does not stop
+ * the import. Chunks are read one at a time, so the request body is consumed with backpressure.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+    private static final List<String> CSV_COLUMNS = List.of("username", "email", "password");
+
+    private final UserRepository userRepository;
+    private final UserImportRepository userImportRepository;
+    private final PasswordHasher passwordHasher;
+    private final UserRoleCache userRoleCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int hashConcurrency;
+
+    public UserImportService(UserRepository userRepository,
+                             UserImportRepository userImportRepository,
+                             PasswordHasher passwordHasher,
+                             UserRoleCache userRoleCache,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Value("${users.import.chunk-size:100}") int chunkSize,
+                             @Value("${users.import.hash-concurrency:0}") int hashConcurrency) {
+        this.userRepository = userRepository;
+        this.userImportRepository = userImportRepository;
+        this.passwordHasher = passwordHasher;
+        this.userRoleCache = userRoleCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(chunkSize, 1);
+        // 0 — половина ядер: пул хеширования общий со входом, импорт не должен занимать его целиком
+        this.hashConcurrency = hashConcurrency > 0
+                ? hashConcurrency
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * One {@link UserRequest} JSON object per line.
+     */
+    public Flux<UserImportResult> importNdjson(Flux<String> lines) {
+        return importRows(lines.index((i, line) -> parseJson(i + 1, line)));
+    }
+
+    /**
+     * A header line naming the username, email and password columns (in any order), then one user per line.
+     */
+    public Flux<UserImportResult> importCsv(Flux<String> lines) {
+        return importRows(lines.switchOnFirst((first, all) -> {
+            if (!first.hasValue()) {
+                return all.thenMany(Flux.<Row>empty());
+            }
+            int[] columns = csvColumns(first.get());
+            return all.skip(1).index((i, line) -> parseCsv(i + 2, line, columns));
+        }));
+    }
+
+    private Flux<UserImportResult> importRows(Flux<Row> rows) {
+        return rows.filter(row -> !row.blank())
+                .buffer(chunkSize)
+                .concatMap(this::importChunk);
+    }
+
+    private Flux<UserImportResult> importChunk(List<Row> chunk) {
+        List<UserImportResult> results = new ArrayList<>(chunk.size());
+        List<Row> candidates = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Row row : chunk) {
+            if (row.error() != null) {
+                results.add(result(row, UserImportStatus.INVALID, null, row.error()));
+            } else if (!usernames.add(row.username())) {
+                results.add(result(row, UserImportStatus.CONFLICT, null, "Duplicate username in import"));
+            } else if (!emails.add(row.email())) {
+                results.add(result(row, UserImportStatus.CONFLICT, null, "Duplicate email in import"));
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return ordered(results);
+        }
+
+        Mono<Set<String>> takenUsernames = userRepository
+                .findExistingUsernames(usernames.toArray(String[]::new)).collect(Collectors.toSet());
+        Mono<Set<String>> takenEmails = userRepository
+                .findExistingEmails(emails.toArray(String[]::new)).collect(Collectors.toSet());
+
+        return Mono.zip(takenUsernames, takenEmails)
+                .flatMapMany(taken -> {
+                    List<Row> free = new ArrayList<>(candidates.size());
+                    for (Row row : candidates) {
+                        if (taken.getT1().contains(row.username())) {
+                            results.add(result(row, UserImportStatus.CONFLICT, null, "Username already in use"));
+                        } else if (taken.getT2().contains(row.email())) {
+                            results.add(result(row, UserImportStatus.CONFLICT, null, "Email already in use"));
+                        } else {
+                            free.add(row);
+                        }
+                    }
+                    return hashAndInsert(free, results);
+                });
+    }
+
+    private Flux<UserImportResult> hashAndInsert(List<Row> rows, List<UserImportResult> results) {
+        Instant now = Instant.now();
+        return Flux.fromIterable(rows)
+                .flatMapSequential(row -> passwordHasher.encode(row.password())
+                        .map(hash -> new Hashed(row, newUser(row, hash, now), null))
+                        // Пул хеширования переполнен (входы в системе) — строку можно загрузить повторно
+                        .onErrorResume(e -> Mono.just(new Hashed(row, null, e.getMessage()))), hashConcurrency)
+                .collectList()
+                .flatMap(hashed -> {
+                    List<Hashed> ready = new ArrayList<>(hashed.size());
+                    for (Hashed h : hashed) {
+                        if (h.user() != null) {
+                            ready.add(h);
+                        } else {
+                            results.add(result(h.row(), UserImportStatus.FAILED, null, h.error()));
+                        }
+                    }
+                    return insert(ready, results);
+                })
+                .flatMapMany(this::ordered);
+    }
+
+    private Mono<List<UserImportResult>> insert(List<Hashed> rows, List<UserImportResult> results) {
+        return userImportRepository.insertAll(rows.stream().map(Hashed::user).toList())
+                .map(inserted -> {
+                    for (int i = 0; i < rows.size(); i++) {
+                        Hashed h = rows.get(i);
+                        if (inserted.get(i)) {
+                            userRoleCache.evict(h.user().getId());
+                            results.add(result(h.row(), UserImportStatus.CREATED, h.user().getId(), null));
+                        } else {
+                            results.add(result(h.row(), UserImportStatus.CONFLICT, null,
+                                    "Username or email already in use"));
+                        }
+                    }
+                    return results;
+                })
+                .onErrorResume(e -> {
+                    log.error("User import chunk of {} rows failed", rows.size(), e);
+                    rows.forEach(h -> results.add(result(h.row(), UserImportStatus.FAILED, null, "Could not save user")));
+                    return Mono.just(results);
+                });
+    }
+
+    private Flux<UserImportResult> ordered(List<UserImportResult> results) {
+        results.sort(Comparator.comparingLong(UserImportResult::getLine));
+        return Flux.fromIterable(results);
+    }
+
+    private Row parseJson(long line, String text) {
+        if (text.isBlank()) {
+            return Row.blank(line);
+        }
+        try {
+            return validate(line, objectMapper.readValue(text, UserRequest.class));
+        } catch (JsonProcessingException e) {
+            return Row.invalid(line, null, "Malformed JSON");
+        }
+    }
+
+    private Row parseCsv(long line, String text, int[] columns) {
+        if (text.isBlank()) {
+            return Row.blank(line);
+        }
+        List<String> fields = CsvUtil.parseLine(text);
+        if (fields == null) {
+            return Row.invalid(line, null, "Unterminated quoted field");
+        }
+        UserRequest request = new UserRequest();
+        request.setUsername(field(fields, columns[0]));
+        request.setEmail(field(fields, columns[1]));
+        request.setPassword(field(fields, columns[2]));
+        return validate(line, request);
+    }
+
+    // Те же правила, что у POST /api/v1/users
+    private Row validate(long line, UserRequest request) {
+        String username = request.getUsername() != null ? request.getUsername().trim() : null;
+        String email = request.getEmail() != null ? request.getEmail().trim().toLowerCase(Locale.ROOT) : null;
+        if (username == null || username.isEmpty() || email == null || request.getPassword() == null) {
+            return Row.invalid(line, username, "Username, email and password are required");
+        }
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return Row.invalid(line, username, message);
+        }
+        return new Row(line, username, email, request.getPassword(), null);
+    }
+
+    private static int[] csvColumns(String header) {
+        // Excel сохраняет CSV в UTF-8 с BOM
+        List<String> names = CsvUtil.parseLine(header.replace("\uFEFF", ""));
+        if (names == null) {
+            throw new BadRequestException("Malformed CSV header");
+        }
+        List<String> normalized = names.stream().map(n -> n.trim().toLowerCase(Locale.ROOT)).toList();
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = normalized.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new BadRequestException("CSV header must contain columns " + String.join(", ", CSV_COLUMNS));
+            }
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static User newUser(Row row, String passwordHash, Instant now) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(row.username());
+        user.setEmail(row.email());
+        user.setPasswordHash(passwordHash);
+        user.setRole(UserRole.ROLE_CLIENT);
+        user.setCreatedAt(now);
+        return user;
+    }
+
+    private static UserImportResult result(Row row, UserImportStatus status, UUID userId, String message) {
+        return new UserImportResult(row.line(), row.username(), status, userId, message);
+    }
+
+    private record Row(long line, String username, String email, String password, String error) {
+
+        static Row invalid(long line, String username, String error) {
+            return new Row(line, username, null, null, error);
+        }
+
+        static Row blank(long line) {
+            return new Row(line, null, null, null, null);
+        }
+
+        boolean blank() {
+            return username == null && error == null;
+        }
+    }
+
+    private record Hashed(Row row, User user, String error) { }
+}
@@ -0,0 +1,99 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.enums.UserRole;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-TTL cache of the current role of a user. It answers the /exists and /role endpoints other
+ * services call on every operation, and lets validateAdmin check that a role claimed by a still
+ * valid token has not been revoked since it was issued. A missing user is cached too, as an empty
+ * role. Creates, deletes and role changes made through this instance evict the entry right away;
+ * changes made through another instance are seen after the TTL. Loads that overlap an eviction
+ * are not cached. When the cache is full, expired entries are swept at most once a second and new
+ * entries are not cached until there is room.
+ */
+@Component
+public class UserRoleCache {
+
+    private static final int MAX_ENTRIES = 100_000;
+    private static final long SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong nextSweepAt;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public UserRoleCache(@Value("${security.role-cache.ttl:10s}") Duration ttl) {
+        this(ttl, MAX_ENTRIES, System::nanoTime);
+    }
+
+    UserRoleCache(Duration ttl, int maxEntries, LongSupplier nanoTime) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoTime = nanoTime;
+        this.nextSweepAt = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * Returns the cached role or subscribes to {@code loader}; empty if the user does not exist.
+     */
+    public Mono<UserRole> currentRole(UUID userId, Mono<UserRole> loader) {
+        return Mono.defer(() -> {
+            long now = nanoTime.getAsLong();
+            Entry cached = entries.get(userId);
+            if (cached != null && now - cached.loadedAt() < ttlNanos) {
+                return Mono.justOrEmpty(cached.role());
+            }
+            long gen = generation.get();
+            return loader.map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(role -> put(userId, new Entry(role, now), gen))
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    public void evict(UUID userId) {
+        generation.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    private void put(UUID userId, Entry entry, long gen) {
+        if (ttlNanos <= 0 || generation.get() != gen) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            sweepExpired(entry.loadedAt());
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(userId, entry);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // /exists открыт без токена: случайные id держат кэш полным, поэтому полный проход не чаще раза в секунду
+    private void sweepExpired(long now) {
+        long sweepAt = nextSweepAt.get();
+        if (now - sweepAt >= 0 && nextSweepAt.compareAndSet(sweepAt, now + SWEEP_INTERVAL_NANOS)) {
+            entries.values().removeIf(e -> now - e.loadedAt() >= ttlNanos);
+        }
+    }
+
+    private record Entry(Optional<UserRole> role, long loadedAt) { }
+}
@@ -1,5 +1,6 @@
 package com.example.userservice.service;
 
+import com.example.userservice.auth.PasswordHasher;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.exception.*;
@@ -7,17 +8,22 @@ import com.example.userservice.feign.ApplicationServiceClient;
 import com.example.userservice.model.entity.User;
 import com.example.userservice.model.enums.UserRole;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.CursorUtil;
+import com.example.userservice.util.UserPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -27,16 +33,27 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final ApplicationServiceClient applicationServiceClient;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final UserCountCache userCountCache;
+    private final UserRoleCache userRoleCache;
+    private final TransactionalOperator transactionalOperator;
 
     public UserService(UserRepository userRepository,
-                       ApplicationServiceClient applicationServiceClient, PasswordEncoder passwordEncoder) {
+                       ApplicationServiceClient applicationServiceClient, PasswordHasher passwordHasher,
+                       UserCountCache userCountCache, UserRoleCache userRoleCache,
+                       TransactionalOperator transactionalOperator) {
         this.userRepository = userRepository;
         this.applicationServiceClient = applicationServiceClient;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.userCountCache = userCountCache;
+        this.userRoleCache = userRoleCache;
+        this.transactionalOperator = transactionalOperator;
     }
 
-    @Transactional
+    /**
+     * The password is hashed before the transaction starts, so time spent waiting for the hashing
+     * pool does not hold an R2DBC connection; only the uniqueness checks and the insert are transactional.
+     */
     public Mono<UserDto> create(UserRequest req) {
         if (req == null) {
             throw new BadRequestException("Request is required");
@@ -50,6 +67,15 @@ public class UserService {
             throw new BadRequestException("Username, email and password are required");
         }
 
+        return passwordHasher.encode(password)
+                .flatMap(passwordHash -> insert(username, email, passwordHash).as(transactionalOperator::transactional))
+                .doOnNext(dto -> {
+                    userRoleCache.evict(dto.getId());
+                    log.info("User created: {}", dto.getUsername());
+                });
+    }
+
+    private Mono<UserDto> insert(String username, String email, String passwordHash) {
         return userRepository.existsByUsername(username)
                 .flatMap(usernameExists -> {
                     if (usernameExists) {
@@ -61,30 +87,48 @@ public class UserService {
                     if (emailExists) {
                         throw new ConflictException("Email already in use");
                     }
-
                     User user = new User();
                     user.setId(UUID.randomUUID());
                     user.setUsername(username);
                     user.setEmail(email);
-                    user.setPasswordHash(passwordEncoder.encode(password));
+                    user.setPasswordHash(passwordHash);
                     user.setRole(UserRole.ROLE_CLIENT);
                     user.setCreatedAt(Instant.now());
 
-                    return userRepository.save(user)
-                            .map(this::toDto)
-                            .doOnSuccess(dto -> log.info("User created: {}", dto.getUsername()));
+                    return userRepository.save(user).map(this::toDto);
                 });
     }
 
-    public Flux<UserDto> findAll(int page, int size) {
+    /**
+     * Users newest first. With a cursor the page starts right after it (keyset on created_at, id);
+     * without one {@code page} is used as an offset for older clients. The total is the cached count.
+     */
+    public Mono<UserPage> findPage(int page, String cursor, int size, boolean includeTotal) {
         if (size > 50) {
-            return Flux.error(new BadRequestException("Page size cannot exceed 50"));
+            return Mono.error(new BadRequestException("Page size cannot exceed 50"));
+        }
+        if (size <= 0 || page < 0) {
+            return Mono.error(new BadRequestException("Page must be non-negative and size positive"));
         }
 
-        return userRepository.findAll()
-                .skip((long) page * size)
-                .take(size)
-                .map(this::toDto);
+        Flux<User> rows;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorUtil.Decoded after = CursorUtil.decode(cursor);
+            if (after == null) {
+                return Mono.error(new BadRequestException("Invalid cursor"));
+            }
+            rows = userRepository.findPageAfter(after.createdAt(), after.id(), size);
+        } else if (page > 0) {
+            rows = userRepository.findPageAt(size, (long) page * size);
+        } else {
+            rows = userRepository.findFirstPage(size);
+        }
+
+        Mono<Optional<Long>> total = includeTotal
+                ? userCountCache.get(userRepository.count()).map(Optional::of)
+                : Mono.just(Optional.empty());
+        return Mono.zip(rows.map(this::toDto).collectList(), total)
+                .map(tuple -> new UserPage(tuple.getT1(), nextCursor(tuple.getT1(), size), tuple.getT2().orElse(null)));
     }
 
     public Mono<UserDto> findById(UUID id) {
@@ -93,98 +137,143 @@ public class UserService {
                 .map(this::toDto);
     }
 
-    @Transactional
+    // Как и в create, новый пароль хешируется до начала транзакции
     public Mono<UserDto> update(UUID userId, UserRequest req) {
+        Mono<Optional<String>> passwordHash = req.getPassword() == null
+                ? Mono.just(Optional.empty())
+                : Mono.defer(() -> passwordHasher.encode(req.getPassword())).map(Optional::of);
         return validateAdmin()
-                .then(userRepository.findById(userId))
-                .switchIfEmpty(Mono.error(new NotFoundException("User not found: " + userId)))
-                .flatMap(user -> {
-                    if (req.getUsername() != null) {
-                        user.setUsername(req.getUsername().trim());
-                    }
-                    if (req.getEmail() != null) {
-                        user.setEmail(req.getEmail().trim().toLowerCase());
-                    }
-                    if (req.getPassword() != null) {
-                        user.setPasswordHash(passwordEncoder.encode(req.getPassword()));
-                    }
-                    user.setUpdatedAt(Instant.now());
-
-                    return userRepository.save(user).map(this::toDto).doOnSuccess(dto -> log.info("User updated: {}", dto.getId()));
-                });
+                .then(passwordHash)
+                .flatMap(hash -> userRepository.findById(userId)
+                        .switchIfEmpty(Mono.error(new NotFoundException("User not found: " + userId)))
+                        .flatMap(user -> {
+                            if (req.getUsername() != null) {
+                                user.setUsername(req.getUsername().trim());
+                            }
+                            if (req.getEmail() != null) {
+                                user.setEmail(req.getEmail().trim().toLowerCase());
+                            }
+                            user.setUpdatedAt(Instant.now());
+                            hash.ifPresent(user::setPasswordHash);
+                            return userRepository.save(user);
+                        })
+                        .as(transactionalOperator::transactional))
+                .map(this::toDto)
+                .doOnSuccess(dto -> log.info("User updated: {}", dto.getId()));
     }
 
-    @Transactional
     public Mono<Void> delete(UUID userId) {
         return validateAdmin()
-                .then(userRepository.findById(userId))
-                .switchIfEmpty(Mono.error(new NotFoundException("User not found: " + userId)))
-                .flatMap(user -> {
-                    log.info("Deleting user {} and their applications", userId);
-                    return Mono.fromCallable(() -> applicationServiceClient.deleteApplicationsByUserId(userId.toString())
-                            ).subscribeOn(Schedulers.boundedElastic())
-                            .doOnError(e -> log.error("Failed to delete applications for user {}: {}", userId, e.getMessage()))
-                            .then(userRepository.delete(user))
-                            .doOnSuccess(v -> log.info("User deleted successfully: {}", userId));
+                .then(Mono.defer(() -> userRepository.findById(userId)
+                        .switchIfEmpty(Mono.error(new NotFoundException("User not found: " + userId)))
+                        .flatMap(user -> {
+                            log.info("Deleting user {} and their applications", userId);
+                            return Mono.fromCallable(() -> applicationServiceClient.deleteApplicationsByUserId(userId.toString())
+                                    ).subscribeOn(Schedulers.boundedElastic())
+                                    .doOnError(e -> log.error("Failed to delete applications for user {}: {}", userId, e.getMessage()))
+                                    .then(userRepository.delete(user));
+                        })
+                        .as(transactionalOperator::transactional)))
+                .doOnSuccess(v -> {
+                    userRoleCache.evict(userId);
+                    log.info("User deleted successfully: {}", userId);
                 });
     }
 
-    @Transactional
     public Mono<Void> promoteToManager(UUID userId) {
         return validateAdmin()
-                .then(userRepository.findById(userId))
-                .switchIfEmpty(Mono.error(new NotFoundException("User not found: " + userId)))
-                .flatMap(user -> {
-                    if (user.getRole() != UserRole.ROLE_MANAGER) {
-                        user.setRole(UserRole.ROLE_MANAGER);
-                        user.setUpdatedAt(Instant.now());
-                        return userRepository.save(user).then();
-                    }
-                    return Mono.empty();
-                }).doOnSuccess(v -> log.info("User {} promoted to MANAGER", userId));
+                .then(Mono.defer(() -> changeRole(userId, UserRole.ROLE_MANAGER)))
+                .doOnSuccess(v -> log.info("User {} promoted to MANAGER", userId));
     }
 
-    @Transactional
     public Mono<Void> demoteToClient(UUID userId) {
         return validateAdmin()
-                .then(userRepository.findById(userId))
+                .then(Mono.defer(() -> changeRole(userId, UserRole.ROLE_CLIENT)))
+                .doOnSuccess(v -> log.info("User {} demoted to CLIENT", userId));
+    }
+
+    // Кэш сбрасывается после коммита: загрузка между сбросом и коммитом иначе закэшировала бы старую роль
+    private Mono<Void> changeRole(UUID userId, UserRole role) {
+        return userRepository.findById(userId)
                 .switchIfEmpty(Mono.error(new NotFoundException("User not found: " + userId)))
                 .flatMap(user -> {
-                    if (user.getRole() != UserRole.ROLE_CLIENT) {
-                        user.setRole(UserRole.ROLE_CLIENT);
+                    if (user.getRole() != role) {
+                        user.setRole(role);
                         user.setUpdatedAt(Instant.now());
                         return userRepository.save(user).then();
                     }
                     return Mono.empty();
-                }).doOnSuccess(v -> log.info("User {} demoted to CLIENT", userId));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(v -> userRoleCache.evict(userId));
+    }
+
+    // Пакетная проверка существования для других сервисов: один запрос вместо N вызовов /{id}/exists
+    public Flux<UUID> findExistingIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return userRepository.findExistingIds(ids);
+    }
+
+    /**
+     * Current role of the user, empty if there is no such user. Served from {@link UserRoleCache},
+     * a miss reads only the role column.
+     */
+    public Mono<UserRole> findRole(UUID id) {
+        return userRoleCache.currentRole(id, Mono.defer(() -> userRepository.findRoleById(id)).map(UserRole::valueOf));
+    }
+
+    public Mono<Boolean> exists(UUID id) {
+        return findRole(id).hasElement();
+    }
+
+    // Неполная страница — последняя, курсор не нужен
+    private static String nextCursor(List<UserDto> items, int size) {
+        if (items.size() < size) {
+            return null;
+        }
+        UserDto last = items.get(items.size() - 1);
+        return CursorUtil.encode(last.getCreatedAt(), last.getId());
     }
 
     public Mono<Long> count() {
         return userRepository.count();
     }
 
-    public Mono<User> validateAdmin() {
+    /**
+     * Checks that the caller's token carries ROLE_ADMIN and that the role has not been revoked since
+     * the token was issued. The current role comes from {@link UserRoleCache}, so an admin call costs
+     * at most one lookup per TTL instead of one per request. Returns the actor id.
+     */
+    public Mono<UUID> validateAdmin() {
         return ReactiveSecurityContextHolder.getContext()
                 .switchIfEmpty(Mono.error(new UnauthorizedException("Unauthorized")))
                 .flatMap(ctx -> {
-                    if (ctx.getAuthentication() == null || ctx.getAuthentication().getPrincipal() == null) {
+                    Authentication authentication = ctx.getAuthentication();
+                    if (authentication == null || authentication.getPrincipal() == null) {
                         return Mono.error(new UnauthorizedException("Unauthorized"));
                     }
-                    String principal = ctx.getAuthentication().getPrincipal().toString();
                     UUID actorId;
                     try {
-                        actorId = UUID.fromString(principal);
+                        actorId = UUID.fromString(authentication.getPrincipal().toString());
                     } catch (IllegalArgumentException ex) {
                         return Mono.error(new UnauthorizedException("Invalid principal"));
                     }
+                    // Роль из проверенного токена: не-админу отказываем без обращения к БД
+                    boolean adminClaim = authentication.getAuthorities().stream()
+                            .anyMatch(authority -> UserRole.ROLE_ADMIN.name().equals(authority.getAuthority()));
+                    if (!adminClaim) {
+                        return Mono.error(new ForbiddenException("Only ADMIN can perform this action"));
+                    }
 
-                    return userRepository.findById(actorId)
+                    return findRole(actorId)
                             .switchIfEmpty(Mono.error(new NotFoundException("Actor not found: " + actorId)))
-                            .flatMap(actor -> {
-                                if (actor.getRole() != UserRole.ROLE_ADMIN) {
+                            .flatMap(role -> {
+                                if (role != UserRole.ROLE_ADMIN) {
                                     return Mono.error(new ForbiddenException("Only ADMIN can perform this action"));
                                 }
-                                return Mono.just(actor);
+                                return Mono.just(actorId);
                             });
                 });
     }
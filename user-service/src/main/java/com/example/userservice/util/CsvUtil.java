@@ -0,0 +1,42 @@
+package com.example.userservice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Разбор одной строки CSV (RFC 4180): поля через запятую, в кавычках допустимы запятые и "" как кавычка
+public class CsvUtil {
+
+    /**
+     * Fields of the line, or null if a quoted field is not closed. Line breaks inside fields are not supported.
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.userservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+// Непрозрачный курсор keyset-пагинации пользователей по (created_at, id)
+public class CursorUtil {
+
+    public record Decoded(Instant createdAt, UUID id) { }
+
+    public static Decoded decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|");
+            if (parts.length != 2) {
+                return null;
+            }
+            return new Decoded(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static String encode(Instant createdAt, UUID id) {
+        String data = createdAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
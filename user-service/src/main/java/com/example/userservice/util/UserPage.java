@@ -0,0 +1,10 @@
+package com.example.userservice.util;
+
+import com.example.userservice.dto.UserDto;
+
+import java.util.List;
+
+/**
+ * One page of users; {@code nextCursor} is null on the last page, {@code total} is null unless requested.
+ */
+public record UserPage(List<UserDto> items, String nextCursor, Long total) { }
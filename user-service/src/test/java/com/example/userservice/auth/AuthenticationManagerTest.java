@@ -0,0 +1,122 @@
+package com.example.userservice.auth;
+
+import com.example.userservice.config.PasswordEncoderConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationManagerTest {
+
+    private static final String PASSWORD = "StrongPass123";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private PasswordEncoder encoder;
+    private AuthenticationManager authenticationManager;
+
+    @BeforeEach
+    void setUp() {
+        // Минимальные параметры стоимости, чтобы тест был быстрым
+        encoder = PasswordEncoderConfig.delegatingEncoder(PasswordEncoderConfig.BCRYPT,
+                PasswordEncoderConfig.bcrypt(5),
+                PasswordEncoderConfig.argon2(1024, 1, 1),
+                PasswordEncoderConfig.pbkdf2(1000));
+        PasswordHasher hasher = new PasswordHasher(encoder, Schedulers.immediate(), new SimpleMeterRegistry());
+        authenticationManager = new AuthenticationManager(userDetailsService, hasher);
+    }
+
+    @Test
+    void authenticate_currentHash_doesNotRehash() {
+        givenUser(encoder.encode(PASSWORD));
+
+        StepVerifier.create(authenticationManager.authenticate(token(PASSWORD)))
+                .assertNext(auth -> assertEquals("alice", auth.getName()))
+                .verifyComplete();
+
+        verify(userDetailsService, never()).updatePassword(any(), anyString());
+    }
+
+    @Test
+    void authenticate_legacyUnprefixedBcryptHash_isRehashed() {
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        givenUser(legacy);
+        when(userDetailsService.updatePassword(any(), anyString()))
+                .thenAnswer(invocation -> Mono.just(invocation.<UserDetails>getArgument(0)));
+
+        StepVerifier.create(authenticationManager.authenticate(token(PASSWORD)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(userDetailsService).updatePassword(argThat(user -> legacy.equals(user.getPassword())),
+                argThat(hash -> hash.startsWith("{bcrypt}$2a$05$") && encoder.matches(PASSWORD, hash)));
+    }
+
+    @Test
+    void authenticate_otherAlgorithm_isMigratedToConfiguredOne() {
+        givenUser("{pbkdf2}" + PasswordEncoderConfig.pbkdf2(1000).encode(PASSWORD));
+        when(userDetailsService.updatePassword(any(), anyString()))
+                .thenAnswer(invocation -> Mono.just(invocation.<UserDetails>getArgument(0)));
+
+        StepVerifier.create(authenticationManager.authenticate(token(PASSWORD)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(userDetailsService).updatePassword(any(), argThat(hash -> hash.startsWith("{bcrypt}")));
+    }
+
+    @Test
+    void authenticate_rehashFailure_stillLogsIn() {
+        givenUser(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        when(userDetailsService.updatePassword(any(), anyString())).thenReturn(Mono.error(new RuntimeException("db down")));
+
+        StepVerifier.create(authenticationManager.authenticate(token(PASSWORD)))
+                .assertNext(auth -> assertEquals("alice", auth.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void authenticate_wrongPassword_failsWithoutRehash() {
+        givenUser(new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        StepVerifier.create(authenticationManager.authenticate(token("wrong")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+
+        verify(userDetailsService, never()).updatePassword(any(), anyString());
+    }
+
+    @Test
+    void delegatingEncoder_rejectsUnknownAlgorithm() {
+        PasswordEncoder bcrypt = PasswordEncoderConfig.bcrypt(4);
+        assertThrows(IllegalStateException.class,
+                () -> PasswordEncoderConfig.delegatingEncoder("md5", bcrypt, bcrypt, bcrypt));
+    }
+
+    private void givenUser(String passwordHash) {
+        when(userDetailsService.findByUsername("alice")).thenReturn(Mono.just(
+                User.withUsername("alice").password(passwordHash).authorities("ROLE_CLIENT").build()));
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String password) {
+        return new UsernamePasswordAuthenticationToken("alice", password);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.userservice.auth;
+
+import com.example.userservice.model.entity.User;
+import com.example.userservice.model.enums.UserRole;
+import com.nimbusds.jose.jwk.JWK;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeysTest {
+
+    private static final String SECRET = "test-secret-very-long-string-at-least-32-bytes-123456";
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ecKeyPair_signsEs256WithKeyIdAndPublishesOnlyPublicKey() throws Exception {
+        KeyPair pair = ecKeyPair();
+        JwtKeys keys = new JwtKeys("", privatePem(pair), publicPem(pair), "");
+        JwtService jwtService = new JwtService(keys, 60_000);
+
+        String token = jwtService.generateToken(user());
+
+        assertTrue(jwtService.parse(token).isPresent());
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertTrue(header.contains("\"alg\":\"ES256\""));
+        assertTrue(header.contains("\"kid\":\"" + keys.keyId() + "\""));
+
+        Map<String, Object> jwks = keys.jwkSet().toJSONObject(true);
+        List<?> published = (List<?>) jwks.get("keys");
+        assertEquals(1, published.size());
+        JWK jwk = JWK.parse((Map<String, Object>) published.get(0));
+        assertFalse(jwk.isPrivate());
+        assertEquals(keys.keyId(), jwk.getKeyID());
+    }
+
+    @Test
+    void rotation_acceptsTokensOfPreviousKeyOnly() throws Exception {
+        KeyPair old = ecKeyPair();
+        KeyPair current = ecKeyPair();
+        String oldToken = new JwtService(new JwtKeys("", privatePem(old), publicPem(old), ""), 60_000)
+                .generateToken(user());
+        String hmacToken = new JwtService(JwtKeys.hmac(SECRET), 60_000).generateToken(user());
+
+        JwtKeys rotated = new JwtKeys("", privatePem(current), publicPem(current), publicPem(old));
+        JwtService jwtService = new JwtService(rotated, 60_000);
+
+        assertTrue(jwtService.parse(oldToken).isPresent());
+        assertEquals(2, rotated.jwkSet().getKeys().size());
+        // без jwt.secret токены HS256 больше не принимаются
+        assertTrue(jwtService.parse(hmacToken).isEmpty());
+        assertTrue(new JwtService(new JwtKeys(SECRET, privatePem(current), publicPem(current), ""), 60_000)
+                .parse(hmacToken).isPresent());
+    }
+
+    @Test
+    void rsaKeyPair_signsRs256() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        JwtKeys keys = new JwtKeys("", privatePem(pair), publicPem(pair), "");
+
+        assertEquals(SignatureAlgorithm.RS256, keys.algorithm());
+        JwtService jwtService = new JwtService(keys, 60_000);
+        assertTrue(jwtService.parse(jwtService.generateToken(user())).isPresent());
+    }
+
+    @Test
+    void misconfiguredKeys_failAtStartup() throws Exception {
+        KeyPair a = ecKeyPair();
+        KeyPair b = ecKeyPair();
+
+        assertThrows(IllegalStateException.class, () -> new JwtKeys("", privatePem(a), publicPem(b), ""));
+        assertThrows(IllegalStateException.class, () -> new JwtKeys("", privatePem(a), "", ""));
+        assertThrows(IllegalStateException.class, () -> new JwtKeys("", "", "", ""));
+    }
+
+    private static KeyPair ecKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static String privatePem(KeyPair pair) {
+        return pem("PRIVATE KEY", pair.getPrivate().getEncoded());
+    }
+
+    private static String publicPem(KeyPair pair) {
+        return pem("PUBLIC KEY", pair.getPublic().getEncoded());
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static User user() {
+        return new User(UUID.randomUUID(), "alice", "alice@example.com", "hash", UserRole.ROLE_CLIENT, Instant.now());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.userservice.auth;
+
+import com.example.userservice.model.entity.User;
+import com.example.userservice.model.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-very-long-string-at-least-32-bytes-123456";
+
+    private final JwtService jwtService = new JwtService(JwtKeys.hmac(SECRET), 60_000);
+
+    @Test
+    void parse_validToken_returnsAllClaims() {
+        User user = user();
+        String token = jwtService.generateToken(user);
+
+        JwtClaims claims = jwtService.parse(token).orElseThrow();
+
+        assertEquals("alice", claims.username());
+        assertEquals(user.getId().toString(), claims.userId());
+        assertEquals("ROLE_MANAGER", claims.role());
+        assertTrue(claims.expiresAt().isAfter(Instant.now()));
+        assertNotNull(claims.tokenId());
+        assertNotEquals(claims.tokenId(), jwtService.parse(jwtService.generateToken(user)).orElseThrow().tokenId());
+        assertTrue(jwtService.validateToken(token));
+    }
+
+    @Test
+    void parse_tamperedExpiredOrForeignToken_isEmpty() {
+        String token = jwtService.generateToken(user());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String expired = new JwtService(JwtKeys.hmac(SECRET), -1_000).generateToken(user());
+        String foreign = new JwtService(JwtKeys.hmac("another-secret-very-long-string-at-least-32-bytes"), 60_000).generateToken(user());
+
+        assertTrue(jwtService.parse(tampered).isEmpty());
+        assertTrue(jwtService.parse(expired).isEmpty());
+        assertTrue(jwtService.parse(foreign).isEmpty());
+        assertTrue(jwtService.parse("not-a-jwt").isEmpty());
+    }
+
+    @Test
+    void filter_setsAuthenticationFromSingleParse() {
+        User user = user();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header("Authorization", "Bearer " + jwtService.generateToken(user)));
+        WebFilterChain chain = e -> ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .doOnNext(auth -> e.getAttributes().put("auth", auth))
+                .then();
+
+        StepVerifier.create(new JwtAuthWebFilter(jwtService, new RevokedTokens()).filter(exchange, chain)).verifyComplete();
+
+        Authentication auth = exchange.getAttribute("auth");
+        assertNotNull(auth);
+        assertEquals(user.getId().toString(), auth.getPrincipal());
+        assertEquals("ROLE_MANAGER", auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+    }
+
+    @Test
+    void filter_invalidToken_passesThroughUnauthenticated() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header("Authorization", "Bearer broken"));
+        WebFilterChain chain = e -> ReactiveSecurityContextHolder.getContext()
+                .doOnNext(context -> e.getAttributes().put("auth", context.getAuthentication()))
+                .then();
+
+        StepVerifier.create(new JwtAuthWebFilter(jwtService, new RevokedTokens()).filter(exchange, chain)).verifyComplete();
+
+        assertNull(exchange.getAttribute("auth"));
+    }
+
+    @Test
+    void filter_revokedToken_passesThroughUnauthenticated() {
+        String token = jwtService.generateToken(user());
+        JwtClaims claims = jwtService.parse(token).orElseThrow();
+        RevokedTokens revokedTokens = new RevokedTokens();
+        revokedTokens.add(claims.tokenId(), claims.expiresAt());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header("Authorization", "Bearer " + token));
+        WebFilterChain chain = e -> ReactiveSecurityContextHolder.getContext()
+                .doOnNext(context -> e.getAttributes().put("auth", context.getAuthentication()))
+                .then();
+
+        StepVerifier.create(new JwtAuthWebFilter(jwtService, revokedTokens).filter(exchange, chain)).verifyComplete();
+
+        assertNull(exchange.getAttribute("auth"));
+    }
+
+    private static User user() {
+        return new User(UUID.randomUUID(), "alice", "alice@example.com", "hash", UserRole.ROLE_MANAGER, Instant.now());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.userservice.auth;
+
+import com.example.userservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_runOnHashingPool() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), meterRegistry, 2, 8);
+
+        String hash = hasher.encode("secret").block(Duration.ofSeconds(5));
+
+        assertNotNull(hash);
+        StepVerifier.create(hasher.matches("secret", hash)).expectNext(true).verifyComplete();
+        StepVerifier.create(hasher.matches("wrong", hash)).expectNext(false).verifyComplete();
+
+        String thread = Mono.fromCallable(() -> Thread.currentThread().getName())
+                .then(hasher.matches("secret", hash).map(ok -> Thread.currentThread().getName()))
+                .block(Duration.ofSeconds(5));
+        assertTrue(thread.startsWith("password-hashing-"), thread);
+        assertEquals(3, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void matches_failsFast_whenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        // Один поток и очередь на одну задачу: третий запрос должен получить отказ
+        hasher = new PasswordHasher(slowEncoder, meterRegistry, 1, 1);
+
+        hasher.matches("a", "hash").subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        hasher.matches("b", "hash").subscribe();
+
+        StepVerifier.create(hasher.matches("c", "hash"))
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(5));
+        release.countDown();
+
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").tag("operation", "matches").counter().count());
+        assertEquals(0, meterRegistry.get("password.hashing.rejected").tag("operation", "encode").counter().count());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.auth.JwtAuthWebFilter;
+import com.example.userservice.auth.JwtKeys;
+import com.example.userservice.auth.JwtService;
+import com.example.userservice.auth.RevokedTokens;
+import com.example.userservice.model.entity.User;
+import com.example.userservice.model.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cost of authenticating one request in {@link JwtAuthWebFilter}: the previous three parser
+ * constructions and signature checks per request versus a single parse with the shared parser.
+ * Single-threaded average over a fixed number of iterations after warm-up.
+ * Run with: mvn -pl user-service test -Dtest=JwtAuthWebFilterBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JwtAuthWebFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-very-long-string-at-least-32-bytes";
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    // Результат сохраняется, чтобы JIT не выбросил вычисление
+    private static volatile Object sink;
+
+    @Test
+    public void filterCostPerRequest() {
+        JwtService jwtService = new JwtService(JwtKeys.hmac(SECRET), 3_600_000);
+        String token = jwtService.generateToken(
+                new User(UUID.randomUUID(), "alice", "alice@example.com", "hash", UserRole.ROLE_CLIENT, Instant.now()));
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+        // Прежний путь: validateToken + extractUserId + extractRole, каждый со своим parserBuilder()
+        Supplier<Object> previous = () -> {
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            Claims c1 = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            Claims c2 = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            return c1.get("uid").toString() + c2.get("role");
+        };
+        JwtAuthWebFilter filter = new JwtAuthWebFilter(jwtService, new RevokedTokens());
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/v1/users")
+                .header("Authorization", "Bearer " + token)
+                .build();
+        Supplier<Object> current = () -> filter.filter(MockServerWebExchange.from(request), CHAIN).block();
+        Supplier<Object> parseOnly = () -> jwtService.parse(token).orElseThrow();
+
+        report("3 x parserBuilder + verify (before)", previous);
+        report("JwtService.parse (shared parser)", parseOnly);
+        report("JwtAuthWebFilter.filter (after)", current);
+    }
+
+    private static void report(String label, Supplier<Object> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink = operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-38s %8.2f us/op %10.0f ops/s%n", label, elapsed / 1000.0 / ITERATIONS,
+                ITERATIONS * 1e9 / elapsed);
+    }
+}
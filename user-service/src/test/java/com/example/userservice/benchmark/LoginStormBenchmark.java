@@ -0,0 +1,130 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.auth.AuthenticationManager;
+import com.example.userservice.auth.PasswordHasher;
+import com.example.userservice.auth.UserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login storm against a Netty server with two event-loop threads: many concurrent logins
+ * (BCrypt, default strength) plus a few clients calling a trivial endpoint. Compares hashing
+ * inline on the event loop (previous behaviour) with {@link PasswordHasher}'s pool, and
+ * reports login throughput and latency of the unrelated requests.
+ * Run with: mvn -pl user-service test -Dtest=LoginStormBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LoginStormBenchmark {
+
+    private static final int EVENT_LOOP_THREADS = 2;
+    private static final int LOGIN_CONCURRENCY = 64;
+    private static final int PING_CONCURRENCY = 4;
+    private static final Duration DURATION = Duration.ofSeconds(10);
+
+    @Test
+    public void loginStorm() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        String hash = encoder.encode("password");
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.findByUsername(anyString())).thenAnswer(invocation -> Mono.just(
+                User.withUsername(invocation.getArgument(0)).password(hash).authorities("ROLE_CLIENT").build()));
+
+        PasswordHasher inline = new PasswordHasher(encoder, Schedulers.immediate(), new SimpleMeterRegistry());
+        run("event loop", new AuthenticationManager(userDetailsService, inline));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher pooled = new PasswordHasher(encoder, registry,
+                0, LOGIN_CONCURRENCY + PING_CONCURRENCY);
+        try {
+            run("hashing pool", new AuthenticationManager(userDetailsService, pooled));
+            System.out.printf("  rejected logins: %.0f%n",
+                    registry.get("password.hashing.rejected").tag("operation", "matches").counter().count());
+        } finally {
+            pooled.shutdown();
+        }
+    }
+
+    private static void run(String label, AuthenticationManager authenticationManager) {
+        LoopResources serverLoops = LoopResources.create("bench-server", EVENT_LOOP_THREADS, true);
+        LoopResources clientLoops = LoopResources.create("bench-client", 4, true);
+        ConnectionProvider connections = ConnectionProvider.builder("bench")
+                .maxConnections(LOGIN_CONCURRENCY + PING_CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        DisposableServer server = HttpServer.create()
+                .port(0)
+                .runOn(serverLoops)
+                .route(routes -> routes
+                        .post("/login", (request, response) -> response.sendString(
+                                authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("alice", "password"))
+                                        .map(auth -> "ok")))
+                        .get("/ping", (request, response) -> response.sendString(Mono.just("pong"))))
+                .bindNow();
+        HttpClient client = HttpClient.create(connections).runOn(clientLoops).port(server.port());
+        try {
+            // прогрев JIT
+            requests(client, Duration.ofSeconds(2), new AtomicLong(), new ConcurrentLinkedQueue<>());
+
+            AtomicLong logins = new AtomicLong();
+            ConcurrentLinkedQueue<Long> pingLatencies = new ConcurrentLinkedQueue<>();
+            requests(client, DURATION, logins, pingLatencies);
+
+            long[] latencies = pingLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%s: %.0f logins/s; GET /ping %d requests, p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                    label, logins.get() / (double) DURATION.toSeconds(), latencies.length,
+                    percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 1.0));
+        } finally {
+            server.disposeNow();
+            connections.disposeLater().block();
+            clientLoops.disposeLater().block();
+            serverLoops.disposeLater().block();
+        }
+    }
+
+    private static void requests(HttpClient client, Duration duration, AtomicLong logins,
+                                 ConcurrentLinkedQueue<Long> pingLatencies) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Flux<Void> loginStorm = Flux.range(0, LOGIN_CONCURRENCY).flatMap(i -> Mono.defer(() ->
+                        client.post().uri("/login").responseContent().aggregate().asString()
+                                .doOnNext(body -> logins.incrementAndGet()))
+                .repeat(() -> System.nanoTime() < deadline)
+                .then(), LOGIN_CONCURRENCY);
+        Flux<Void> pings = Flux.range(0, PING_CONCURRENCY).flatMap(i -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return client.get().uri("/ping").responseContent().aggregate().asString()
+                            .doOnNext(body -> pingLatencies.add(System.nanoTime() - start));
+                })
+                .repeat(() -> System.nanoTime() < deadline)
+                .then(), PING_CONCURRENCY);
+        Flux.merge(loginStorm, pings).blockLast();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = Math.min(sorted.length - 1, (int) (sorted.length * p));
+        return sorted[index] / 1_000_000.0;
+    }
+}
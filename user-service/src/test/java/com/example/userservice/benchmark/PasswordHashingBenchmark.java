@@ -0,0 +1,53 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.config.PasswordEncoderConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Password verifications per second on one core for candidate hashing settings, to size
+ * login capacity: logins/s of a node ≈ this number × security.password-hashing.threads.
+ * Run with: mvn -pl user-service test -Dtest=PasswordHashingBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PasswordHashingBenchmark {
+
+    private static final long DURATION_NANOS = 3_000_000_000L;
+
+    @Test
+    public void hashesPerSecondPerCore() {
+        Map<String, PasswordEncoder> settings = new LinkedHashMap<>();
+        for (int strength : new int[]{8, 10, 12}) {
+            settings.put("bcrypt strength=" + strength, PasswordEncoderConfig.bcrypt(strength));
+        }
+        settings.put("argon2 m=19MiB t=2 p=1", PasswordEncoderConfig.argon2(19_456, 2, 1));
+        settings.put("argon2 m=46MiB t=1 p=1", PasswordEncoderConfig.argon2(47_104, 1, 1));
+        settings.put("argon2 m=64MiB t=3 p=1", PasswordEncoderConfig.argon2(65_536, 3, 1));
+        for (int iterations : new int[]{310_000, 600_000}) {
+            settings.put("pbkdf2-sha256 i=" + iterations, PasswordEncoderConfig.pbkdf2(iterations));
+        }
+
+        System.out.printf("%-26s %12s %14s%n", "setting", "hashes/s", "ms per hash");
+        settings.forEach((name, encoder) -> {
+            String hash = encoder.encode("correct horse battery staple");
+            // прогрев JIT
+            for (int i = 0; i < 3; i++) {
+                encoder.matches("correct horse battery staple", hash);
+            }
+            long count = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                encoder.matches("correct horse battery staple", hash);
+                count++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < DURATION_NANOS);
+            double perSecond = count * 1e9 / elapsed;
+            System.out.printf("%-26s %12.1f %14.1f%n", name, perSecond, 1000.0 / perSecond);
+        });
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.userservice.controller;
 
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.UserImportResult;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.exception.*;
+import com.example.userservice.model.enums.UserImportStatus;
 import com.example.userservice.model.enums.UserRole;
+import com.example.userservice.service.UserImportService;
 import com.example.userservice.service.UserService;
+import com.example.userservice.util.UserPage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -16,8 +20,12 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -28,6 +36,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserImportService userImportService;
+
     @InjectMocks
     private UserController userController;
 
@@ -74,6 +85,21 @@ class UserControllerTest {
                 .verify();
     }
 
+    // -----------------------
+    // importUsers
+    // -----------------------
+    @Test
+    void importUsers_streamsResultsOfImportService() {
+        Flux<String> ndjson = Flux.just("{}");
+        Flux<String> csv = Flux.just("username,email,password");
+        UserImportResult result = new UserImportResult(1, "alice", UserImportStatus.CREATED, UUID.randomUUID(), null);
+        when(userImportService.importNdjson(ndjson)).thenReturn(Flux.just(result));
+        when(userImportService.importCsv(csv)).thenReturn(Flux.empty());
+
+        StepVerifier.create(userController.importUsersNdjson(ndjson)).expectNext(result).verifyComplete();
+        StepVerifier.create(userController.importUsersCsv(csv)).verifyComplete();
+    }
+
     // -----------------------
     // getAllUsers
     // -----------------------
@@ -82,12 +108,29 @@ class UserControllerTest {
         UserDto u1 = sampleUserDto();
         UserDto u2 = sampleUserDto();
 
-        when(userService.findAll(0, 20))
-                .thenReturn(Flux.just(u1, u2));
+        when(userService.findPage(0, null, 20, false))
+                .thenReturn(Mono.just(new UserPage(List.of(u1, u2), "next", null)));
 
-        StepVerifier.create(userController.getAllUsers(0, 20))
-                .expectNext(u1)
-                .expectNext(u2)
+        StepVerifier.create(userController.getAllUsers(0, 20, null, false))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals(List.of(u1, u2), response.getBody());
+                    assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+                    assertFalse(response.getHeaders().containsKey("X-Total-Count"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllUsers_lastPageWithTotal() {
+        when(userService.findPage(0, "cursor", 20, true))
+                .thenReturn(Mono.just(new UserPage(List.of(), null, 7L)));
+
+        StepVerifier.create(userController.getAllUsers(0, 20, "cursor", true))
+                .assertNext(response -> {
+                    assertFalse(response.getHeaders().containsKey("X-Next-Cursor"));
+                    assertEquals("7", response.getHeaders().getFirst("X-Total-Count"));
+                })
                 .verifyComplete();
     }
 
@@ -202,8 +245,7 @@ class UserControllerTest {
     void userExists_true() {
         UUID id = UUID.randomUUID();
 
-        when(userService.findById(id))
-                .thenReturn(Mono.just(sampleUserDto()));
+        when(userService.exists(id)).thenReturn(Mono.just(true));
 
         StepVerifier.create(userController.userExists(id))
                 .expectNextMatches(r ->
@@ -212,12 +254,33 @@ class UserControllerTest {
                 .verifyComplete();
     }
 
+    @Test
+    void existingUsers_returnsExistingIds() {
+        UUID existing = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+
+        when(userService.findExistingIds(Set.of(existing, missing)))
+                .thenReturn(Flux.just(existing));
+
+        StepVerifier.create(userController.existingUsers(List.of(existing, missing, existing)))
+                .expectNext(List.of(existing))
+                .verifyComplete();
+    }
+
+    @Test
+    void existingUsers_tooManyIds_returnsBadRequest() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(1001).toList();
+
+        StepVerifier.create(userController.existingUsers(ids))
+                .expectError(BadRequestException.class)
+                .verify();
+    }
+
     @Test
     void userExists_false() {
         UUID id = UUID.randomUUID();
 
-        when(userService.findById(id))
-                .thenReturn(Mono.empty());
+        when(userService.exists(id)).thenReturn(Mono.just(false));
 
         StepVerifier.create(userController.userExists(id))
                 .expectNextMatches(r ->
@@ -232,10 +295,7 @@ class UserControllerTest {
     @Test
     void getUserRole_found() {
         UUID id = UUID.randomUUID();
-        UserDto dto = sampleUserDto();
-        dto.setRole(UserRole.ROLE_MANAGER);
-
-        when(userService.findById(id)).thenReturn(Mono.just(dto));
+        when(userService.findRole(id)).thenReturn(Mono.just(UserRole.ROLE_MANAGER));
 
         StepVerifier.create(userController.getUserRole(id))
                 .expectNextMatches(r ->
@@ -248,7 +308,7 @@ class UserControllerTest {
     void getUserRole_notFound() {
         UUID id = UUID.randomUUID();
 
-        when(userService.findById(id)).thenReturn(Mono.empty());
+        when(userService.findRole(id)).thenReturn(Mono.empty());
 
         StepVerifier.create(userController.getUserRole(id))
                 .expectNextMatches(r ->
@@ -76,7 +76,7 @@ public class UserIntegrationTest {
 
         // Ensure jwt secret visible to application under test
         registry.add("jwt.secret", () -> SECRET);
-        registry.add("jwt.expiration-ms", () -> 3600000);
+        registry.add("jwt.access-expiration-ms", () -> 3600000);
 
         // reduce noise
         registry.add("logging.level.org.springframework.r2dbc", () -> "DEBUG");
@@ -264,6 +264,35 @@ public class UserIntegrationTest {
                 .hasSize(2);
     }
 
+    @Test
+    void getAllUsers_withCursor_shouldWalkAllPagesWithoutDuplicates() {
+        String adminToken = generateToken(adminId, UserRole.ROLE_ADMIN.name());
+
+        var first = webTestClient.get()
+                .uri("/api/v1/users?size=2&includeTotal=true")
+                .headers(h -> h.setBearerAuth(adminToken))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Total-Count", "3")
+                .expectBodyList(UserDto.class)
+                .hasSize(2)
+                .returnResult();
+        String cursor = first.getResponseHeaders().getFirst("X-Next-Cursor");
+        assertThat(cursor).isNotNull();
+
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/v1/users").queryParam("size", 2).queryParam("cursor", cursor).build())
+                .headers(h -> h.setBearerAuth(adminToken))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Next-Cursor")
+                .expectBodyList(UserDto.class)
+                .hasSize(1)
+                .value(users -> assertThat(first.getResponseBody())
+                        .extracting(UserDto::getId)
+                        .doesNotContain(users.get(0).getId()));
+    }
+
     @Test
     void getUserById_shouldReturnUser() {
         String adminToken = generateToken(adminId, UserRole.ROLE_ADMIN.name());
@@ -0,0 +1,148 @@
+package com.example.userservice.service;
+
+import com.example.userservice.auth.JwtClaims;
+import com.example.userservice.auth.JwtKeys;
+import com.example.userservice.auth.JwtService;
+import com.example.userservice.auth.RevokedTokens;
+import com.example.userservice.exception.UnauthorizedException;
+import com.example.userservice.model.entity.RefreshToken;
+import com.example.userservice.model.entity.RevokedToken;
+import com.example.userservice.model.entity.User;
+import com.example.userservice.model.enums.UserRole;
+import com.example.userservice.repository.RefreshTokenRepository;
+import com.example.userservice.repository.RevokedTokenRepository;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    private static final String SECRET = "test-secret-very-long-string-at-least-32-bytes-123456";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final JwtService jwtService = new JwtService(JwtKeys.hmac(SECRET), 60_000);
+    private final RevokedTokens revokedTokens = new RevokedTokens();
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService(jwtService, userRepository, refreshTokenRepository,
+                revokedTokenRepository, revokedTokens, 3_600_000);
+        user = new User(UUID.randomUUID(), "alice", "alice@example.com", "hash", UserRole.ROLE_CLIENT, Instant.now());
+    }
+
+    @Test
+    void issue_storesOnlyHashOfRefreshToken() {
+        when(refreshTokenRepository.insert(any(), eq(user.getId()), any(), any(), any())).thenReturn(Mono.just(1));
+
+        StepVerifier.create(tokenService.issue(user))
+                .assertNext(response -> {
+                    assertEquals(60, response.getExpiresIn());
+                    assertTrue(jwtService.parse(response.getToken()).isPresent());
+                    ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+                    verify(refreshTokenRepository).insert(any(), eq(user.getId()), hash.capture(), any(), any());
+                    assertEquals(64, hash.getValue().length());
+                    assertNotEquals(response.getRefreshToken(), hash.getValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void refresh_rotatesTokenAndIssuesPairWithCurrentRole() {
+        RefreshToken stored = stored(null, Instant.now().plusSeconds(60));
+        user.setRole(UserRole.ROLE_MANAGER);
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Mono.just(stored));
+        when(refreshTokenRepository.revoke(eq(stored.getId()), any())).thenReturn(Mono.just(1));
+        when(userRepository.findById(user.getId())).thenReturn(Mono.just(user));
+        when(refreshTokenRepository.insert(any(), eq(user.getId()), any(), any(), any())).thenReturn(Mono.just(1));
+
+        StepVerifier.create(tokenService.refresh("refresh"))
+                .assertNext(response -> assertEquals("ROLE_MANAGER",
+                        jwtService.parse(response.getToken()).orElseThrow().role()))
+                .verifyComplete();
+    }
+
+    @Test
+    void refresh_reuseOfRotatedToken_revokesAllRefreshTokensOfUser() {
+        RefreshToken stored = stored(Instant.now().minusSeconds(5), Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Mono.just(stored));
+        when(refreshTokenRepository.revokeAllByUserId(eq(user.getId()), any())).thenReturn(Mono.just(2));
+
+        StepVerifier.create(tokenService.refresh("refresh"))
+                .expectError(UnauthorizedException.class)
+                .verify();
+
+        verify(refreshTokenRepository).revokeAllByUserId(eq(user.getId()), any());
+        verify(refreshTokenRepository, never()).insert(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void refresh_lostRotationRace_isUnauthorized() {
+        RefreshToken stored = stored(null, Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Mono.just(stored));
+        when(refreshTokenRepository.revoke(eq(stored.getId()), any())).thenReturn(Mono.just(0));
+
+        StepVerifier.create(tokenService.refresh("refresh"))
+                .expectError(UnauthorizedException.class)
+                .verify();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void logout_revokesAccessTokenInMemoryAndInDatabase() {
+        JwtClaims claims = jwtService.parse(jwtService.generateToken(user)).orElseThrow();
+        when(revokedTokenRepository.insert(eq(UUID.fromString(claims.tokenId())), eq(claims.expiresAt()), any()))
+                .thenReturn(Mono.just(1));
+
+        StepVerifier.create(tokenService.logout(claims, null)).verifyComplete();
+
+        assertTrue(revokedTokens.isRevoked(claims.tokenId()));
+    }
+
+    @Test
+    void syncRevocations_picksUpRevocationsOfOtherInstances() {
+        RevokedToken revoked = new RevokedToken(UUID.randomUUID(), Instant.now().plusSeconds(60), Instant.now());
+        when(revokedTokenRepository.findRevokedSince(any(), any())).thenReturn(Flux.just(revoked));
+
+        tokenService.syncRevocations();
+
+        assertTrue(revokedTokens.isRevoked(revoked.getJti().toString()));
+    }
+
+    private RefreshToken stored(Instant revokedAt, Instant expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId(UUID.randomUUID());
+        token.setUserId(user.getId());
+        token.setTokenHash("hash");
+        token.setCreatedAt(Instant.now().minusSeconds(60));
+        token.setExpiresAt(expiresAt);
+        token.setRevokedAt(revokedAt);
+        return token;
+    }
+}
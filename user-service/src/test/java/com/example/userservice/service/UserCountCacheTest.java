@@ -0,0 +1,32 @@
+package com.example.userservice.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class UserCountCacheTest {
+
+    @Test
+    void get_loadsOnceWithinTtl() {
+        UserCountCache cache = new UserCountCache(Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        Mono<Long> loader = Mono.fromCallable(() -> (long) loads.incrementAndGet());
+
+        StepVerifier.create(cache.get(loader)).expectNext(1L).verifyComplete();
+        StepVerifier.create(cache.get(loader)).expectNext(1L).verifyComplete();
+    }
+
+    @Test
+    void get_doesNotCacheErrors_andReloadsAfterTtl() {
+        UserCountCache cache = new UserCountCache(Duration.ZERO);
+
+        StepVerifier.create(cache.get(Mono.error(new IllegalStateException("db down"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(cache.get(Mono.just(5L))).expectNext(5L).verifyComplete();
+        StepVerifier.create(cache.get(Mono.just(6L))).expectNext(6L).verifyComplete();
+    }
+}
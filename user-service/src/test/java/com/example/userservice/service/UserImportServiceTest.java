@@ -0,0 +1,149 @@
+package com.example.userservice.service;
+
+import com.example.userservice.auth.PasswordHasher;
+import com.example.userservice.dto.UserImportResult;
+import com.example.userservice.exception.BadRequestException;
+import com.example.userservice.exception.ServiceUnavailableException;
+import com.example.userservice.model.entity.User;
+import com.example.userservice.model.enums.UserImportStatus;
+import com.example.userservice.repository.UserImportRepository;
+import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserImportRepository userImportRepository;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userRepository, userImportRepository, passwordHasher,
+                new UserRoleCache(Duration.ofSeconds(10)), Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), 3, 2);
+        lenient().when(passwordHasher.encode(any())).thenAnswer(inv -> Mono.just("hash:" + inv.getArgument(0)));
+        lenient().when(userRepository.findExistingUsernames(any())).thenReturn(Flux.empty());
+        lenient().when(userRepository.findExistingEmails(any())).thenReturn(Flux.empty());
+        lenient().when(userImportRepository.insertAll(anyList()))
+                .thenAnswer(inv -> Mono.just(Collections.nCopies(((List<?>) inv.getArgument(0)).size(), true)));
+    }
+
+    @Test
+    void importNdjson_reportsEveryRowInInputOrder() {
+        Flux<String> lines = Flux.just(
+                "{\"username\":\"alice\",\"email\":\"Alice@Example.com\",\"password\":\"Password123\"}",
+                "{\"username\":\"alice\",\"email\":\"alice2@example.com\",\"password\":\"Password123\"}",
+                "",
+                "{\"username\":\"bob\",\"email\":\"not-an-email\",\"password\":\"Password123\"}",
+                "{broken",
+                "{\"username\":\"carol\",\"email\":\"carol@example.com\",\"password\":\"Password123\"}");
+
+        List<UserImportResult> results = userImportService.importNdjson(lines).collectList().block();
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 6L), results.stream().map(UserImportResult::getLine).toList());
+        assertEquals(List.of(UserImportStatus.CREATED, UserImportStatus.CONFLICT, UserImportStatus.INVALID,
+                        UserImportStatus.INVALID, UserImportStatus.CREATED),
+                results.stream().map(UserImportResult::getStatus).toList());
+        assertNotNull(results.get(0).getUserId());
+        assertEquals("Duplicate username in import", results.get(1).getMessage());
+        assertEquals("email: must be a well-formed email address", results.get(2).getMessage());
+
+        // пачки по 3 непустые строки: (1, 2, 4) и (5, 6)
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userImportRepository, times(2)).insertAll(inserted.capture());
+        User alice = inserted.getAllValues().get(0).get(0);
+        assertEquals("alice@example.com", alice.getEmail());
+        assertEquals("hash:Password123", alice.getPasswordHash());
+    }
+
+    @Test
+    void importNdjson_checksUniquenessOncePerChunk() {
+        when(userRepository.findExistingUsernames(any())).thenReturn(Flux.just("alice"));
+        when(userRepository.findExistingEmails(any())).thenReturn(Flux.just("bob@example.com"));
+
+        StepVerifier.create(userImportService.importNdjson(Flux.just(
+                        json("alice", "alice@example.com"),
+                        json("bob", "bob@example.com"),
+                        json("carol", "carol@example.com"))))
+                .assertNext(r -> assertEquals("Username already in use", r.getMessage()))
+                .assertNext(r -> assertEquals("Email already in use", r.getMessage()))
+                .assertNext(r -> assertEquals(UserImportStatus.CREATED, r.getStatus()))
+                .verifyComplete();
+
+        verify(userRepository, times(1)).findExistingUsernames(any());
+        verify(passwordHasher, times(1)).encode(any());
+    }
+
+    @Test
+    void importNdjson_concurrentInsertAndHashingRejection_failOnlyTheirRows() {
+        when(passwordHasher.encode("Password-bob"))
+                .thenReturn(Mono.error(new ServiceUnavailableException("Too many concurrent authentication requests")));
+        when(userImportRepository.insertAll(anyList())).thenReturn(Mono.just(List.of(true, false)));
+
+        StepVerifier.create(userImportService.importNdjson(Flux.just(
+                        json("alice", "alice@example.com"),
+                        json("bob", "bob@example.com"),
+                        json("carol", "carol@example.com"))))
+                .assertNext(r -> assertEquals(UserImportStatus.CREATED, r.getStatus()))
+                .assertNext(r -> assertEquals(UserImportStatus.FAILED, r.getStatus()))
+                .assertNext(r -> assertEquals(UserImportStatus.CONFLICT, r.getStatus()))
+                .verifyComplete();
+    }
+
+    @Test
+    void importCsv_mapsColumnsByHeaderAndHandlesQuotes() {
+        Flux<String> lines = Flux.just(
+                "﻿Email,Username,Password",
+                "alice@example.com,alice,\"pass,word\"\"1\"",
+                "bob@example.com,bob,\"unterminated");
+
+        StepVerifier.create(userImportService.importCsv(lines))
+                .assertNext(r -> {
+                    assertEquals(2, r.getLine());
+                    assertEquals("alice", r.getUsername());
+                    assertEquals(UserImportStatus.CREATED, r.getStatus());
+                })
+                .assertNext(r -> assertEquals(UserImportStatus.INVALID, r.getStatus()))
+                .verifyComplete();
+
+        verify(passwordHasher).encode("pass,word\"1");
+    }
+
+    @Test
+    void importCsv_withoutRequiredColumns_isBadRequest() {
+        StepVerifier.create(userImportService.importCsv(Flux.just("username,email", "alice,alice@example.com")))
+                .expectError(BadRequestException.class)
+                .verify();
+    }
+
+    private static String json(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"Password-" + username + "\"}";
+    }
+}
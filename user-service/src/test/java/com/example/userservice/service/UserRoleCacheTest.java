@@ -0,0 +1,71 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserRoleCacheTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final UserRoleCache cache = new UserRoleCache(Duration.ofMillis(100), 2, now::get);
+
+    private void load(UUID userId) {
+        Mono<UserRole> loader = Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return UserRole.ROLE_CLIENT;
+        });
+        StepVerifier.create(cache.currentRole(userId, loader))
+                .expectNext(UserRole.ROLE_CLIENT)
+                .verifyComplete();
+    }
+
+    @Test
+    void currentRole_CachesUntilTtl() {
+        UUID userId = UUID.randomUUID();
+
+        load(userId);
+        now.set(50 * MILLIS);
+        load(userId);
+        now.set(150 * MILLIS);
+        load(userId);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void currentRole_FullCache_SweepsExpiredAtMostOncePerInterval() {
+        load(UUID.randomUUID());
+        load(UUID.randomUUID());
+
+        // Первый промах при полном кэше очищает истёкшие записи
+        now.set(200 * MILLIS);
+        load(UUID.randomUUID());
+        load(UUID.randomUUID());
+        assertEquals(2, cache.size());
+
+        // Записи истекли, но следующий проход разрешён только через секунду: новое значение не кэшируется
+        now.set(500 * MILLIS);
+        UUID userId = UUID.randomUUID();
+        load(userId);
+        load(userId);
+        assertEquals(2, cache.size());
+        assertEquals(6, loads.get());
+
+        now.set(1_300 * MILLIS);
+        load(userId);
+        load(userId);
+        assertEquals(1, cache.size());
+        assertEquals(7, loads.get());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.userservice.service;
 
+import com.example.userservice.auth.PasswordHasher;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.exception.*;
@@ -7,21 +8,26 @@ import com.example.userservice.feign.ApplicationServiceClient;
 import com.example.userservice.model.entity.User;
 import com.example.userservice.model.enums.UserRole;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.CursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,7 +44,16 @@ class UserServiceTest {
     private ApplicationServiceClient applicationServiceClient;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private UserCountCache userCountCache;
+
+    @Spy
+    private UserRoleCache userRoleCache = new UserRoleCache(Duration.ofSeconds(10));
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
 
     @InjectMocks
     private UserService userService;
@@ -46,9 +61,13 @@ class UserServiceTest {
     private final UUID testUserId = UUID.randomUUID();
     private final UUID actorAdminId = UUID.randomUUID();
 
+    private static final List<SimpleGrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority(UserRole.ROLE_ADMIN.name()));
+
     @BeforeEach
     void setUp() {
         // Mockito will inject mocks into userService because of @InjectMocks
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
     }
 
     // -----------------------
@@ -72,7 +91,7 @@ class UserServiceTest {
 
         when(userRepository.existsByUsername("alice")).thenReturn(Mono.just(false));
         when(userRepository.existsByEmail("alice@example.com")).thenReturn(Mono.just(false));
-        when(passwordEncoder.encode("StrongPass123")).thenReturn("encodedPassword");
+        when(passwordHasher.encode("StrongPass123")).thenReturn(Mono.just("encodedPassword"));
         when(userRepository.save(any(User.class))).thenReturn(Mono.just(savedUser));
 
         // Act & Assert
@@ -88,7 +107,7 @@ class UserServiceTest {
 
         verify(userRepository).existsByUsername("alice");
         verify(userRepository).existsByEmail("alice@example.com");
-        verify(passwordEncoder).encode("StrongPass123");
+        verify(passwordHasher).encode("StrongPass123");
         verify(userRepository).save(any(User.class));
     }
 
@@ -100,6 +119,7 @@ class UserServiceTest {
         req.setEmail("new@example.com");
         req.setPassword("pass123");
 
+        when(passwordHasher.encode("pass123")).thenReturn(Mono.just("encodedPassword"));
         when(userRepository.existsByUsername("existingUser")).thenReturn(Mono.just(true));
 
         // Act & Assert
@@ -122,6 +142,7 @@ class UserServiceTest {
         req.setEmail("existing@example.com");
         req.setPassword("pass123");
 
+        when(passwordHasher.encode("pass123")).thenReturn(Mono.just("encodedPassword"));
         when(userRepository.existsByUsername("newUser")).thenReturn(Mono.just(false));
         when(userRepository.existsByEmail("existing@example.com")).thenReturn(Mono.just(true));
 
@@ -137,6 +158,35 @@ class UserServiceTest {
         verify(userRepository, never()).save(any());
     }
 
+    @Test
+    void create_HashesPasswordBeforeOpeningTransaction() {
+        UserRequest req = new UserRequest();
+        req.setUsername("bob");
+        req.setEmail("bob@example.com");
+        req.setPassword("StrongPass123");
+        User saved = new User();
+        saved.setId(testUserId);
+        saved.setUsername("bob");
+        saved.setRole(UserRole.ROLE_CLIENT);
+        AtomicBoolean hashed = new AtomicBoolean();
+        AtomicBoolean hashedBeforeTransaction = new AtomicBoolean();
+        when(passwordHasher.encode("StrongPass123")).thenReturn(Mono.fromCallable(() -> {
+            hashed.set(true);
+            return "encodedPassword";
+        }));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> {
+            hashedBeforeTransaction.set(hashed.get());
+            return inv.getArgument(0);
+        });
+        when(userRepository.existsByUsername("bob")).thenReturn(Mono.just(false));
+        when(userRepository.existsByEmail("bob@example.com")).thenReturn(Mono.just(false));
+        when(userRepository.save(any(User.class))).thenReturn(Mono.just(saved));
+
+        StepVerifier.create(userService.create(req)).expectNextCount(1).verifyComplete();
+
+        assertTrue(hashedBeforeTransaction.get());
+    }
+
     @Test
     void create_NullRequest_ThrowsBadRequest() {
         StepVerifier.create(Mono.defer(() -> userService.create(null)))
@@ -163,43 +213,100 @@ class UserServiceTest {
     }
 
     // -----------------------
-    // findAll tests
+    // findPage tests
     // -----------------------
     @Test
-    void findAll_Success_ReturnsPaginatedUsers() {
+    void findPage_FirstPage_ReturnsUsersAndCursorOfLastRow() {
+        // Arrange
+        User user1 = user("user1", Instant.parse("2026-01-02T00:00:00Z"));
+        User user2 = user("user2", Instant.parse("2026-01-01T00:00:00Z"));
+        when(userRepository.findFirstPage(2)).thenReturn(Flux.just(user1, user2));
+
+        // Act & Assert
+        StepVerifier.create(userService.findPage(0, null, 2, false))
+                .assertNext(page -> {
+                    assertEquals(2, page.items().size());
+                    assertEquals(CursorUtil.encode(user2.getCreatedAt(), user2.getId()), page.nextCursor());
+                    assertNull(page.total());
+                })
+                .verifyComplete();
+
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void findPage_WithCursor_ContinuesAfterIt_AndLastPageHasNoCursor() {
+        // Arrange
+        UUID lastId = UUID.randomUUID();
+        Instant lastCreatedAt = Instant.parse("2026-01-01T00:00:00Z");
+        User older = user("older", lastCreatedAt.minusSeconds(60));
+        when(userRepository.findPageAfter(lastCreatedAt, lastId, 2)).thenReturn(Flux.just(older));
+
+        // Act & Assert
+        StepVerifier.create(userService.findPage(0, CursorUtil.encode(lastCreatedAt, lastId), 2, false))
+                .assertNext(page -> {
+                    assertEquals(1, page.items().size());
+                    assertEquals(older.getId(), page.items().get(0).getId());
+                    assertNull(page.nextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findPage_LegacyPageNumber_UsesSqlOffset() {
         // Arrange
-        User user1 = new User();
-        user1.setId(UUID.randomUUID());
-        user1.setUsername("user1");
-        user1.setEmail("user1@example.com");
-        user1.setRole(UserRole.ROLE_CLIENT);
+        when(userRepository.findPageAt(20, 60L)).thenReturn(Flux.empty());
 
-        User user2 = new User();
-        user2.setId(UUID.randomUUID());
-        user2.setUsername("user2");
-        user2.setEmail("user2@example.com");
-        user2.setRole(UserRole.ROLE_MANAGER);
+        // Act & Assert
+        StepVerifier.create(userService.findPage(3, null, 20, false))
+                .assertNext(page -> assertTrue(page.items().isEmpty()))
+                .verifyComplete();
+    }
 
-        when(userRepository.findAll()).thenReturn(Flux.just(user1, user2));
+    @Test
+    void findPage_IncludeTotal_UsesCachedCount() {
+        // Arrange
+        when(userRepository.findFirstPage(20)).thenReturn(Flux.empty());
+        when(userRepository.count()).thenReturn(Mono.just(3L));
+        when(userCountCache.get(any())).thenReturn(Mono.just(42L));
 
         // Act & Assert
-        StepVerifier.create(userService.findAll(0, 2))
-                .expectNextCount(2)
+        StepVerifier.create(userService.findPage(0, null, 20, true))
+                .assertNext(page -> assertEquals(42L, page.total()))
                 .verifyComplete();
+    }
+
+    @Test
+    void findPage_InvalidCursor_ThrowsBadRequest() {
+        // Act & Assert
+        StepVerifier.create(userService.findPage(0, "not-a-cursor", 20, false))
+                .expectError(BadRequestException.class)
+                .verify();
 
-        verify(userRepository).findAll();
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void findAll_SizeExceeds50_ThrowsBadRequest() {
+    void findPage_SizeExceeds50_ThrowsBadRequest() {
         // Act & Assert
-        StepVerifier.create(userService.findAll(0, 51))
+        StepVerifier.create(userService.findPage(0, null, 51, false))
                 .expectErrorMatches(throwable ->
                         throwable instanceof BadRequestException &&
                                 throwable.getMessage().contains("Page size cannot exceed 50"))
                 .verify();
 
-        verify(userRepository, never()).findAll();
+        verifyNoInteractions(userRepository);
+    }
+
+    private static User user(String username, Instant createdAt) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setRole(UserRole.ROLE_CLIENT);
+        user.setCreatedAt(createdAt);
+        return user;
     }
 
     // -----------------------
@@ -231,6 +338,51 @@ class UserServiceTest {
         verify(userRepository).findById(testUserId);
     }
 
+    @Test
+    void findExistingIds_ReturnsIdsOfFoundUsers() {
+        // Arrange
+        List<UUID> ids = List.of(testUserId, UUID.randomUUID());
+        when(userRepository.findExistingIds(ids)).thenReturn(Flux.just(testUserId));
+
+        // Act & Assert
+        StepVerifier.create(userService.findExistingIds(ids))
+                .expectNext(testUserId)
+                .verifyComplete();
+    }
+
+    @Test
+    void findRole_ReadsRoleColumnOnce_AndCachesIt() {
+        // Arrange
+        when(userRepository.findRoleById(testUserId)).thenReturn(Mono.just("ROLE_MANAGER"));
+
+        // Act & Assert
+        StepVerifier.create(userService.findRole(testUserId)).expectNext(UserRole.ROLE_MANAGER).verifyComplete();
+        StepVerifier.create(userService.exists(testUserId)).expectNext(true).verifyComplete();
+
+        verify(userRepository, times(1)).findRoleById(testUserId);
+        verify(userRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void exists_MissingUser_ReturnsFalseWithoutError() {
+        // Arrange
+        when(userRepository.findRoleById(testUserId)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(userService.exists(testUserId)).expectNext(false).verifyComplete();
+        StepVerifier.create(userService.findRole(testUserId)).verifyComplete();
+
+        verify(userRepository, times(1)).findRoleById(testUserId);
+    }
+
+    @Test
+    void findExistingIds_EmptyInput_DoesNotQuery() {
+        StepVerifier.create(userService.findExistingIds(List.of()))
+                .verifyComplete();
+
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void findById_UserNotFound_ThrowsNotFound() {
         // Arrange
@@ -278,14 +430,14 @@ class UserServiceTest {
         req.setPassword("newPass123");
 
         // mock repository and encoder
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
         when(userRepository.findById(testUserId)).thenReturn(Mono.just(existingUser));
-        when(passwordEncoder.encode("newPass123")).thenReturn("newHash");
+        when(passwordHasher.encode("newPass123")).thenReturn(Mono.just("newHash"));
         when(userRepository.save(any(User.class))).thenReturn(Mono.just(updatedUser));
 
         // mock security context to simulate authenticated admin
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -301,9 +453,9 @@ class UserServiceTest {
                     })
                     .verifyComplete();
 
-            verify(userRepository).findById(actorAdminId);
+            verify(userRepository).findRoleById(actorAdminId);
             verify(userRepository).findById(testUserId);
-            verify(passwordEncoder).encode("newPass123");
+            verify(passwordHasher).encode("newPass123");
             verify(userRepository).save(any(User.class));
         }
     }
@@ -315,14 +467,14 @@ class UserServiceTest {
         admin.setId(actorAdminId);
         admin.setRole(UserRole.ROLE_ADMIN);
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
         when(userRepository.findById(testUserId)).thenReturn(Mono.empty());
 
         UserRequest req = new UserRequest();
         req.setUsername("new");
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -335,7 +487,7 @@ class UserServiceTest {
                                     throwable.getMessage().contains("User not found"))
                     .verify();
 
-            verify(userRepository).findById(actorAdminId);
+            verify(userRepository).findRoleById(actorAdminId);
             verify(userRepository).findById(testUserId);
             verify(userRepository, never()).save(any());
         }
@@ -352,11 +504,10 @@ class UserServiceTest {
         testUser.setId(testUserId);
         testUser.setRole(UserRole.ROLE_CLIENT);
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(nonAdmin));
-        when(userRepository.findById(testUserId)).thenReturn(Mono.just(testUser));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(nonAdmin.getRole().name()));
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -369,7 +520,8 @@ class UserServiceTest {
                                     throwable.getMessage().contains("Only ADMIN can perform this action"))
                     .verify();
 
-            verify(userRepository).findById(actorAdminId);
+            verify(userRepository).findRoleById(actorAdminId);
+            verify(userRepository, never()).findById(testUserId);
         }
     }
 
@@ -387,7 +539,7 @@ class UserServiceTest {
         userToDelete.setId(testUserId);
         userToDelete.setUsername("toDelete");
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
         when(userRepository.findById(testUserId)).thenReturn(Mono.just(userToDelete));
 
         // applicationServiceClient.deleteApplicationsByUserId is void -> doNothing
@@ -395,7 +547,7 @@ class UserServiceTest {
         when(userRepository.delete(userToDelete)).thenReturn(Mono.empty());
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -421,7 +573,7 @@ class UserServiceTest {
         userToDelete.setId(testUserId);
         userToDelete.setUsername("toDelete");
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
         when(userRepository.findById(testUserId)).thenReturn(Mono.just(userToDelete));
 
         // Feign клиент бросает исключение
@@ -431,7 +583,7 @@ class UserServiceTest {
         when(userRepository.delete(userToDelete)).thenReturn(Mono.empty());
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -448,6 +600,35 @@ class UserServiceTest {
         }
     }
 
+    @Test
+    void delete_ExistsCheckBetweenDeleteAndCommit_DoesNotCacheDeletedUser() {
+        User userToDelete = new User();
+        userToDelete.setId(testUserId);
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just("ROLE_ADMIN"));
+        // До коммита строка ещё видна другим транзакциям
+        when(userRepository.findRoleById(testUserId)).thenReturn(Mono.just("ROLE_CLIENT"), Mono.empty());
+        when(userRepository.findById(testUserId)).thenReturn(Mono.just(userToDelete));
+        when(userRepository.delete(userToDelete)).thenReturn(Mono.empty());
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> {
+            Mono<?> body = invocation.getArgument(0);
+            return body.then(userService.exists(testUserId)).then();
+        });
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
+        SecurityContextImpl secCtx = new SecurityContextImpl(auth);
+
+        try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
+            mockedSec.when(ReactiveSecurityContextHolder::getContext).thenReturn(Mono.just(secCtx));
+
+            StepVerifier.create(userService.delete(testUserId)).verifyComplete();
+        }
+
+        StepVerifier.create(userService.exists(testUserId))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
     // -----------------------
     // promoteToManager tests
     // -----------------------
@@ -466,12 +647,12 @@ class UserServiceTest {
         promotedUser.setId(testUserId);
         promotedUser.setRole(UserRole.ROLE_MANAGER);
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
         when(userRepository.findById(testUserId)).thenReturn(Mono.just(client));
         when(userRepository.save(any(User.class))).thenReturn(Mono.just(promotedUser));
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -497,11 +678,11 @@ class UserServiceTest {
         manager.setId(testUserId);
         manager.setRole(UserRole.ROLE_MANAGER);
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
         when(userRepository.findById(testUserId)).thenReturn(Mono.just(manager));
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -533,12 +714,12 @@ class UserServiceTest {
         demotedUser.setId(testUserId);
         demotedUser.setRole(UserRole.ROLE_CLIENT);
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
         when(userRepository.findById(testUserId)).thenReturn(Mono.just(manager));
         when(userRepository.save(any(User.class))).thenReturn(Mono.just(demotedUser));
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -564,11 +745,11 @@ class UserServiceTest {
         client.setId(testUserId);
         client.setRole(UserRole.ROLE_CLIENT);
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
         when(userRepository.findById(testUserId)).thenReturn(Mono.just(client));
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -603,16 +784,16 @@ class UserServiceTest {
     // validateAdmin tests (service's validateAdmin reads ReactiveSecurityContextHolder)
     // -----------------------
     @Test
-    void validateAdmin_AdminExists_ReturnsAdmin() {
+    void validateAdmin_AdminExists_ReturnsActorId_AndCachesRole() {
         // Arrange
         User admin = new User();
         admin.setId(actorAdminId);
         admin.setRole(UserRole.ROLE_ADMIN);
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(admin.getRole().name()));
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -620,9 +801,86 @@ class UserServiceTest {
 
             // Act & Assert
             StepVerifier.create(userService.validateAdmin())
-                    .expectNext(admin)
+                    .expectNext(actorAdminId)
+                    .verifyComplete();
+            StepVerifier.create(userService.validateAdmin())
+                    .expectNext(actorAdminId)
                     .verifyComplete();
         }
+
+        // Второй вызов обслужен из кэша ролей
+        verify(userRepository, times(1)).findRoleById(actorAdminId);
+    }
+
+    @Test
+    void validateAdmin_TokenWithoutAdminRole_ThrowsForbiddenWithoutDbLookup() {
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                actorAdminId.toString(), null, List.of(new SimpleGrantedAuthority(UserRole.ROLE_CLIENT.name())));
+        SecurityContextImpl secCtx = new SecurityContextImpl(auth);
+
+        try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
+            mockedSec.when(ReactiveSecurityContextHolder::getContext).thenReturn(Mono.just(secCtx));
+
+            StepVerifier.create(userService.validateAdmin())
+                    .expectError(ForbiddenException.class)
+                    .verify();
+        }
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void validateAdmin_AdminDemotedThroughThisService_IsRejectedImmediately() {
+        User admin = new User();
+        admin.setId(actorAdminId);
+        admin.setRole(UserRole.ROLE_ADMIN);
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just("ROLE_ADMIN"), Mono.just("ROLE_CLIENT"));
+        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
+        SecurityContextImpl secCtx = new SecurityContextImpl(auth);
+
+        try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
+            mockedSec.when(ReactiveSecurityContextHolder::getContext).thenReturn(Mono.just(secCtx));
+
+            // Токен всё ещё содержит ROLE_ADMIN, но после понижения кэш роли сброшен
+            StepVerifier.create(userService.demoteToClient(actorAdminId)).verifyComplete();
+            StepVerifier.create(userService.validateAdmin())
+                    .expectError(ForbiddenException.class)
+                    .verify();
+        }
+    }
+
+    @Test
+    void demoteToClient_LoadBetweenSaveAndCommit_DoesNotCacheOldRole() {
+        User admin = new User();
+        admin.setId(testUserId);
+        admin.setRole(UserRole.ROLE_ADMIN);
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just("ROLE_ADMIN"));
+        // До коммита параллельное чтение видит старую роль, после — новую
+        when(userRepository.findRoleById(testUserId)).thenReturn(Mono.just("ROLE_ADMIN"), Mono.just("ROLE_CLIENT"));
+        when(userRepository.findById(testUserId)).thenReturn(Mono.just(admin));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> {
+            Mono<?> body = invocation.getArgument(0);
+            return body.then(userService.findRole(testUserId)).then();
+        });
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
+        SecurityContextImpl secCtx = new SecurityContextImpl(auth);
+
+        try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
+            mockedSec.when(ReactiveSecurityContextHolder::getContext).thenReturn(Mono.just(secCtx));
+
+            StepVerifier.create(userService.demoteToClient(testUserId)).verifyComplete();
+        }
+
+        StepVerifier.create(userService.findRole(testUserId))
+                .expectNext(UserRole.ROLE_CLIENT)
+                .verifyComplete();
     }
 
     @Test
@@ -632,10 +890,10 @@ class UserServiceTest {
         client.setId(actorAdminId);
         client.setRole(UserRole.ROLE_CLIENT);
 
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(client));
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.just(client.getRole().name()));
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {
@@ -653,10 +911,10 @@ class UserServiceTest {
     @Test
     void validateAdmin_UserNotFound_ThrowsNotFound() {
         // Arrange
-        when(userRepository.findById(actorAdminId)).thenReturn(Mono.empty());
+        when(userRepository.findRoleById(actorAdminId)).thenReturn(Mono.empty());
 
         UsernamePasswordAuthenticationToken auth =
-                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null);
+                new UsernamePasswordAuthenticationToken(actorAdminId.toString(), null, ADMIN_AUTHORITIES);
         SecurityContextImpl secCtx = new SecurityContextImpl(auth);
 
         try (MockedStatic<ReactiveSecurityContextHolder> mockedSec = Mockito.mockStatic(ReactiveSecurityContextHolder.class)) {